@@ -0,0 +1,112 @@
+package org.testcompany.customerrewards.converter;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.dto.GetCustomerRewardsPointsResponse;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks of the JSON and CustomerRewardsBinaryCodec encodings of a MONTH
+ * GetCustomerRewardsPointsResponse with 1, 12 and 240 monthly points, one month in ten
+ * without points. The encoded sizes are reported as the 'jsonBytes' and 'binaryBytes'
+ * secondary results of the encode benchmarks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class CustomerRewardsEncodingBenchmark {
+
+    @Param({"1", "12", "240"})
+    private int months;
+
+    private ObjectWriter jsonWriter;
+    private ObjectReader jsonReader;
+    private GetCustomerRewardsPointsResponse response;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setup() {
+        var jsonMapper = JsonMapper.builder().build();
+        jsonWriter = jsonMapper.writerFor(GetCustomerRewardsPointsResponse.class);
+        jsonReader = jsonMapper.readerFor(GetCustomerRewardsPointsResponse.class);
+        var random = new Random(42);
+        var monthlyPointsList = new ArrayList<GetCustomerRewardsPointsResponse.CustomerRewards.MonthlyPoints>();
+        var totalPoints = 0;
+        for (int i = 0; i < months; i++) {
+            var epochMonth = 2026 * 12 - months + i;
+            var points = random.nextInt(10) == 0 ? 0 : random.nextInt(1, 2_000);
+            monthlyPointsList.add(new GetCustomerRewardsPointsResponse.CustomerRewards.MonthlyPoints(points,
+                    epochMonth % 12 + 1, epochMonth / 12));
+            totalPoints += points;
+        }
+        response = new GetCustomerRewardsPointsResponse(10_000_042L,
+                new GetCustomerRewardsPointsResponse.CustomerPersonalInfo("Test Name 10000042", "100-004-2000"),
+                new GetCustomerRewardsPointsResponse.CustomerRewards("Customer Rewards Points per month",
+                        RewardsPeriodType.MONTH, List.copyOf(monthlyPointsList), null, totalPoints,
+                        new BigDecimal("123456.78")));
+        jsonBytes = jsonWriter.writeValueAsBytes(response);
+        binaryBytes = CustomerRewardsBinaryCodec.encode(response);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode(EncodedSizes encodedSizes) {
+        return jsonWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode(EncodedSizes encodedSizes) {
+        return CustomerRewardsBinaryCodec.encode(response);
+    }
+
+    @Benchmark
+    public GetCustomerRewardsPointsResponse jsonDecode() {
+        return jsonReader.readValue(jsonBytes);
+    }
+
+    @Benchmark
+    public GetCustomerRewardsPointsResponse binaryDecode() {
+        return CustomerRewardsBinaryCodec.decode(binaryBytes);
+    }
+
+    /**
+     * Encoded sizes of the response. JMH clears the counters before each iteration, so
+     * they are set when it ends.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EncodedSizes {
+        public long jsonBytes;
+        public long binaryBytes;
+
+        @TearDown(Level.Iteration)
+        public void record(CustomerRewardsEncodingBenchmark benchmark) {
+            jsonBytes = benchmark.jsonBytes.length;
+            binaryBytes = benchmark.binaryBytes.length;
+        }
+    }
+}
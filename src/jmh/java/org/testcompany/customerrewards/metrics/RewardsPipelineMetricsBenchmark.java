@@ -0,0 +1,78 @@
+package org.testcompany.customerrewards.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks of the RewardsPipelineMetrics calls of a rewards points request with
+ * the stage metrics enabled and disabled:
+ * <ul>
+ *     <li>stage: one start() and record() pair</li>
+ *     <li>request: the calls of a rewards cache miss, i.e. the customer lookup, order
+ *     query, calculation and conversion stages, the orders scanned and the start of
+ *     the serialization stage</li>
+ *     <li>baseline: an empty benchmark, the cost of the benchmark loop itself</li>
+ * </ul>
+ * The serialization is only started within a request, so it returns right away here.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class RewardsPipelineMetricsBenchmark {
+
+    private static final RewardsPipelineMetrics.Stage[] STAGES = {
+            RewardsPipelineMetrics.Stage.CUSTOMER_LOOKUP,
+            RewardsPipelineMetrics.Stage.ORDER_QUERY,
+            RewardsPipelineMetrics.Stage.CALCULATION,
+            RewardsPipelineMetrics.Stage.CONVERSION
+    };
+
+    @Param({"false", "true"})
+    private boolean enabled;
+    private int rewardsPeriod = 3;
+    private RewardsPipelineMetrics rewardsPipelineMetrics;
+
+    @Setup
+    public void setup() {
+        rewardsPipelineMetrics = new RewardsPipelineMetrics(new SimpleMeterRegistry(), enabled);
+    }
+
+    @Benchmark
+    public void baseline() {
+    }
+
+    @Benchmark
+    public void stage() {
+        var startNanos = rewardsPipelineMetrics.start();
+        rewardsPipelineMetrics.record(RewardsPipelineMetrics.Stage.CALCULATION, RewardsPeriodType.MONTH,
+                rewardsPeriod, startNanos);
+    }
+
+    @Benchmark
+    public void request() {
+        for (var stage: STAGES) {
+            var startNanos = rewardsPipelineMetrics.start();
+            rewardsPipelineMetrics.record(stage, RewardsPeriodType.MONTH, rewardsPeriod, startNanos);
+        }
+        if (rewardsPipelineMetrics.isEnabled()) {
+            rewardsPipelineMetrics.recordOrdersScanned(RewardsPeriodType.MONTH, rewardsPeriod, 4);
+        }
+        rewardsPipelineMetrics.startSerialization(RewardsPeriodType.MONTH, rewardsPeriod);
+    }
+}
@@ -0,0 +1,129 @@
+package org.testcompany.customerrewards.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks of CustomerRewardsUtil.calculateMonthlyCustomerRewardsPoints. The
+ * calculation runs its stages in a single pass over the orders; each stage benchmark
+ * repeats one of them on its own:
+ * <ul>
+ *     <li>filter: transaction date to epoch day and rewards period check</li>
+ *     <li>groupByMonth: epoch day to month bucket of the orders within the period</li>
+ *     <li>pointsLoop: amount to cents and points of every order</li>
+ *     <li>getTotalAmount: BigDecimal total, used for amounts with more than 2 decimals</li>
+ * </ul>
+ * Orders are spread over the rewards period plus one month on each side, so about a
+ * fraction of them is filtered out. Run with the GC profiler (default of the jmh profile)
+ * to get allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+@State(Scope.Benchmark)
+public class CustomerRewardsUtilBenchmark {
+
+    private static final LocalDate CURRENT_DATE = LocalDate.of(2026, 1, 15);
+
+    @Param({"10", "1000", "100000"})
+    private int orderCount;
+    @Param({"1", "12", "240"})
+    private int rewardsPeriodInMonths;
+
+    private List<PurchaseOrder> orders;
+    private RewardsPeriod rewardsPeriod;
+    private int startEpochDay;
+    private int endEpochDay;
+    private int startEpochMonth;
+    private int monthCount;
+    private int[] epochDays;
+
+    @Setup
+    public void setup() {
+        rewardsPeriod = RewardsPeriod.ofMonths(CURRENT_DATE, rewardsPeriodInMonths);
+        startEpochDay = Math.toIntExact(rewardsPeriod.startDate().toEpochDay());
+        endEpochDay = Math.toIntExact(rewardsPeriod.endDate().toEpochDay());
+        startEpochMonth = RewardsPointsEngine.toEpochMonth(startEpochDay);
+        monthCount = RewardsPointsEngine.getMonthCount(startEpochDay, endEpochDay);
+
+        var random = new Random(42);
+        var customer = new Customer(1L, "Test Name 1", "100-000-0001");
+        var earliestDate = rewardsPeriod.startDate().minusMonths(1);
+        var days = rewardsPeriod.endDate().plusMonths(1).toEpochDay() - earliestDate.toEpochDay();
+        orders = new ArrayList<>(orderCount);
+        epochDays = new int[orderCount];
+        for (int i = 0; i < orderCount; i++) {
+            var transactionDate = earliestDate.atStartOfDay().toInstant(ZoneOffset.UTC)
+                    .plusSeconds(random.nextLong(days * 86_400L));
+            orders.add(new PurchaseOrder((long) i, customer,
+                    BigDecimal.valueOf(random.nextInt(500_00), 2), transactionDate));
+            epochDays[i] = RewardsPointsEngine.toEpochDay(transactionDate);
+        }
+    }
+
+    @Benchmark
+    public CustomerRewardsDetails fullCalculation() {
+        return CustomerRewardsUtil.calculateMonthlyCustomerRewardsPoints(1L, orders, rewardsPeriod);
+    }
+
+    @Benchmark
+    public int filter() {
+        int ordersInPeriod = 0;
+        for (var order: orders) {
+            var epochDay = RewardsPointsEngine.toEpochDay(order.getTransactionDate());
+            if (epochDay >= startEpochDay && epochDay < endEpochDay) {
+                ordersInPeriod++;
+            }
+        }
+        return ordersInPeriod;
+    }
+
+    @Benchmark
+    public int[] groupByMonth() {
+        var monthlyOrderCounts = new int[monthCount];
+        for (var epochDay: epochDays) {
+            if (epochDay >= startEpochDay && epochDay < endEpochDay) {
+                monthlyOrderCounts[RewardsPointsEngine.toEpochMonth(epochDay) - startEpochMonth]++;
+            }
+        }
+        return monthlyOrderCounts;
+    }
+
+    @Benchmark
+    public long pointsLoop() {
+        long points = 0;
+        for (var order: orders) {
+            points += RewardsPointsEngine.calculatePoints(
+                    RewardsPointsEngine.toCents(order.getTransactionAmount()));
+        }
+        return points;
+    }
+
+    @Benchmark
+    public BigDecimal getTotalAmount() {
+        return CustomerRewardsUtil.getTotalAmount(orders, startEpochDay, endEpochDay);
+    }
+}
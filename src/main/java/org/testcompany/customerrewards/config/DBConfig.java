@@ -1,6 +1,8 @@
 package org.testcompany.customerrewards.config;
 
 import org.h2.tools.Server;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,8 +12,10 @@ import java.sql.SQLException;
 public class DBConfig {
 
     @Bean(initMethod = "start", destroyMethod = "stop")
-    public Server createH2DBServer() throws SQLException {
+    @ConditionalOnProperty(name = "customer-rewards.h2.tcp-server.enabled", matchIfMissing = true)
+    public Server createH2DBServer(
+            @Value("${customer-rewards.h2.tcp-server.port:8043}") String tcpPort) throws SQLException {
         return Server.createTcpServer(
-                "-tcp", "-tcpAllowOthers", "-tcpPort", "8043");
+                "-tcp", "-tcpAllowOthers", "-tcpPort", tcpPort);
     }
 }
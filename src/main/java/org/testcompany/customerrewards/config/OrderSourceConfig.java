@@ -0,0 +1,32 @@
+package org.testcompany.customerrewards.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.testcompany.customerrewards.repository.OrderLogRepository;
+import org.testcompany.customerrewards.services.InMemoryOrderStore;
+import org.testcompany.customerrewards.services.OrderSource;
+import org.testcompany.customerrewards.services.OrderStorageSource;
+import org.testcompany.customerrewards.services.RewardsLedgerService;
+
+@Configuration
+public class OrderSourceConfig {
+
+    /**
+     * Order source of the rewards points calculation: the order log when it is enabled,
+     * as the in-memory order store and the rewards ledger are loaded from PURCHASE_ORDER,
+     * then the in-memory order store when it is enabled, the rewards ledger otherwise.
+     */
+    @Bean
+    @Primary
+    public OrderSource orderSource(RewardsLedgerService rewardsLedgerService,
+                                   InMemoryOrderStore inMemoryOrderStore,
+                                   ObjectProvider<OrderLogRepository> orderLogRepository) {
+        var orderLog = orderLogRepository.getIfAvailable();
+        if (orderLog != null) {
+            return new OrderStorageSource(orderLog);
+        }
+        return inMemoryOrderStore.isEnabled() ? inMemoryOrderStore : rewardsLedgerService;
+    }
+}
@@ -0,0 +1,25 @@
+package org.testcompany.customerrewards.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.testcompany.customerrewards.repository.OrderLogRepository;
+import org.testcompany.customerrewards.repository.OrderRepository;
+import org.testcompany.customerrewards.repository.OrderStorage;
+
+@Configuration
+public class OrderStorageConfig {
+
+    /**
+     * Order storage of the order services: the order log when 'customer-rewards.order-log.enabled'
+     * creates OrderLogRepository, PURCHASE_ORDER otherwise.
+     */
+    @Bean
+    @Primary
+    public OrderStorage orderStorage(OrderRepository orderRepository,
+                                     ObjectProvider<OrderLogRepository> orderLogRepository) {
+        var orderLog = orderLogRepository.getIfAvailable();
+        return orderLog != null ? orderLog : orderRepository;
+    }
+}
@@ -0,0 +1,69 @@
+package org.testcompany.customerrewards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes read-only transactions to a read replica pool when
+ * 'customer-rewards.datasource.replica.url' is set; every other connection, i.e. writes
+ * and reads outside of a read-only transaction, goes to the primary pool of
+ * 'spring.datasource.*'. The routing proxy hands out connections lazily: the target is
+ * picked on the first statement, once the transaction manager has marked the connection
+ * read-only.
+ * <p>
+ * Pools are tuned with 'spring.datasource.hikari.*' and
+ * 'customer-rewards.datasource.replica.hikari.*', including driver settings such as the
+ * H2 statement cache (QUERY_CACHE_SIZE) under 'data-source-properties'.
+ * <p>
+ * The replica may lag behind the primary by up to
+ * 'customer-rewards.datasource.replica.max-lag': points of customers written within it
+ * are recalculated on the primary, see CustomerRewardsServiceImpl.
+ */
+@Configuration
+@ConditionalOnProperty(name = "customer-rewards.datasource.replica.url")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        var dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("customer-rewards.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${customer-rewards.datasource.replica.url}") String url,
+            @Value("${customer-rewards.datasource.replica.username:sa}") String username,
+            @Value("${customer-rewards.datasource.replica.password:}") String password) {
+        var dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        var dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,13 @@
+package org.testcompany.customerrewards.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled jobs, e.g. the nightly rewards statement, each only scheduled when
+ * its cron property is set.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
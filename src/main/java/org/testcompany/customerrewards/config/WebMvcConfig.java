@@ -0,0 +1,20 @@
+package org.testcompany.customerrewards.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.testcompany.customerrewards.converter.CustomerRewardsBinaryMessageConverter;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    /**
+     * Appends the binary rewards points converter: converters registered before the JSON
+     * one would be chosen for requests accepting any media type.
+     */
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.configureMessageConvertersList(converters ->
+                converters.add(new CustomerRewardsBinaryMessageConverter()));
+    }
+}
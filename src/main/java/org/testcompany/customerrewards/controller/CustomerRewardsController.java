@@ -1,26 +1,54 @@
 package org.testcompany.customerrewards.controller;
 
 import jakarta.annotation.Nonnull;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 
 import org.testcompany.customerrewards.converter.CustomerRewardsConverter;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
 import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.dto.Error;
+import org.testcompany.customerrewards.dto.GetCustomerRewardsPointsBatchRequest;
+import org.testcompany.customerrewards.dto.GetCustomerRewardsPointsBatchResponse;
 import org.testcompany.customerrewards.dto.GetCustomerRewardsPointsResponse;
+import org.testcompany.customerrewards.dto.GetRewardsLeaderboardResponse;
+import org.testcompany.customerrewards.exceptions.CustomerRewardsValidationException;
+import org.testcompany.customerrewards.metrics.RewardsPipelineMetrics;
+import org.testcompany.customerrewards.services.CustomerRewardsExportService;
 import org.testcompany.customerrewards.services.CustomerRewardsService;
+import org.testcompany.customerrewards.services.CustomerRewardsVersionService;
+import org.testcompany.customerrewards.services.RewardsLeaderboardService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.core.exc.JacksonIOException;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.SerializationFeature;
 
+import java.util.LinkedHashSet;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 
 @RestController
@@ -29,35 +57,188 @@ import java.util.Optional;
 public class CustomerRewardsController {
     private static final Logger logger =
             LoggerFactory.getLogger(CustomerRewardsController.class);
+    private static final int DEFAULT_REWARDS_PERIOD = 3;
+    private static final int DEFAULT_LEADERBOARD_SIZE = 100;
     private final CustomerRewardsService customerRewardsService;
+    private final CustomerRewardsVersionService customerRewardsVersionService;
     private final CustomerRewardsConverter customerRewardsConverter;
+    private final CustomerRewardsExportService customerRewardsExportService;
+    private final RewardsLeaderboardService rewardsLeaderboardService;
+    private final RewardsPipelineMetrics rewardsPipelineMetrics;
+    private final ObjectWriter exportWriter;
+    private final int batchMaxCustomers;
 
     public CustomerRewardsController(
-            CustomerRewardsService customerRewardsService, CustomerRewardsConverter customerRewardsConverter) {
+            CustomerRewardsService customerRewardsService, CustomerRewardsVersionService customerRewardsVersionService,
+            CustomerRewardsConverter customerRewardsConverter,
+            CustomerRewardsExportService customerRewardsExportService,
+            RewardsLeaderboardService rewardsLeaderboardService,
+            RewardsPipelineMetrics rewardsPipelineMetrics, ObjectMapper objectMapper,
+            @Value("${customer-rewards.batch.max-customers:500}") int batchMaxCustomers) {
         this.customerRewardsService = customerRewardsService;
+        this.customerRewardsVersionService = customerRewardsVersionService;
         this.customerRewardsConverter = customerRewardsConverter;
+        this.customerRewardsExportService = customerRewardsExportService;
+        this.rewardsLeaderboardService = rewardsLeaderboardService;
+        this.rewardsPipelineMetrics = rewardsPipelineMetrics;
+        // one record per line: no separator between root values, no flush after each of them
+        this.exportWriter = objectMapper.writerFor(GetCustomerRewardsPointsResponse.class)
+                .withRootValueSeparator((String) null)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+        this.batchMaxCustomers = batchMaxCustomers;
     }
 
+    /**
+     * Returns the customer's rewards points with an ETag, or 304 Not Modified without
+     * calculating them when the request's If-None-Match matches it. The ETag comes from
+     * the version cached with the points, so a cached response is validated without a
+     * database read, or else from the index-only order watermark query. The points are
+     * JSON, or CustomerRewardsBinaryCodec for an Accept of 'application/x-customer-rewards'.
+     */
     @GetMapping("/points/{customerId}")
     public ResponseEntity<GetCustomerRewardsPointsResponse> getCustomerRewardsPoints(
             @PathVariable
             Long customerId,
             @RequestParam(value = "rewardsPeriodType", required = false)
             RewardsPeriodType rewardsPeriodType,
-            @RequestParam(value = "rewardsPeriod", defaultValue = "3")
+            @RequestParam(value = "rewardsPeriod", defaultValue = "" + DEFAULT_REWARDS_PERIOD)
             @Min(value = 1, message = "Minimum rewards period required is 1")
             @Max(value = 240, message = "Maximum rewards period supported is 240")
-            Integer rewardsPeriod) {
-        logger.info("Calculating customer rewards points for customer id: {}", customerId);
+            Integer rewardsPeriod,
+            WebRequest webRequest,
+            HttpServletResponse response) {
         rewardsPeriodType = Optional.ofNullable(rewardsPeriodType)
                 .orElse(RewardsPeriodType.MONTH);
+        // set before the check, so a 304 carries them like the 200; cached responses are
+        // revalidated with the ETag on every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null && webRequest.checkNotModified(toETag(
+                customerRewardsService.getCustomerRewardsETag(customerId, rewardsPeriodType, rewardsPeriod)))) {
+            logger.info("Customer rewards points not modified for customer id: {}", customerId);
+            return null;
+        }
+        logger.info("Calculating customer rewards points for customer id: {}", customerId);
         var customerRewardsDetails =
                 customerRewardsService.calculateCustomerRewardsPoints(
                         customerId,
                         rewardsPeriodType,
                         rewardsPeriod);
+        // of the calculated points, which may include an order written after the check
+        var eTag = toETag(customerRewardsVersionService.getCustomerRewardsETag(customerRewardsDetails));
+        var startNanos = rewardsPipelineMetrics.start();
         var customerRewardsPointsResponse =
                 customerRewardsConverter.convert(customerRewardsDetails);
-        return ResponseEntity.ok(customerRewardsPointsResponse);
+        rewardsPipelineMetrics.record(RewardsPipelineMetrics.Stage.CONVERSION, rewardsPeriodType,
+                rewardsPeriod, startNanos);
+        rewardsPipelineMetrics.startSerialization(rewardsPeriodType, rewardsPeriod);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(customerRewardsPointsResponse);
+    }
+
+    @PostMapping("/points/batch")
+    public ResponseEntity<GetCustomerRewardsPointsBatchResponse> getCustomerRewardsPointsBatch(
+            @Valid @RequestBody
+            GetCustomerRewardsPointsBatchRequest request) {
+        var customerIds = new LinkedHashSet<>(request.customerIds());
+        if (customerIds.size() > batchMaxCustomers) {
+            throw new CustomerRewardsValidationException(String.format(
+                    "Maximum customers supported per batch is %s", batchMaxCustomers));
+        }
+        logger.info("Calculating customer rewards points for {} customers", customerIds.size());
+        var rewardsPeriodType = Optional.ofNullable(request.rewardsPeriodType())
+                .orElse(RewardsPeriodType.MONTH);
+        var rewardsPeriod = Optional.ofNullable(request.rewardsPeriod())
+                .orElse(DEFAULT_REWARDS_PERIOD);
+        var customerRewardsPointsById = customerRewardsService.calculateCustomerRewardsPoints(
+                        customerIds, rewardsPeriodType, rewardsPeriod).stream()
+                .collect(Collectors.toMap(CustomerRewardsDetails::getCustomerId,
+                        customerRewardsConverter::convert));
+        var results = customerIds.stream()
+                .map(customerId -> Optional.ofNullable(customerRewardsPointsById.get(customerId))
+                        .map(customerRewardsPoints ->
+                                new GetCustomerRewardsPointsBatchResponse.CustomerRewardsPointsResult(
+                                        customerId, customerRewardsPoints, null))
+                        .orElseGet(() ->
+                                new GetCustomerRewardsPointsBatchResponse.CustomerRewardsPointsResult(
+                                        customerId, null, new Error(String.format(
+                                                "Customer with id: %s not found", customerId),
+                                        HttpStatus.BAD_REQUEST.value()))))
+                .toList();
+        return ResponseEntity.ok(new GetCustomerRewardsPointsBatchResponse(results));
+    }
+
+    /**
+     * Returns the 'size' customers with the most rewards points over the rewards period,
+     * highest first.
+     */
+    @GetMapping("/points/leaderboard")
+    public ResponseEntity<GetRewardsLeaderboardResponse> getRewardsLeaderboard(
+            @RequestParam(value = "rewardsPeriodType", required = false)
+            RewardsPeriodType rewardsPeriodType,
+            @RequestParam(value = "rewardsPeriod", defaultValue = "" + DEFAULT_REWARDS_PERIOD)
+            @Min(value = 1, message = "Minimum rewards period required is 1")
+            @Max(value = 240, message = "Maximum rewards period supported is 240")
+            Integer rewardsPeriod,
+            @RequestParam(value = "size", defaultValue = "" + DEFAULT_LEADERBOARD_SIZE)
+            @Min(value = 1, message = "Minimum leaderboard size required is 1")
+            @Max(value = 1000, message = "Maximum leaderboard size supported is 1000")
+            Integer size) {
+        var leaderboardRewardsPeriodType = Optional.ofNullable(rewardsPeriodType)
+                .orElse(RewardsPeriodType.MONTH);
+        logger.info("Getting the top {} customers by rewards points", size);
+        return ResponseEntity.ok(customerRewardsConverter.convert(rewardsLeaderboardService.getLeaderboard(
+                leaderboardRewardsPeriodType, rewardsPeriod, size)));
+    }
+
+    /**
+     * Streams the rewards points of every customer as NDJSON, one
+     * GetCustomerRewardsPointsResponse per line. Records are serialized straight to the
+     * response as they are calculated; a client disconnect fails the next write, which
+     * closes the customer cursor.
+     */
+    @GetMapping(value = "/points/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCustomerRewardsPoints(
+            @RequestParam(value = "rewardsPeriodType", required = false)
+            RewardsPeriodType rewardsPeriodType,
+            @RequestParam(value = "rewardsPeriod", defaultValue = "" + DEFAULT_REWARDS_PERIOD)
+            @Min(value = 1, message = "Minimum rewards period required is 1")
+            @Max(value = 240, message = "Maximum rewards period supported is 240")
+            Integer rewardsPeriod) {
+        var exportRewardsPeriodType = Optional.ofNullable(rewardsPeriodType)
+                .orElse(RewardsPeriodType.MONTH);
+        logger.info("Exporting customer rewards points of all customers");
+        // fails before the response is committed for an unsupported rewards period type
+        var customerRewardsDetailsStream = customerRewardsExportService.streamCustomerRewardsPoints(
+                exportRewardsPeriodType, rewardsPeriod);
+        StreamingResponseBody responseBody = outputStream -> {
+            var exportedCustomers = 0L;
+            try (customerRewardsDetailsStream;
+                 var generator = exportWriter.createGenerator(outputStream)) {
+                var iterator = customerRewardsDetailsStream.iterator();
+                while (iterator.hasNext()) {
+                    exportWriter.writeValue(generator, customerRewardsConverter.convert(iterator.next()));
+                    generator.writeRaw('\n');
+                    exportedCustomers++;
+                }
+            } catch (JacksonIOException ex) {
+                logger.info("Customer rewards points export aborted after {} customers: {}", exportedCustomers,
+                        ex.getMessage());
+                throw ex.getCause();
+            }
+            logger.info("Exported customer rewards points of {} customers", exportedCustomers);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(responseBody);
+    }
+
+    /**
+     * Weak, as the JSON and binary representations of the same points share the tag.
+     */
+    private static String toETag(String customerRewardsETag) {
+        return "W/\"" + customerRewardsETag + "\"";
     }
 }
@@ -0,0 +1,79 @@
+package org.testcompany.customerrewards.controller;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.testcompany.customerrewards.converter.OrderConverter;
+import org.testcompany.customerrewards.domain.OrderImportFormat;
+import org.testcompany.customerrewards.dto.ImportOrdersResponse;
+import org.testcompany.customerrewards.dto.SaveOrdersRequest;
+import org.testcompany.customerrewards.dto.SaveOrdersResponse;
+import org.testcompany.customerrewards.exceptions.CustomerRewardsValidationException;
+import org.testcompany.customerrewards.services.OrderImportService;
+import org.testcompany.customerrewards.services.OrderService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+
+@RestController
+@Validated
+@RequestMapping("/customer-rewards/orders")
+public class OrderController {
+    private static final Logger logger =
+            LoggerFactory.getLogger(OrderController.class);
+    private final OrderService orderService;
+    private final OrderImportService orderImportService;
+    private final OrderConverter orderConverter;
+    private final int bulkMaxOrders;
+
+    public OrderController(
+            OrderService orderService, OrderImportService orderImportService, OrderConverter orderConverter,
+            @Value("${customer-rewards.orders.bulk.max-orders:10000}") int bulkMaxOrders) {
+        this.orderService = orderService;
+        this.orderImportService = orderImportService;
+        this.orderConverter = orderConverter;
+        this.bulkMaxOrders = bulkMaxOrders;
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<SaveOrdersResponse> saveOrders(
+            @Valid @RequestBody
+            SaveOrdersRequest request) {
+        if (request.orders().size() > bulkMaxOrders) {
+            throw new CustomerRewardsValidationException(String.format(
+                    "Maximum orders supported per request is %s", bulkMaxOrders));
+        }
+        logger.info("Saving {} orders", request.orders().size());
+        var orderIngestionResult = orderService.saveOrders(orderConverter.convert(request));
+        return ResponseEntity.ok(orderConverter.convert(orderIngestionResult));
+    }
+
+    /**
+     * Streams the request body, CSV or NDJSON, into the orders. Uploading the same body
+     * again with the same import id resumes a failed import.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ImportOrdersResponse> importOrders(
+            @RequestParam(value = "importId")
+            @NotBlank(message = "Import id is required")
+            @Size(max = 255, message = "Maximum import id length supported is 255")
+            String importId,
+            @RequestParam(value = "format")
+            OrderImportFormat format,
+            InputStream body) throws IOException {
+        logger.info("Importing {} orders with import id {}", format, importId);
+        var orderImportResult = orderImportService.importOrders(importId, format, Channels.newChannel(body));
+        return ResponseEntity.ok(orderConverter.convert(orderImportResult));
+    }
+}
@@ -0,0 +1,282 @@
+package org.testcompany.customerrewards.converter;
+
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.dto.GetCustomerRewardsPointsResponse;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary layout of GetCustomerRewardsPointsResponse, for service to service
+ * callers. Integers are unsigned LEB128 varints, signed ones zigzag encoded first:
+ * <pre>
+ * byte    version (1)
+ * byte    flags: 1 customerId, 2 personalInfo, 4 rewards
+ * svarint customerId
+ * string  customerName, string phoneNumber
+ * string  description, string rewardsPeriodType
+ * byte    flags: 1 monthlyPointsList, 2 periodPointsList, 4 totalPoints, 8 totalAmount
+ * varint  monthly points count, then per month: svarint month delta (year * 12 + month - 1),
+ *         svarint points delta
+ * varint  period points count, then per period: svarint year delta, svarint period delta,
+ *         svarint points delta
+ * svarint totalPoints
+ * svarint totalAmount scale, varint unscaled length, unscaled two's-complement bytes
+ * </pre>
+ * Strings are a varint of the UTF-8 length plus one, 0 for null, then the UTF-8 bytes.
+ * Deltas are from the previous entry, the first one from 0, so consecutive months take
+ * one byte and the points one to three bytes, against about 40 bytes per month in JSON.
+ */
+public final class CustomerRewardsBinaryCodec {
+
+    static final byte VERSION = 1;
+    private static final int CUSTOMER_ID = 1;
+    private static final int PERSONAL_INFO = 2;
+    private static final int REWARDS = 4;
+    private static final int MONTHLY_POINTS_LIST = 1;
+    private static final int PERIOD_POINTS_LIST = 2;
+    private static final int TOTAL_POINTS = 4;
+    private static final int TOTAL_AMOUNT = 8;
+    private static final int MONTHS_PER_YEAR = 12;
+
+    private CustomerRewardsBinaryCodec() {
+    }
+
+    public static byte[] encode(GetCustomerRewardsPointsResponse response) {
+        var rewards = response.rewards();
+        var output = new Output(64 + (rewards == null || rewards.monthlyPointsList() == null
+                ? 0 : 4 * rewards.monthlyPointsList().size()));
+        output.write(VERSION);
+        output.write((response.customerId() != null ? CUSTOMER_ID : 0)
+                | (response.personalInfo() != null ? PERSONAL_INFO : 0)
+                | (rewards != null ? REWARDS : 0));
+        if (response.customerId() != null) {
+            writeSignedVarLong(output, response.customerId());
+        }
+        if (response.personalInfo() != null) {
+            writeString(output, response.personalInfo().customerName());
+            writeString(output, response.personalInfo().phoneNumber());
+        }
+        if (rewards != null) {
+            writeRewards(output, rewards);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a response of this layout
+     */
+    public static GetCustomerRewardsPointsResponse decode(byte[] bytes) {
+        var input = ByteBuffer.wrap(bytes);
+        try {
+            var version = input.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported customer rewards encoding version " + version);
+            }
+            var flags = input.get();
+            var customerId = (flags & CUSTOMER_ID) != 0 ? readSignedVarLong(input) : null;
+            var personalInfo = (flags & PERSONAL_INFO) != 0
+                    ? new GetCustomerRewardsPointsResponse.CustomerPersonalInfo(readString(input),
+                    readString(input))
+                    : null;
+            var rewards = (flags & REWARDS) != 0 ? readRewards(input) : null;
+            if (input.hasRemaining()) {
+                throw new IllegalArgumentException("Unexpected " + input.remaining() +
+                        " bytes after the customer rewards");
+            }
+            return new GetCustomerRewardsPointsResponse(customerId, personalInfo, rewards);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated customer rewards encoding", e);
+        }
+    }
+
+    private static void writeRewards(Output output,
+                                     GetCustomerRewardsPointsResponse.CustomerRewards rewards) {
+        writeString(output, rewards.description());
+        writeString(output, rewards.rewardsPeriodType() == null ? null : rewards.rewardsPeriodType().name());
+        output.write((rewards.monthlyPointsList() != null ? MONTHLY_POINTS_LIST : 0)
+                | (rewards.periodPointsList() != null ? PERIOD_POINTS_LIST : 0)
+                | (rewards.totalPoints() != null ? TOTAL_POINTS : 0)
+                | (rewards.totalAmount() != null ? TOTAL_AMOUNT : 0));
+        if (rewards.monthlyPointsList() != null) {
+            writeVarLong(output, rewards.monthlyPointsList().size());
+            long previousEpochMonth = 0;
+            long previousPoints = 0;
+            for (var monthlyPoints: rewards.monthlyPointsList()) {
+                long epochMonth = (long) monthlyPoints.year() * MONTHS_PER_YEAR + monthlyPoints.month() - 1;
+                writeSignedVarLong(output, epochMonth - previousEpochMonth);
+                writeSignedVarLong(output, monthlyPoints.points() - previousPoints);
+                previousEpochMonth = epochMonth;
+                previousPoints = monthlyPoints.points();
+            }
+        }
+        if (rewards.periodPointsList() != null) {
+            writeVarLong(output, rewards.periodPointsList().size());
+            long previousYear = 0;
+            long previousPeriod = 0;
+            long previousPoints = 0;
+            for (var periodPoints: rewards.periodPointsList()) {
+                writeSignedVarLong(output, periodPoints.year() - previousYear);
+                writeSignedVarLong(output, periodPoints.period() - previousPeriod);
+                writeSignedVarLong(output, periodPoints.points() - previousPoints);
+                previousYear = periodPoints.year();
+                previousPeriod = periodPoints.period();
+                previousPoints = periodPoints.points();
+            }
+        }
+        if (rewards.totalPoints() != null) {
+            writeSignedVarLong(output, rewards.totalPoints());
+        }
+        if (rewards.totalAmount() != null) {
+            writeSignedVarLong(output, rewards.totalAmount().scale());
+            var unscaledBytes = rewards.totalAmount().unscaledValue().toByteArray();
+            writeVarLong(output, unscaledBytes.length);
+            output.writeBytes(unscaledBytes);
+        }
+    }
+
+    private static GetCustomerRewardsPointsResponse.CustomerRewards readRewards(ByteBuffer input) {
+        var description = readString(input);
+        var rewardsPeriodTypeName = readString(input);
+        var flags = input.get();
+        List<GetCustomerRewardsPointsResponse.CustomerRewards.MonthlyPoints> monthlyPointsList = null;
+        if ((flags & MONTHLY_POINTS_LIST) != 0) {
+            var size = readSize(input);
+            monthlyPointsList = new ArrayList<>(size);
+            long epochMonth = 0;
+            long points = 0;
+            for (int i = 0; i < size; i++) {
+                epochMonth += readSignedVarLong(input);
+                points += readSignedVarLong(input);
+                monthlyPointsList.add(new GetCustomerRewardsPointsResponse.CustomerRewards.MonthlyPoints(
+                        points, (int) Math.floorMod(epochMonth, MONTHS_PER_YEAR) + 1,
+                        Math.toIntExact(Math.floorDiv(epochMonth, MONTHS_PER_YEAR))));
+            }
+        }
+        List<GetCustomerRewardsPointsResponse.CustomerRewards.PeriodPoints> periodPointsList = null;
+        if ((flags & PERIOD_POINTS_LIST) != 0) {
+            var size = readSize(input);
+            periodPointsList = new ArrayList<>(size);
+            long year = 0;
+            long period = 0;
+            long points = 0;
+            for (int i = 0; i < size; i++) {
+                year += readSignedVarLong(input);
+                period += readSignedVarLong(input);
+                points += readSignedVarLong(input);
+                periodPointsList.add(new GetCustomerRewardsPointsResponse.CustomerRewards.PeriodPoints(
+                        points, Math.toIntExact(period), Math.toIntExact(year)));
+            }
+        }
+        var totalPoints = (flags & TOTAL_POINTS) != 0 ? readSignedVarLong(input) : null;
+        BigDecimal totalAmount = null;
+        if ((flags & TOTAL_AMOUNT) != 0) {
+            var scale = Math.toIntExact(readSignedVarLong(input));
+            var unscaledBytes = new byte[readSize(input)];
+            input.get(unscaledBytes);
+            totalAmount = new BigDecimal(new BigInteger(unscaledBytes), scale);
+        }
+        return new GetCustomerRewardsPointsResponse.CustomerRewards(description,
+                rewardsPeriodTypeName == null ? null : RewardsPeriodType.valueOf(rewardsPeriodTypeName),
+                monthlyPointsList == null ? null : List.copyOf(monthlyPointsList),
+                periodPointsList == null ? null : List.copyOf(periodPointsList),
+                totalPoints, totalAmount);
+    }
+
+    private static void writeString(Output output, String value) {
+        if (value == null) {
+            output.write(0);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(output, bytes.length + 1L);
+        output.writeBytes(bytes);
+    }
+
+    private static String readString(ByteBuffer input) {
+        var length = readSize(input);
+        if (length == 0) {
+            return null;
+        }
+        var bytes = new byte[length - 1];
+        input.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeSignedVarLong(Output output, long value) {
+        writeVarLong(output, (value << 1) ^ (value >> 63));
+    }
+
+    private static void writeVarLong(Output output, long value) {
+        while ((value & ~0x7FL) != 0) {
+            output.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write((int) value);
+    }
+
+    private static long readSignedVarLong(ByteBuffer input) {
+        var value = readVarLong(input);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarLong(ByteBuffer input) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            var b = input.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in customer rewards encoding");
+    }
+
+    /**
+     * Reads a list or byte array size, which can not exceed the remaining bytes.
+     */
+    private static int readSize(ByteBuffer input) {
+        var size = readVarLong(input);
+        if (size < 0 || size > input.remaining() + 1L) {
+            throw new IllegalArgumentException("Invalid size " + size + " in customer rewards encoding");
+        }
+        return (int) size;
+    }
+
+    /**
+     * Growable byte array: ByteArrayOutputStream synchronizes every single byte write.
+     */
+    private static final class Output {
+        private byte[] bytes;
+        private int size;
+
+        Output(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        void write(int b) {
+            if (size == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            bytes[size++] = (byte) b;
+        }
+
+        void writeBytes(byte[] values) {
+            if (size + values.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + values.length));
+            }
+            System.arraycopy(values, 0, bytes, size, values.length);
+            size += values.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
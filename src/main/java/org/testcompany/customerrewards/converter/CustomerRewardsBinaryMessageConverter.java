@@ -0,0 +1,51 @@
+package org.testcompany.customerrewards.converter;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.testcompany.customerrewards.dto.GetCustomerRewardsPointsResponse;
+
+import java.io.IOException;
+
+/**
+ * Writes and reads GetCustomerRewardsPointsResponse as CustomerRewardsBinaryCodec when
+ * the Accept header asks for 'application/x-customer-rewards'. Registered after the
+ * default converters by WebMvcConfig, so JSON stays the default; errors are only written
+ * as JSON, so binary callers should also accept 'application/json'.
+ */
+public class CustomerRewardsBinaryMessageConverter
+        extends AbstractHttpMessageConverter<GetCustomerRewardsPointsResponse> {
+
+    public static final String CUSTOMER_REWARDS_BINARY_VALUE = "application/x-customer-rewards";
+    public static final MediaType CUSTOMER_REWARDS_BINARY = MediaType.valueOf(CUSTOMER_REWARDS_BINARY_VALUE);
+
+    public CustomerRewardsBinaryMessageConverter() {
+        super(CUSTOMER_REWARDS_BINARY);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return GetCustomerRewardsPointsResponse.class == clazz;
+    }
+
+    @Override
+    protected GetCustomerRewardsPointsResponse readInternal(Class<? extends GetCustomerRewardsPointsResponse> clazz,
+                                                            HttpInputMessage inputMessage) throws IOException {
+        try {
+            return CustomerRewardsBinaryCodec.decode(inputMessage.getBody().readAllBytes());
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            throw new HttpMessageNotReadableException("Invalid customer rewards encoding: " + e.getMessage(), e,
+                    inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(GetCustomerRewardsPointsResponse response, HttpOutputMessage outputMessage)
+            throws IOException {
+        var bytes = CustomerRewardsBinaryCodec.encode(response);
+        outputMessage.getHeaders().setContentLength(bytes.length);
+        outputMessage.getBody().write(bytes);
+    }
+}
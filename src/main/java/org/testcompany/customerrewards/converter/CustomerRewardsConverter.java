@@ -1,38 +1,59 @@
 package org.testcompany.customerrewards.converter;
 
 import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.RewardsLeaderboard;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
 import org.testcompany.customerrewards.dto.GetCustomerRewardsPointsResponse;
+import org.testcompany.customerrewards.dto.GetRewardsLeaderboardResponse;
 import org.testcompany.customerrewards.exceptions.CustomerRewardsValidationException;
-import org.testcompany.customerrewards.repository.CustomerRepository;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Optional;
+
 @Component
 public class CustomerRewardsConverter {
 
-    private final CustomerRepository customerRepository;
-
-    public CustomerRewardsConverter(CustomerRepository customerRepository) {
-        this.customerRepository = customerRepository;
-    }
-
     public GetCustomerRewardsPointsResponse convert(CustomerRewardsDetails customerRewardsDetails) {
-        var monthlyPointsList =
-                customerRewardsDetails.getMonthlyPointsList().stream()
-                        .map(monthlyPoints ->
-                                new GetCustomerRewardsPointsResponse.CustomerRewards.MonthlyPoints(
-                                        monthlyPoints.getPoints(), monthlyPoints.getMonth(),
-                                        monthlyPoints.getYear()))
-                        .toList();
+        List<GetCustomerRewardsPointsResponse.CustomerRewards.MonthlyPoints> monthlyPointsList = null;
+        List<GetCustomerRewardsPointsResponse.CustomerRewards.PeriodPoints> periodPointsList = null;
+        if (customerRewardsDetails.getRewardsPeriodType() == RewardsPeriodType.MONTH) {
+            monthlyPointsList = customerRewardsDetails.getPeriodPointsList().stream()
+                    .map(periodPoints ->
+                            new GetCustomerRewardsPointsResponse.CustomerRewards.MonthlyPoints(
+                                    periodPoints.getPoints(), periodPoints.getPeriod(),
+                                    periodPoints.getYear()))
+                    .toList();
+        } else {
+            periodPointsList = customerRewardsDetails.getPeriodPointsList().stream()
+                    .map(periodPoints ->
+                            new GetCustomerRewardsPointsResponse.CustomerRewards.PeriodPoints(
+                                    periodPoints.getPoints(), periodPoints.getPeriod(),
+                                    periodPoints.getYear()))
+                    .toList();
+        }
         var rewardsPointsDTO =
                 new GetCustomerRewardsPointsResponse.CustomerRewards(customerRewardsDetails.getRewardsDesc(),
                         customerRewardsDetails.getRewardsPeriodType(),
-                        monthlyPointsList, customerRewardsDetails.getTotalPoints(),
+                        monthlyPointsList, periodPointsList, customerRewardsDetails.getTotalPoints(),
                         customerRewardsDetails.getTotalAmount());
-        var customer = customerRepository.getCustomerById(customerRewardsDetails.getCustomerId())
+        // the customer is loaded once by the service and carried in the rewards details
+        var customer = Optional.ofNullable(customerRewardsDetails.getCustomer())
                 .orElseThrow(() -> new CustomerRewardsValidationException(String.format(
                         "Customer with id: %s not found", customerRewardsDetails.getCustomerId())));
         var customerPersonalInfo = new GetCustomerRewardsPointsResponse.CustomerPersonalInfo(
                 customer.getName(), customer.getPhoneNumber());
         return new GetCustomerRewardsPointsResponse(customer.getId(), customerPersonalInfo, rewardsPointsDTO);
     }
+
+    public GetRewardsLeaderboardResponse convert(RewardsLeaderboard rewardsLeaderboard) {
+        var entries = rewardsLeaderboard.entries().stream()
+                .map(entry -> new GetRewardsLeaderboardResponse.LeaderboardEntry(entry.rank(),
+                        entry.customerId(), entry.customer() == null ? null : entry.customer().getName(),
+                        entry.totalPoints(), entry.totalAmount()))
+                .toList();
+        return new GetRewardsLeaderboardResponse(rewardsLeaderboard.rewardsPeriodType(),
+                rewardsLeaderboard.rewardsPeriod().startDate(), rewardsLeaderboard.rewardsPeriod().endDate(),
+                entries);
+    }
 }
@@ -0,0 +1,43 @@
+package org.testcompany.customerrewards.converter;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.OrderImportResult;
+import org.testcompany.customerrewards.domain.OrderIngestionResult;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.dto.Error;
+import org.testcompany.customerrewards.dto.ImportOrdersResponse;
+import org.testcompany.customerrewards.dto.SaveOrdersRequest;
+import org.testcompany.customerrewards.dto.SaveOrdersResponse;
+
+import java.util.List;
+
+@Component
+public class OrderConverter {
+
+    public List<PurchaseOrder> convert(SaveOrdersRequest saveOrdersRequest) {
+        return saveOrdersRequest.orders().stream()
+                .map(order -> new PurchaseOrder(null,
+                        order.customerId() == null ? null : new Customer(order.customerId(), null, null),
+                        order.transactionAmount(), order.transactionDate()))
+                .toList();
+    }
+
+    public SaveOrdersResponse convert(OrderIngestionResult orderIngestionResult) {
+        var rejectedOrders = orderIngestionResult.rejectedOrders().stream()
+                .map(rejectedOrder -> new SaveOrdersResponse.RejectedOrder(rejectedOrder.index(),
+                        new Error(rejectedOrder.errorMessage(), HttpStatus.BAD_REQUEST.value())))
+                .toList();
+        return new SaveOrdersResponse(orderIngestionResult.acceptedOrders(), rejectedOrders);
+    }
+
+    public ImportOrdersResponse convert(OrderImportResult orderImportResult) {
+        var rejectedRows = orderImportResult.rejectedRows().stream()
+                .map(rejectedRow -> new ImportOrdersResponse.RejectedRow(rejectedRow.lineNumber(),
+                        new Error(rejectedRow.errorMessage(), HttpStatus.BAD_REQUEST.value())))
+                .toList();
+        return new ImportOrdersResponse(orderImportResult.importId(), orderImportResult.importedOrders(),
+                orderImportResult.rejectedOrders(), rejectedRows);
+    }
+}
@@ -0,0 +1,9 @@
+package org.testcompany.customerrewards.domain;
+
+/**
+ * Monthly order summary of one of several customers aggregated in a single query.
+ */
+public interface CustomerMonthlyOrderSummary extends MonthlyOrderSummary {
+
+    Long getCustomerId();
+}
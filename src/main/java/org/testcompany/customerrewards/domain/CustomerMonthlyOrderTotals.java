@@ -0,0 +1,42 @@
+package org.testcompany.customerrewards.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Monthly order summary calculated in memory, by the in-memory order store and the
+ * order log repository.
+ */
+public record CustomerMonthlyOrderTotals(Long customerId, Integer orderYear, Integer orderMonth,
+                                         Long orderCount, BigDecimal totalAmount, Long totalPoints)
+        implements CustomerMonthlyOrderSummary {
+
+    @Override
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    @Override
+    public Integer getOrderYear() {
+        return orderYear;
+    }
+
+    @Override
+    public Integer getOrderMonth() {
+        return orderMonth;
+    }
+
+    @Override
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    @Override
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    @Override
+    public Long getTotalPoints() {
+        return totalPoints;
+    }
+}
@@ -0,0 +1,65 @@
+package org.testcompany.customerrewards.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Ledger row holding the orders of a customer aggregated for a calendar month (UTC).
+ * Maintained with every order write, see RewardsLedgerService.
+ */
+@Entity
+public class CustomerMonthlyPoints implements Serializable {
+    @EmbeddedId
+    private CustomerMonthlyPointsId id;
+    private Long orderCount;
+    @Column(precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+    private Long totalPoints;
+
+    public CustomerMonthlyPoints(CustomerMonthlyPointsId id, Long orderCount,
+                                 BigDecimal totalAmount, Long totalPoints) {
+        this.id = id;
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount;
+        this.totalPoints = totalPoints;
+    }
+
+    public CustomerMonthlyPoints() {
+    }
+
+    public CustomerMonthlyPointsId getId() {
+        return id;
+    }
+
+    public void setId(CustomerMonthlyPointsId id) {
+        this.id = id;
+    }
+
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getTotalPoints() {
+        return totalPoints;
+    }
+
+    public void setTotalPoints(Long totalPoints) {
+        this.totalPoints = totalPoints;
+    }
+}
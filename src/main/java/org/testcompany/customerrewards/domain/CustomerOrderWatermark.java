@@ -0,0 +1,9 @@
+package org.testcompany.customerrewards.domain;
+
+/**
+ * Order watermark of one of several customers aggregated in a single query.
+ */
+public interface CustomerOrderWatermark extends OrderWatermark {
+
+    Long getCustomerId();
+}
@@ -0,0 +1,36 @@
+package org.testcompany.customerrewards.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Order watermark calculated in memory, by the order log repository.
+ */
+public record CustomerOrderWatermarkTotals(Long customerId, Long orderCount, Long lastOrderId,
+                                           BigDecimal totalAmount, Long transactionDateSeconds)
+        implements CustomerOrderWatermark {
+
+    @Override
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    @Override
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    @Override
+    public Long getLastOrderId() {
+        return lastOrderId;
+    }
+
+    @Override
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    @Override
+    public Long getTransactionDateSeconds() {
+        return transactionDateSeconds;
+    }
+}
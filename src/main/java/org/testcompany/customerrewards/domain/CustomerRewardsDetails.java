@@ -6,10 +6,12 @@ import java.util.List;
 
 public class CustomerRewardsDetails {
     private Long customerId;
+    private Customer customer;
     private String rewardsDesc;
     private RewardsPeriodType rewardsPeriodType;
-    private List<MonthlyPoints> monthlyPointsList = Collections.emptyList();
+    private List<PeriodPoints> periodPointsList = Collections.emptyList();
     private BigDecimal totalAmount = BigDecimal.ZERO;
+    private String version;
 
     public Long getCustomerId() {
         return customerId;
@@ -19,6 +21,14 @@ public class CustomerRewardsDetails {
         this.customerId = customerId;
     }
 
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(Customer customer) {
+        this.customer = customer;
+    }
+
     public String getRewardsDesc() {
         return rewardsDesc;
     }
@@ -35,12 +45,12 @@ public class CustomerRewardsDetails {
         this.rewardsPeriodType = rewardsPeriodType;
     }
 
-    public List<MonthlyPoints> getMonthlyPointsList() {
-        return monthlyPointsList;
+    public List<PeriodPoints> getPeriodPointsList() {
+        return periodPointsList;
     }
 
-    public void setMonthlyPointsList(List<MonthlyPoints> monthlyPointsList) {
-        this.monthlyPointsList = monthlyPointsList;
+    public void setPeriodPointsList(List<PeriodPoints> periodPointsList) {
+        this.periodPointsList = periodPointsList;
     }
 
     public BigDecimal getTotalAmount() {
@@ -51,10 +61,22 @@ public class CustomerRewardsDetails {
         this.totalAmount = totalAmount;
     }
 
-    public Integer getTotalPoints() {
-        if (monthlyPointsList == null) {
-            return 0;
+    /**
+     * Digest of the calculated points, set once when they are calculated and cached with
+     * them, see CustomerRewardsVersionService.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public Long getTotalPoints() {
+        if (periodPointsList == null) {
+            return 0L;
         }
-        return monthlyPointsList.stream().mapToInt(MonthlyPoints::getPoints).sum();
+        return periodPointsList.stream().mapToLong(PeriodPoints::getPoints).sum();
     }
 }
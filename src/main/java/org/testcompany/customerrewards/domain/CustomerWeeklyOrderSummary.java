@@ -0,0 +1,20 @@
+package org.testcompany.customerrewards.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Orders of a customer aggregated per ISO week (UTC), see PeriodBuckets: 'epochWeek'
+ * is the number of weeks since the week of 1970-01-01.
+ */
+public interface CustomerWeeklyOrderSummary {
+
+    Long getCustomerId();
+
+    Integer getEpochWeek();
+
+    Long getOrderCount();
+
+    BigDecimal getTotalAmount();
+
+    Long getTotalPoints();
+}
@@ -0,0 +1,36 @@
+package org.testcompany.customerrewards.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Weekly order summary calculated in memory, by the in-memory order store.
+ */
+public record CustomerWeeklyOrderTotals(Long customerId, Integer epochWeek, Long orderCount,
+                                        BigDecimal totalAmount, Long totalPoints)
+        implements CustomerWeeklyOrderSummary {
+
+    @Override
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    @Override
+    public Integer getEpochWeek() {
+        return epochWeek;
+    }
+
+    @Override
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    @Override
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    @Override
+    public Long getTotalPoints() {
+        return totalPoints;
+    }
+}
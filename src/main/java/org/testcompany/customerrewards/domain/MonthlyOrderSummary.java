@@ -0,0 +1,19 @@
+package org.testcompany.customerrewards.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Orders of a customer aggregated per calendar month (UTC) by the database.
+ */
+public interface MonthlyOrderSummary {
+
+    Integer getOrderYear();
+
+    Integer getOrderMonth();
+
+    Long getOrderCount();
+
+    BigDecimal getTotalAmount();
+
+    Long getTotalPoints();
+}
@@ -0,0 +1,93 @@
+package org.testcompany.customerrewards.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Progress of an order import, committed together with every imported batch. The byte
+ * offset and line number point right after the last committed line, where a failed
+ * import resumes.
+ */
+@Entity
+public class OrderImportCheckpoint implements Serializable {
+    @Id
+    private String importId;
+    private Long byteOffset;
+    private Long lineNumber;
+    private Long importedOrders;
+    private Long rejectedOrders;
+    private Boolean completed;
+    private Instant updatedAt;
+
+    public OrderImportCheckpoint(String importId) {
+        this.importId = importId;
+        this.byteOffset = 0L;
+        this.lineNumber = 0L;
+        this.importedOrders = 0L;
+        this.rejectedOrders = 0L;
+        this.completed = false;
+        this.updatedAt = Instant.now();
+    }
+
+    public OrderImportCheckpoint() {
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public void setImportId(String importId) {
+        this.importId = importId;
+    }
+
+    public Long getByteOffset() {
+        return byteOffset;
+    }
+
+    public void setByteOffset(Long byteOffset) {
+        this.byteOffset = byteOffset;
+    }
+
+    public Long getLineNumber() {
+        return lineNumber;
+    }
+
+    public void setLineNumber(Long lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public Long getImportedOrders() {
+        return importedOrders;
+    }
+
+    public void setImportedOrders(Long importedOrders) {
+        this.importedOrders = importedOrders;
+    }
+
+    public Long getRejectedOrders() {
+        return rejectedOrders;
+    }
+
+    public void setRejectedOrders(Long rejectedOrders) {
+        this.rejectedOrders = rejectedOrders;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,6 @@
+package org.testcompany.customerrewards.domain;
+
+public enum OrderImportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,13 @@
+package org.testcompany.customerrewards.domain;
+
+import java.util.List;
+
+/**
+ * Outcome of an order import. The counts cover every attempt of the import, the rejected
+ * rows only the first ones rejected by the last attempt.
+ */
+public record OrderImportResult(String importId, long importedOrders, long rejectedOrders,
+                                List<RejectedRow> rejectedRows) {
+
+    public record RejectedRow(long lineNumber, String errorMessage) {}
+}
@@ -0,0 +1,12 @@
+package org.testcompany.customerrewards.domain;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk order ingestion: number of persisted orders and the rejected
+ * ones, identified by their index in the submitted list.
+ */
+public record OrderIngestionResult(int acceptedOrders, List<RejectedOrder> rejectedOrders) {
+
+    public record RejectedOrder(int index, String errorMessage) {}
+}
@@ -0,0 +1,24 @@
+package org.testcompany.customerrewards.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregates of a customer's orders within a rewards period that change with any
+ * order insert, correction or delete in the period, read from the PURCHASE_ORDER index
+ * alone, or summed from the order log. The id and amount aggregates are null without
+ * orders.
+ */
+public interface OrderWatermark {
+
+    Long getOrderCount();
+
+    Long getLastOrderId();
+
+    BigDecimal getTotalAmount();
+
+    /**
+     * Sum of the transaction dates as epoch seconds, which moves when an order is
+     * moved to another date.
+     */
+    Long getTransactionDateSeconds();
+}
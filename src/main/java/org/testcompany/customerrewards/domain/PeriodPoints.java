@@ -0,0 +1,43 @@
+package org.testcompany.customerrewards.domain;
+
+/**
+ * Points earned in one period of the rewards period type: 'period' is the ISO week
+ * (1-53), month (1-12) or quarter (1-4) within 'year', or 1 for a year. The year of a
+ * week is its week based year.
+ */
+public class PeriodPoints {
+
+    private long points;
+    private int period;
+    private int year;
+
+    public PeriodPoints(long points, int period, int year) {
+        this.points = points;
+        this.period = period;
+        this.year = year;
+    }
+
+    public long getPoints() {
+        return points;
+    }
+
+    public void setPoints(long points) {
+        this.points = points;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(int period) {
+        this.period = period;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+}
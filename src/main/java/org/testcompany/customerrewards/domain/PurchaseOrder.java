@@ -1,6 +1,7 @@
 package org.testcompany.customerrewards.domain;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Column;
@@ -14,7 +15,7 @@ import java.time.Instant;
 public class PurchaseOrder implements Serializable {
     @Id
     private Long id;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Customer customer;
     @Column(precision = 15, scale = 2)
     private BigDecimal transactionAmount;
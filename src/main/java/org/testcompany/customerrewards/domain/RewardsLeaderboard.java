@@ -0,0 +1,9 @@
+package org.testcompany.customerrewards.domain;
+
+import java.util.List;
+
+/**
+ * Customers with the most rewards points over a rewards period, highest first.
+ */
+public record RewardsLeaderboard(RewardsPeriodType rewardsPeriodType, RewardsPeriod rewardsPeriod,
+                                 List<RewardsLeaderboardEntry> entries) {}
@@ -0,0 +1,15 @@
+package org.testcompany.customerrewards.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * Order totals of a customer ranked 'rank' (from 1) by rewards points over a rewards
+ * period. The customer is only set on the entries returned by RewardsLeaderboardService.
+ */
+public record RewardsLeaderboardEntry(int rank, Long customerId, long orderCount, BigDecimal totalAmount,
+                                      long totalPoints, Customer customer) {
+
+    public RewardsLeaderboardEntry withCustomer(Customer customer) {
+        return new RewardsLeaderboardEntry(rank, customerId, orderCount, totalAmount, totalPoints, customer);
+    }
+}
@@ -0,0 +1,68 @@
+package org.testcompany.customerrewards.domain;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Objects;
+
+/**
+ * Window of transaction dates considered for rewards points calculation.
+ * The start date is inclusive and the end date is exclusive.
+ */
+public record RewardsPeriod(LocalDate startDate, LocalDate endDate) {
+
+    public RewardsPeriod {
+        Objects.requireNonNull(startDate, "Rewards period start date must not be null");
+        Objects.requireNonNull(endDate, "Rewards period end date must not be null");
+    }
+
+    /**
+     * Builds the window covering the last 'rewardsPeriodInMonths' months before the
+     * month of the given date.
+     */
+    public static RewardsPeriod ofMonths(LocalDate currentDate, int rewardsPeriodInMonths) {
+        Objects.requireNonNull(currentDate, "Current date must not be null");
+        var rewardsPeriodMonth = currentDate.minus(Period.ofMonths(rewardsPeriodInMonths));
+        var rewardsPeriodStartDate =
+                rewardsPeriodMonth.minusDays(rewardsPeriodMonth.getDayOfMonth() - 1);
+        var rewardsPeriodEndDate = currentDate.minusDays(currentDate.getDayOfMonth());
+        return new RewardsPeriod(rewardsPeriodStartDate, rewardsPeriodEndDate);
+    }
+
+    /**
+     * Builds the window covering the last 'rewardsPeriod' periods of the given type before
+     * the one of the given date. Weeks are ISO weeks, starting on Monday.
+     */
+    public static RewardsPeriod of(RewardsPeriodType rewardsPeriodType, LocalDate currentDate, int rewardsPeriod) {
+        Objects.requireNonNull(currentDate, "Current date must not be null");
+        return switch (rewardsPeriodType) {
+            case MONTH -> ofMonths(currentDate, rewardsPeriod);
+            case WEEK -> {
+                var currentWeekStartDate = currentDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                yield new RewardsPeriod(currentWeekStartDate.minusWeeks(rewardsPeriod), currentWeekStartDate);
+            }
+            case QUARTER -> {
+                var currentQuarterStartDate = currentDate.withDayOfMonth(1)
+                        .withMonth((currentDate.getMonthValue() - 1) / 3 * 3 + 1);
+                yield new RewardsPeriod(currentQuarterStartDate.minusMonths(3L * rewardsPeriod),
+                        currentQuarterStartDate);
+            }
+            case YEAR -> {
+                var currentYearStartDate = currentDate.withDayOfYear(1);
+                yield new RewardsPeriod(currentYearStartDate.minusYears(rewardsPeriod), currentYearStartDate);
+            }
+            default -> throw new IllegalArgumentException("Unsupported rewards period type " + rewardsPeriodType);
+        };
+    }
+
+    public Instant startInstant() {
+        return startDate.atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    public Instant endInstant() {
+        return endDate.atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+}
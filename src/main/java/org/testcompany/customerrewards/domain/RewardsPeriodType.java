@@ -1,6 +1,9 @@
 package org.testcompany.customerrewards.domain;
 
 public enum RewardsPeriodType {
+    WEEK,
     MONTH,
+    QUARTER,
+    YEAR,
     UNKNOWN
 }
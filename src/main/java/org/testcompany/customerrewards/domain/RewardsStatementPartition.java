@@ -0,0 +1,93 @@
+package org.testcompany.customerrewards.domain;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Customer id range of a rewards statement processed by one worker, and its progress,
+ * committed together with every chunk of statements. The next customer id points right
+ * after the last committed chunk, where a failed statement run resumes.
+ */
+@Entity
+public class RewardsStatementPartition implements Serializable {
+    @EmbeddedId
+    private RewardsStatementPartitionId id;
+    private Long firstCustomerId;
+    private Long lastCustomerId;
+    private Long nextCustomerId;
+    private Long statements;
+    private Boolean completed;
+    private Instant updatedAt;
+
+    public RewardsStatementPartition(RewardsStatementPartitionId id, Long firstCustomerId, Long lastCustomerId) {
+        this.id = id;
+        this.firstCustomerId = firstCustomerId;
+        this.lastCustomerId = lastCustomerId;
+        this.nextCustomerId = firstCustomerId;
+        this.statements = 0L;
+        this.completed = false;
+        this.updatedAt = Instant.now();
+    }
+
+    public RewardsStatementPartition() {
+    }
+
+    public RewardsStatementPartitionId getId() {
+        return id;
+    }
+
+    public void setId(RewardsStatementPartitionId id) {
+        this.id = id;
+    }
+
+    public Long getFirstCustomerId() {
+        return firstCustomerId;
+    }
+
+    public void setFirstCustomerId(Long firstCustomerId) {
+        this.firstCustomerId = firstCustomerId;
+    }
+
+    public Long getLastCustomerId() {
+        return lastCustomerId;
+    }
+
+    public void setLastCustomerId(Long lastCustomerId) {
+        this.lastCustomerId = lastCustomerId;
+    }
+
+    public Long getNextCustomerId() {
+        return nextCustomerId;
+    }
+
+    public void setNextCustomerId(Long nextCustomerId) {
+        this.nextCustomerId = nextCustomerId;
+    }
+
+    public Long getStatements() {
+        return statements;
+    }
+
+    public void setStatements(Long statements) {
+        this.statements = statements;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,9 @@
+package org.testcompany.customerrewards.domain;
+
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+
+@Embeddable
+public record RewardsStatementPartitionId(String statementId, Integer partitionNumber)
+        implements Serializable {}
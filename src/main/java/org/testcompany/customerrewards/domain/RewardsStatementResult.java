@@ -0,0 +1,8 @@
+package org.testcompany.customerrewards.domain;
+
+/**
+ * Outcome of a rewards statement run. The statement count covers every attempt of the
+ * statement.
+ */
+public record RewardsStatementResult(String statementId, RewardsPeriod rewardsPeriod, int partitions,
+                                     long statements) {}
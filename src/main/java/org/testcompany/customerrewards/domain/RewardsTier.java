@@ -0,0 +1,12 @@
+package org.testcompany.customerrewards.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Row of REWARDS_TIER: from 'effectiveFrom' (UTC) until the next version, every whole
+ * dollar of an order amount over 'thresholdAmount', up to the next threshold of the
+ * same version, earns 'pointsPerDollar' points.
+ */
+public record RewardsTier(LocalDate effectiveFrom, BigDecimal thresholdAmount, int pointsPerDollar) {
+}
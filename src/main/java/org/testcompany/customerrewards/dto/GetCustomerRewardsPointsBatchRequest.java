@@ -0,0 +1,17 @@
+package org.testcompany.customerrewards.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+
+import java.util.List;
+
+public record GetCustomerRewardsPointsBatchRequest(
+        @NotEmpty(message = "At least one customer id is required")
+        List<@NotNull(message = "Customer id must not be null") Long> customerIds,
+        RewardsPeriodType rewardsPeriodType,
+        @Min(value = 1, message = "Minimum rewards period required is 1")
+        @Max(value = 240, message = "Maximum rewards period supported is 240")
+        Integer rewardsPeriod) {}
@@ -0,0 +1,12 @@
+package org.testcompany.customerrewards.dto;
+
+import java.util.List;
+
+public record GetCustomerRewardsPointsBatchResponse(List<CustomerRewardsPointsResult> results) {
+    /**
+     * Outcome for a single requested customer id: either the rewards points or the error.
+     */
+    public record CustomerRewardsPointsResult(Long customerId,
+                                              GetCustomerRewardsPointsResponse rewardsPoints,
+                                              Error error) {}
+}
@@ -1,5 +1,6 @@
 package org.testcompany.customerrewards.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.testcompany.customerrewards.domain.RewardsPeriodType;
 
 import java.math.BigDecimal;
@@ -9,11 +10,20 @@ public record GetCustomerRewardsPointsResponse(Long customerId,
                                                CustomerPersonalInfo personalInfo,
                                                CustomerRewards rewards) {
     public record CustomerPersonalInfo(String customerName, String phoneNumber){}
+
+    /**
+     * 'monthlyPointsList' holds the points of a MONTH rewards period type,
+     * 'periodPointsList' those of the other types; the other list is omitted.
+     */
     public record CustomerRewards(String description,
                                   RewardsPeriodType rewardsPeriodType,
+                                  @JsonInclude(JsonInclude.Include.NON_NULL)
                                   List<MonthlyPoints> monthlyPointsList,
-                                  Integer totalPoints,
+                                  @JsonInclude(JsonInclude.Include.NON_NULL)
+                                  List<PeriodPoints> periodPointsList,
+                                  Long totalPoints,
                                   BigDecimal totalAmount) {
-        public record MonthlyPoints(int points, int month, int year) {}
+        public record MonthlyPoints(long points, int month, int year) {}
+        public record PeriodPoints(long points, int period, int year) {}
     }
 }
@@ -0,0 +1,18 @@
+package org.testcompany.customerrewards.dto;
+
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 'endDate' is exclusive.
+ */
+public record GetRewardsLeaderboardResponse(RewardsPeriodType rewardsPeriodType,
+                                            LocalDate startDate,
+                                            LocalDate endDate,
+                                            List<LeaderboardEntry> entries) {
+    public record LeaderboardEntry(int rank, Long customerId, String customerName, long totalPoints,
+                                   BigDecimal totalAmount) {}
+}
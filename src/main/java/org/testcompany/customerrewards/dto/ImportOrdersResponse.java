@@ -0,0 +1,11 @@
+package org.testcompany.customerrewards.dto;
+
+import java.util.List;
+
+public record ImportOrdersResponse(String importId, long importedOrders, long rejectedOrders,
+                                   List<RejectedRow> rejectedRows) {
+    /**
+     * Rejected line of the import file, 1 being the first line.
+     */
+    public record RejectedRow(long lineNumber, Error error) {}
+}
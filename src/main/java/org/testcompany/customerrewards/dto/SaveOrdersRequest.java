@@ -0,0 +1,17 @@
+package org.testcompany.customerrewards.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public record SaveOrdersRequest(
+        @NotEmpty(message = "At least one order is required")
+        List<@NotNull(message = "Order must not be null") Order> orders) {
+    /**
+     * New purchase order. Missing or invalid fields reject the order, not the request.
+     */
+    public record Order(Long customerId, BigDecimal transactionAmount, Instant transactionDate) {}
+}
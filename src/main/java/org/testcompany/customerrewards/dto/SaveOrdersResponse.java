@@ -0,0 +1,10 @@
+package org.testcompany.customerrewards.dto;
+
+import java.util.List;
+
+public record SaveOrdersResponse(int acceptedOrders, List<RejectedOrder> rejectedOrders) {
+    /**
+     * Order that was not saved, identified by its index in the request.
+     */
+    public record RejectedOrder(int index, Error error) {}
+}
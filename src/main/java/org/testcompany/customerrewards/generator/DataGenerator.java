@@ -0,0 +1,155 @@
+package org.testcompany.customerrewards.generator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.importer.OrderRecord;
+import org.testcompany.customerrewards.repository.CustomerJdbcRepository;
+import org.testcompany.customerrewards.repository.OrderImportJdbcRepository;
+import org.testcompany.customerrewards.services.CompiledRewardsRules;
+import org.testcompany.customerrewards.services.InMemoryOrderStore;
+import org.testcompany.customerrewards.services.OrderIdAllocator;
+import org.testcompany.customerrewards.util.RewardsLedgerUtil;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic customers and orders for tests and benchmarks, writing them with
+ * batched JDBC statements together with their rewards ledger rows. The data only depends
+ * on the settings: the same seed generates the same customers, amounts and dates (order
+ * ids are taken from PURCHASE_ORDER_SEQ).
+ * <p>
+ * Regular customers get a geometric number of orders and 'whale' customers a Pareto
+ * distributed number of orders. A share of the amounts is clustered around the 50 and
+ * 100 rewards thresholds, the others follow a log-normal distribution. Transaction
+ * dates are uniformly spread over the configured months.
+ */
+@Component
+public class DataGenerator {
+    private static final Logger logger =
+            LoggerFactory.getLogger(DataGenerator.class);
+    private static final long[] THRESHOLDS_IN_CENTS = {50_00L, 100_00L};
+    private static final long THRESHOLD_AMOUNT_DEVIATION_IN_CENTS = 3_00L;
+    private static final double MEDIAN_AMOUNT_IN_CENTS = 60_00;
+    private static final long MAX_AMOUNT_IN_CENTS = 1_000_000_00L;
+    private static final int PROGRESS_LOG_ORDERS = 1_000_000;
+    private final CustomerJdbcRepository customerJdbcRepository;
+    private final OrderImportJdbcRepository orderImportJdbcRepository;
+    private final OrderIdAllocator orderIdAllocator;
+    private final InMemoryOrderStore inMemoryOrderStore;
+    private final CompiledRewardsRules compiledRewardsRules;
+    private final TransactionTemplate transactionTemplate;
+
+    public DataGenerator(CustomerJdbcRepository customerJdbcRepository,
+                         OrderImportJdbcRepository orderImportJdbcRepository,
+                         OrderIdAllocator orderIdAllocator,
+                         InMemoryOrderStore inMemoryOrderStore,
+                         CompiledRewardsRules compiledRewardsRules,
+                         PlatformTransactionManager transactionManager) {
+        this.customerJdbcRepository = customerJdbcRepository;
+        this.orderImportJdbcRepository = orderImportJdbcRepository;
+        this.orderIdAllocator = orderIdAllocator;
+        this.inMemoryOrderStore = inMemoryOrderStore;
+        this.compiledRewardsRules = compiledRewardsRules;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public GeneratedData generate(DataGeneratorSettings settings) {
+        Objects.requireNonNull(settings.endMonth(), "End month must not be null");
+        var firstCustomerId = settings.firstCustomerId() > 0
+                ? settings.firstCustomerId() : customerJdbcRepository.findMaxCustomerId() + 1;
+        var startSecond = settings.endMonth().minusMonths(settings.months()).atDay(1)
+                .atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        var endSecond = settings.endMonth().atDay(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        var random = new SplittableRandom(settings.seed());
+        var batch = new Batch(settings.batchSize());
+        long orders = 0;
+        for (long customerId = firstCustomerId; customerId < firstCustomerId + settings.customers(); customerId++) {
+            batch.customers.add(new Customer(customerId, "Customer " + customerId,
+                    String.format("%03d-%03d-%04d", customerId / 10_000_000 % 1_000,
+                            customerId / 10_000 % 1_000, customerId % 10_000)));
+            var customerOrders = nextOrderCount(random, settings);
+            for (int i = 0; i < customerOrders; i++) {
+                batch.orders.add(new OrderRecord(orderIdAllocator.nextOrderId(), customerId,
+                        nextAmount(random, settings), Instant.ofEpochSecond(
+                        startSecond + random.nextLong(endSecond - startSecond))));
+                if (++orders % PROGRESS_LOG_ORDERS == 0) {
+                    logger.info("Generated {} orders of {} customers", orders, customerId - firstCustomerId + 1);
+                }
+                if (batch.orders.size() == settings.batchSize()) {
+                    write(batch);
+                }
+            }
+            if (batch.customers.size() == settings.batchSize()) {
+                write(batch);
+            }
+        }
+        write(batch);
+        logger.info("Generated {} customers from id {} with {} orders", settings.customers(),
+                firstCustomerId, orders);
+        return new GeneratedData(firstCustomerId, settings.customers(), orders);
+    }
+
+    /**
+     * Writes the customers, orders and ledger rows of the batch in one transaction.
+     */
+    private void write(Batch batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            customerJdbcRepository.insertCustomers(batch.customers);
+            orderImportJdbcRepository.insertOrders(batch.orders);
+            orderImportJdbcRepository.addMonthlyPoints(RewardsLedgerUtil.toMonthlyPointsList(
+                    compiledRewardsRules.get(), batch.orders));
+            inMemoryOrderStore.addOrders(batch.orders);
+        });
+        batch.customers.clear();
+        batch.orders.clear();
+    }
+
+    private int nextOrderCount(SplittableRandom random, DataGeneratorSettings settings) {
+        double orders;
+        if (random.nextDouble() < settings.whaleRatio()) {
+            orders = settings.whaleMinOrders() / Math.pow(1 - random.nextDouble(), 1 / settings.whaleParetoAlpha());
+        } else {
+            var meanOrders = settings.meanOrdersPerCustomer();
+            orders = Math.floor(Math.log(1 - random.nextDouble()) / Math.log(meanOrders / (meanOrders + 1)));
+        }
+        return (int) Math.min(orders, settings.maxOrdersPerCustomer());
+    }
+
+    private BigDecimal nextAmount(SplittableRandom random, DataGeneratorSettings settings) {
+        long amountInCents;
+        if (random.nextDouble() < settings.thresholdAmountRatio()) {
+            // a tenth exactly on the threshold, the others within a few dollars of it
+            var thresholdInCents = THRESHOLDS_IN_CENTS[random.nextInt(THRESHOLDS_IN_CENTS.length)];
+            amountInCents = random.nextInt(10) == 0 ? thresholdInCents : thresholdInCents
+                    + Math.round(random.nextGaussian() * THRESHOLD_AMOUNT_DEVIATION_IN_CENTS);
+        } else {
+            amountInCents = Math.round(MEDIAN_AMOUNT_IN_CENTS * Math.exp(random.nextGaussian()));
+        }
+        return BigDecimal.valueOf(Math.min(Math.max(amountInCents, 1L), MAX_AMOUNT_IN_CENTS), 2);
+    }
+
+    public record GeneratedData(long firstCustomerId, int customers, long orders) {}
+
+    /**
+     * Rows generated since the last write.
+     */
+    private static class Batch {
+        private final List<Customer> customers;
+        private final List<OrderRecord> orders;
+
+        private Batch(int batchSize) {
+            this.customers = new ArrayList<>(batchSize);
+            this.orders = new ArrayList<>(batchSize);
+        }
+    }
+}
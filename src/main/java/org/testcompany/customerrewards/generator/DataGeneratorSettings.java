@@ -0,0 +1,30 @@
+package org.testcompany.customerrewards.generator;
+
+import java.time.YearMonth;
+
+/**
+ * Settings of the synthetic data generator.
+ *
+ * @param seed                   seed of the random generator, the same seed and settings
+ *                               generate the same customers and orders
+ * @param customers              number of customers to generate
+ * @param firstCustomerId        id of the first customer, 0 to start after the largest
+ *                               existing customer id
+ * @param meanOrdersPerCustomer  mean orders of a regular customer (geometric distribution)
+ * @param whaleRatio             fraction of 'whale' customers
+ * @param whaleMinOrders         minimum orders of a whale customer
+ * @param whaleParetoAlpha       shape of the Pareto distribution of whale orders, the
+ *                               lower the heavier the tail
+ * @param maxOrdersPerCustomer   cap of the orders of a single customer
+ * @param thresholdAmountRatio   fraction of amounts clustered around the 50 and 100
+ *                               rewards thresholds
+ * @param months                 number of months before 'endMonth' spanned by the orders
+ * @param endMonth               month following the generated orders
+ * @param batchSize              rows written per transaction
+ */
+public record DataGeneratorSettings(long seed, int customers, long firstCustomerId,
+                                    double meanOrdersPerCustomer, double whaleRatio, int whaleMinOrders,
+                                    double whaleParetoAlpha, int maxOrdersPerCustomer,
+                                    double thresholdAmountRatio, int months, YearMonth endMonth,
+                                    int batchSize) {
+}
@@ -0,0 +1,115 @@
+package org.testcompany.customerrewards.importer;
+
+import org.testcompany.customerrewards.exceptions.CustomerRewardsValidationException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads UTF-8 lines from a channel through a fixed size buffer, keeping track of the
+ * byte offset of the next line so a reader can later be positioned back on it.
+ * Memory use is bounded by the buffer and the longest line.
+ */
+public class ChannelLineReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+    private byte[] line = new byte[256];
+    private long position;
+    private boolean endOfInput;
+
+    public ChannelLineReader(ReadableByteChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * @return the next line without its terminator, or null at the end of the input
+     */
+    public String readLine() throws IOException {
+        var length = 0;
+        while (true) {
+            while (buffer.hasRemaining()) {
+                var b = buffer.get();
+                position++;
+                if (b == '\n') {
+                    return decode(length);
+                }
+                if (length == MAX_LINE_LENGTH) {
+                    throw new CustomerRewardsValidationException(String.format(
+                            "Line ending at byte %s is longer than %s bytes", position, MAX_LINE_LENGTH));
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, Math.min(line.length * 2, MAX_LINE_LENGTH));
+                }
+                line[length++] = b;
+            }
+            if (endOfInput || !fillBuffer()) {
+                return length == 0 ? null : decode(length);
+            }
+        }
+    }
+
+    /**
+     * Byte offset, from the start of the input, of the next line.
+     */
+    public long position() {
+        return position;
+    }
+
+    /**
+     * Moves forward to the given byte offset, seeking when the channel supports it and
+     * discarding the bytes otherwise.
+     */
+    public void skipTo(long offset) throws IOException {
+        if (offset < position) {
+            throw new IllegalArgumentException("Cannot skip back to offset " + offset);
+        }
+        if (offset - position <= buffer.remaining()) {
+            buffer.position(buffer.position() + (int) (offset - position));
+            position = offset;
+            return;
+        }
+        if (channel instanceof SeekableByteChannel seekableByteChannel) {
+            seekableByteChannel.position(offset);
+            buffer.clear().flip();
+            position = offset;
+            return;
+        }
+        while (position < offset) {
+            if (!buffer.hasRemaining() && (endOfInput || !fillBuffer())) {
+                throw new CustomerRewardsValidationException(String.format(
+                        "Input ends at byte %s, before offset %s", position, offset));
+            }
+            var skipped = (int) Math.min(buffer.remaining(), offset - position);
+            buffer.position(buffer.position() + skipped);
+            position += skipped;
+        }
+    }
+
+    private boolean fillBuffer() throws IOException {
+        buffer.clear();
+        var read = 0;
+        while (read == 0) {
+            read = channel.read(buffer);
+        }
+        buffer.flip();
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+
+    private String decode(int length) {
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,91 @@
+package org.testcompany.customerrewards.importer;
+
+import org.testcompany.customerrewards.exceptions.CustomerRewardsValidationException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Parses CSV lines whose columns are named by the header line: 'customerId',
+ * 'transactionAmount', 'transactionDate' (ISO-8601 instant) and the optional 'id'.
+ * Fields must not contain commas, which holds for every supported column.
+ */
+public class CsvOrderRecordParser implements OrderRecordParser {
+
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("customerid", "transactionamount", "transactiondate");
+    private final int idColumn;
+    private final int customerIdColumn;
+    private final int transactionAmountColumn;
+    private final int transactionDateColumn;
+    private final int columnCount;
+
+    private CsvOrderRecordParser(List<String> columns) {
+        idColumn = columns.indexOf("id");
+        customerIdColumn = columns.indexOf("customerid");
+        transactionAmountColumn = columns.indexOf("transactionamount");
+        transactionDateColumn = columns.indexOf("transactiondate");
+        columnCount = columns.size();
+    }
+
+    public static CsvOrderRecordParser ofHeader(String header) {
+        if (header == null || header.isBlank()) {
+            throw new CustomerRewardsValidationException("CSV header is missing");
+        }
+        // column names are matched ignoring case and '_', e.g. CUSTOMER_ID or customerId
+        var columns = Arrays.stream(split(header))
+                .map(column -> column.replace("_", "").toLowerCase(Locale.ROOT))
+                .toList();
+        for (var requiredColumn : REQUIRED_COLUMNS) {
+            if (!columns.contains(requiredColumn)) {
+                throw new CustomerRewardsValidationException(String.format(
+                        "CSV header must contain the columns id (optional), customerId, " +
+                        "transactionAmount and transactionDate: %s", header));
+            }
+        }
+        return new CsvOrderRecordParser(columns);
+    }
+
+    @Override
+    public OrderRecord parse(String line) {
+        var fields = split(line);
+        if (fields.length != columnCount) {
+            throw new CustomerRewardsValidationException(String.format(
+                    "Expected %s columns but found %s", columnCount, fields.length));
+        }
+        return new OrderRecord(
+                idColumn < 0 ? null : parseField(fields[idColumn], "id", Long::valueOf),
+                parseField(fields[customerIdColumn], "customerId", Long::valueOf),
+                parseField(fields[transactionAmountColumn], "transactionAmount", BigDecimal::new),
+                parseField(fields[transactionDateColumn], "transactionDate", Instant::parse));
+    }
+
+    private static String[] split(String line) {
+        var fields = line.split(",", -1);
+        for (int i = 0; i < fields.length; i++) {
+            var field = fields[i].strip();
+            if (field.length() >= 2 && field.startsWith("\"") && field.endsWith("\"")) {
+                field = field.substring(1, field.length() - 1);
+            }
+            fields[i] = field;
+        }
+        return fields;
+    }
+
+    private static <T> T parseField(String field, String column, Function<String, T> parser) {
+        if (field.isEmpty()) {
+            return null;
+        }
+        try {
+            return parser.apply(field);
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            throw new CustomerRewardsValidationException(String.format(
+                    "Invalid %s: %s", column, field));
+        }
+    }
+}
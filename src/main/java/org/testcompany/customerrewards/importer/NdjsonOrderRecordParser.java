@@ -0,0 +1,26 @@
+package org.testcompany.customerrewards.importer;
+
+import org.testcompany.customerrewards.exceptions.CustomerRewardsValidationException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Parses NDJSON lines, one JSON object per line with the fields of {@link OrderRecord}.
+ */
+public class NdjsonOrderRecordParser implements OrderRecordParser {
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonOrderRecordParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public OrderRecord parse(String line) {
+        try {
+            return objectMapper.readValue(line, OrderRecord.class);
+        } catch (JacksonException ex) {
+            throw new CustomerRewardsValidationException("Invalid JSON order: " + ex.getOriginalMessage());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.testcompany.customerrewards.importer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Purchase order read from an import file. The id is optional: orders without id get
+ * one from PURCHASE_ORDER_SEQ.
+ */
+public record OrderRecord(Long id, Long customerId, BigDecimal transactionAmount, Instant transactionDate) {}
@@ -0,0 +1,10 @@
+package org.testcompany.customerrewards.importer;
+
+/**
+ * Parses one line of an import file into an order. Malformed lines are reported with a
+ * CustomerRewardsValidationException.
+ */
+public interface OrderRecordParser {
+
+    OrderRecord parse(String line);
+}
@@ -0,0 +1,156 @@
+package org.testcompany.customerrewards.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of each stage of a rewards points request, published as the
+ * 'customer.rewards.stage' timer with a percentile histogram, and the orders in the
+ * rewards period of each calculation, published as the 'customer.rewards.orders.scanned'
+ * distribution summary. Both are tagged with the rewards period type and length, the
+ * length bucketed into the ranges of PERIOD_LENGTH_TAGS: the percentile histograms of
+ * each of the 240 lengths would add up to hundreds of thousands of series.
+ * <p>
+ * Callers take a start time with start() and pass it to record(). When
+ * 'customer-rewards.metrics.stages.enabled' is false both return right away, without
+ * reading the clock or looking up a meter.
+ */
+@Component
+public class RewardsPipelineMetrics {
+
+    static final String STAGE_METRIC = "customer.rewards.stage";
+    static final String ORDERS_SCANNED_METRIC = "customer.rewards.orders.scanned";
+    private static final String SERIALIZATION_SAMPLE_ATTRIBUTE =
+            RewardsPipelineMetrics.class.getName() + ".serialization";
+    // upper bounds of the period length ranges, the last one open-ended
+    private static final int[] PERIOD_LENGTH_BOUNDS = {1, 3, 12, 24};
+    static final String[] PERIOD_LENGTH_TAGS = {"1", "2-3", "4-12", "13-24", "25+"};
+
+    public enum Stage {
+        CUSTOMER_LOOKUP("customer-lookup"),
+        ORDER_QUERY("order-query"),
+        CALCULATION("calculation"),
+        CONVERSION("conversion"),
+        SERIALIZATION("serialization");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Map<StageKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<PeriodKey, DistributionSummary> ordersScannedSummaries = new ConcurrentHashMap<>();
+
+    public RewardsPipelineMetrics(MeterRegistry meterRegistry,
+                                  @Value("${customer-rewards.metrics.stages.enabled:true}") boolean enabled) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the start time to pass to record(), or 0 when metrics are disabled.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public void record(Stage stage, RewardsPeriodType rewardsPeriodType, int rewardsPeriod, long startNanos) {
+        if (!enabled) {
+            return;
+        }
+        timers.computeIfAbsent(new StageKey(stage, rewardsPeriodType, toPeriodLengthBucket(rewardsPeriod)),
+                        this::registerTimer)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordOrdersScanned(RewardsPeriodType rewardsPeriodType, int rewardsPeriod, long orders) {
+        if (!enabled) {
+            return;
+        }
+        ordersScannedSummaries.computeIfAbsent(
+                        new PeriodKey(rewardsPeriodType, toPeriodLengthBucket(rewardsPeriod)),
+                        this::registerOrdersScannedSummary)
+                .record(orders);
+    }
+
+    /**
+     * Starts the serialization stage of the current request. It is recorded by
+     * RewardsSerializationMetricsFilter once the response body has been written.
+     */
+    public void startSerialization(RewardsPeriodType rewardsPeriodType, int rewardsPeriod) {
+        if (!enabled) {
+            return;
+        }
+        var requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.setAttribute(SERIALIZATION_SAMPLE_ATTRIBUTE,
+                    new SerializationSample(rewardsPeriodType, rewardsPeriod, System.nanoTime()),
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    void recordSerialization(HttpServletRequest request) {
+        if (request.getAttribute(SERIALIZATION_SAMPLE_ATTRIBUTE) instanceof SerializationSample sample) {
+            record(Stage.SERIALIZATION, sample.rewardsPeriodType(), sample.rewardsPeriod(), sample.startNanos());
+        }
+    }
+
+    private Timer registerTimer(StageKey key) {
+        return Timer.builder(STAGE_METRIC)
+                .description("Time spent in a stage of a rewards points request")
+                .tag("stage", key.stage().tag)
+                .tag("period.type", key.rewardsPeriodType().name())
+                .tag("period.length", PERIOD_LENGTH_TAGS[key.periodLengthBucket()])
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary registerOrdersScannedSummary(PeriodKey key) {
+        return DistributionSummary.builder(ORDERS_SCANNED_METRIC)
+                .description("Orders in the rewards period of a rewards points calculation")
+                .baseUnit("orders")
+                .tag("period.type", key.rewardsPeriodType().name())
+                .tag("period.length", PERIOD_LENGTH_TAGS[key.periodLengthBucket()])
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1_000_000.0)
+                .register(meterRegistry);
+    }
+
+    static int toPeriodLengthBucket(int rewardsPeriod) {
+        var bucket = 0;
+        while (bucket < PERIOD_LENGTH_BOUNDS.length && rewardsPeriod > PERIOD_LENGTH_BOUNDS[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private record StageKey(Stage stage, RewardsPeriodType rewardsPeriodType, int periodLengthBucket) {}
+
+    private record PeriodKey(RewardsPeriodType rewardsPeriodType, int periodLengthBucket) {}
+
+    private record SerializationSample(RewardsPeriodType rewardsPeriodType, int rewardsPeriod,
+                                       long startNanos) {}
+}
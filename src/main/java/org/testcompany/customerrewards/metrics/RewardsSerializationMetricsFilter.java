@@ -0,0 +1,38 @@
+package org.testcompany.customerrewards.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Records the serialization stage started by the controller with
+ * RewardsPipelineMetrics.startSerialization, i.e. the time from the end of the
+ * conversion to the response body being written. Skipped when stage metrics are
+ * disabled.
+ */
+@Component
+public class RewardsSerializationMetricsFilter extends OncePerRequestFilter {
+
+    private final RewardsPipelineMetrics rewardsPipelineMetrics;
+
+    public RewardsSerializationMetricsFilter(RewardsPipelineMetrics rewardsPipelineMetrics) {
+        this.rewardsPipelineMetrics = rewardsPipelineMetrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rewardsPipelineMetrics.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+        rewardsPipelineMetrics.recordSerialization(request);
+    }
+}
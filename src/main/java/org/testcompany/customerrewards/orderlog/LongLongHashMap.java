@@ -0,0 +1,123 @@
+package org.testcompany.customerrewards.orderlog;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map of long keys to long values, with linear probing and
+ * backward shift deletion, so lookups and updates allocate no objects. Long.MIN_VALUE
+ * is reserved as the empty key. Not thread-safe.
+ */
+final class LongLongHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    LongLongHashMap(int expectedSize) {
+        allocate(Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(expectedSize, 1) * 2 - 1) << 1));
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value of the key, or missingValue.
+     */
+    long get(long key, long missingValue) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            var slotKey = keys[slot];
+            if (slotKey == key) {
+                return values[slot];
+            }
+            if (slotKey == EMPTY) {
+                return missingValue;
+            }
+        }
+    }
+
+    void put(long key, long value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key " + key + " is reserved");
+        }
+        int slot = slot(key);
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            if (++size * 2 > keys.length) {
+                values[slot] = value;
+                rehash(keys.length * 2);
+                return;
+            }
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Removes the key, shifting back the following entries of its probe sequence.
+     *
+     * @return false when the map has no such key
+     */
+    boolean remove(long key) {
+        int slot = slot(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            var nextKey = keys[next];
+            if (nextKey == EMPTY) {
+                break;
+            }
+            // the entry at next stays unless its home slot is cyclically outside (slot, next]
+            var home = slot(nextKey);
+            if (slot <= next ? slot < home && home <= next : slot < home || home <= next) {
+                continue;
+            }
+            keys[slot] = nextKey;
+            values[slot] = values[next];
+            slot = next;
+        }
+        keys[slot] = EMPTY;
+        size--;
+        return true;
+    }
+
+    private int slot(long key) {
+        var hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private void rehash(int capacity) {
+        var oldKeys = keys;
+        var oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,560 @@
+package org.testcompany.customerrewards.orderlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Append-only log of orders in memory-mapped segment files, see OrderLogSegment.
+ * <p>
+ * Writes append to the active segment: a correction appends a tombstone for the order
+ * id followed by the new version, a deletion appends a tombstone. When the active
+ * segment is full it is sealed, i.e. rewritten sorted by customer id and transaction
+ * date with a per-customer index, keeping only its live orders and its tombstones, which
+ * may refer to orders of older segments. When there are more than 'maxSealedSegments'
+ * sealed segments they are compacted into one, dropping the corrected and deleted orders
+ * and the tombstones. Both write the new files under temporary names and complete them
+ * by a checksummed index trailer, so a crash leaves either the inputs or the output.
+ * <p>
+ * The order id to record map is kept on heap in primitive arrays and rebuilt on open by
+ * replaying the segments; the active segment is recovered up to its first record failing
+ * the checksum. Reading a customer's window is a binary search in the index of each
+ * sealed segment and a sequential scan of its mapped records, plus the customer's
+ * records of the active segment, passing primitives to a RecordVisitor.
+ * <p>
+ * Appended records are durable once force returns. Thread-safe: reads share a read
+ * lock, writes hold the write lock.
+ */
+public class OrderLog implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(OrderLog.class);
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long NANOS_PER_MICRO = 1_000L;
+    private static final long MISSING = -1L;
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final int maxSealedSegments;
+    private final List<OrderLogSegment> sealedSegments = new ArrayList<>();
+    // order id -> sequence (segment id << 32 | record index) of its live order record
+    private final LongLongHashMap liveOrders = new LongLongHashMap(1_024);
+    private final Map<Long, RecordIndexes> activeRecordsByCustomerId = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private OrderLogSegment activeSegment;
+    private long maxOrderId;
+
+    private OrderLog(Path directory, int segmentCapacity, int maxSealedSegments) {
+        if (segmentCapacity < 2) {
+            throw new IllegalArgumentException("Segment capacity must be at least 2");
+        }
+        this.directory = directory;
+        this.segmentCapacity = segmentCapacity;
+        this.maxSealedSegments = maxSealedSegments;
+    }
+
+    /**
+     * Opens the log in the directory, creating it when missing, and recovers its state.
+     */
+    public static OrderLog open(Path directory, int segmentCapacity, int maxSealedSegments) throws IOException {
+        Files.createDirectories(directory);
+        var orderLog = new OrderLog(directory, segmentCapacity, maxSealedSegments);
+        try {
+            orderLog.recover();
+        } catch (IOException | RuntimeException e) {
+            orderLog.close();
+            throw e;
+        }
+        return orderLog;
+    }
+
+    /**
+     * Appends an order, replacing the live order with the same id if any.
+     */
+    public void append(long orderId, long customerId, Instant transactionDate, long amountInCents)
+            throws IOException {
+        var transactionMicros = toMicros(transactionDate);
+        lock.writeLock().lock();
+        try {
+            appendTombstone(orderId);
+            appendRecord(orderId, customerId, transactionMicros, amountInCents, OrderLogSegment.ORDER);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Deletes an order.
+     *
+     * @return false when the log has no live order with this id
+     */
+    public boolean delete(long orderId) throws IOException {
+        lock.writeLock().lock();
+        try {
+            return appendTombstone(orderId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forces the appended records to storage.
+     */
+    public void force() {
+        lock.readLock().lock();
+        try {
+            activeSegment.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Passes the live order with this id to the visitor.
+     *
+     * @return false when the log has no such order
+     */
+    public boolean find(long orderId, RecordVisitor recordVisitor) {
+        lock.readLock().lock();
+        try {
+            var sequence = liveOrders.get(orderId, MISSING);
+            if (sequence == MISSING) {
+                return false;
+            }
+            visit(getSegment(sequence), (int) sequence, recordVisitor);
+            return true;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Passes the live orders of the customer with transaction date in [startDate, endDate)
+     * to the visitor, grouped by segment.
+     */
+    public void scan(long customerId, Instant startDate, Instant endDate, RecordVisitor recordVisitor) {
+        scan(customerId, toMicros(startDate), toMicros(endDate), recordVisitor);
+    }
+
+    /**
+     * Passes all the live orders of the customer to the visitor, grouped by segment.
+     */
+    public void scan(long customerId, RecordVisitor recordVisitor) {
+        scan(customerId, Long.MIN_VALUE, Long.MAX_VALUE, recordVisitor);
+    }
+
+    private void scan(long customerId, long startMicros, long endMicros, RecordVisitor recordVisitor) {
+        lock.readLock().lock();
+        try {
+            for (var segment: sealedSegments) {
+                var customerRecords = segment.findCustomer(customerId);
+                if (customerRecords < 0) {
+                    continue;
+                }
+                var fromIndex = (int) (customerRecords >>> 32);
+                var toIndex = fromIndex + (int) customerRecords;
+                for (int i = segment.findFirstIndex(fromIndex, toIndex, startMicros);
+                     i < toIndex && segment.getTransactionMicros(i) < endMicros; i++) {
+                    if (isLiveOrder(segment, i)) {
+                        visit(segment, i, recordVisitor);
+                    }
+                }
+            }
+            var recordIndexes = activeRecordsByCustomerId.get(customerId);
+            if (recordIndexes != null) {
+                for (int j = 0; j < recordIndexes.size; j++) {
+                    var i = recordIndexes.indexes[j];
+                    var transactionMicros = activeSegment.getTransactionMicros(i);
+                    if (transactionMicros >= startMicros && transactionMicros < endMicros
+                            && isLiveOrder(activeSegment, i)) {
+                        visit(activeSegment, i, recordVisitor);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Highest id of the orders ever appended, deleted ones included, 0 for an empty log.
+     * Sealed segments keep it in their index trailer, so it survives the orders and
+     * tombstones dropped by sealing and compaction.
+     */
+    public long getMaxOrderId() {
+        lock.readLock().lock();
+        try {
+            return maxOrderId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of live orders.
+     */
+    public int getOrders() {
+        lock.readLock().lock();
+        try {
+            return liveOrders.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of segments, including the active one.
+     */
+    public int getSegments() {
+        lock.readLock().lock();
+        try {
+            return sealedSegments.size() + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compacts the sealed segments into one, keeping only their live orders.
+     */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            compactSealedSegments();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (activeSegment != null) {
+                activeSegment.force();
+                activeSegment.close();
+                activeSegment = null;
+            }
+            for (var segment: sealedSegments) {
+                segment.close();
+            }
+            sealedSegments.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), MICROS_PER_SECOND),
+                instant.getNano() / NANOS_PER_MICRO);
+    }
+
+    public static Instant toInstant(long epochMicros) {
+        return Instant.ofEpochSecond(Math.floorDiv(epochMicros, MICROS_PER_SECOND),
+                Math.floorMod(epochMicros, MICROS_PER_SECOND) * NANOS_PER_MICRO);
+    }
+
+    private boolean appendTombstone(long orderId) throws IOException {
+        var sequence = liveOrders.get(orderId, MISSING);
+        if (sequence == MISSING) {
+            return false;
+        }
+        var customerId = getSegment(sequence).getCustomerId((int) sequence);
+        appendRecord(orderId, customerId, 0L, 0L, OrderLogSegment.TOMBSTONE);
+        return true;
+    }
+
+    private void appendRecord(long orderId, long customerId, long transactionMicros, long amountInCents, int type)
+            throws IOException {
+        if (activeSegment.isFull()) {
+            roll();
+        }
+        var index = activeSegment.append(orderId, customerId, transactionMicros, amountInCents, type);
+        apply(activeSegment, index);
+    }
+
+    private void roll() throws IOException {
+        var sealedSegment = seal(activeSegment);
+        sealedSegments.add(sealedSegment);
+        activeRecordsByCustomerId.clear();
+        activeSegment = OrderLogSegment.create(directory, sealedSegment.getId() + 1, segmentCapacity);
+        if (sealedSegments.size() > maxSealedSegments) {
+            compactSealedSegments();
+        }
+    }
+
+    /**
+     * Rewrites an unsealed segment sorted by customer id and transaction date, dropping
+     * its orders which are no longer live.
+     */
+    private OrderLogSegment seal(OrderLogSegment segment) throws IOException {
+        var indexes = IntStream.range(0, segment.getSize())
+                .filter(i -> segment.getType(i) == OrderLogSegment.TOMBSTONE || isLiveOrder(segment, i))
+                .boxed()
+                .sorted(Comparator.<Integer>comparingLong(segment::getCustomerId)
+                        .thenComparingLong(segment::getTransactionMicros))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        try (var writer = new OrderLogSegment.Writer(directory, segment.getId())) {
+            for (var index: indexes) {
+                writer.add(segment, index);
+            }
+            writer.finish(segment.getId(), IntStream.range(0, segment.getSize())
+                    .mapToLong(segment::getOrderId)
+                    .max()
+                    .orElse(0L));
+        }
+        segment.close();
+        return pointLiveOrders(install(segment.getId(), segment.getId()));
+    }
+
+    private void compactSealedSegments() throws IOException {
+        if (sealedSegments.isEmpty()) {
+            return;
+        }
+        var firstId = sealedSegments.getFirst().getId();
+        var lastId = sealedSegments.getLast().getId();
+        var inputRecords = sealedSegments.stream().mapToLong(OrderLogSegment::getSize).sum();
+        int outputRecords;
+        try (var writer = new OrderLogSegment.Writer(directory, lastId)) {
+            // merge of the sorted segments, skipping the records which are not live orders
+            var segments = sealedSegments.toArray(OrderLogSegment[]::new);
+            var positions = new int[segments.length];
+            while (true) {
+                var next = -1;
+                for (int s = 0; s < segments.length; s++) {
+                    var segment = segments[s];
+                    while (positions[s] < segment.getSize() && !isLiveOrder(segment, positions[s])) {
+                        positions[s]++;
+                    }
+                    if (positions[s] < segment.getSize() && (next < 0
+                            || compare(segment, positions[s], segments[next], positions[next]) < 0)) {
+                        next = s;
+                    }
+                }
+                if (next < 0) {
+                    break;
+                }
+                writer.add(segments[next], positions[next]++);
+            }
+            outputRecords = writer.getSize();
+            writer.finish(firstId, sealedSegments.stream()
+                    .mapToLong(OrderLogSegment::getMaxOrderId)
+                    .max()
+                    .orElse(0L));
+        }
+        for (var segment: sealedSegments) {
+            segment.close();
+        }
+        sealedSegments.clear();
+        sealedSegments.add(pointLiveOrders(install(firstId, lastId)));
+        logger.info("Compacted segments {} to {} of the order log from {} to {} records", firstId, lastId,
+                inputRecords, outputRecords);
+    }
+
+    /**
+     * Replaces the segments [firstId, lastId] by the complete compacted files of segment
+     * lastId and reopens it. Repeatable after a crash at any step.
+     */
+    private OrderLogSegment install(long firstId, long lastId) throws IOException {
+        var compactLogPath = OrderLogSegment.compactLogPath(directory, lastId);
+        if (Files.exists(compactLogPath)) {
+            for (var id: listSegmentIds()) {
+                if (id >= firstId && id <= lastId) {
+                    Files.deleteIfExists(OrderLogSegment.indexPath(directory, id));
+                    Files.delete(OrderLogSegment.logPath(directory, id));
+                }
+            }
+            Files.move(compactLogPath, OrderLogSegment.logPath(directory, lastId), StandardCopyOption.ATOMIC_MOVE);
+        }
+        Files.move(OrderLogSegment.compactIndexPath(directory, lastId), OrderLogSegment.indexPath(directory, lastId),
+                StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory();
+        return OrderLogSegment.openSealed(directory, lastId);
+    }
+
+    /**
+     * Points the live orders to the records of a segment just sealed or compacted, which
+     * only holds live orders.
+     */
+    private OrderLogSegment pointLiveOrders(OrderLogSegment segment) {
+        for (int i = 0; i < segment.getSize(); i++) {
+            if (segment.getType(i) == OrderLogSegment.ORDER) {
+                liveOrders.put(segment.getOrderId(i), sequence(segment, i));
+            }
+        }
+        return segment;
+    }
+
+    private void recover() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (var path: files.toList()) {
+                var fileName = path.getFileName().toString();
+                var id = OrderLogSegment.parseCompactIndexFileId(fileName);
+                if (id >= 0) {
+                    var firstId = OrderLogSegment.readFirstInputSegmentId(path);
+                    if (firstId >= 0) {
+                        logger.info("Completing the interrupted compaction of segments {} to {}", firstId, id);
+                        install(firstId, id).close();
+                    } else {
+                        Files.delete(path);
+                    }
+                } else if (fileName.endsWith(".compact")) {
+                    // the index of a complete compaction is moved last, see install
+                    if (!Files.exists(OrderLogSegment.compactIndexPath(directory,
+                            OrderLogSegment.parseLogFileId(fileName.substring(0, fileName.length() - 8))))) {
+                        Files.deleteIfExists(path);
+                    }
+                }
+            }
+        }
+        var segmentIds = listSegmentIds();
+        for (int s = 0; s < segmentIds.length; s++) {
+            var id = segmentIds[s];
+            if (Files.exists(OrderLogSegment.indexPath(directory, id))) {
+                var segment = OrderLogSegment.openSealed(directory, id);
+                sealedSegments.add(segment);
+                replaySealed(segment);
+            } else {
+                var segment = OrderLogSegment.openActive(directory, id);
+                var discardedBytes = segment.discardTail();
+                if (discardedBytes > 0) {
+                    logger.warn("Discarded {} bytes of records torn by a crash in segment {} of the order log",
+                            discardedBytes, id);
+                }
+                for (int i = 0; i < segment.getSize(); i++) {
+                    apply(segment, i);
+                }
+                if (s < segmentIds.length - 1) {
+                    // only the last segment is unsealed after a clean shutdown
+                    sealedSegments.add(seal(segment));
+                    activeRecordsByCustomerId.clear();
+                } else {
+                    activeSegment = segment;
+                }
+            }
+        }
+        if (activeSegment == null) {
+            var id = segmentIds.length == 0 ? 0L : segmentIds[segmentIds.length - 1] + 1;
+            activeSegment = OrderLogSegment.create(directory, id, segmentCapacity);
+        }
+        logger.info("Opened the order log in {}: {} orders in {} segments", directory, liveOrders.size(),
+                sealedSegments.size() + 1);
+    }
+
+    /**
+     * Applies the tombstones of a sealed segment before its orders: they only refer to
+     * orders of older segments, as sealing drops the orders deleted in the segment itself.
+     */
+    private void replaySealed(OrderLogSegment segment) throws IOException {
+        for (int i = 0; i < segment.getSize(); i++) {
+            if (!segment.isValid(i)) {
+                throw new IOException("Record " + i + " of segment " + segment.getId() + " is corrupted");
+            }
+            if (segment.getType(i) == OrderLogSegment.TOMBSTONE) {
+                liveOrders.remove(segment.getOrderId(i));
+            }
+        }
+        for (int i = 0; i < segment.getSize(); i++) {
+            if (segment.getType(i) == OrderLogSegment.ORDER) {
+                liveOrders.put(segment.getOrderId(i), sequence(segment, i));
+            }
+        }
+        maxOrderId = Math.max(maxOrderId, segment.getMaxOrderId());
+    }
+
+    private void apply(OrderLogSegment segment, int index) {
+        var orderId = segment.getOrderId(index);
+        maxOrderId = Math.max(maxOrderId, orderId);
+        if (segment.getType(index) == OrderLogSegment.TOMBSTONE) {
+            liveOrders.remove(orderId);
+        } else {
+            liveOrders.put(orderId, sequence(segment, index));
+            activeRecordsByCustomerId.computeIfAbsent(segment.getCustomerId(index), customerId -> new RecordIndexes())
+                    .add(index);
+        }
+    }
+
+    private boolean isLiveOrder(OrderLogSegment segment, int index) {
+        return segment.getType(index) == OrderLogSegment.ORDER
+                && liveOrders.get(segment.getOrderId(index), MISSING) == sequence(segment, index);
+    }
+
+    private OrderLogSegment getSegment(long sequence) {
+        var id = sequence >>> 32;
+        if (activeSegment.getId() == id) {
+            return activeSegment;
+        }
+        for (var segment: sealedSegments) {
+            if (segment.getId() == id) {
+                return segment;
+            }
+        }
+        throw new IllegalStateException("Order log has no segment " + id);
+    }
+
+    private long[] listSegmentIds() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.mapToLong(path -> OrderLogSegment.parseLogFileId(path.getFileName().toString()))
+                    .filter(id -> id >= 0)
+                    .sorted()
+                    .toArray();
+        }
+    }
+
+    private void syncDirectory() {
+        try (var channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not supported on every platform, the renames are then only as durable as the file system
+            logger.debug("Could not sync directory {}", directory, e);
+        }
+    }
+
+    private static long sequence(OrderLogSegment segment, int index) {
+        return segment.getId() << 32 | index;
+    }
+
+    private static int compare(OrderLogSegment segment, int index, OrderLogSegment otherSegment, int otherIndex) {
+        var result = Long.compare(segment.getCustomerId(index), otherSegment.getCustomerId(otherIndex));
+        return result != 0 ? result : Long.compare(segment.getTransactionMicros(index),
+                otherSegment.getTransactionMicros(otherIndex));
+    }
+
+    private static void visit(OrderLogSegment segment, int index, RecordVisitor recordVisitor) {
+        recordVisitor.visit(segment.getOrderId(index), segment.getCustomerId(index),
+                segment.getTransactionMicros(index), segment.getAmountInCents(index));
+    }
+
+    @FunctionalInterface
+    public interface RecordVisitor {
+
+        void visit(long orderId, long customerId, long transactionMicros, long amountInCents);
+    }
+
+    private static final class RecordIndexes {
+        private int[] indexes = new int[4];
+        private int size;
+
+        private void add(int index) {
+            if (size == indexes.length) {
+                indexes = Arrays.copyOf(indexes, size * 2);
+            }
+            indexes[size++] = index;
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package org.testcompany.customerrewards.orderlog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Segment file of the order log: fixed-width records in a memory-mapped file.
+ * <p>
+ * Record layout (40 bytes, big-endian): order id, customer id, transaction date in epoch
+ * microseconds, amount in cents, record type (ORDER or TOMBSTONE) and the CRC32C of the
+ * previous 36 bytes. Unwritten records are zero, so they never pass the checksum.
+ * <p>
+ * The active segment is a preallocated file written in append order. A sealed segment
+ * holds exactly its records sorted by customer id, then transaction date, and has an
+ * index file with one (customer id, first record, record count) entry per customer and
+ * a trailer (first input segment id, highest order id, entry count, CRC32C) which marks
+ * it complete. The highest order id is that of every record of its input segments,
+ * tombstones and the orders dropped since included.
+ * Not thread-safe, see OrderLog.
+ */
+final class OrderLogSegment implements Closeable {
+
+    static final int RECORD_SIZE = 40;
+    static final int ORDER = 1;
+    static final int TOMBSTONE = 2;
+    private static final int CUSTOMER_ID_OFFSET = 8;
+    private static final int TRANSACTION_MICROS_OFFSET = 16;
+    private static final int AMOUNT_OFFSET = 24;
+    private static final int TYPE_OFFSET = 32;
+    private static final int CHECKSUM_OFFSET = 36;
+    private static final int INDEX_ENTRY_SIZE = 16;
+    private static final int INDEX_TRAILER_SIZE = 24;
+    private static final String FILE_PREFIX = "segment-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String COMPACT_SUFFIX = ".compact";
+
+    private final long id;
+    private final FileChannel channel;
+    private final MappedByteBuffer records;
+    private final MappedByteBuffer index;
+    private final int indexEntries;
+    private final int capacity;
+    private int size;
+
+    private OrderLogSegment(long id, FileChannel channel, MappedByteBuffer records, MappedByteBuffer index,
+                            int indexEntries, int size) {
+        this.id = id;
+        this.channel = channel;
+        this.records = records;
+        this.index = index;
+        this.indexEntries = indexEntries;
+        this.capacity = records.capacity() / RECORD_SIZE;
+        this.size = size;
+    }
+
+    /**
+     * Creates an empty active segment file of 'capacity' records.
+     */
+    static OrderLogSegment create(Path directory, long id, int capacity) throws IOException {
+        var channel = FileChannel.open(logPath(directory, id), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            var length = Math.multiplyExact((long) capacity, RECORD_SIZE);
+            channel.write(ByteBuffer.allocate(1), length - 1);
+            return new OrderLogSegment(id, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, length),
+                    null, 0, 0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens an active segment. Its records end at the first one failing the checksum:
+     * the rest of a write torn by a crash is zeroed so it can not resurface after new
+     * appends, see getDiscardedBytes.
+     */
+    static OrderLogSegment openActive(Path directory, long id) throws IOException {
+        var channel = FileChannel.open(logPath(directory, id), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            var length = channel.size() - channel.size() % RECORD_SIZE;
+            var segment = new OrderLogSegment(id, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, length),
+                    null, 0, 0);
+            while (segment.size < segment.capacity && segment.isValid(segment.size)) {
+                segment.size++;
+            }
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a sealed segment, verifying the checksum of its index.
+     */
+    static OrderLogSegment openSealed(Path directory, long id) throws IOException {
+        var channel = FileChannel.open(logPath(directory, id), StandardOpenOption.READ);
+        try (var indexChannel = FileChannel.open(indexPath(directory, id), StandardOpenOption.READ)) {
+            if (channel.size() % RECORD_SIZE != 0) {
+                throw new IOException("Segment " + id + " has an incomplete record");
+            }
+            var index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+            var indexEntries = readIndexEntries(index);
+            if (indexEntries < 0) {
+                throw new IOException("Index of segment " + id + " is corrupted");
+            }
+            var records = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new OrderLogSegment(id, channel, records, index, indexEntries, records.capacity() / RECORD_SIZE);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    long getId() {
+        return id;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size == capacity;
+    }
+
+    boolean isSealed() {
+        return index != null;
+    }
+
+    /**
+     * Returns the highest order id of a sealed segment, from its index trailer.
+     */
+    long getMaxOrderId() {
+        return index.getLong(index.capacity() - INDEX_TRAILER_SIZE + Long.BYTES);
+    }
+
+    /**
+     * Zeroes everything after the records of an active segment and returns the number
+     * of non-zero bytes found there, i.e. the part of a torn write.
+     */
+    long discardTail() {
+        var discardedBytes = 0L;
+        for (int position = size * RECORD_SIZE; position < records.capacity(); position += Long.BYTES) {
+            if (records.getLong(position) != 0L) {
+                discardedBytes += Long.BYTES;
+                records.putLong(position, 0L);
+            }
+        }
+        if (discardedBytes > 0) {
+            records.force();
+        }
+        return discardedBytes;
+    }
+
+    /**
+     * Appends a record to the active segment and returns its index.
+     */
+    int append(long orderId, long customerId, long transactionMicros, long amountInCents, int type) {
+        if (isSealed() || isFull()) {
+            throw new IllegalStateException("Segment " + id + " is not writable");
+        }
+        var position = size * RECORD_SIZE;
+        records.putLong(position, orderId);
+        records.putLong(position + CUSTOMER_ID_OFFSET, customerId);
+        records.putLong(position + TRANSACTION_MICROS_OFFSET, transactionMicros);
+        records.putLong(position + AMOUNT_OFFSET, amountInCents);
+        records.putInt(position + TYPE_OFFSET, type);
+        records.putInt(position + CHECKSUM_OFFSET, checksum(size));
+        return size++;
+    }
+
+    void force() {
+        if (!isSealed()) {
+            records.force();
+        }
+    }
+
+    boolean isValid(int index) {
+        var type = getType(index);
+        return (type == ORDER || type == TOMBSTONE)
+                && records.getInt(index * RECORD_SIZE + CHECKSUM_OFFSET) == checksum(index);
+    }
+
+    long getOrderId(int index) {
+        return records.getLong(index * RECORD_SIZE);
+    }
+
+    long getCustomerId(int index) {
+        return records.getLong(index * RECORD_SIZE + CUSTOMER_ID_OFFSET);
+    }
+
+    long getTransactionMicros(int index) {
+        return records.getLong(index * RECORD_SIZE + TRANSACTION_MICROS_OFFSET);
+    }
+
+    long getAmountInCents(int index) {
+        return records.getLong(index * RECORD_SIZE + AMOUNT_OFFSET);
+    }
+
+    int getType(int index) {
+        return records.getInt(index * RECORD_SIZE + TYPE_OFFSET);
+    }
+
+    /**
+     * Returns the records of the customer in a sealed segment as first record index in
+     * the high 32 bits and record count in the low 32 bits, or -1 when it has none.
+     */
+    long findCustomer(long customerId) {
+        int low = 0;
+        int high = indexEntries - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var middleCustomerId = index.getLong(middle * INDEX_ENTRY_SIZE);
+            if (middleCustomerId < customerId) {
+                low = middle + 1;
+            } else if (middleCustomerId > customerId) {
+                high = middle - 1;
+            } else {
+                return index.getLong(middle * INDEX_ENTRY_SIZE + Long.BYTES);
+            }
+        }
+        return -1L;
+    }
+
+    /**
+     * Returns the first record in [fromIndex, toIndex) of a sealed segment with a
+     * transaction date not before the given one, or toIndex.
+     */
+    int findFirstIndex(int fromIndex, int toIndex, long transactionMicros) {
+        int low = fromIndex;
+        int high = toIndex;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (getTransactionMicros(middle) < transactionMicros) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int checksum(int index) {
+        var crc = new CRC32C();
+        crc.update(records.slice(index * RECORD_SIZE, CHECKSUM_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    static Path logPath(Path directory, long id) {
+        return directory.resolve(fileName(id, LOG_SUFFIX));
+    }
+
+    static Path indexPath(Path directory, long id) {
+        return directory.resolve(fileName(id, INDEX_SUFFIX));
+    }
+
+    static Path compactLogPath(Path directory, long id) {
+        return directory.resolve(fileName(id, LOG_SUFFIX + COMPACT_SUFFIX));
+    }
+
+    static Path compactIndexPath(Path directory, long id) {
+        return directory.resolve(fileName(id, INDEX_SUFFIX + COMPACT_SUFFIX));
+    }
+
+    /**
+     * Returns the segment id of a log file name, or -1 for other files.
+     */
+    static long parseLogFileId(String fileName) {
+        return parseId(fileName, LOG_SUFFIX);
+    }
+
+    /**
+     * Returns the segment id of a compacted index file name, or -1 for other files.
+     */
+    static long parseCompactIndexFileId(String fileName) {
+        return parseId(fileName, INDEX_SUFFIX + COMPACT_SUFFIX);
+    }
+
+    /**
+     * Returns the first input segment id recorded in the trailer of a complete index
+     * file, or -1 when the file is missing or fails its checksum.
+     */
+    static long readFirstInputSegmentId(Path indexPath) throws IOException {
+        if (!Files.exists(indexPath)) {
+            return -1L;
+        }
+        var index = ByteBuffer.wrap(Files.readAllBytes(indexPath));
+        var indexEntries = readIndexEntries(index);
+        return indexEntries < 0 ? -1L : index.getLong(index.capacity() - INDEX_TRAILER_SIZE);
+    }
+
+    private static int readIndexEntries(ByteBuffer index) {
+        if (index.capacity() < INDEX_TRAILER_SIZE) {
+            return -1;
+        }
+        var trailer = index.capacity() - INDEX_TRAILER_SIZE;
+        var indexEntries = index.getInt(trailer + 2 * Long.BYTES);
+        if (indexEntries < 0 || (long) indexEntries * INDEX_ENTRY_SIZE != trailer) {
+            return -1;
+        }
+        var crc = new CRC32C();
+        crc.update(index.slice(0, trailer + 2 * Long.BYTES + Integer.BYTES));
+        return index.getInt(trailer + 2 * Long.BYTES + Integer.BYTES) == (int) crc.getValue() ? indexEntries : -1;
+    }
+
+    private static String fileName(long id, String suffix) {
+        return FILE_PREFIX + String.format("%016d", id) + suffix;
+    }
+
+    private static long parseId(String fileName, String suffix) {
+        if (!fileName.startsWith(FILE_PREFIX) || !fileName.endsWith(suffix)
+                || fileName.length() != FILE_PREFIX.length() + 16 + suffix.length()) {
+            return -1L;
+        }
+        var id = fileName.substring(FILE_PREFIX.length(), FILE_PREFIX.length() + 16);
+        return id.chars().allMatch(Character::isDigit) ? Long.parseLong(id) : -1L;
+    }
+
+    /**
+     * Writes the compacted files of a sealed segment from records given in customer id,
+     * then transaction date order, copying their bytes and checksums unchanged.
+     */
+    static final class Writer implements Closeable {
+        private static final int BUFFERED_RECORDS = 1024;
+
+        private final Path directory;
+        private final long id;
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFERED_RECORDS * RECORD_SIZE);
+        private long[] customerIds = new long[BUFFERED_RECORDS];
+        private int[] recordCounts = new int[BUFFERED_RECORDS];
+        private int customers;
+        private int size;
+
+        Writer(Path directory, long id) throws IOException {
+            this.directory = directory;
+            this.id = id;
+            this.channel = FileChannel.open(compactLogPath(directory, id), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        }
+
+        void add(OrderLogSegment segment, int index) throws IOException {
+            var customerId = segment.getCustomerId(index);
+            if (customers == 0 || customerIds[customers - 1] != customerId) {
+                if (customers == customerIds.length) {
+                    customerIds = Arrays.copyOf(customerIds, customers * 2);
+                    recordCounts = Arrays.copyOf(recordCounts, customers * 2);
+                }
+                customerIds[customers++] = customerId;
+            }
+            recordCounts[customers - 1]++;
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put(buffer.position(), segment.records, index * RECORD_SIZE, RECORD_SIZE);
+            buffer.position(buffer.position() + RECORD_SIZE);
+            size++;
+        }
+
+        int getSize() {
+            return size;
+        }
+
+        /**
+         * Forces the records, then writes and forces the index, whose trailer makes the
+         * compacted segment complete.
+         */
+        void finish(long firstInputSegmentId, long maxOrderId) throws IOException {
+            flush();
+            channel.force(true);
+            channel.close();
+            var index = ByteBuffer.allocate(customers * INDEX_ENTRY_SIZE + INDEX_TRAILER_SIZE);
+            var firstIndex = 0;
+            for (int i = 0; i < customers; i++) {
+                index.putLong(customerIds[i]).putInt(firstIndex).putInt(recordCounts[i]);
+                firstIndex += recordCounts[i];
+            }
+            index.putLong(firstInputSegmentId).putLong(maxOrderId).putInt(customers);
+            var crc = new CRC32C();
+            crc.update(index.array(), 0, index.position());
+            index.putInt((int) crc.getValue()).flip();
+            try (var indexChannel = FileChannel.open(compactIndexPath(directory, id), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (index.hasRemaining()) {
+                    indexChannel.write(index);
+                }
+                indexChannel.force(true);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
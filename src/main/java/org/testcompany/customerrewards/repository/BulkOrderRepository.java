@@ -0,0 +1,21 @@
+package org.testcompany.customerrewards.repository;
+
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+
+/**
+ * Write operations of OrderRepository for bulk ingestion.
+ */
+public interface BulkOrderRepository {
+
+    /**
+     * Persists new orders without checking whether their ids already exist, so the
+     * inserts can be batched by Hibernate on flush.
+     */
+    void insertAll(Iterable<PurchaseOrder> orders);
+
+    /**
+     * Moves the order id blocks reserved next past an order id assigned outside the
+     * allocation, e.g. by an order import, so the id is never handed out again.
+     */
+    void reserveOrderIdsUpTo(long orderId);
+}
@@ -0,0 +1,33 @@
+package org.testcompany.customerrewards.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+
+public class BulkOrderRepositoryImpl implements BulkOrderRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertAll(Iterable<PurchaseOrder> orders) {
+        // persist instead of CrudRepository.save, which merges entities having an id
+        // and therefore selects every order before inserting it
+        for (var order : orders) {
+            entityManager.persist(order);
+        }
+    }
+
+    @Override
+    public void reserveOrderIdsUpTo(long orderId) {
+        var nextOrderIdBlock = ((Number) entityManager.createNativeQuery("SELECT BASE_VALUE " +
+                "FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'PURCHASE_ORDER_SEQ'")
+                .getSingleResult()).longValue();
+        if (nextOrderIdBlock <= orderId) {
+            // H2 does not commit the current transaction on ALTER SEQUENCE, nor roll it back
+            entityManager.createNativeQuery("ALTER SEQUENCE PURCHASE_ORDER_SEQ RESTART WITH " +
+                    (orderId / OrderStorage.ORDER_ID_ALLOCATION_SIZE + 1) * OrderStorage.ORDER_ID_ALLOCATION_SIZE)
+                    .executeUpdate();
+        }
+    }
+}
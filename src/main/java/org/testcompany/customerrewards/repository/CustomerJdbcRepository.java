@@ -0,0 +1,79 @@
+package org.testcompany.customerrewards.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.testcompany.customerrewards.domain.Customer;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Plain JDBC access for bulk customer writes, see OrderImportJdbcRepository, and for
+ * customer id scans.
+ */
+@Repository
+public class CustomerJdbcRepository {
+
+    private static final String INSERT_CUSTOMER_SQL = "INSERT INTO CUSTOMER(ID, NAME, PHONE_NUMBER) " +
+            "VALUES (?, ?, ?)";
+    private final JdbcTemplate jdbcTemplate;
+
+    public CustomerJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long findMaxCustomerId() {
+        var maxCustomerId = jdbcTemplate.queryForObject("SELECT MAX(ID) FROM CUSTOMER", Long.class);
+        return maxCustomerId == null ? 0L : maxCustomerId;
+    }
+
+    /**
+     * Returns the lowest and highest customer ids, or empty without customers.
+     */
+    public Optional<CustomerIdRange> findCustomerIdRange() {
+        return jdbcTemplate.queryForObject("SELECT MIN(ID), MAX(ID) FROM CUSTOMER", (resultSet, rowNum) -> {
+            var firstCustomerId = resultSet.getLong(1);
+            return resultSet.wasNull() ? Optional.empty()
+                    : Optional.of(new CustomerIdRange(firstCustomerId, resultSet.getLong(2)));
+        });
+    }
+
+    /**
+     * Returns the first 'limit' customer ids in [firstCustomerId, lastCustomerId], in
+     * ascending order.
+     */
+    public List<Long> findCustomerIds(long firstCustomerId, long lastCustomerId, int limit) {
+        return jdbcTemplate.queryForList("SELECT ID FROM CUSTOMER WHERE ID BETWEEN ? AND ? ORDER BY ID LIMIT ?",
+                Long.class, firstCustomerId, lastCustomerId, limit);
+    }
+
+    /**
+     * Streams all customers in id order from a database cursor reading 'fetchSize' rows
+     * at a time. The stream holds a connection and must be closed.
+     */
+    public Stream<Customer> streamCustomers(int fetchSize) {
+        return jdbcTemplate.queryForStream(connection -> {
+            var statement = connection.prepareStatement("SELECT ID, NAME, PHONE_NUMBER FROM CUSTOMER ORDER BY ID");
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (resultSet, rowNum) -> new Customer(resultSet.getLong(1), resultSet.getString(2),
+                resultSet.getString(3)));
+    }
+
+    /**
+     * Inserts customers in a single JDBC batch.
+     */
+    public void insertCustomers(List<Customer> customers) {
+        if (customers.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_CUSTOMER_SQL, customers, customers.size(), (statement, customer) -> {
+            statement.setLong(1, customer.getId());
+            statement.setString(2, customer.getName());
+            statement.setString(3, customer.getPhoneNumber());
+        });
+    }
+
+    public record CustomerIdRange(long firstCustomerId, long lastCustomerId) {}
+}
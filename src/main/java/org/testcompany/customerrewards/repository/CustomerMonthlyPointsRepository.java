@@ -0,0 +1,162 @@
+package org.testcompany.customerrewards.repository;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.CustomerMonthlyPoints;
+import org.testcompany.customerrewards.domain.CustomerMonthlyPointsId;
+import org.testcompany.customerrewards.domain.MonthlyOrderSummary;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CustomerMonthlyPointsRepository
+        extends CrudRepository<CustomerMonthlyPoints, CustomerMonthlyPointsId> {
+
+    String LEDGER_MONTH_RANGE_SQL = "POINTS_YEAR BETWEEN :startYear AND :endYear " +
+            "AND (POINTS_YEAR - 1970) * 12 + POINTS_MONTH - 1 BETWEEN :startEpochMonth AND :endEpochMonth";
+
+    String ORDER_CORRECTION_COLUMNS_SQL = "YEAR(TRANSACTION_DATE), MONTH(TRANSACTION_DATE), " +
+            "-COUNT(*), -SUM(TRANSACTION_AMOUNT), " +
+            "-CAST(SUM(" + OrderRepository.ORDER_POINTS_SQL + ") AS BIGINT) ";
+
+    /**
+     * Adds the given order count, amount and points to the ledger row of a customer's
+     * month, creating the row if needed. Negative values remove orders.
+     */
+    @Modifying
+    @Query(value = "MERGE INTO CUSTOMER_MONTHLY_POINTS L USING (VALUES (CAST(:customerId AS BIGINT), " +
+            "CAST(:pointsYear AS INT), CAST(:pointsMonth AS INT), CAST(:orderCount AS BIGINT), " +
+            "CAST(:totalAmount AS NUMERIC(19, 2)), CAST(:totalPoints AS BIGINT))) " +
+            "AS D(CUSTOMER_ID, POINTS_YEAR, POINTS_MONTH, ORDER_COUNT, TOTAL_AMOUNT, TOTAL_POINTS) " +
+            "ON L.CUSTOMER_ID = D.CUSTOMER_ID AND L.POINTS_YEAR = D.POINTS_YEAR " +
+            "AND L.POINTS_MONTH = D.POINTS_MONTH " +
+            "WHEN MATCHED THEN UPDATE SET ORDER_COUNT = L.ORDER_COUNT + D.ORDER_COUNT, " +
+            "TOTAL_AMOUNT = L.TOTAL_AMOUNT + D.TOTAL_AMOUNT, " +
+            "TOTAL_POINTS = L.TOTAL_POINTS + D.TOTAL_POINTS " +
+            "WHEN NOT MATCHED THEN INSERT VALUES (D.CUSTOMER_ID, D.POINTS_YEAR, D.POINTS_MONTH, " +
+            "D.ORDER_COUNT, D.TOTAL_AMOUNT, D.TOTAL_POINTS)", nativeQuery = true)
+    int addMonthlyPoints(Long customerId, Integer pointsYear, Integer pointsMonth, Long orderCount,
+                         BigDecimal totalAmount, Long totalPoints);
+
+    /**
+     * Adds the given orders to the ledger with a single statement, grouping them by
+     * customer and month.
+     */
+    @Modifying
+    @Query(value = "MERGE INTO CUSTOMER_MONTHLY_POINTS L USING (SELECT CUSTOMER_ID, " +
+            "YEAR(TRANSACTION_DATE) AS POINTS_YEAR, MONTH(TRANSACTION_DATE) AS POINTS_MONTH, " +
+            "COUNT(*) AS ORDER_COUNT, SUM(TRANSACTION_AMOUNT) AS TOTAL_AMOUNT, " +
+            "CAST(SUM(" + OrderRepository.ORDER_POINTS_SQL + ") AS BIGINT) AS TOTAL_POINTS " +
+            "FROM PURCHASE_ORDER WHERE ID IN (:orderIds) " +
+            "GROUP BY CUSTOMER_ID, YEAR(TRANSACTION_DATE), MONTH(TRANSACTION_DATE)) D " +
+            "ON L.CUSTOMER_ID = D.CUSTOMER_ID AND L.POINTS_YEAR = D.POINTS_YEAR " +
+            "AND L.POINTS_MONTH = D.POINTS_MONTH " +
+            "WHEN MATCHED THEN UPDATE SET ORDER_COUNT = L.ORDER_COUNT + D.ORDER_COUNT, " +
+            "TOTAL_AMOUNT = L.TOTAL_AMOUNT + D.TOTAL_AMOUNT, " +
+            "TOTAL_POINTS = L.TOTAL_POINTS + D.TOTAL_POINTS " +
+            "WHEN NOT MATCHED THEN INSERT VALUES (D.CUSTOMER_ID, D.POINTS_YEAR, D.POINTS_MONTH, " +
+            "D.ORDER_COUNT, D.TOTAL_AMOUNT, D.TOTAL_POINTS)", nativeQuery = true)
+    int addMonthlyPointsFromOrders(Collection<Long> orderIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM CUSTOMER_MONTHLY_POINTS WHERE CUSTOMER_ID = :customerId " +
+            "AND POINTS_YEAR = :pointsYear AND POINTS_MONTH = :pointsMonth AND ORDER_COUNT = 0",
+            nativeQuery = true)
+    int deleteEmptyMonthlyPoints(Long customerId, Integer pointsYear, Integer pointsMonth);
+
+    @Modifying
+    @Query(value = "DELETE FROM CUSTOMER_MONTHLY_POINTS", nativeQuery = true)
+    int deleteAllMonthlyPoints();
+
+    /**
+     * Regenerates the ledger rows from PURCHASE_ORDER. The ledger must be empty.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO CUSTOMER_MONTHLY_POINTS(CUSTOMER_ID, POINTS_YEAR, POINTS_MONTH, " +
+            "ORDER_COUNT, TOTAL_AMOUNT, TOTAL_POINTS) " +
+            "SELECT CUSTOMER_ID, YEAR(TRANSACTION_DATE), MONTH(TRANSACTION_DATE), COUNT(*), " +
+            "SUM(TRANSACTION_AMOUNT), CAST(SUM(" + OrderRepository.ORDER_POINTS_SQL + ") AS BIGINT) " +
+            "FROM PURCHASE_ORDER " +
+            "GROUP BY CUSTOMER_ID, YEAR(TRANSACTION_DATE), MONTH(TRANSACTION_DATE)", nativeQuery = true)
+    int insertMonthlyPointsFromOrders();
+
+    /**
+     * Returns the ledger rows of the customer's months [startEpochMonth, endEpochMonth],
+     * followed by negated per-month totals of the orders in [headStartDate, headEndDate)
+     * and [tailStartDate, tailEndDate), i.e. the parts of the first and last months that
+     * are outside the rewards period.
+     */
+    @Query(value = "SELECT POINTS_YEAR AS orderYear, POINTS_MONTH AS orderMonth, " +
+            "ORDER_COUNT AS orderCount, TOTAL_AMOUNT AS totalAmount, TOTAL_POINTS AS totalPoints " +
+            "FROM CUSTOMER_MONTHLY_POINTS WHERE CUSTOMER_ID = :customerId AND " + LEDGER_MONTH_RANGE_SQL +
+            " UNION ALL SELECT " + ORDER_CORRECTION_COLUMNS_SQL +
+            "FROM PURCHASE_ORDER WHERE CUSTOMER_ID = :customerId " +
+            "AND TRANSACTION_DATE >= :headStartDate AND TRANSACTION_DATE < :headEndDate " +
+            "GROUP BY YEAR(TRANSACTION_DATE), MONTH(TRANSACTION_DATE)" +
+            " UNION ALL SELECT " + ORDER_CORRECTION_COLUMNS_SQL +
+            "FROM PURCHASE_ORDER WHERE CUSTOMER_ID = :customerId " +
+            "AND TRANSACTION_DATE >= :tailStartDate AND TRANSACTION_DATE < :tailEndDate " +
+            "GROUP BY YEAR(TRANSACTION_DATE), MONTH(TRANSACTION_DATE)", nativeQuery = true)
+    List<MonthlyOrderSummary> getMonthlyOrderSummaries(Long customerId,
+                                                       Integer startYear, Integer endYear,
+                                                       Integer startEpochMonth, Integer endEpochMonth,
+                                                       Instant headStartDate, Instant headEndDate,
+                                                       Instant tailStartDate, Instant tailEndDate);
+
+    /**
+     * Same as getMonthlyOrderSummaries for several customers in a single query.
+     */
+    @Query(value = "SELECT CUSTOMER_ID AS customerId, POINTS_YEAR AS orderYear, " +
+            "POINTS_MONTH AS orderMonth, ORDER_COUNT AS orderCount, " +
+            "TOTAL_AMOUNT AS totalAmount, TOTAL_POINTS AS totalPoints " +
+            "FROM CUSTOMER_MONTHLY_POINTS WHERE CUSTOMER_ID IN (:customerIds) AND " + LEDGER_MONTH_RANGE_SQL +
+            " UNION ALL SELECT CUSTOMER_ID, " + ORDER_CORRECTION_COLUMNS_SQL +
+            "FROM PURCHASE_ORDER WHERE CUSTOMER_ID IN (:customerIds) " +
+            "AND TRANSACTION_DATE >= :headStartDate AND TRANSACTION_DATE < :headEndDate " +
+            "GROUP BY CUSTOMER_ID, YEAR(TRANSACTION_DATE), MONTH(TRANSACTION_DATE)" +
+            " UNION ALL SELECT CUSTOMER_ID, " + ORDER_CORRECTION_COLUMNS_SQL +
+            "FROM PURCHASE_ORDER WHERE CUSTOMER_ID IN (:customerIds) " +
+            "AND TRANSACTION_DATE >= :tailStartDate AND TRANSACTION_DATE < :tailEndDate " +
+            "GROUP BY CUSTOMER_ID, YEAR(TRANSACTION_DATE), MONTH(TRANSACTION_DATE)", nativeQuery = true)
+    List<CustomerMonthlyOrderSummary> getMonthlyOrderSummariesByCustomerIds(Collection<Long> customerIds,
+                                                                            Integer startYear, Integer endYear,
+                                                                            Integer startEpochMonth,
+                                                                            Integer endEpochMonth,
+                                                                            Instant headStartDate,
+                                                                            Instant headEndDate,
+                                                                            Instant tailStartDate,
+                                                                            Instant tailEndDate);
+
+    /**
+     * Same as getMonthlyOrderSummaries for the customers with ids in [firstCustomerId,
+     * lastCustomerId] in a single query.
+     */
+    @Query(value = "SELECT CUSTOMER_ID AS customerId, POINTS_YEAR AS orderYear, " +
+            "POINTS_MONTH AS orderMonth, ORDER_COUNT AS orderCount, " +
+            "TOTAL_AMOUNT AS totalAmount, TOTAL_POINTS AS totalPoints " +
+            "FROM CUSTOMER_MONTHLY_POINTS WHERE CUSTOMER_ID BETWEEN :firstCustomerId AND :lastCustomerId AND " +
+            LEDGER_MONTH_RANGE_SQL +
+            " UNION ALL SELECT CUSTOMER_ID, " + ORDER_CORRECTION_COLUMNS_SQL +
+            "FROM PURCHASE_ORDER WHERE CUSTOMER_ID BETWEEN :firstCustomerId AND :lastCustomerId " +
+            "AND TRANSACTION_DATE >= :headStartDate AND TRANSACTION_DATE < :headEndDate " +
+            "GROUP BY CUSTOMER_ID, YEAR(TRANSACTION_DATE), MONTH(TRANSACTION_DATE)" +
+            " UNION ALL SELECT CUSTOMER_ID, " + ORDER_CORRECTION_COLUMNS_SQL +
+            "FROM PURCHASE_ORDER WHERE CUSTOMER_ID BETWEEN :firstCustomerId AND :lastCustomerId " +
+            "AND TRANSACTION_DATE >= :tailStartDate AND TRANSACTION_DATE < :tailEndDate " +
+            "GROUP BY CUSTOMER_ID, YEAR(TRANSACTION_DATE), MONTH(TRANSACTION_DATE)", nativeQuery = true)
+    List<CustomerMonthlyOrderSummary> getMonthlyOrderSummariesByCustomerIdRange(Long firstCustomerId,
+                                                                                Long lastCustomerId,
+                                                                                Integer startYear, Integer endYear,
+                                                                                Integer startEpochMonth,
+                                                                                Integer endEpochMonth,
+                                                                                Instant headStartDate,
+                                                                                Instant headEndDate,
+                                                                                Instant tailStartDate,
+                                                                                Instant tailEndDate);
+}
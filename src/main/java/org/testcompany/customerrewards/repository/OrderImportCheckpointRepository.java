@@ -0,0 +1,9 @@
+package org.testcompany.customerrewards.repository;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.testcompany.customerrewards.domain.OrderImportCheckpoint;
+
+@Repository
+public interface OrderImportCheckpointRepository extends CrudRepository<OrderImportCheckpoint, String> {
+}
@@ -0,0 +1,89 @@
+package org.testcompany.customerrewards.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.testcompany.customerrewards.domain.CustomerMonthlyPoints;
+import org.testcompany.customerrewards.importer.OrderRecord;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plain JDBC access for order imports: orders are written with batched prepared
+ * statements instead of JPA entities, which would be held in the persistence context.
+ */
+@Repository
+public class OrderImportJdbcRepository {
+
+    private static final String INSERT_ORDER_SQL = "INSERT INTO PURCHASE_ORDER(ID, CUSTOMER_ID, " +
+            "TRANSACTION_AMOUNT, TRANSACTION_DATE) VALUES (?, ?, ?, ?)";
+    private static final String ADD_MONTHLY_POINTS_SQL = "MERGE INTO CUSTOMER_MONTHLY_POINTS L " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS INT), CAST(? AS INT), CAST(? AS BIGINT), " +
+            "CAST(? AS NUMERIC(19, 2)), CAST(? AS BIGINT))) " +
+            "AS D(CUSTOMER_ID, POINTS_YEAR, POINTS_MONTH, ORDER_COUNT, TOTAL_AMOUNT, TOTAL_POINTS) " +
+            "ON L.CUSTOMER_ID = D.CUSTOMER_ID AND L.POINTS_YEAR = D.POINTS_YEAR " +
+            "AND L.POINTS_MONTH = D.POINTS_MONTH " +
+            "WHEN MATCHED THEN UPDATE SET ORDER_COUNT = L.ORDER_COUNT + D.ORDER_COUNT, " +
+            "TOTAL_AMOUNT = L.TOTAL_AMOUNT + D.TOTAL_AMOUNT, " +
+            "TOTAL_POINTS = L.TOTAL_POINTS + D.TOTAL_POINTS " +
+            "WHEN NOT MATCHED THEN INSERT VALUES (D.CUSTOMER_ID, D.POINTS_YEAR, D.POINTS_MONTH, " +
+            "D.ORDER_COUNT, D.TOTAL_AMOUNT, D.TOTAL_POINTS)";
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderImportJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Set<Long> findExistingCustomerIds(Collection<Long> customerIds) {
+        return findExistingIds("SELECT ID FROM CUSTOMER WHERE ID = ANY(?)", customerIds);
+    }
+
+    public Set<Long> findExistingOrderIds(Collection<Long> orderIds) {
+        return findExistingIds("SELECT ID FROM PURCHASE_ORDER WHERE ID = ANY(?)", orderIds);
+    }
+
+    /**
+     * Inserts orders, which must all have an id, in a single JDBC batch.
+     */
+    public void insertOrders(List<OrderRecord> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orders, orders.size(), (statement, order) -> {
+            statement.setLong(1, order.id());
+            statement.setLong(2, order.customerId());
+            statement.setBigDecimal(3, order.transactionAmount());
+            // TIMESTAMP column holding UTC date times, see the datasource TIME ZONE setting
+            statement.setObject(4, LocalDateTime.ofInstant(order.transactionDate(), ZoneOffset.UTC));
+        });
+    }
+
+    /**
+     * Adds the given ledger rows to CUSTOMER_MONTHLY_POINTS in a single JDBC batch.
+     */
+    public void addMonthlyPoints(List<CustomerMonthlyPoints> monthlyPointsList) {
+        if (monthlyPointsList.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_MONTHLY_POINTS_SQL, monthlyPointsList, monthlyPointsList.size(),
+                (statement, monthlyPoints) -> {
+                    statement.setLong(1, monthlyPoints.getId().customerId());
+                    statement.setInt(2, monthlyPoints.getId().pointsYear());
+                    statement.setInt(3, monthlyPoints.getId().pointsMonth());
+                    statement.setLong(4, monthlyPoints.getOrderCount());
+                    statement.setBigDecimal(5, monthlyPoints.getTotalAmount());
+                    statement.setLong(6, monthlyPoints.getTotalPoints());
+                });
+    }
+
+    private Set<Long> findExistingIds(String sql, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(sql, Long.class, (Object) ids.toArray(Long[]::new)));
+    }
+}
@@ -0,0 +1,52 @@
+package org.testcompany.customerrewards.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Plain JDBC reads of the whole PURCHASE_ORDER table, see CustomerJdbcRepository.
+ */
+@Repository
+public class OrderJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public OrderCounts countOrders() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*), COUNT(DISTINCT CUSTOMER_ID) FROM PURCHASE_ORDER",
+                (resultSet, rowNum) -> new OrderCounts(resultSet.getLong(1), resultSet.getLong(2)));
+    }
+
+    /**
+     * Passes every order to the handler, sorted by customer id and transaction date,
+     * from a database cursor reading 'fetchSize' rows at a time.
+     */
+    public void forEachOrder(int fetchSize, OrderRowHandler orderRowHandler) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("SELECT ID, CUSTOMER_ID, TRANSACTION_AMOUNT, " +
+                    "TRANSACTION_DATE FROM PURCHASE_ORDER ORDER BY CUSTOMER_ID, TRANSACTION_DATE");
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, resultSet -> {
+            // TIMESTAMP column holding UTC date times, see the datasource TIME ZONE setting
+            orderRowHandler.handle(resultSet.getLong(1), resultSet.getLong(2), resultSet.getBigDecimal(3),
+                    resultSet.getObject(4, LocalDateTime.class).toInstant(ZoneOffset.UTC));
+        });
+    }
+
+    public record OrderCounts(long orders, long customers) {}
+
+    @FunctionalInterface
+    public interface OrderRowHandler {
+
+        void handle(long orderId, long customerId, BigDecimal transactionAmount, Instant transactionDate);
+    }
+}
@@ -0,0 +1,281 @@
+package org.testcompany.customerrewards.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderTotals;
+import org.testcompany.customerrewards.domain.CustomerOrderWatermark;
+import org.testcompany.customerrewards.domain.CustomerOrderWatermarkTotals;
+import org.testcompany.customerrewards.domain.CustomerWeeklyOrderSummary;
+import org.testcompany.customerrewards.domain.CustomerWeeklyOrderTotals;
+import org.testcompany.customerrewards.domain.MonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.OrderWatermark;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.orderlog.OrderLog;
+import org.testcompany.customerrewards.util.PeriodBuckets;
+import org.testcompany.customerrewards.util.RewardsPointsEngine;
+import org.testcompany.customerrewards.util.RewardsRules;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * OrderStorage on the memory-mapped order log in 'customer-rewards.order-log.directory',
+ * used by the order services when 'customer-rewards.order-log.enabled', see
+ * OrderStorageConfig. Writes are not part of database transactions: every write is
+ * forced to storage before returning. Orders are read with a Customer holding only the
+ * id, and amounts are stored in whole cents like the in-memory order store, and points
+ * are calculated when read with the current rewards rules.
+ */
+@Repository
+@ConditionalOnProperty(name = "customer-rewards.order-log.enabled", havingValue = "true")
+public class OrderLogRepository implements OrderStorage, Closeable {
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final long MICROS_PER_DAY = 86_400_000_000L;
+
+    private final OrderLog orderLog;
+    private final Supplier<RewardsRules> rewardsRules;
+    private final AtomicLong nextOrderIdBlock;
+
+    public OrderLogRepository(@Value("${customer-rewards.order-log.directory:order-log}") String directory,
+                              @Value("${customer-rewards.order-log.segment-capacity:1000000}") int segmentCapacity,
+                              @Value("${customer-rewards.order-log.max-sealed-segments:8}") int maxSealedSegments,
+                              Supplier<RewardsRules> rewardsRules) {
+        this.rewardsRules = rewardsRules;
+        try {
+            this.orderLog = OrderLog.open(Path.of(directory), segmentCapacity, maxSealedSegments);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the order log in " + directory, e);
+        }
+        this.nextOrderIdBlock = new AtomicLong((orderLog.getMaxOrderId() / ORDER_ID_ALLOCATION_SIZE + 1)
+                * ORDER_ID_ALLOCATION_SIZE);
+    }
+
+    @Override
+    public <S extends PurchaseOrder> S save(S order) {
+        append(order);
+        orderLog.force();
+        return order;
+    }
+
+    @Override
+    public void insertAll(Iterable<PurchaseOrder> orders) {
+        for (var order: orders) {
+            append(order);
+        }
+        orderLog.force();
+    }
+
+    @Override
+    public Optional<PurchaseOrder> findById(Long id) {
+        var orders = new ArrayList<PurchaseOrder>(1);
+        orderLog.find(id, (orderId, customerId, transactionMicros, amountInCents) ->
+                orders.add(toPurchaseOrder(orderId, customerId, transactionMicros, amountInCents)));
+        return orders.stream().findFirst();
+    }
+
+    @Override
+    public void delete(PurchaseOrder order) {
+        try {
+            orderLog.delete(order.getId());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete order " + order.getId(), e);
+        }
+        orderLog.force();
+    }
+
+    @Override
+    public List<PurchaseOrder> getOrdersByCustomerId(Long customerId) {
+        var orders = new ArrayList<PurchaseOrder>();
+        orderLog.scan(customerId, (orderId, orderCustomerId, transactionMicros, amountInCents) ->
+                orders.add(toPurchaseOrder(orderId, orderCustomerId, transactionMicros, amountInCents)));
+        return orders;
+    }
+
+    @Override
+    public List<PurchaseOrder> getOrdersByCustomerIdAndTransactionDateRange(Long customerId, Instant startDate,
+                                                                            Instant endDate) {
+        var orders = new ArrayList<PurchaseOrder>();
+        orderLog.scan(customerId, startDate, endDate, (orderId, orderCustomerId, transactionMicros, amountInCents) ->
+                orders.add(toPurchaseOrder(orderId, orderCustomerId, transactionMicros, amountInCents)));
+        return orders;
+    }
+
+    /**
+     * Starts above the highest order id ever written to the log, so ids handed out
+     * before a restart are not reused, even those of deleted orders.
+     */
+    @Override
+    public Long getNextOrderIdBlock() {
+        return nextOrderIdBlock.getAndAdd(ORDER_ID_ALLOCATION_SIZE);
+    }
+
+    @Override
+    public void reserveOrderIdsUpTo(long orderId) {
+        nextOrderIdBlock.accumulateAndGet((orderId / ORDER_ID_ALLOCATION_SIZE + 1) * ORDER_ID_ALLOCATION_SIZE,
+                Math::max);
+    }
+
+    @Override
+    public List<MonthlyOrderSummary> getMonthlyOrderSummaries(Long customerId, Instant startDate, Instant endDate) {
+        var monthlyOrderSummaries = new ArrayList<MonthlyOrderSummary>();
+        addMonthlyOrderSummaries(customerId, startDate, endDate, rewardsRules.get(), monthlyOrderSummaries);
+        return monthlyOrderSummaries;
+    }
+
+    @Override
+    public List<CustomerMonthlyOrderSummary> getMonthlyOrderSummariesByCustomerIds(Collection<Long> customerIds,
+                                                                                   Instant startDate,
+                                                                                   Instant endDate) {
+        var rules = rewardsRules.get();
+        var monthlyOrderSummaries = new ArrayList<CustomerMonthlyOrderSummary>();
+        for (var customerId: customerIds) {
+            addMonthlyOrderSummaries(customerId, startDate, endDate, rules, monthlyOrderSummaries);
+        }
+        return monthlyOrderSummaries;
+    }
+
+    @Override
+    public List<CustomerWeeklyOrderSummary> getWeeklyOrderSummariesByCustomerIds(Collection<Long> customerIds,
+                                                                                 Instant startDate,
+                                                                                 Instant endDate) {
+        var rules = rewardsRules.get();
+        var weeklyOrderSummaries = new ArrayList<CustomerWeeklyOrderSummary>();
+        for (var customerId: customerIds) {
+            sumOrders(customerId, RewardsPeriodType.WEEK, startDate, endDate, rules,
+                    (epochWeek, orderCount, amountInCents, points) ->
+                            weeklyOrderSummaries.add(new CustomerWeeklyOrderTotals(customerId, epochWeek,
+                                    orderCount, BigDecimal.valueOf(amountInCents, 2), points)));
+        }
+        return weeklyOrderSummaries;
+    }
+
+    @Override
+    public OrderWatermark getOrderWatermark(Long customerId, Instant startDate, Instant endDate) {
+        return sumOrderWatermark(customerId, startDate, endDate);
+    }
+
+    @Override
+    public List<CustomerOrderWatermark> getOrderWatermarksByCustomerIds(Collection<Long> customerIds,
+                                                                        Instant startDate, Instant endDate) {
+        var orderWatermarks = new ArrayList<CustomerOrderWatermark>();
+        for (var customerId: customerIds) {
+            var orderWatermark = sumOrderWatermark(customerId, startDate, endDate);
+            if (orderWatermark.orderCount() > 0) {
+                orderWatermarks.add(orderWatermark);
+            }
+        }
+        return orderWatermarks;
+    }
+
+    public int getOrders() {
+        return orderLog.getOrders();
+    }
+
+    /**
+     * Compacts the sealed segments of the log, see OrderLog.compact.
+     */
+    public void compact() {
+        try {
+            orderLog.compact();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compact the order log", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        orderLog.close();
+    }
+
+    private void append(PurchaseOrder order) {
+        Objects.requireNonNull(order.getId(), "Order id must be assigned");
+        try {
+            orderLog.append(order.getId(), order.getCustomer().getId(), order.getTransactionDate(),
+                    RewardsPointsEngine.toCents(order.getTransactionAmount()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append order " + order.getId(), e);
+        }
+    }
+
+    private CustomerOrderWatermarkTotals sumOrderWatermark(Long customerId, Instant startDate, Instant endDate) {
+        // order count, last order id, amount in cents and transaction date seconds
+        var totals = new long[] {0, Long.MIN_VALUE, 0, 0};
+        orderLog.scan(customerId, startDate, endDate, (orderId, orderCustomerId, transactionMicros, amountInCents) -> {
+            totals[0]++;
+            totals[1] = Math.max(totals[1], orderId);
+            totals[2] += amountInCents;
+            totals[3] += Math.floorDiv(transactionMicros, MICROS_PER_SECOND);
+        });
+        if (totals[0] == 0) {
+            return new CustomerOrderWatermarkTotals(customerId, 0L, null, null, null);
+        }
+        return new CustomerOrderWatermarkTotals(customerId, totals[0], totals[1],
+                BigDecimal.valueOf(totals[2], 2), totals[3]);
+    }
+
+    private void addMonthlyOrderSummaries(Long customerId, Instant startDate, Instant endDate, RewardsRules rules,
+                                          List<? super CustomerMonthlyOrderTotals> monthlyOrderSummaries) {
+        sumOrders(customerId, RewardsPeriodType.MONTH, startDate, endDate, rules,
+                (epochMonth, orderCount, amountInCents, points) ->
+                        monthlyOrderSummaries.add(new CustomerMonthlyOrderTotals(customerId,
+                                RewardsPointsEngine.getYear(epochMonth), RewardsPointsEngine.getMonth(epochMonth),
+                                orderCount, BigDecimal.valueOf(amountInCents, 2), points)));
+    }
+
+    /**
+     * Sums the customer's orders with transaction date in [startDate, endDate) into
+     * per-bucket arrays while scanning, then passes the non-empty buckets to the consumer,
+     * so only the returned summaries are allocated.
+     */
+    private void sumOrders(Long customerId, RewardsPeriodType rewardsPeriodType, Instant startDate, Instant endDate,
+                           RewardsRules rules, BucketTotalsConsumer bucketTotalsConsumer) {
+        if (!startDate.isBefore(endDate)) {
+            return;
+        }
+        var startBucket = PeriodBuckets.toBucket(rewardsPeriodType, RewardsPointsEngine.toEpochDay(startDate));
+        var buckets = PeriodBuckets.toBucket(rewardsPeriodType,
+                RewardsPointsEngine.toEpochDay(endDate.minusNanos(1))) - startBucket + 1;
+        var orderCounts = new long[buckets];
+        var amountsInCents = new long[buckets];
+        var points = new long[buckets];
+        orderLog.scan(customerId, startDate, endDate, (orderId, orderCustomerId, transactionMicros, amountInCents) -> {
+            var epochDay = Math.toIntExact(Math.floorDiv(transactionMicros, MICROS_PER_DAY));
+            var bucket = PeriodBuckets.toBucket(rewardsPeriodType, epochDay) - startBucket;
+            orderCounts[bucket]++;
+            amountsInCents[bucket] += amountInCents;
+            points[bucket] += rules.calculatePoints(epochDay, amountInCents);
+        });
+        for (int i = 0; i < buckets; i++) {
+            if (orderCounts[i] > 0) {
+                bucketTotalsConsumer.accept(startBucket + i, orderCounts[i], amountsInCents[i], points[i]);
+            }
+        }
+    }
+
+    private static PurchaseOrder toPurchaseOrder(long orderId, long customerId, long transactionMicros,
+                                                 long amountInCents) {
+        return new PurchaseOrder(orderId, new Customer(customerId, null, null),
+                BigDecimal.valueOf(amountInCents, 2), OrderLog.toInstant(transactionMicros));
+    }
+
+    @FunctionalInterface
+    private interface BucketTotalsConsumer {
+        void accept(int bucket, long orderCount, long amountInCents, long points);
+    }
+}
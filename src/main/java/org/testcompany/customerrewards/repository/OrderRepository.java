@@ -1,14 +1,148 @@
 package org.testcompany.customerrewards.repository;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.CustomerOrderWatermark;
+import org.testcompany.customerrewards.domain.CustomerWeeklyOrderSummary;
+import org.testcompany.customerrewards.domain.MonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.OrderWatermark;
 import org.testcompany.customerrewards.domain.PurchaseOrder;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 @Repository
-public interface OrderRepository extends CrudRepository<PurchaseOrder, Long> {
+public interface OrderRepository extends CrudRepository<PurchaseOrder, Long>, BulkOrderRepository,
+        OrderStorage {
+
+    /**
+     * Rewards points earned for a single order, same rules as RewardsRules: the linear
+     * segment of REWARDS_POINTS_SEGMENT holding the transaction date and whole dollar
+     * amount, written by CompiledRewardsRules through RewardsRulesJdbcRepository.
+     */
+    String ORDER_POINTS_SQL = "COALESCE((SELECT RPS.BASE_POINTS + RPS.POINTS_PER_DOLLAR * " +
+            "(FLOOR(TRANSACTION_AMOUNT) - RPS.FROM_DOLLARS) FROM REWARDS_POINTS_SEGMENT RPS " +
+            "WHERE RPS.EFFECTIVE_FROM <= TRANSACTION_DATE AND TRANSACTION_DATE < RPS.EFFECTIVE_TO " +
+            "AND RPS.FROM_DOLLARS <= FLOOR(TRANSACTION_AMOUNT) " +
+            "AND FLOOR(TRANSACTION_AMOUNT) < RPS.TO_DOLLARS), 0)";
+
+    @Override
+    <S extends PurchaseOrder> S save(S order);
+
+    @Override
+    Optional<PurchaseOrder> findById(Long id);
+
+    @Override
+    void delete(PurchaseOrder order);
+
+    @Override
     List<PurchaseOrder> getOrdersByCustomerId(Long customerId);
-}
 
+    /**
+     * Reserves the block of ORDER_ID_ALLOCATION_SIZE order ids starting at the returned value:
+     * PURCHASE_ORDER_SEQ steps by ORDER_ID_ALLOCATION_SIZE.
+     */
+    @Override
+    @Query(value = "SELECT NEXT VALUE FOR PURCHASE_ORDER_SEQ", nativeQuery = true)
+    Long getNextOrderIdBlock();
+
+    /**
+     * Returns the orders of a customer with transaction date in [startDate, endDate).
+     * Served by the (CUSTOMER_ID, TRANSACTION_DATE) index on PURCHASE_ORDER.
+     */
+    @Override
+    @Query("SELECT o FROM PurchaseOrder o WHERE o.customer.id = :customerId " +
+            "AND o.transactionDate >= :startDate AND o.transactionDate < :endDate")
+    List<PurchaseOrder> getOrdersByCustomerIdAndTransactionDateRange(Long customerId,
+                                                                     Instant startDate,
+                                                                     Instant endDate);
+
+    /**
+     * Returns one row per month with the summed amount and points of the customer's
+     * orders with transaction date in [startDate, endDate).
+     */
+    @Override
+    @Query(value = "SELECT YEAR(TRANSACTION_DATE) AS orderYear, " +
+            "MONTH(TRANSACTION_DATE) AS orderMonth, " +
+            "COUNT(*) AS orderCount, " +
+            "SUM(TRANSACTION_AMOUNT) AS totalAmount, " +
+            "CAST(SUM(" + ORDER_POINTS_SQL + ") AS BIGINT) AS totalPoints " +
+            "FROM PURCHASE_ORDER WHERE CUSTOMER_ID = :customerId " +
+            "AND TRANSACTION_DATE >= :startDate AND TRANSACTION_DATE < :endDate " +
+            "GROUP BY orderYear, orderMonth", nativeQuery = true)
+    List<MonthlyOrderSummary> getMonthlyOrderSummaries(Long customerId,
+                                                       Instant startDate,
+                                                       Instant endDate);
+
+    /**
+     * Same as getMonthlyOrderSummaries for several customers in a single query.
+     */
+    @Override
+    @Query(value = "SELECT CUSTOMER_ID AS customerId, " +
+            "YEAR(TRANSACTION_DATE) AS orderYear, " +
+            "MONTH(TRANSACTION_DATE) AS orderMonth, " +
+            "COUNT(*) AS orderCount, " +
+            "SUM(TRANSACTION_AMOUNT) AS totalAmount, " +
+            "CAST(SUM(" + ORDER_POINTS_SQL + ") AS BIGINT) AS totalPoints " +
+            "FROM PURCHASE_ORDER WHERE CUSTOMER_ID IN (:customerIds) " +
+            "AND TRANSACTION_DATE >= :startDate AND TRANSACTION_DATE < :endDate " +
+            "GROUP BY customerId, orderYear, orderMonth", nativeQuery = true)
+    List<CustomerMonthlyOrderSummary> getMonthlyOrderSummariesByCustomerIds(Collection<Long> customerIds,
+                                                                            Instant startDate,
+                                                                            Instant endDate);
+
+    /**
+     * Returns one row per customer and ISO week (epoch week, see PeriodBuckets) with the
+     * summed amount and points of the customers' orders with transaction date in
+     * [startDate, endDate).
+     */
+    @Override
+    @Query(value = "SELECT CUSTOMER_ID AS customerId, " +
+            "CAST(FLOOR((DATEDIFF('DAY', DATE '1970-01-01', TRANSACTION_DATE) + 3) / 7.0) AS INT) AS epochWeek, " +
+            "COUNT(*) AS orderCount, " +
+            "SUM(TRANSACTION_AMOUNT) AS totalAmount, " +
+            "CAST(SUM(" + ORDER_POINTS_SQL + ") AS BIGINT) AS totalPoints " +
+            "FROM PURCHASE_ORDER WHERE CUSTOMER_ID IN (:customerIds) " +
+            "AND TRANSACTION_DATE >= :startDate AND TRANSACTION_DATE < :endDate " +
+            "GROUP BY customerId, epochWeek", nativeQuery = true)
+    List<CustomerWeeklyOrderSummary> getWeeklyOrderSummariesByCustomerIds(Collection<Long> customerIds,
+                                                                          Instant startDate,
+                                                                          Instant endDate);
+
+    /**
+     * Returns the watermark of the customer's orders with transaction date in
+     * [startDate, endDate). Only reads the (CUSTOMER_ID, TRANSACTION_DATE,
+     * TRANSACTION_AMOUNT) index, whose entries also hold the order id.
+     */
+    @Override
+    @Query(value = "SELECT COUNT(*) AS orderCount, " +
+            "MAX(ID) AS lastOrderId, " +
+            "SUM(TRANSACTION_AMOUNT) AS totalAmount, " +
+            "CAST(SUM(DATEDIFF('SECOND', TIMESTAMP '1970-01-01 00:00:00', TRANSACTION_DATE)) AS BIGINT) " +
+            "AS transactionDateSeconds " +
+            "FROM PURCHASE_ORDER WHERE CUSTOMER_ID = :customerId " +
+            "AND TRANSACTION_DATE >= :startDate AND TRANSACTION_DATE < :endDate", nativeQuery = true)
+    OrderWatermark getOrderWatermark(Long customerId, Instant startDate, Instant endDate);
+
+    /**
+     * Same as getOrderWatermark for several customers in a single query, on the same index.
+     */
+    @Override
+    @Query(value = "SELECT CUSTOMER_ID AS customerId, " +
+            "COUNT(*) AS orderCount, " +
+            "MAX(ID) AS lastOrderId, " +
+            "SUM(TRANSACTION_AMOUNT) AS totalAmount, " +
+            "CAST(SUM(DATEDIFF('SECOND', TIMESTAMP '1970-01-01 00:00:00', TRANSACTION_DATE)) AS BIGINT) " +
+            "AS transactionDateSeconds " +
+            "FROM PURCHASE_ORDER WHERE CUSTOMER_ID IN (:customerIds) " +
+            "AND TRANSACTION_DATE >= :startDate AND TRANSACTION_DATE < :endDate " +
+            "GROUP BY customerId", nativeQuery = true)
+    List<CustomerOrderWatermark> getOrderWatermarksByCustomerIds(Collection<Long> customerIds,
+                                                                 Instant startDate,
+                                                                 Instant endDate);
+}
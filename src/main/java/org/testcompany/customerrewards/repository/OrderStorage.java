@@ -0,0 +1,84 @@
+package org.testcompany.customerrewards.repository;
+
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.CustomerOrderWatermark;
+import org.testcompany.customerrewards.domain.CustomerWeeklyOrderSummary;
+import org.testcompany.customerrewards.domain.MonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.OrderWatermark;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read/write contract of order persistence, implemented by OrderRepository on the
+ * PURCHASE_ORDER table and by OrderLogRepository on the memory-mapped order log. The
+ * one in use is selected by 'customer-rewards.order-log.enabled', see OrderStorageConfig.
+ */
+public interface OrderStorage extends BulkOrderRepository {
+
+    /**
+     * Number of order ids reserved per getNextOrderIdBlock call.
+     */
+    int ORDER_ID_ALLOCATION_SIZE = 1000;
+
+    <S extends PurchaseOrder> S save(S order);
+
+    Optional<PurchaseOrder> findById(Long id);
+
+    void delete(PurchaseOrder order);
+
+    List<PurchaseOrder> getOrdersByCustomerId(Long customerId);
+
+    /**
+     * Reserves the block of ORDER_ID_ALLOCATION_SIZE order ids starting at the returned value.
+     */
+    Long getNextOrderIdBlock();
+
+    /**
+     * Returns the orders of a customer with transaction date in [startDate, endDate).
+     */
+    List<PurchaseOrder> getOrdersByCustomerIdAndTransactionDateRange(Long customerId,
+                                                                     Instant startDate,
+                                                                     Instant endDate);
+
+    /**
+     * Returns one row per month with the summed amount and points of the customer's
+     * orders with transaction date in [startDate, endDate).
+     */
+    List<MonthlyOrderSummary> getMonthlyOrderSummaries(Long customerId,
+                                                       Instant startDate,
+                                                       Instant endDate);
+
+    /**
+     * Same as getMonthlyOrderSummaries for several customers.
+     */
+    List<CustomerMonthlyOrderSummary> getMonthlyOrderSummariesByCustomerIds(Collection<Long> customerIds,
+                                                                            Instant startDate,
+                                                                            Instant endDate);
+
+    /**
+     * Returns one row per customer and ISO week (epoch week, see PeriodBuckets) with the
+     * summed amount and points of the customers' orders with transaction date in
+     * [startDate, endDate).
+     */
+    List<CustomerWeeklyOrderSummary> getWeeklyOrderSummariesByCustomerIds(Collection<Long> customerIds,
+                                                                          Instant startDate,
+                                                                          Instant endDate);
+
+    /**
+     * Returns the watermark of the customer's orders with transaction date in
+     * [startDate, endDate), without reading the orders themselves where possible.
+     */
+    OrderWatermark getOrderWatermark(Long customerId, Instant startDate, Instant endDate);
+
+    /**
+     * Same as getOrderWatermark for several customers, leaving out customers without
+     * orders.
+     */
+    List<CustomerOrderWatermark> getOrderWatermarksByCustomerIds(Collection<Long> customerIds,
+                                                                 Instant startDate,
+                                                                 Instant endDate);
+}
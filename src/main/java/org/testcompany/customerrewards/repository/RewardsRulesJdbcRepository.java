@@ -0,0 +1,58 @@
+package org.testcompany.customerrewards.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.testcompany.customerrewards.domain.RewardsTier;
+import org.testcompany.customerrewards.util.RewardsRules;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the rewards tier definitions, REWARDS_TIER, and to their
+ * compiled segments, REWARDS_POINTS_SEGMENT, read by OrderRepository.ORDER_POINTS_SQL.
+ */
+@Repository
+public class RewardsRulesJdbcRepository {
+
+    private static final String INSERT_SEGMENT_SQL = "INSERT INTO REWARDS_POINTS_SEGMENT(EFFECTIVE_FROM, " +
+            "EFFECTIVE_TO, FROM_DOLLARS, TO_DOLLARS, BASE_POINTS, POINTS_PER_DOLLAR) VALUES (?, ?, ?, ?, ?, ?)";
+    private final JdbcTemplate jdbcTemplate;
+
+    public RewardsRulesJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<RewardsTier> findRewardsTiers() {
+        return jdbcTemplate.query("SELECT EFFECTIVE_FROM, THRESHOLD_AMOUNT, POINTS_PER_DOLLAR FROM REWARDS_TIER " +
+                        "ORDER BY EFFECTIVE_FROM, THRESHOLD_AMOUNT",
+                (resultSet, rowNum) -> new RewardsTier(resultSet.getObject(1, LocalDate.class),
+                        resultSet.getBigDecimal(2), resultSet.getInt(3)));
+    }
+
+    public List<RewardsRules.Segment> findRewardsPointsSegments() {
+        return jdbcTemplate.query("SELECT EFFECTIVE_FROM, EFFECTIVE_TO, FROM_DOLLARS, TO_DOLLARS, BASE_POINTS, " +
+                        "POINTS_PER_DOLLAR FROM REWARDS_POINTS_SEGMENT ORDER BY EFFECTIVE_FROM, FROM_DOLLARS",
+                (resultSet, rowNum) -> new RewardsRules.Segment(
+                        resultSet.getObject(1, LocalDateTime.class).toLocalDate(),
+                        resultSet.getObject(2, LocalDateTime.class).toLocalDate(),
+                        resultSet.getLong(3), resultSet.getLong(4), resultSet.getLong(5), resultSet.getInt(6)));
+    }
+
+    /**
+     * Replaces all the segments, to be called within a transaction.
+     */
+    public void replaceRewardsPointsSegments(List<RewardsRules.Segment> segments) {
+        jdbcTemplate.update("DELETE FROM REWARDS_POINTS_SEGMENT");
+        jdbcTemplate.batchUpdate(INSERT_SEGMENT_SQL, segments, segments.size(), (statement, segment) -> {
+            // TIMESTAMP columns holding UTC date times, see the datasource TIME ZONE setting
+            statement.setObject(1, segment.effectiveFrom().atStartOfDay());
+            statement.setObject(2, segment.effectiveTo().atStartOfDay());
+            statement.setLong(3, segment.fromDollars());
+            statement.setLong(4, segment.toDollars());
+            statement.setLong(5, segment.basePoints());
+            statement.setInt(6, segment.pointsPerDollar());
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package org.testcompany.customerrewards.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+
+import java.util.List;
+
+/**
+ * Plain JDBC access for rewards statements, written with batched prepared statements,
+ * see OrderImportJdbcRepository.
+ */
+@Repository
+public class RewardsStatementJdbcRepository {
+
+    private static final String INSERT_STATEMENT_SQL = "INSERT INTO REWARDS_STATEMENT(STATEMENT_ID, " +
+            "CUSTOMER_ID, PERIOD_START_DATE, PERIOD_END_DATE, TOTAL_AMOUNT, TOTAL_POINTS) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private final JdbcTemplate jdbcTemplate;
+
+    public RewardsStatementJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the statements of a rewards period in a single JDBC batch.
+     */
+    public void insertStatements(String statementId, RewardsPeriod rewardsPeriod,
+                                 List<CustomerRewardsDetails> statements) {
+        if (statements.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_STATEMENT_SQL, statements, statements.size(), (statement, details) -> {
+            statement.setString(1, statementId);
+            statement.setLong(2, details.getCustomerId());
+            statement.setObject(3, rewardsPeriod.startDate());
+            statement.setObject(4, rewardsPeriod.endDate());
+            statement.setBigDecimal(5, details.getTotalAmount());
+            statement.setLong(6, details.getTotalPoints());
+        });
+    }
+}
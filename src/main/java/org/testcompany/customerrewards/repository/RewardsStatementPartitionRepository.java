@@ -0,0 +1,15 @@
+package org.testcompany.customerrewards.repository;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.testcompany.customerrewards.domain.RewardsStatementPartition;
+import org.testcompany.customerrewards.domain.RewardsStatementPartitionId;
+
+import java.util.List;
+
+@Repository
+public interface RewardsStatementPartitionRepository
+        extends CrudRepository<RewardsStatementPartition, RewardsStatementPartitionId> {
+
+    List<RewardsStatementPartition> findByIdStatementIdOrderByIdPartitionNumber(String statementId);
+}
@@ -0,0 +1,52 @@
+package org.testcompany.customerrewards.runner;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.testcompany.customerrewards.generator.DataGenerator;
+import org.testcompany.customerrewards.generator.DataGeneratorSettings;
+
+import java.time.Clock;
+import java.time.YearMonth;
+
+/**
+ * Generates synthetic customers and orders on startup when the application is launched
+ * with '--generate-data'. The generator is set with the 'customer-rewards.generator'
+ * properties, which can be given on the command line as well, e.g.
+ * '--customer-rewards.generator.customers=1000000'.
+ */
+@Component
+public class DataGeneratorRunner implements ApplicationRunner {
+    static final String GENERATE_DATA_OPTION = "generate-data";
+    private final DataGenerator dataGenerator;
+    private final DataGeneratorSettings settings;
+
+    public DataGeneratorRunner(
+            DataGenerator dataGenerator, Clock clock,
+            @Value("${customer-rewards.generator.seed:42}") long seed,
+            @Value("${customer-rewards.generator.customers:1000}") int customers,
+            @Value("${customer-rewards.generator.first-customer-id:0}") long firstCustomerId,
+            @Value("${customer-rewards.generator.mean-orders-per-customer:20}") double meanOrdersPerCustomer,
+            @Value("${customer-rewards.generator.whale-ratio:0.001}") double whaleRatio,
+            @Value("${customer-rewards.generator.whale-min-orders:1000}") int whaleMinOrders,
+            @Value("${customer-rewards.generator.whale-pareto-alpha:1.5}") double whaleParetoAlpha,
+            @Value("${customer-rewards.generator.max-orders-per-customer:1000000}") int maxOrdersPerCustomer,
+            @Value("${customer-rewards.generator.threshold-amount-ratio:0.3}") double thresholdAmountRatio,
+            @Value("${customer-rewards.generator.months:240}") int months,
+            @Value("${customer-rewards.generator.end-month:}") String endMonth,
+            @Value("${customer-rewards.generator.batch-size:10000}") int batchSize) {
+        this.dataGenerator = dataGenerator;
+        this.settings = new DataGeneratorSettings(seed, customers, firstCustomerId, meanOrdersPerCustomer,
+                whaleRatio, whaleMinOrders, whaleParetoAlpha, maxOrdersPerCustomer, thresholdAmountRatio, months,
+                endMonth.isEmpty() ? YearMonth.now(clock) : YearMonth.parse(endMonth), batchSize);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(GENERATE_DATA_OPTION)) {
+            return;
+        }
+        dataGenerator.generate(settings);
+    }
+}
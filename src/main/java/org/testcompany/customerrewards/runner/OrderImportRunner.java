@@ -0,0 +1,64 @@
+package org.testcompany.customerrewards.runner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.testcompany.customerrewards.domain.OrderImportFormat;
+import org.testcompany.customerrewards.services.OrderImportService;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Imports orders from a file on startup when the application is launched with
+ * '--import-orders=<file>'. The format is taken from '--import-format' (CSV or NDJSON)
+ * or from the file extension, and the import id from '--import-id' or the file name.
+ * Launching the same import again resumes it after its last committed batch.
+ */
+@Component
+public class OrderImportRunner implements ApplicationRunner {
+    private static final Logger logger =
+            LoggerFactory.getLogger(OrderImportRunner.class);
+    static final String IMPORT_ORDERS_OPTION = "import-orders";
+    static final String IMPORT_FORMAT_OPTION = "import-format";
+    static final String IMPORT_ID_OPTION = "import-id";
+    private final OrderImportService orderImportService;
+
+    public OrderImportRunner(OrderImportService orderImportService) {
+        this.orderImportService = orderImportService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!args.containsOption(IMPORT_ORDERS_OPTION)) {
+            return;
+        }
+        var file = Path.of(getOptionValue(args, IMPORT_ORDERS_OPTION));
+        var fileName = file.getFileName().toString();
+        var importFormat = args.containsOption(IMPORT_FORMAT_OPTION)
+                ? OrderImportFormat.valueOf(getOptionValue(args, IMPORT_FORMAT_OPTION).toUpperCase(Locale.ROOT))
+                : fileName.toLowerCase(Locale.ROOT).endsWith(".csv") ? OrderImportFormat.CSV
+                : OrderImportFormat.NDJSON;
+        var importId = args.containsOption(IMPORT_ID_OPTION)
+                ? getOptionValue(args, IMPORT_ID_OPTION) : fileName;
+        logger.info("Importing {} orders from {} with import id {}", importFormat, file, importId);
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var orderImportResult = orderImportService.importOrders(importId, importFormat, channel);
+            orderImportResult.rejectedRows().forEach(rejectedRow ->
+                    logger.warn("Rejected order at line {}: {}", rejectedRow.lineNumber(),
+                            rejectedRow.errorMessage()));
+            logger.info("Order import {} done: {} orders imported, {} orders rejected", importId,
+                    orderImportResult.importedOrders(), orderImportResult.rejectedOrders());
+        }
+    }
+
+    private String getOptionValue(ApplicationArguments args, String option) {
+        return List.copyOf(args.getOptionValues(option)).get(0);
+    }
+}
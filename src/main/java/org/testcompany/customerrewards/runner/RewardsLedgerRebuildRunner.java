@@ -0,0 +1,35 @@
+package org.testcompany.customerrewards.runner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.testcompany.customerrewards.services.RewardsLedgerService;
+
+/**
+ * Regenerates the rewards ledger from PURCHASE_ORDER on startup when the application
+ * is launched with '--rebuild-rewards-ledger', e.g. to recover from a ledger that went
+ * out of sync with the orders.
+ */
+@Component
+public class RewardsLedgerRebuildRunner implements ApplicationRunner {
+    private static final Logger logger =
+            LoggerFactory.getLogger(RewardsLedgerRebuildRunner.class);
+    static final String REBUILD_REWARDS_LEDGER_OPTION = "rebuild-rewards-ledger";
+    private final RewardsLedgerService rewardsLedgerService;
+
+    public RewardsLedgerRebuildRunner(RewardsLedgerService rewardsLedgerService) {
+        this.rewardsLedgerService = rewardsLedgerService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(REBUILD_REWARDS_LEDGER_OPTION)) {
+            return;
+        }
+        logger.info("Rebuilding rewards ledger from purchase orders");
+        var ledgerRows = rewardsLedgerService.rebuild();
+        logger.info("Rewards ledger rebuilt with {} rows", ledgerRows);
+    }
+}
@@ -0,0 +1,50 @@
+package org.testcompany.customerrewards.runner;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.services.RewardsStatementService;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Writes the rewards statements of all customers, with the date they are generated on
+ * as statement id, every night when 'customer-rewards.statements.cron' is set, e.g.
+ * '0 0 2 * * *', and on startup when the application is launched with
+ * '--generate-rewards-statements'. A statement interrupted by a restart is resumed by
+ * the next run of the same day.
+ */
+@Component
+public class RewardsStatementRunner implements ApplicationRunner {
+    static final String GENERATE_REWARDS_STATEMENTS_OPTION = "generate-rewards-statements";
+    private final RewardsStatementService rewardsStatementService;
+    private final Clock clock;
+    private final int rewardsPeriodInMonths;
+
+    public RewardsStatementRunner(
+            RewardsStatementService rewardsStatementService, Clock clock,
+            @Value("${customer-rewards.statements.rewards-period:3}") int rewardsPeriodInMonths) {
+        this.rewardsStatementService = rewardsStatementService;
+        this.clock = clock;
+        this.rewardsPeriodInMonths = rewardsPeriodInMonths;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption(GENERATE_REWARDS_STATEMENTS_OPTION)) {
+            return;
+        }
+        generateStatements();
+    }
+
+    @Scheduled(cron = "${customer-rewards.statements.cron:-}")
+    public void generateStatements() {
+        var statementDate = LocalDate.now(clock);
+        rewardsStatementService.generateStatements(statementDate.toString(),
+                RewardsPeriod.ofMonths(statementDate, rewardsPeriodInMonths));
+    }
+}
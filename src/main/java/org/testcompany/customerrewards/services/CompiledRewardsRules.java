@@ -0,0 +1,72 @@
+package org.testcompany.customerrewards.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcompany.customerrewards.repository.RewardsRulesJdbcRepository;
+import org.testcompany.customerrewards.util.RewardsRules;
+
+import java.util.function.Supplier;
+
+/**
+ * Rewards tiers of REWARDS_TIER compiled into RewardsRules, loaded at startup and by
+ * reload. Loading also writes the compiled segments to REWARDS_POINTS_SEGMENT for the
+ * SQL of the rewards ledger.
+ * <p>
+ * The ledger rows hold the points earned under the rules in force when the orders
+ * were written: when loading changes the segments, the ledger must be rebuilt with
+ * '--rebuild-rewards-ledger'. The in-memory order store and the order log calculate
+ * the points when read, with the current rules.
+ */
+@Component
+public class CompiledRewardsRules implements Supplier<RewardsRules> {
+    private static final Logger logger = LoggerFactory.getLogger(
+            CompiledRewardsRules.class);
+
+    private final RewardsRulesJdbcRepository rewardsRulesJdbcRepository;
+    private final CustomerRewardsCache customerRewardsCache;
+    private final TransactionTemplate transactionTemplate;
+    private volatile RewardsRules rules;
+
+    public CompiledRewardsRules(RewardsRulesJdbcRepository rewardsRulesJdbcRepository,
+                                CustomerRewardsCache customerRewardsCache,
+                                PlatformTransactionManager transactionManager) {
+        this.rewardsRulesJdbcRepository = rewardsRulesJdbcRepository;
+        this.customerRewardsCache = customerRewardsCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        reload();
+    }
+
+    @Override
+    public RewardsRules get() {
+        return rules;
+    }
+
+    /**
+     * Compiles the tiers of REWARDS_TIER and replaces the stored segments if they
+     * changed.
+     *
+     * @return true if the segments changed
+     * @throws IllegalArgumentException if the tiers are invalid, see RewardsRules.compile;
+     *                                  the current rules are kept
+     */
+    public boolean reload() {
+        var compiledRules = RewardsRules.compile(rewardsRulesJdbcRepository.findRewardsTiers());
+        var changed = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (compiledRules.getSegments().equals(rewardsRulesJdbcRepository.findRewardsPointsSegments())) {
+                return false;
+            }
+            rewardsRulesJdbcRepository.replaceRewardsPointsSegments(compiledRules.getSegments());
+            return true;
+        }));
+        rules = compiledRules;
+        if (changed) {
+            customerRewardsCache.invalidateAll();
+            logger.warn("Rewards rules changed: rebuild the rewards ledger with '--rebuild-rewards-ledger'");
+        }
+        logger.info("Loaded {} rewards rules versions", rules.getVersions());
+        return changed;
+    }
+}
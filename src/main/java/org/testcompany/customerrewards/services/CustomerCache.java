@@ -0,0 +1,152 @@
+package org.testcompany.customerrewards.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.repository.CustomerRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded near-cache of customers, which are read on every rewards request and almost
+ * never change. Cached customers are detached copies of the loaded entities. Customer writes through JPA
+ * invalidate their entry once their transaction completes (see
+ * CustomerCacheInvalidationListener); writes bypassing JPA must call invalidate or
+ * invalidateAll. A load that overlaps an invalidation is not cached. Unknown customers
+ * are not cached.
+ */
+@Component
+public class CustomerCache implements MeterBinder {
+
+    static final String CACHE_NAME = "customers";
+    private final CustomerRepository customerRepository;
+    private final Cache<Long, Customer> cache;
+    private final ReentrantLock invalidationLock = new ReentrantLock();
+    private volatile long invalidations;
+
+    public CustomerCache(CustomerRepository customerRepository,
+                         @Value("${customer-rewards.cache.customers.maximum-size:10000}") long maximumSize,
+                         @Value("${customer-rewards.cache.customers.expire-after-write:PT1H}")
+                         Duration expireAfterWrite) {
+        this.customerRepository = customerRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Customer> getCustomerById(Long customerId) {
+        var customer = cache.getIfPresent(customerId);
+        if (customer != null) {
+            return Optional.of(customer);
+        }
+        var invalidationsBefore = invalidations;
+        return customerRepository.getCustomerById(customerId)
+                .map(loadedCustomer -> put(loadedCustomer, invalidationsBefore));
+    }
+
+    /**
+     * Returns the customers found, in the order of the given ids, loading the missing
+     * ones with a single query.
+     */
+    public List<Customer> findAllById(Collection<Long> customerIds) {
+        var customerIdSet = new LinkedHashSet<>(customerIds);
+        var customersById = new HashMap<>(cache.getAllPresent(customerIdSet));
+        var missingCustomerIds = customerIdSet.stream()
+                .filter(customerId -> !customersById.containsKey(customerId))
+                .toList();
+        if (!missingCustomerIds.isEmpty()) {
+            var invalidationsBefore = invalidations;
+            for (var customer: customerRepository.findAllById(missingCustomerIds)) {
+                customersById.put(customer.getId(), put(customer, invalidationsBefore));
+            }
+        }
+        var customers = new ArrayList<Customer>(customersById.size());
+        for (var customerId: customerIdSet) {
+            var customer = customersById.get(customerId);
+            if (customer != null) {
+                customers.add(customer);
+            }
+        }
+        return customers;
+    }
+
+    /**
+     * Invalidates the customer's entry when the current transaction completes, or right
+     * away outside of a transaction.
+     */
+    public void invalidate(Long customerId) {
+        afterTransaction(() -> {
+            invalidationLock.lock();
+            try {
+                invalidations++;
+                cache.invalidate(customerId);
+            } finally {
+                invalidationLock.unlock();
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        afterTransaction(() -> {
+            invalidationLock.lock();
+            try {
+                invalidations++;
+                cache.invalidateAll();
+            } finally {
+                invalidationLock.unlock();
+            }
+        });
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private Customer put(Customer customer, long invalidationsBefore) {
+        var detachedCustomer = new Customer(customer.getId(), customer.getName(), customer.getPhoneNumber());
+        invalidationLock.lock();
+        try {
+            if (invalidations == invalidationsBefore) {
+                cache.put(detachedCustomer.getId(), detachedCustomer);
+            }
+        } finally {
+            invalidationLock.unlock();
+        }
+        return customer;
+    }
+
+    private static void afterTransaction(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package org.testcompany.customerrewards.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.testcompany.customerrewards.domain.Customer;
+
+/**
+ * Hibernate event listener invalidating cached customers on every write of a Customer
+ * entity. Registered with the session factory's event listener registry, so the entity
+ * does not refer to it.
+ */
+@Component
+public class CustomerCacheInvalidationListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+    private final CustomerCache customerCache;
+
+    public CustomerCacheInvalidationListener(EntityManagerFactory entityManagerFactory,
+                                             CustomerCache customerCache) {
+        this.customerCache = customerCache;
+        var eventListenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        eventListenerRegistry.appendListeners(EventType.POST_INSERT, this);
+        eventListenerRegistry.appendListeners(EventType.POST_UPDATE, this);
+        eventListenerRegistry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void invalidate(Object entity) {
+        if (entity instanceof Customer customer) {
+            customerCache.invalidate(customer.getId());
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package org.testcompany.customerrewards.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of calculated rewards points. Entries are keyed by the current week,
+ * month, quarter or year (PeriodBuckets bucket), which determines the rewards period,
+ * so a new period never serves the previous period's rewards. Order writes invalidate
+ * the entries of their customers once their transaction completes; a calculation that
+ * overlaps an invalidation of its customer is not cached.
+ * <p>
+ * Invalidation is per customer: the keys of each customer are indexed, and customers are
+ * spread over lock stripes, each with an invalidation stamp checked before a calculated
+ * entry is put. An order write therefore neither scans the cache nor holds back the
+ * calculations of customers of other stripes.
+ * <p>
+ * Invalidated customers are remembered for 'customer-rewards.datasource.replica.max-lag',
+ * the time a read replica may take to apply the write that invalidated them, so their
+ * points are recalculated from the primary rather than cached from a stale replica.
+ * Hit and miss counts are published as the 'cache.gets' metric of the
+ * 'customerRewards' cache.
+ */
+@Component
+public class CustomerRewardsCache implements MeterBinder {
+
+    static final String CACHE_NAME = "customerRewards";
+    private static final int LOCK_STRIPES = 1024;
+    private final Cache<Key, CustomerRewardsDetails> cache;
+    private final ConcurrentHashMap<Long, Set<Key>> keysByCustomerId = new ConcurrentHashMap<>();
+    private final ReentrantLock[] invalidationLocks = new ReentrantLock[LOCK_STRIPES];
+    private final AtomicLongArray invalidations = new AtomicLongArray(LOCK_STRIPES);
+    private final Cache<Long, Boolean> recentlyInvalidatedCustomers;
+    private final long replicaMaxLagNanos;
+    private volatile long allInvalidatedNanos;
+
+    public CustomerRewardsCache(
+            @Value("${customer-rewards.cache.rewards.maximum-size:10000}") long maximumSize,
+            @Value("${customer-rewards.cache.rewards.expire-after-write:PT10M}") Duration expireAfterWrite,
+            @Value("${customer-rewards.datasource.replica.max-lag:PT10S}") Duration replicaMaxLag) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .evictionListener((Key key, CustomerRewardsDetails customerRewardsDetails, RemovalCause cause) ->
+                        removeFromIndex(key))
+                .recordStats()
+                .build();
+        // a customer evicted before the replica max lag is up may still be read from a
+        // stale replica, so all customers are calculated on the primary for that time
+        this.recentlyInvalidatedCustomers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(replicaMaxLag)
+                .evictionListener((Long customerId, Boolean invalidated, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        allInvalidatedNanos = System.nanoTime();
+                    }
+                })
+                .build();
+        for (var i = 0; i < LOCK_STRIPES; i++) {
+            invalidationLocks[i] = new ReentrantLock();
+        }
+        this.replicaMaxLagNanos = replicaMaxLag.toNanos();
+        this.allInvalidatedNanos = System.nanoTime() - replicaMaxLagNanos;
+    }
+
+    /**
+     * Returns the cached rewards points, or null.
+     */
+    public CustomerRewardsDetails getIfPresent(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Returns the cached rewards points, or calculates and caches them.
+     */
+    public CustomerRewardsDetails get(Key key, Supplier<CustomerRewardsDetails> calculation) {
+        var customerRewardsDetails = cache.getIfPresent(key);
+        if (customerRewardsDetails != null) {
+            return customerRewardsDetails;
+        }
+        var invalidationsBefore = invalidations.get(stripe(key.customerId()));
+        customerRewardsDetails = calculation.get();
+        put(key, customerRewardsDetails, invalidationsBefore);
+        return customerRewardsDetails;
+    }
+
+    /**
+     * Returns the cached rewards points of the keys, calculating the missing ones with a
+     * single call. Keys left out by the calculation are left out of the result.
+     */
+    public Map<Key, CustomerRewardsDetails> getAll(Collection<Key> keys,
+                                                   Function<Collection<Key>, Map<Key, CustomerRewardsDetails>>
+                                                           calculation) {
+        var customerRewardsDetailsByKey = new HashMap<>(cache.getAllPresent(keys));
+        var invalidationsBeforeByKey = new LinkedHashMap<Key, Long>();
+        for (var key: keys) {
+            if (!customerRewardsDetailsByKey.containsKey(key)) {
+                invalidationsBeforeByKey.put(key, invalidations.get(stripe(key.customerId())));
+            }
+        }
+        if (!invalidationsBeforeByKey.isEmpty()) {
+            var calculatedDetailsByKey = calculation.apply(List.copyOf(invalidationsBeforeByKey.keySet()));
+            calculatedDetailsByKey.forEach((key, customerRewardsDetails) ->
+                    put(key, customerRewardsDetails, invalidationsBeforeByKey.get(key)));
+            customerRewardsDetailsByKey.putAll(calculatedDetailsByKey);
+        }
+        return customerRewardsDetailsByKey;
+    }
+
+    /**
+     * Invalidates the customers' entries when the current transaction completes, or
+     * right away outside of a transaction.
+     */
+    public void invalidateCustomers(Collection<Long> customerIds) {
+        var customerIdSet = Set.copyOf(customerIds);
+        afterTransaction(() -> {
+            for (var customerId: customerIdSet) {
+                // remembered before the entries are removed, so the next miss sees it
+                recentlyInvalidatedCustomers.put(customerId, Boolean.TRUE);
+                invalidate(customerId);
+            }
+        });
+    }
+
+    /**
+     * Invalidates all entries when the current transaction completes, or right away
+     * outside of a transaction.
+     */
+    public void invalidateAll() {
+        afterTransaction(() -> {
+            allInvalidatedNanos = System.nanoTime();
+            for (var invalidationLock: invalidationLocks) {
+                invalidationLock.lock();
+            }
+            try {
+                for (var i = 0; i < LOCK_STRIPES; i++) {
+                    invalidations.incrementAndGet(i);
+                }
+                cache.invalidateAll();
+                keysByCustomerId.clear();
+            } finally {
+                for (var invalidationLock: invalidationLocks) {
+                    invalidationLock.unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns whether the customer's entries were invalidated within the replica max lag:
+     * a read replica may not hold the write that invalidated them yet.
+     */
+    public boolean isRecentlyInvalidated(Long customerId) {
+        return System.nanoTime() - allInvalidatedNanos < replicaMaxLagNanos
+                || recentlyInvalidatedCustomers.getIfPresent(customerId) != null;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private void put(Key key, CustomerRewardsDetails customerRewardsDetails, long invalidationsBefore) {
+        var stripe = stripe(key.customerId());
+        invalidationLocks[stripe].lock();
+        try {
+            if (invalidations.get(stripe) == invalidationsBefore) {
+                cache.put(key, customerRewardsDetails);
+                keysByCustomerId.compute(key.customerId(), (customerId, keys) -> {
+                    var customerKeys = keys != null ? keys : ConcurrentHashMap.<Key>newKeySet();
+                    customerKeys.add(key);
+                    return customerKeys;
+                });
+            }
+        } finally {
+            invalidationLocks[stripe].unlock();
+        }
+    }
+
+    private void invalidate(Long customerId) {
+        var stripe = stripe(customerId);
+        invalidationLocks[stripe].lock();
+        try {
+            invalidations.incrementAndGet(stripe);
+            var keys = keysByCustomerId.remove(customerId);
+            if (keys != null) {
+                cache.invalidateAll(keys);
+            }
+        } finally {
+            invalidationLocks[stripe].unlock();
+        }
+    }
+
+    private void removeFromIndex(Key key) {
+        keysByCustomerId.computeIfPresent(key.customerId(), (customerId, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static int stripe(Long customerId) {
+        return Math.floorMod(Long.hashCode(customerId), LOCK_STRIPES);
+    }
+
+    private static void afterTransaction(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+
+    public record Key(Long customerId, RewardsPeriodType rewardsPeriodType, Integer rewardsPeriod,
+                      int currentBucket) {}
+}
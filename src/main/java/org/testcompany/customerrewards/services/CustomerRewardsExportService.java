@@ -0,0 +1,21 @@
+package org.testcompany.customerrewards.services;
+
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+
+import java.util.stream.Stream;
+
+/**
+ * Calculates the rewards points of the whole customer base as a stream, for exports.
+ */
+public interface CustomerRewardsExportService {
+
+    /**
+     * Returns the rewards points of every customer, with the customer, in customer id
+     * order. The stream is lazy: customers are read from a database cursor and their
+     * points calculated a chunk at a time, so memory use does not depend on the number
+     * of customers. The stream holds a database connection and must be closed.
+     */
+    Stream<CustomerRewardsDetails> streamCustomerRewardsPoints(RewardsPeriodType rewardsPeriodType,
+                                                               Integer rewardsPeriod);
+}
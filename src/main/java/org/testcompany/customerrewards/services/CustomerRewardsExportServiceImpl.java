@@ -0,0 +1,116 @@
+package org.testcompany.customerrewards.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.exceptions.CustomerRewardsValidationException;
+import org.testcompany.customerrewards.repository.CustomerJdbcRepository;
+import org.testcompany.customerrewards.util.CustomerRewardsUtil;
+import org.testcompany.customerrewards.util.PeriodBuckets;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+@Service
+public class CustomerRewardsExportServiceImpl implements CustomerRewardsExportService {
+    private final CustomerJdbcRepository customerJdbcRepository;
+    private final RewardsLedgerService rewardsLedgerService;
+    private final Clock clock;
+    private final int chunkSize;
+
+    public CustomerRewardsExportServiceImpl(CustomerJdbcRepository customerJdbcRepository,
+                                            RewardsLedgerService rewardsLedgerService,
+                                            Clock clock,
+                                            @Value("${customer-rewards.export.chunk-size:1000}") int chunkSize) {
+        this.customerJdbcRepository = customerJdbcRepository;
+        this.rewardsLedgerService = rewardsLedgerService;
+        this.clock = clock;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Stream<CustomerRewardsDetails> streamCustomerRewardsPoints(RewardsPeriodType rewardsPeriodType,
+                                                                      Integer rewardsPeriod) {
+        // the export reads the monthly ledger by customer id range, weeks are not supported
+        if (!PeriodBuckets.isMonthAligned(rewardsPeriodType)) {
+            throw new CustomerRewardsValidationException("Operation not supported");
+        }
+        var customerRewardsPeriod = RewardsPeriod.of(rewardsPeriodType, LocalDate.now(clock), rewardsPeriod);
+        // the cursor fetches one chunk of customers per round trip
+        var customers = customerJdbcRepository.streamCustomers(chunkSize);
+        var iterator = new ChunkedRewardsIterator(customers.iterator(), rewardsPeriodType,
+                customerRewardsPeriod);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                        Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(customers::close);
+    }
+
+    /**
+     * Calculates the rewards points of the next 'chunkSize' customers of the cursor with
+     * a single ledger query for their id range, and returns them one by one.
+     */
+    private class ChunkedRewardsIterator implements Iterator<CustomerRewardsDetails> {
+        private final Iterator<Customer> customers;
+        private final RewardsPeriodType rewardsPeriodType;
+        private final RewardsPeriod rewardsPeriod;
+        private Iterator<CustomerRewardsDetails> chunk = Collections.emptyIterator();
+
+        ChunkedRewardsIterator(Iterator<Customer> customers, RewardsPeriodType rewardsPeriodType,
+                               RewardsPeriod rewardsPeriod) {
+            this.customers = customers;
+            this.rewardsPeriodType = rewardsPeriodType;
+            this.rewardsPeriod = rewardsPeriod;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!chunk.hasNext() && customers.hasNext()) {
+                chunk = calculateChunk().iterator();
+            }
+            return chunk.hasNext();
+        }
+
+        @Override
+        public CustomerRewardsDetails next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return chunk.next();
+        }
+
+        private List<CustomerRewardsDetails> calculateChunk() {
+            var chunkCustomers = new ArrayList<Customer>(chunkSize);
+            while (chunkCustomers.size() < chunkSize && customers.hasNext()) {
+                chunkCustomers.add(customers.next());
+            }
+            var monthlyOrderSummariesByCustomerId = rewardsLedgerService
+                    .getMonthlyOrderSummaries(chunkCustomers.get(0).getId(),
+                            chunkCustomers.get(chunkCustomers.size() - 1).getId(), rewardsPeriod)
+                    .stream()
+                    .collect(Collectors.groupingBy(CustomerMonthlyOrderSummary::getCustomerId));
+            var customerRewardsDetailsList = new ArrayList<CustomerRewardsDetails>(chunkCustomers.size());
+            for (var customer: chunkCustomers) {
+                var customerRewardsDetails = CustomerRewardsUtil.calculateCustomerRewardsPointsFromSummaries(
+                        customer.getId(), monthlyOrderSummariesByCustomerId.getOrDefault(customer.getId(),
+                                Collections.emptyList()), rewardsPeriod, rewardsPeriodType);
+                customerRewardsDetails.setCustomer(customer);
+                customerRewardsDetailsList.add(customerRewardsDetails);
+            }
+            return customerRewardsDetailsList;
+        }
+    }
+}
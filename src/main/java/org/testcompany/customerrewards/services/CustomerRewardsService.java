@@ -3,8 +3,28 @@ package org.testcompany.customerrewards.services;
 import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
 import org.testcompany.customerrewards.domain.RewardsPeriodType;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface CustomerRewardsService {
     CustomerRewardsDetails calculateCustomerRewardsPoints(Long customerId,
                                                           RewardsPeriodType rewardsPeriodType,
                                                           Integer rewardsPeriod);
+
+    /**
+     * Returns the entity tag of the customer's rewards points without calculating them,
+     * from the version cached with the points or else read from the customer's order
+     * watermark, see CustomerRewardsVersionService.
+     */
+    String getCustomerRewardsETag(Long customerId,
+                                  RewardsPeriodType rewardsPeriodType,
+                                  Integer rewardsPeriod);
+
+    /**
+     * Calculates the rewards points of several customers with one customer query and
+     * one order query. Customers that do not exist are left out of the result.
+     */
+    List<CustomerRewardsDetails> calculateCustomerRewardsPoints(Collection<Long> customerIds,
+                                                                RewardsPeriodType rewardsPeriodType,
+                                                                Integer rewardsPeriod);
 }
@@ -2,43 +2,284 @@ package org.testcompany.customerrewards.services;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderSummary;
 import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.CustomerWeeklyOrderSummary;
+import org.testcompany.customerrewards.domain.MonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
 import org.testcompany.customerrewards.domain.RewardsPeriodType;
 import org.testcompany.customerrewards.exceptions.CustomerRewardsValidationException;
-import org.testcompany.customerrewards.repository.CustomerRepository;
-import org.testcompany.customerrewards.repository.OrderRepository;
+import org.testcompany.customerrewards.metrics.RewardsPipelineMetrics;
 import org.testcompany.customerrewards.util.CustomerRewardsUtil;
+import org.testcompany.customerrewards.util.PeriodBuckets;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+
+/**
+ * Calculates rewards points missing from the rewards cache in read-only transactions,
+ * which are served by the read replica when one is configured (see
+ * ReadReplicaDataSourceConfig). Customers whose points were invalidated by a write within
+ * the replica max lag are calculated in read-write transactions on the primary instead,
+ * so the recalculated points include the write.
+ */
 @Service
 public class CustomerRewardsServiceImpl implements CustomerRewardsService {
     private static final Logger logger = LoggerFactory.getLogger(
             CustomerRewardsServiceImpl.class);
-    private final OrderRepository orderRepository;
-    private final CustomerRepository customerRepository;
+    private final OrderSource orderSource;
+    private final CustomerCache customerCache;
+    private final CustomerRewardsCache customerRewardsCache;
+    private final CustomerRewardsVersionService customerRewardsVersionService;
+    private final RewardsPipelineMetrics rewardsPipelineMetrics;
+    private final TransactionTemplate replicaTransactionTemplate;
+    private final TransactionTemplate primaryTransactionTemplate;
+    private final Clock clock;
 
-    public CustomerRewardsServiceImpl(OrderRepository orderRepository,
-                                      CustomerRepository customerRepository) {
-        this.orderRepository = orderRepository;
-        this.customerRepository = customerRepository;
+    public CustomerRewardsServiceImpl(OrderSource orderSource,
+                                      CustomerCache customerCache,
+                                      CustomerRewardsCache customerRewardsCache,
+                                      CustomerRewardsVersionService customerRewardsVersionService,
+                                      RewardsPipelineMetrics rewardsPipelineMetrics,
+                                      PlatformTransactionManager transactionManager,
+                                      Clock clock) {
+        this.orderSource = orderSource;
+        this.customerCache = customerCache;
+        this.customerRewardsCache = customerRewardsCache;
+        this.customerRewardsVersionService = customerRewardsVersionService;
+        this.rewardsPipelineMetrics = rewardsPipelineMetrics;
+        this.replicaTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.replicaTransactionTemplate.setReadOnly(true);
+        this.primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
     }
 
     @Override
     public CustomerRewardsDetails calculateCustomerRewardsPoints(Long customerId,
                                                                  RewardsPeriodType rewardsPeriodType,
                                                                  Integer rewardsPeriod) {
-        if (rewardsPeriodType != RewardsPeriodType.MONTH) {
+        if (!PeriodBuckets.isSupported(rewardsPeriodType)) {
+            throw new CustomerRewardsValidationException("Operation not supported");
+        }
+        var startNanos = rewardsPipelineMetrics.start();
+        var customer = customerCache.getCustomerById(customerId)
+                .orElseThrow(() -> new CustomerRewardsValidationException(String.format("Customer with " +
+                        "id: %s not found", customerId)));
+        rewardsPipelineMetrics.record(RewardsPipelineMetrics.Stage.CUSTOMER_LOOKUP, rewardsPeriodType,
+                rewardsPeriod, startNanos);
+        // the rewards period only depends on the current period, which is part of the cache key
+        var currentDate = LocalDate.now(clock);
+        var key = new CustomerRewardsCache.Key(customerId, rewardsPeriodType, rewardsPeriod,
+                getCurrentBucket(rewardsPeriodType, currentDate));
+        var customerRewardsDetails = customerRewardsCache.get(key, () ->
+                getTransactionTemplate(List.of(customerId)).execute(status ->
+                        calculateCustomerRewardsPoints(customerId, rewardsPeriodType, rewardsPeriod,
+                                currentDate)));
+        return withCustomer(customerRewardsDetails, customer);
+    }
+
+    @Override
+    public String getCustomerRewardsETag(Long customerId,
+                                         RewardsPeriodType rewardsPeriodType,
+                                         Integer rewardsPeriod) {
+        if (!PeriodBuckets.isSupported(rewardsPeriodType)) {
+            throw new CustomerRewardsValidationException("Operation not supported");
+        }
+        var customer = customerCache.getCustomerById(customerId)
+                .orElseThrow(() -> new CustomerRewardsValidationException(String.format("Customer with " +
+                        "id: %s not found", customerId)));
+        var currentDate = LocalDate.now(clock);
+        var cachedDetails = customerRewardsCache.getIfPresent(new CustomerRewardsCache.Key(customerId,
+                rewardsPeriodType, rewardsPeriod, getCurrentBucket(rewardsPeriodType, currentDate)));
+        var version = cachedDetails != null
+                ? cachedDetails.getVersion()
+                : getTransactionTemplate(List.of(customerId)).execute(status ->
+                        customerRewardsVersionService.getVersion(customerId, rewardsPeriodType, rewardsPeriod,
+                                currentDate));
+        return customerRewardsVersionService.getCustomerRewardsETag(version, customer);
+    }
+
+    @Override
+    public List<CustomerRewardsDetails> calculateCustomerRewardsPoints(Collection<Long> customerIds,
+                                                                       RewardsPeriodType rewardsPeriodType,
+                                                                       Integer rewardsPeriod) {
+        if (!PeriodBuckets.isSupported(rewardsPeriodType)) {
             throw new CustomerRewardsValidationException("Operation not supported");
         }
-        var customerOptional = customerRepository.getCustomerById(customerId);
-        if (customerOptional.isEmpty()) {
-            throw new CustomerRewardsValidationException(String.format("Customer with " +
-                            "id: %s not found", customerId));
+        if (customerIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        var customers = customerCache.findAllById(customerIds);
+        var currentDate = LocalDate.now(clock);
+        var currentBucket = getCurrentBucket(rewardsPeriodType, currentDate);
+        var keys = new ArrayList<CustomerRewardsCache.Key>();
+        for (var customer: customers) {
+            keys.add(new CustomerRewardsCache.Key(customer.getId(), rewardsPeriodType, rewardsPeriod,
+                    currentBucket));
+        }
+        var customerRewardsDetailsByKey = customerRewardsCache.getAll(keys, missingKeys ->
+                getTransactionTemplate(missingKeys.stream().map(CustomerRewardsCache.Key::customerId).toList())
+                        .execute(status -> calculateCustomerRewardsPoints(missingKeys, rewardsPeriodType,
+                                rewardsPeriod, currentDate)));
+
+        var customerRewardsDetailsList = new ArrayList<CustomerRewardsDetails>();
+        var keyIterator = keys.iterator();
+        for (var customer: customers) {
+            customerRewardsDetailsList.add(withCustomer(customerRewardsDetailsByKey.get(keyIterator.next()),
+                    customer));
+        }
+        return customerRewardsDetailsList;
+    }
+
+    private CustomerRewardsDetails calculateCustomerRewardsPoints(Long customerId,
+                                                                  RewardsPeriodType rewardsPeriodType,
+                                                                  Integer rewardsPeriod,
+                                                                  LocalDate currentDate) {
+        var customerRewardsPeriod = RewardsPeriod.of(rewardsPeriodType, currentDate, rewardsPeriod);
+        var queryStartNanos = rewardsPipelineMetrics.start();
+        // read before the orders: an order written in between changes the next version
+        var version = customerRewardsVersionService.getVersion(customerId, rewardsPeriodType, rewardsPeriod,
+                currentDate);
+        if (rewardsPeriodType == RewardsPeriodType.WEEK) {
+            var weeklyOrderSummaries = orderSource.getWeeklyOrderSummaries(List.of(customerId),
+                    customerRewardsPeriod);
+            rewardsPipelineMetrics.record(RewardsPipelineMetrics.Stage.ORDER_QUERY, rewardsPeriodType,
+                    rewardsPeriod, queryStartNanos);
+            var calculationStartNanos = rewardsPipelineMetrics.start();
+            var calculatedDetails = CustomerRewardsUtil.calculateWeeklyCustomerRewardsPointsFromSummaries(
+                    customerId, weeklyOrderSummaries, customerRewardsPeriod);
+            rewardsPipelineMetrics.record(RewardsPipelineMetrics.Stage.CALCULATION, rewardsPeriodType,
+                    rewardsPeriod, calculationStartNanos);
+            if (rewardsPipelineMetrics.isEnabled()) {
+                rewardsPipelineMetrics.recordOrdersScanned(rewardsPeriodType, rewardsPeriod,
+                        getWeeklyOrderCount(weeklyOrderSummaries));
+            }
+            return withVersion(calculatedDetails, version);
+        }
+        var monthlyOrderSummaries = orderSource.getMonthlyOrderSummaries(customerId,
+                customerRewardsPeriod);
+        rewardsPipelineMetrics.record(RewardsPipelineMetrics.Stage.ORDER_QUERY, rewardsPeriodType,
+                rewardsPeriod, queryStartNanos);
+        var calculationStartNanos = rewardsPipelineMetrics.start();
+        var calculatedDetails = CustomerRewardsUtil.calculateCustomerRewardsPointsFromSummaries(
+                customerId, monthlyOrderSummaries, customerRewardsPeriod, rewardsPeriodType);
+        rewardsPipelineMetrics.record(RewardsPipelineMetrics.Stage.CALCULATION, rewardsPeriodType,
+                rewardsPeriod, calculationStartNanos);
+        if (rewardsPipelineMetrics.isEnabled()) {
+            rewardsPipelineMetrics.recordOrdersScanned(rewardsPeriodType, rewardsPeriod,
+                    getOrderCount(monthlyOrderSummaries));
         }
-        var orders = orderRepository.getOrdersByCustomerId(customerId);
+        return withVersion(calculatedDetails, version);
+    }
+
+    private Map<CustomerRewardsCache.Key, CustomerRewardsDetails> calculateCustomerRewardsPoints(
+            Collection<CustomerRewardsCache.Key> keys, RewardsPeriodType rewardsPeriodType,
+            Integer rewardsPeriod, LocalDate currentDate) {
+        var customerRewardsPeriod = RewardsPeriod.of(rewardsPeriodType, currentDate, rewardsPeriod);
+        var customerIds = keys.stream()
+                .map(CustomerRewardsCache.Key::customerId)
+                .toList();
+        var versionsByCustomerId = customerRewardsVersionService.getVersions(customerIds, rewardsPeriodType,
+                rewardsPeriod, currentDate);
+        var customerRewardsDetailsByKey = new HashMap<CustomerRewardsCache.Key, CustomerRewardsDetails>();
+        if (rewardsPeriodType == RewardsPeriodType.WEEK) {
+            var weeklyOrderSummariesByCustomerId = orderSource
+                    .getWeeklyOrderSummaries(customerIds, customerRewardsPeriod)
+                    .stream()
+                    .collect(Collectors.groupingBy(CustomerWeeklyOrderSummary::getCustomerId));
+            for (var key: keys) {
+                customerRewardsDetailsByKey.put(key, withVersion(
+                        CustomerRewardsUtil.calculateWeeklyCustomerRewardsPointsFromSummaries(
+                                key.customerId(),
+                                weeklyOrderSummariesByCustomerId.getOrDefault(
+                                        key.customerId(), Collections.emptyList()),
+                                customerRewardsPeriod), versionsByCustomerId.get(key.customerId())));
+            }
+            return customerRewardsDetailsByKey;
+        }
+        var monthlyOrderSummariesByCustomerId = orderSource
+                .getMonthlyOrderSummaries(customerIds, customerRewardsPeriod)
+                .stream()
+                .collect(Collectors.groupingBy(CustomerMonthlyOrderSummary::getCustomerId));
+        for (var key: keys) {
+            customerRewardsDetailsByKey.put(key, withVersion(
+                    CustomerRewardsUtil.calculateCustomerRewardsPointsFromSummaries(
+                            key.customerId(),
+                            monthlyOrderSummariesByCustomerId.getOrDefault(
+                                    key.customerId(), Collections.emptyList()),
+                            customerRewardsPeriod, rewardsPeriodType), versionsByCustomerId.get(key.customerId())));
+        }
+        return customerRewardsDetailsByKey;
+    }
+
+    /**
+     * Returns the primary transaction template when any of the customers was recently
+     * written, or the read-only one served by the replica.
+     */
+    private TransactionTemplate getTransactionTemplate(Collection<Long> customerIds) {
+        for (var customerId: customerIds) {
+            if (customerRewardsCache.isRecentlyInvalidated(customerId)) {
+                return primaryTransactionTemplate;
+            }
+        }
+        return replicaTransactionTemplate;
+    }
+
+    private static int getCurrentBucket(RewardsPeriodType rewardsPeriodType, LocalDate currentDate) {
+        return PeriodBuckets.toBucket(rewardsPeriodType, Math.toIntExact(currentDate.toEpochDay()));
+    }
+
+    /**
+     * Net orders of the summaries, i.e. the orders in the rewards period.
+     */
+    private static long getOrderCount(List<? extends MonthlyOrderSummary> monthlyOrderSummaries) {
+        long orderCount = 0;
+        for (var monthlyOrderSummary: monthlyOrderSummaries) {
+            orderCount += monthlyOrderSummary.getOrderCount();
+        }
+        return orderCount;
+    }
+
+    private static long getWeeklyOrderCount(List<? extends CustomerWeeklyOrderSummary> weeklyOrderSummaries) {
+        long orderCount = 0;
+        for (var weeklyOrderSummary: weeklyOrderSummaries) {
+            orderCount += weeklyOrderSummary.getOrderCount();
+        }
+        return orderCount;
+    }
+
+    /**
+     * Sets the version of freshly calculated rewards details before they are cached.
+     */
+    private static CustomerRewardsDetails withVersion(CustomerRewardsDetails calculatedDetails, String version) {
+        calculatedDetails.setVersion(version);
+        return calculatedDetails;
+    }
 
-        return CustomerRewardsUtil.calculateMonthlyCustomerRewardsPoints(
-                customerId, orders, rewardsPeriod);
+    /**
+     * Copies cached rewards details, which are shared between requests, with the customer.
+     */
+    private static CustomerRewardsDetails withCustomer(CustomerRewardsDetails cachedDetails, Customer customer) {
+        var customerRewardsDetails = new CustomerRewardsDetails();
+        customerRewardsDetails.setCustomerId(cachedDetails.getCustomerId());
+        customerRewardsDetails.setRewardsDesc(cachedDetails.getRewardsDesc());
+        customerRewardsDetails.setRewardsPeriodType(cachedDetails.getRewardsPeriodType());
+        customerRewardsDetails.setPeriodPointsList(cachedDetails.getPeriodPointsList());
+        customerRewardsDetails.setTotalAmount(cachedDetails.getTotalAmount());
+        customerRewardsDetails.setVersion(cachedDetails.getVersion());
+        customerRewardsDetails.setCustomer(customer);
+        return customerRewardsDetails;
     }
 }
@@ -0,0 +1,42 @@
+package org.testcompany.customerrewards.services;
+
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Validators of the rewards points responses, for conditional requests.
+ */
+public interface CustomerRewardsVersionService {
+
+    /**
+     * Returns the version of the customer's rewards points, read without calculating
+     * them: it changes when an order of the rewards period is written, when the current
+     * period rolls over, or when the rewards rules change. Read in the caller's
+     * transaction before the points are calculated, so an order written in between
+     * changes the next version.
+     */
+    String getVersion(Long customerId, RewardsPeriodType rewardsPeriodType, Integer rewardsPeriod,
+                      LocalDate currentDate);
+
+    /**
+     * Same as getVersion for several customers, with a single order query.
+     */
+    Map<Long, String> getVersions(Collection<Long> customerIds, RewardsPeriodType rewardsPeriodType,
+                                  Integer rewardsPeriod, LocalDate currentDate);
+
+    /**
+     * Returns an entity tag of the customer's rewards points, from their version and
+     * the customer's personal info.
+     */
+    String getCustomerRewardsETag(String version, Customer customer);
+
+    /**
+     * Returns the entity tag of calculated rewards points, from the version cached with them.
+     */
+    String getCustomerRewardsETag(CustomerRewardsDetails customerRewardsDetails);
+}
@@ -0,0 +1,133 @@
+package org.testcompany.customerrewards.services;
+
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerOrderWatermark;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.OrderWatermark;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.repository.OrderStorage;
+import org.testcompany.customerrewards.util.PeriodBuckets;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Entity tags of the rewards points: an MD5 digest of the version of the points and the
+ * customer's personal info. The version is a digest of the customer's order watermark
+ * within the rewards period, the current period and the rewards rules. The watermark is
+ * a single aggregate query on the (CUSTOMER_ID, TRANSACTION_DATE, TRANSACTION_AMOUNT)
+ * index of PURCHASE_ORDER, which also holds the order id, so no order row is read.
+ * <p>
+ * The version is cached with the calculated points, so a cached response is tagged
+ * without a database read. A ledger rebuilt without a rules change keeps its tags.
+ */
+@Service
+public class CustomerRewardsVersionServiceImpl implements CustomerRewardsVersionService {
+
+    private final OrderStorage orderStorage;
+    private final CompiledRewardsRules compiledRewardsRules;
+
+    public CustomerRewardsVersionServiceImpl(OrderStorage orderStorage,
+                                             CompiledRewardsRules compiledRewardsRules) {
+        this.orderStorage = orderStorage;
+        this.compiledRewardsRules = compiledRewardsRules;
+    }
+
+    @Override
+    public String getVersion(Long customerId, RewardsPeriodType rewardsPeriodType, Integer rewardsPeriod,
+                             LocalDate currentDate) {
+        var customerRewardsPeriod = RewardsPeriod.of(rewardsPeriodType, currentDate, rewardsPeriod);
+        var orderWatermark = orderStorage.getOrderWatermark(customerId, customerRewardsPeriod.startInstant(),
+                customerRewardsPeriod.endInstant());
+        return toVersion(customerId, rewardsPeriodType, rewardsPeriod, currentDate, orderWatermark);
+    }
+
+    @Override
+    public Map<Long, String> getVersions(Collection<Long> customerIds, RewardsPeriodType rewardsPeriodType,
+                                         Integer rewardsPeriod, LocalDate currentDate) {
+        var customerRewardsPeriod = RewardsPeriod.of(rewardsPeriodType, currentDate, rewardsPeriod);
+        var orderWatermarksByCustomerId = orderStorage.getOrderWatermarksByCustomerIds(customerIds,
+                        customerRewardsPeriod.startInstant(), customerRewardsPeriod.endInstant()).stream()
+                .collect(Collectors.toMap(CustomerOrderWatermark::getCustomerId, Function.identity()));
+        var versionsByCustomerId = new HashMap<Long, String>();
+        for (var customerId: customerIds) {
+            versionsByCustomerId.put(customerId, toVersion(customerId, rewardsPeriodType, rewardsPeriod,
+                    currentDate, orderWatermarksByCustomerId.get(customerId)));
+        }
+        return versionsByCustomerId;
+    }
+
+    /**
+     * Digests the version and the personal info themselves, length-delimited, so no two
+     * versions of the personal info share a tag.
+     */
+    @Override
+    public String getCustomerRewardsETag(String version, Customer customer) {
+        var digest = newMd5Digest();
+        updateLengthDelimited(digest, version);
+        updateLengthDelimited(digest, customer.getName());
+        updateLengthDelimited(digest, customer.getPhoneNumber());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    @Override
+    public String getCustomerRewardsETag(CustomerRewardsDetails customerRewardsDetails) {
+        return getCustomerRewardsETag(customerRewardsDetails.getVersion(), customerRewardsDetails.getCustomer());
+    }
+
+    /**
+     * Digests the watermark, null for a customer left out of a watermark query as it has
+     * no orders, like a watermark without orders.
+     */
+    private String toVersion(Long customerId, RewardsPeriodType rewardsPeriodType, Integer rewardsPeriod,
+                             LocalDate currentDate, OrderWatermark orderWatermark) {
+        var hasOrders = orderWatermark != null && orderWatermark.getOrderCount() > 0;
+        var version = String.join("|",
+                String.valueOf(customerId),
+                rewardsPeriodType.name(),
+                String.valueOf(rewardsPeriod),
+                String.valueOf(PeriodBuckets.toBucket(rewardsPeriodType,
+                        Math.toIntExact(currentDate.toEpochDay()))),
+                hasOrders ? String.valueOf(orderWatermark.getOrderCount()) : "0",
+                hasOrders ? String.valueOf(orderWatermark.getLastOrderId()) : "",
+                hasOrders ? toPlainString(orderWatermark.getTotalAmount()) : "",
+                hasOrders ? String.valueOf(orderWatermark.getTransactionDateSeconds()) : "",
+                String.valueOf(compiledRewardsRules.get().getSegments().hashCode()));
+        return DigestUtils.md5DigestAsHex(version.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toPlainString(BigDecimal amount) {
+        return amount.stripTrailingZeros().toPlainString();
+    }
+
+    private static void updateLengthDelimited(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static MessageDigest newMd5Digest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not supported", e);
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package org.testcompany.customerrewards.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderTotals;
+import org.testcompany.customerrewards.domain.CustomerWeeklyOrderSummary;
+import org.testcompany.customerrewards.domain.CustomerWeeklyOrderTotals;
+import org.testcompany.customerrewards.domain.MonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.importer.OrderRecord;
+import org.testcompany.customerrewards.repository.OrderJdbcRepository;
+import org.testcompany.customerrewards.util.PeriodBuckets;
+import org.testcompany.customerrewards.util.RewardsPointsEngine;
+import org.testcompany.customerrewards.util.RewardsRules;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Copy of PURCHASE_ORDER in memory serving the rewards points read path without a
+ * database query, enabled with 'customer-rewards.order-store.enabled'.
+ * <p>
+ * All orders are loaded at startup into an OffHeapOrderSegment, i.e. about 20 bytes per
+ * order outside of the Java heap. Order writes are applied once their transaction
+ * commits: new orders go to small per customer arrays on the heap and removed orders are
+ * marked in the segment. When they exceed 'customer-rewards.order-store.compaction-threshold'
+ * orders the segment is rebuilt with them. Reads share a read lock; writes and the
+ * rebuild take the write lock. Points are calculated when read, with the current rewards
+ * rules.
+ */
+@Component
+public class InMemoryOrderStore implements OrderSource, SmartInitializingSingleton, MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(
+            InMemoryOrderStore.class);
+    static final String ORDERS_METRIC = "customer.rewards.order.store.orders";
+    static final String OFF_HEAP_METRIC = "customer.rewards.order.store.off.heap";
+    private static final int FETCH_SIZE = 10_000;
+
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final Supplier<RewardsRules> rewardsRules;
+    private final boolean enabled;
+    private final int compactionThreshold;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, CustomerOrders> addedOrdersByCustomerId = new HashMap<>();
+    private OffHeapOrderSegment segment;
+    private int addedOrders;
+
+    public InMemoryOrderStore(OrderJdbcRepository orderJdbcRepository,
+                              Supplier<RewardsRules> rewardsRules,
+                              @Value("${customer-rewards.order-store.enabled:false}") boolean enabled,
+                              @Value("${customer-rewards.order-store.compaction-threshold:100000}")
+                              int compactionThreshold) {
+        this.orderJdbcRepository = orderJdbcRepository;
+        this.rewardsRules = rewardsRules;
+        this.enabled = enabled;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            load();
+        }
+    }
+
+    /**
+     * Replaces the content of the store with all orders of PURCHASE_ORDER.
+     */
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            var startNanos = System.nanoTime();
+            var orderCounts = orderJdbcRepository.countOrders();
+            var builder = new OffHeapOrderSegment.Builder(Math.toIntExact(orderCounts.customers()),
+                    Math.toIntExact(orderCounts.orders()));
+            orderJdbcRepository.forEachOrder(FETCH_SIZE, (orderId, customerId, transactionAmount,
+                                                          transactionDate) ->
+                    builder.add(customerId, orderId, RewardsPointsEngine.toEpochDay(transactionDate),
+                            RewardsPointsEngine.toCents(transactionAmount)));
+            segment = builder.build();
+            addedOrdersByCustomerId.clear();
+            addedOrders = 0;
+            var orders = segment.getOrders();
+            logger.info("Loaded {} orders of {} customers in {} ms: {} bytes off-heap, {} MB per million orders",
+                    orders, segment.getCustomers(), (System.nanoTime() - startNanos) / 1_000_000,
+                    segment.getOffHeapBytes(), orders == 0 ? 0
+                            : Math.round(segment.getOffHeapBytes() * 1e6 / orders / (1 << 20) * 10) / 10.0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Orders in the store, i.e. loaded or added and not removed.
+     */
+    public long getOrders() {
+        lock.readLock().lock();
+        try {
+            return segment == null ? 0 : segment.getOrders() - segment.getRemovedOrders() + addedOrders;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getOffHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return segment == null ? 0 : segment.getOffHeapBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds new orders, which must all have an id, once the current transaction commits.
+     */
+    public void addOrders(Collection<OrderRecord> orders) {
+        if (!enabled || orders.isEmpty()) {
+            return;
+        }
+        var newOrders = List.copyOf(orders);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                for (var order: newOrders) {
+                    addedOrdersByCustomerId.computeIfAbsent(order.customerId(), customerId -> new CustomerOrders())
+                            .add(order.id(), RewardsPointsEngine.toEpochDay(order.transactionDate()),
+                                    RewardsPointsEngine.toCents(order.transactionAmount()));
+                }
+                addedOrders += newOrders.size();
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes an order once the current transaction commits.
+     */
+    public void removeOrder(long customerId, long orderId) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                var customerOrders = addedOrdersByCustomerId.get(customerId);
+                if (customerOrders != null && customerOrders.remove(orderId)) {
+                    addedOrders--;
+                    if (customerOrders.size == 0) {
+                        addedOrdersByCustomerId.remove(customerId);
+                    }
+                } else if (segment != null) {
+                    segment.remove(customerId, orderId);
+                }
+                compactIfNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    @Override
+    public List<MonthlyOrderSummary> getMonthlyOrderSummaries(Long customerId, RewardsPeriod rewardsPeriod) {
+        return Collections.unmodifiableList(getMonthlyOrderSummaries(List.of(customerId), rewardsPeriod));
+    }
+
+    @Override
+    public List<CustomerMonthlyOrderSummary> getMonthlyOrderSummaries(Collection<Long> customerIds,
+                                                                      RewardsPeriod rewardsPeriod) {
+        var monthlyOrderSummaries = new ArrayList<CustomerMonthlyOrderSummary>();
+        addPeriodTotals(customerIds, rewardsPeriod, RewardsPeriodType.MONTH, (customerId, periodTotals) ->
+                periodTotals.addMonthlySummaries(customerId, monthlyOrderSummaries));
+        return monthlyOrderSummaries;
+    }
+
+    @Override
+    public List<CustomerWeeklyOrderSummary> getWeeklyOrderSummaries(Collection<Long> customerIds,
+                                                                    RewardsPeriod rewardsPeriod) {
+        var weeklyOrderSummaries = new ArrayList<CustomerWeeklyOrderSummary>();
+        addPeriodTotals(customerIds, rewardsPeriod, RewardsPeriodType.WEEK, (customerId, periodTotals) ->
+                periodTotals.addWeeklySummaries(customerId, weeklyOrderSummaries));
+        return weeklyOrderSummaries;
+    }
+
+    /**
+     * Adds up the orders of each customer within the rewards period per period of the
+     * given type, passing the totals of each customer to 'consumer' under the read lock.
+     */
+    private void addPeriodTotals(Collection<Long> customerIds, RewardsPeriod rewardsPeriod,
+                                 RewardsPeriodType rewardsPeriodType, BiConsumer<Long, PeriodTotals> consumer) {
+        var startEpochDay = Math.toIntExact(rewardsPeriod.startDate().toEpochDay());
+        var endEpochDay = Math.toIntExact(rewardsPeriod.endDate().toEpochDay());
+        var periodTotals = new PeriodTotals(rewardsPeriodType, startEpochDay, endEpochDay, rewardsRules.get());
+        if (periodTotals.isEmpty() || customerIds.isEmpty()) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            if (segment == null) {
+                throw new IllegalStateException("Order store is not loaded");
+            }
+            for (var customerId: customerIds) {
+                periodTotals.clear();
+                addSegmentOrders(customerId, startEpochDay, endEpochDay, periodTotals);
+                var customerOrders = addedOrdersByCustomerId.get(customerId);
+                if (customerOrders != null) {
+                    customerOrders.addTo(startEpochDay, endEpochDay, periodTotals);
+                }
+                consumer.accept(customerId, periodTotals);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder(ORDERS_METRIC, this, InMemoryOrderStore::getOrders)
+                .description("Orders in the in-memory order store")
+                .register(registry);
+        Gauge.builder(OFF_HEAP_METRIC, this, InMemoryOrderStore::getOffHeapBytes)
+                .description("Memory allocated off-heap by the in-memory order store")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Scans the customer's segment rows from the start of the period, which are sorted by
+     * epoch day.
+     */
+    private void addSegmentOrders(long customerId, int startEpochDay, int endEpochDay,
+                                  PeriodTotals periodTotals) {
+        var customerIndex = segment.findCustomer(customerId);
+        if (customerIndex < 0) {
+            return;
+        }
+        var toIndex = segment.getToIndex(customerIndex);
+        for (int i = segment.findFirstIndex(segment.getFromIndex(customerIndex), toIndex, startEpochDay);
+             i < toIndex; i++) {
+            var epochDay = segment.getEpochDay(i);
+            if (epochDay >= endEpochDay) {
+                break;
+            }
+            var amountInCents = segment.getAmountInCents(i);
+            if (amountInCents != OffHeapOrderSegment.REMOVED) {
+                periodTotals.add(epochDay, amountInCents);
+            }
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (segment == null || addedOrders + segment.getRemovedOrders() <= compactionThreshold) {
+            return;
+        }
+        var startNanos = System.nanoTime();
+        var addedCustomerIds = addedOrdersByCustomerId.keySet().stream()
+                .mapToLong(Long::longValue)
+                .sorted()
+                .toArray();
+        var builder = new OffHeapOrderSegment.Builder(segment.getCustomers() + addedCustomerIds.length,
+                Math.toIntExact(getOrders()));
+        // merges the segment customers with the customers of added orders, both sorted by id
+        int customerIndex = 0;
+        int addedCustomerIndex = 0;
+        while (customerIndex < segment.getCustomers() || addedCustomerIndex < addedCustomerIds.length) {
+            var segmentCustomerId = customerIndex < segment.getCustomers()
+                    ? segment.getCustomerId(customerIndex) : Long.MAX_VALUE;
+            var addedCustomerId = addedCustomerIndex < addedCustomerIds.length
+                    ? addedCustomerIds[addedCustomerIndex] : Long.MAX_VALUE;
+            var customerId = Math.min(segmentCustomerId, addedCustomerId);
+            var fromIndex = segmentCustomerId == customerId ? segment.getFromIndex(customerIndex) : 0;
+            var toIndex = segmentCustomerId == customerId ? segment.getToIndex(customerIndex) : 0;
+            var customerOrders = addedCustomerId == customerId
+                    ? addedOrdersByCustomerId.get(customerId) : null;
+            mergeCustomerOrders(builder, customerId, fromIndex, toIndex, customerOrders);
+            if (segmentCustomerId == customerId) {
+                customerIndex++;
+            }
+            if (addedCustomerId == customerId) {
+                addedCustomerIndex++;
+            }
+        }
+        var removedOrders = segment.getRemovedOrders();
+        segment = builder.build();
+        addedOrdersByCustomerId.clear();
+        logger.info("Compacted order store with {} added and {} removed orders in {} ms", addedOrders,
+                removedOrders, (System.nanoTime() - startNanos) / 1_000_000);
+        addedOrders = 0;
+    }
+
+    private void mergeCustomerOrders(OffHeapOrderSegment.Builder builder, long customerId, int fromIndex,
+                                     int toIndex, CustomerOrders customerOrders) {
+        var addedIndexes = customerOrders == null ? new int[0] : customerOrders.sortedIndexes();
+        int i = fromIndex;
+        int j = 0;
+        while (i < toIndex || j < addedIndexes.length) {
+            if (i < toIndex && segment.getAmountInCents(i) == OffHeapOrderSegment.REMOVED) {
+                i++;
+            } else if (j == addedIndexes.length || (i < toIndex
+                    && segment.getEpochDay(i) <= customerOrders.epochDays[addedIndexes[j]])) {
+                builder.add(customerId, segment.getOrderId(i), segment.getEpochDay(i), segment.getAmountInCents(i));
+                i++;
+            } else {
+                var addedIndex = addedIndexes[j++];
+                builder.add(customerId, customerOrders.orderIds[addedIndex], customerOrders.epochDays[addedIndex],
+                        customerOrders.amountsInCents[addedIndex]);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Orders of a customer added since the segment was built, in insertion order.
+     */
+    private static final class CustomerOrders {
+        private long[] orderIds = new long[4];
+        private int[] epochDays = new int[4];
+        private long[] amountsInCents = new long[4];
+        private int size;
+
+        void add(long orderId, int epochDay, long amountInCents) {
+            if (size == orderIds.length) {
+                orderIds = Arrays.copyOf(orderIds, size * 2);
+                epochDays = Arrays.copyOf(epochDays, size * 2);
+                amountsInCents = Arrays.copyOf(amountsInCents, size * 2);
+            }
+            orderIds[size] = orderId;
+            epochDays[size] = epochDay;
+            amountsInCents[size] = amountInCents;
+            size++;
+        }
+
+        boolean remove(long orderId) {
+            for (int i = 0; i < size; i++) {
+                if (orderIds[i] == orderId) {
+                    size--;
+                    orderIds[i] = orderIds[size];
+                    epochDays[i] = epochDays[size];
+                    amountsInCents[i] = amountsInCents[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void addTo(int startEpochDay, int endEpochDay, PeriodTotals periodTotals) {
+            for (int i = 0; i < size; i++) {
+                var epochDay = epochDays[i];
+                if (epochDay >= startEpochDay && epochDay < endEpochDay) {
+                    periodTotals.add(epochDay, amountsInCents[i]);
+                }
+            }
+        }
+
+        /**
+         * Indexes of the orders sorted by epoch day.
+         */
+        int[] sortedIndexes() {
+            var keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = (long) epochDays[i] << 32 | i;
+            }
+            Arrays.sort(keys);
+            var indexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                indexes[i] = (int) keys[i];
+            }
+            return indexes;
+        }
+    }
+
+    /**
+     * Order count, amount and points per period (PeriodBuckets bucket) of the rewards
+     * period for one customer.
+     */
+    private static final class PeriodTotals {
+        private final RewardsPeriodType rewardsPeriodType;
+        private final int startBucket;
+        private final long[] orderCounts;
+        private final long[] amountsInCents;
+        private final long[] points;
+        private final RewardsRules rules;
+
+        PeriodTotals(RewardsPeriodType rewardsPeriodType, int startEpochDay, int endEpochDay, RewardsRules rules) {
+            var bucketCount = PeriodBuckets.getBucketCount(rewardsPeriodType, startEpochDay, endEpochDay);
+            this.rewardsPeriodType = rewardsPeriodType;
+            startBucket = PeriodBuckets.toBucket(rewardsPeriodType, startEpochDay);
+            orderCounts = new long[bucketCount];
+            amountsInCents = new long[bucketCount];
+            points = new long[bucketCount];
+            this.rules = rules;
+        }
+
+        boolean isEmpty() {
+            return orderCounts.length == 0;
+        }
+
+        void add(int epochDay, long amountInCents) {
+            var bucketIndex = PeriodBuckets.toBucket(rewardsPeriodType, epochDay) - startBucket;
+            orderCounts[bucketIndex]++;
+            amountsInCents[bucketIndex] += amountInCents;
+            points[bucketIndex] += rules.calculatePoints(epochDay, amountInCents);
+        }
+
+        void clear() {
+            Arrays.fill(orderCounts, 0);
+            Arrays.fill(amountsInCents, 0);
+            Arrays.fill(points, 0);
+        }
+
+        void addMonthlySummaries(Long customerId, List<CustomerMonthlyOrderSummary> monthlyOrderSummaries) {
+            for (int i = 0; i < orderCounts.length; i++) {
+                if (orderCounts[i] > 0) {
+                    var epochMonth = startBucket + i;
+                    monthlyOrderSummaries.add(new CustomerMonthlyOrderTotals(customerId,
+                            RewardsPointsEngine.getYear(epochMonth), RewardsPointsEngine.getMonth(epochMonth),
+                            orderCounts[i], BigDecimal.valueOf(amountsInCents[i], 2), points[i]));
+                }
+            }
+        }
+
+        void addWeeklySummaries(Long customerId, List<CustomerWeeklyOrderSummary> weeklyOrderSummaries) {
+            for (int i = 0; i < orderCounts.length; i++) {
+                if (orderCounts[i] > 0) {
+                    weeklyOrderSummaries.add(new CustomerWeeklyOrderTotals(customerId, startBucket + i,
+                            orderCounts[i], BigDecimal.valueOf(amountsInCents[i], 2), points[i]));
+                }
+            }
+        }
+    }
+}
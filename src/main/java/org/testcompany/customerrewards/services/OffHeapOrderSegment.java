@@ -0,0 +1,227 @@
+package org.testcompany.customerrewards.services;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Orders of all customers in off-heap columns (direct buffers): order id, epoch day and
+ * amount in cents, sorted by customer id and epoch day. The customer index holds the
+ * sorted customer ids and the offset of their first order, so the orders of the customer
+ * at index i are the rows [offset(i), offset(i + 1)).
+ * <p>
+ * Rows are never moved: a removed order keeps its row with the amount set to REMOVED
+ * until the segment is rebuilt. Not thread-safe, see InMemoryOrderStore.
+ */
+final class OffHeapOrderSegment {
+
+    static final long REMOVED = Long.MIN_VALUE;
+    private static final int LONG_BYTES = Long.BYTES;
+    private static final int INT_BYTES = Integer.BYTES;
+
+    private final LongBuffer customerIds;
+    private final IntBuffer customerOffsets;
+    private final LongBuffer orderIds;
+    private final IntBuffer epochDays;
+    private final LongBuffer amountsInCents;
+    private final int customers;
+    private final int orders;
+    private int removedOrders;
+
+    private OffHeapOrderSegment(LongBuffer customerIds, IntBuffer customerOffsets, LongBuffer orderIds,
+                                IntBuffer epochDays, LongBuffer amountsInCents, int customers, int orders) {
+        this.customerIds = customerIds;
+        this.customerOffsets = customerOffsets;
+        this.orderIds = orderIds;
+        this.epochDays = epochDays;
+        this.amountsInCents = amountsInCents;
+        this.customers = customers;
+        this.orders = orders;
+    }
+
+    int getCustomers() {
+        return customers;
+    }
+
+    /**
+     * Rows of the segment, including removed orders.
+     */
+    int getOrders() {
+        return orders;
+    }
+
+    int getRemovedOrders() {
+        return removedOrders;
+    }
+
+    /**
+     * Bytes allocated off-heap by the columns and the customer index.
+     */
+    long getOffHeapBytes() {
+        return (long) customerIds.capacity() * LONG_BYTES + (long) customerOffsets.capacity() * INT_BYTES
+                + (long) orderIds.capacity() * LONG_BYTES + (long) epochDays.capacity() * INT_BYTES
+                + (long) amountsInCents.capacity() * LONG_BYTES;
+    }
+
+    /**
+     * Returns the index of the customer, or -1 when the segment has no orders of it.
+     */
+    int findCustomer(long customerId) {
+        int low = 0;
+        int high = customers - 1;
+        while (low <= high) {
+            var middle = (low + high) >>> 1;
+            var middleCustomerId = customerIds.get(middle);
+            if (middleCustomerId < customerId) {
+                low = middle + 1;
+            } else if (middleCustomerId > customerId) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    long getCustomerId(int customerIndex) {
+        return customerIds.get(customerIndex);
+    }
+
+    int getFromIndex(int customerIndex) {
+        return customerOffsets.get(customerIndex);
+    }
+
+    int getToIndex(int customerIndex) {
+        return customerOffsets.get(customerIndex + 1);
+    }
+
+    /**
+     * Returns the first row in [fromIndex, toIndex) with an epoch day not before the
+     * given one, or toIndex.
+     */
+    int findFirstIndex(int fromIndex, int toIndex, int epochDay) {
+        int low = fromIndex;
+        int high = toIndex;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (epochDays.get(middle) < epochDay) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    long getOrderId(int index) {
+        return orderIds.get(index);
+    }
+
+    int getEpochDay(int index) {
+        return epochDays.get(index);
+    }
+
+    /**
+     * Amount of the order in cents, or REMOVED.
+     */
+    long getAmountInCents(int index) {
+        return amountsInCents.get(index);
+    }
+
+    /**
+     * Marks the order as removed.
+     *
+     * @return false when the segment has no such order of the customer
+     */
+    boolean remove(long customerId, long orderId) {
+        var customerIndex = findCustomer(customerId);
+        if (customerIndex < 0) {
+            return false;
+        }
+        for (int i = getFromIndex(customerIndex); i < getToIndex(customerIndex); i++) {
+            if (orderIds.get(i) == orderId && amountsInCents.get(i) != REMOVED) {
+                amountsInCents.put(i, REMOVED);
+                removedOrders++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Appends orders sorted by customer id, then epoch day, growing the buffers when the
+     * expected counts are exceeded.
+     */
+    static final class Builder {
+        private LongBuffer customerIds;
+        private IntBuffer customerOffsets;
+        private LongBuffer orderIds;
+        private IntBuffer epochDays;
+        private LongBuffer amountsInCents;
+        private int customers;
+        private int orders;
+
+        Builder(int expectedCustomers, int expectedOrders) {
+            customerIds = allocateLongs(expectedCustomers);
+            customerOffsets = allocateInts(expectedCustomers + 1);
+            orderIds = allocateLongs(expectedOrders);
+            epochDays = allocateInts(expectedOrders);
+            amountsInCents = allocateLongs(expectedOrders);
+        }
+
+        void add(long customerId, long orderId, int epochDay, long amountInCents) {
+            if (customers == 0 || customerIds.get(customers - 1) != customerId) {
+                if (customers > 0 && customerIds.get(customers - 1) > customerId) {
+                    throw new IllegalArgumentException("Orders must be sorted by customer id");
+                }
+                if (customers == customerIds.capacity()) {
+                    customerIds = growLongs(customerIds, customers);
+                }
+                if (customers + 1 >= customerOffsets.capacity()) {
+                    customerOffsets = growInts(customerOffsets, customers);
+                }
+                customerIds.put(customers, customerId);
+                customerOffsets.put(customers, orders);
+                customers++;
+            } else if (epochDays.get(orders - 1) > epochDay) {
+                throw new IllegalArgumentException("Orders of a customer must be sorted by date");
+            }
+            if (orders == orderIds.capacity()) {
+                orderIds = growLongs(orderIds, orders);
+                epochDays = growInts(epochDays, orders);
+                amountsInCents = growLongs(amountsInCents, orders);
+            }
+            orderIds.put(orders, orderId);
+            epochDays.put(orders, epochDay);
+            amountsInCents.put(orders, amountInCents);
+            orders++;
+        }
+
+        OffHeapOrderSegment build() {
+            customerOffsets.put(customers, orders);
+            return new OffHeapOrderSegment(customerIds, customerOffsets, orderIds, epochDays, amountsInCents,
+                    customers, orders);
+        }
+
+        private static LongBuffer allocateLongs(int capacity) {
+            return ByteBuffer.allocateDirect(Math.multiplyExact(Math.max(capacity, 1), LONG_BYTES))
+                    .order(ByteOrder.nativeOrder())
+                    .asLongBuffer();
+        }
+
+        private static IntBuffer allocateInts(int capacity) {
+            return ByteBuffer.allocateDirect(Math.multiplyExact(Math.max(capacity, 1), INT_BYTES))
+                    .order(ByteOrder.nativeOrder())
+                    .asIntBuffer();
+        }
+
+        private static LongBuffer growLongs(LongBuffer buffer, int size) {
+            return allocateLongs(buffer.capacity() * 2).put(0, buffer, 0, size);
+        }
+
+        private static IntBuffer growInts(IntBuffer buffer, int size) {
+            return allocateInts(buffer.capacity() * 2).put(0, buffer, 0, size);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.testcompany.customerrewards.services;
+
+import org.springframework.stereotype.Component;
+import org.testcompany.customerrewards.repository.OrderStorage;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out order ids from blocks reserved by the order storage, on PURCHASE_ORDER_SEQ
+ * or above the highest id of the order log, so only one reservation is made per
+ * OrderStorage.ORDER_ID_ALLOCATION_SIZE orders. Ids of a block left unused at shutdown
+ * are skipped.
+ */
+@Component
+public class OrderIdAllocator {
+    private final OrderStorage orderStorage;
+    // not synchronized: a virtual thread calling the sequence would pin its carrier thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextId;
+    private long blockEndId;
+
+    public OrderIdAllocator(OrderStorage orderStorage) {
+        this.orderStorage = orderStorage;
+    }
+
+    public Long nextOrderId() {
+        lock.lock();
+        try {
+            if (nextId == blockEndId) {
+                nextId = orderStorage.getNextOrderIdBlock();
+                blockEndId = nextId + OrderStorage.ORDER_ID_ALLOCATION_SIZE;
+            }
+            return nextId++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Keeps an order id assigned outside the allocator, e.g. by an order import, from
+     * being handed out: drops the rest of the current block when it may hold the id, and
+     * moves the blocks reserved next past it.
+     */
+    public void reserveOrderIdsUpTo(long orderId) {
+        lock.lock();
+        try {
+            if (orderId >= nextId) {
+                nextId = blockEndId;
+                orderStorage.reserveOrderIdsUpTo(orderId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
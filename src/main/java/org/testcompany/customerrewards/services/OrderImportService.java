@@ -0,0 +1,23 @@
+package org.testcompany.customerrewards.services;
+
+import org.testcompany.customerrewards.domain.OrderImportFormat;
+import org.testcompany.customerrewards.domain.OrderImportResult;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Streams orders from CSV or NDJSON input into PURCHASE_ORDER and the rewards ledger.
+ */
+public interface OrderImportService {
+
+    /**
+     * Imports the orders read from the channel in batches, each committed with a
+     * checkpoint of the import. Running an import again with the same id resumes it
+     * after its last committed batch, so the channel must provide the same input from
+     * its start. A completed import is not run again. An import must not be run
+     * concurrently with itself.
+     */
+    OrderImportResult importOrders(String importId, OrderImportFormat format,
+                                   ReadableByteChannel channel) throws IOException;
+}
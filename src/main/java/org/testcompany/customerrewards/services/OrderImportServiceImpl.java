@@ -0,0 +1,209 @@
+package org.testcompany.customerrewards.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcompany.customerrewards.domain.OrderImportCheckpoint;
+import org.testcompany.customerrewards.domain.OrderImportFormat;
+import org.testcompany.customerrewards.domain.OrderImportResult;
+import org.testcompany.customerrewards.exceptions.CustomerRewardsValidationException;
+import org.testcompany.customerrewards.importer.ChannelLineReader;
+import org.testcompany.customerrewards.importer.CsvOrderRecordParser;
+import org.testcompany.customerrewards.importer.NdjsonOrderRecordParser;
+import org.testcompany.customerrewards.importer.OrderRecord;
+import org.testcompany.customerrewards.importer.OrderRecordParser;
+import org.testcompany.customerrewards.repository.OrderImportCheckpointRepository;
+import org.testcompany.customerrewards.repository.OrderImportJdbcRepository;
+import org.testcompany.customerrewards.util.OrderValidationUtil;
+import org.testcompany.customerrewards.util.RewardsLedgerUtil;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class OrderImportServiceImpl implements OrderImportService {
+    private static final Logger logger = LoggerFactory.getLogger(
+            OrderImportServiceImpl.class);
+    private static final int MAX_REPORTED_REJECTED_ROWS = 100;
+    private final OrderImportJdbcRepository orderImportJdbcRepository;
+    private final OrderImportCheckpointRepository orderImportCheckpointRepository;
+    private final OrderIdAllocator orderIdAllocator;
+    private final CustomerRewardsCache customerRewardsCache;
+    private final InMemoryOrderStore inMemoryOrderStore;
+    private final CompiledRewardsRules compiledRewardsRules;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public OrderImportServiceImpl(OrderImportJdbcRepository orderImportJdbcRepository,
+                                  OrderImportCheckpointRepository orderImportCheckpointRepository,
+                                  OrderIdAllocator orderIdAllocator,
+                                  CustomerRewardsCache customerRewardsCache,
+                                  InMemoryOrderStore inMemoryOrderStore,
+                                  CompiledRewardsRules compiledRewardsRules,
+                                  ObjectMapper objectMapper,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${customer-rewards.import.batch-size:5000}") int batchSize) {
+        this.orderImportJdbcRepository = orderImportJdbcRepository;
+        this.orderImportCheckpointRepository = orderImportCheckpointRepository;
+        this.orderIdAllocator = orderIdAllocator;
+        this.customerRewardsCache = customerRewardsCache;
+        this.inMemoryOrderStore = inMemoryOrderStore;
+        this.compiledRewardsRules = compiledRewardsRules;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public OrderImportResult importOrders(String importId, OrderImportFormat format,
+                                          ReadableByteChannel channel) throws IOException {
+        Objects.requireNonNull(importId, "Import id must not be null");
+        Objects.requireNonNull(format, "Import format must not be null");
+        var checkpoint = orderImportCheckpointRepository.findById(importId)
+                .orElseGet(() -> new OrderImportCheckpoint(importId));
+        var rejectedRows = new ArrayList<OrderImportResult.RejectedRow>();
+        if (checkpoint.getCompleted()) {
+            logger.info("Order import {} is already completed", importId);
+            return toOrderImportResult(checkpoint, rejectedRows);
+        }
+        var lineReader = new ChannelLineReader(channel);
+        var lineNumber = 0L;
+        OrderRecordParser parser = switch (format) {
+            case CSV -> {
+                var header = lineReader.readLine();
+                lineNumber++;
+                yield CsvOrderRecordParser.ofHeader(header);
+            }
+            case NDJSON -> new NdjsonOrderRecordParser(objectMapper);
+        };
+        if (checkpoint.getByteOffset() > lineReader.position()) {
+            logger.info("Resuming order import {} at line {}", importId, checkpoint.getLineNumber() + 1);
+            lineReader.skipTo(checkpoint.getByteOffset());
+            lineNumber = checkpoint.getLineNumber();
+        }
+
+        var batch = new ImportBatch();
+        String line;
+        while ((line = lineReader.readLine()) != null) {
+            lineNumber++;
+            if (!line.isBlank()) {
+                batch.lines++;
+                try {
+                    var order = parser.parse(line);
+                    var errorMessage = OrderValidationUtil.findValidationError(order.customerId(),
+                            order.transactionAmount(), order.transactionDate());
+                    if (errorMessage.isPresent()) {
+                        batch.reject(lineNumber, errorMessage.get());
+                    } else {
+                        batch.orders.add(order);
+                        batch.lineNumbers.add(lineNumber);
+                    }
+                } catch (CustomerRewardsValidationException ex) {
+                    batch.reject(lineNumber, ex.getMessage());
+                }
+            }
+            if (batch.lines >= batchSize) {
+                commitBatch(checkpoint, batch, lineReader.position(), lineNumber, false, rejectedRows);
+                batch = new ImportBatch();
+            }
+        }
+        commitBatch(checkpoint, batch, lineReader.position(), lineNumber, true, rejectedRows);
+        logger.info("Completed order import {}: {} orders imported, {} orders rejected", importId,
+                checkpoint.getImportedOrders(), checkpoint.getRejectedOrders());
+        return toOrderImportResult(checkpoint, rejectedRows);
+    }
+
+    /**
+     * Writes the batch orders, their ledger updates and the checkpoint in one transaction.
+     * Explicit order ids are reserved before ids are allocated to the other orders, as
+     * they share the id space of PURCHASE_ORDER_SEQ.
+     */
+    private void commitBatch(OrderImportCheckpoint checkpoint, ImportBatch batch, long byteOffset,
+                             long lineNumber, boolean completed,
+                             List<OrderImportResult.RejectedRow> rejectedRows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            var existingCustomerIds = orderImportJdbcRepository.findExistingCustomerIds(batch.orders.stream()
+                    .map(OrderRecord::customerId)
+                    .collect(HashSet::new, HashSet::add, HashSet::addAll));
+            var existingOrderIds = orderImportJdbcRepository.findExistingOrderIds(batch.orders.stream()
+                    .map(OrderRecord::id)
+                    .filter(Objects::nonNull)
+                    .toList());
+            var batchOrderIds = new HashSet<Long>();
+            var acceptedOrders = new ArrayList<OrderRecord>(batch.orders.size());
+            for (int i = 0; i < batch.orders.size(); i++) {
+                var order = batch.orders.get(i);
+                if (!existingCustomerIds.contains(order.customerId())) {
+                    batch.reject(batch.lineNumbers.get(i), String.format(
+                            "Customer with id: %s not found", order.customerId()));
+                } else if (order.id() != null
+                        && (existingOrderIds.contains(order.id()) || !batchOrderIds.add(order.id()))) {
+                    batch.reject(batch.lineNumbers.get(i), String.format(
+                            "Order with id: %s already exists", order.id()));
+                } else {
+                    acceptedOrders.add(order);
+                }
+            }
+            acceptedOrders.stream()
+                    .map(OrderRecord::id)
+                    .filter(Objects::nonNull)
+                    .max(Long::compare)
+                    .ifPresent(orderIdAllocator::reserveOrderIdsUpTo);
+            var newOrders = acceptedOrders.stream()
+                    .map(order -> order.id() != null ? order : new OrderRecord(orderIdAllocator.nextOrderId(),
+                            order.customerId(), order.transactionAmount(), order.transactionDate()))
+                    .toList();
+            orderImportJdbcRepository.insertOrders(newOrders);
+            orderImportJdbcRepository.addMonthlyPoints(RewardsLedgerUtil.toMonthlyPointsList(
+                    compiledRewardsRules.get(), newOrders));
+            inMemoryOrderStore.addOrders(newOrders);
+            customerRewardsCache.invalidateCustomers(newOrders.stream()
+                    .map(OrderRecord::customerId)
+                    .toList());
+
+            checkpoint.setByteOffset(byteOffset);
+            checkpoint.setLineNumber(lineNumber);
+            checkpoint.setImportedOrders(checkpoint.getImportedOrders() + newOrders.size());
+            checkpoint.setRejectedOrders(checkpoint.getRejectedOrders() + batch.rejectedRows.size());
+            checkpoint.setCompleted(completed);
+            checkpoint.setUpdatedAt(Instant.now());
+            orderImportCheckpointRepository.save(checkpoint);
+        });
+        batch.rejectedRows.stream()
+                .sorted(Comparator.comparingLong(OrderImportResult.RejectedRow::lineNumber))
+                .limit(MAX_REPORTED_REJECTED_ROWS - rejectedRows.size())
+                .forEach(rejectedRows::add);
+        logger.debug("Order import {} committed up to line {}", checkpoint.getImportId(), lineNumber);
+    }
+
+    private OrderImportResult toOrderImportResult(OrderImportCheckpoint checkpoint,
+                                                  List<OrderImportResult.RejectedRow> rejectedRows) {
+        return new OrderImportResult(checkpoint.getImportId(), checkpoint.getImportedOrders(),
+                checkpoint.getRejectedOrders(), rejectedRows);
+    }
+
+    /**
+     * Lines read since the last committed batch.
+     */
+    private static class ImportBatch {
+        private final List<OrderRecord> orders = new ArrayList<>();
+        private final List<Long> lineNumbers = new ArrayList<>();
+        private final List<OrderImportResult.RejectedRow> rejectedRows = new ArrayList<>();
+        private int lines;
+
+        private void reject(long lineNumber, String errorMessage) {
+            rejectedRows.add(new OrderImportResult.RejectedRow(lineNumber, errorMessage));
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.testcompany.customerrewards.services;
+
+import org.testcompany.customerrewards.domain.OrderIngestionResult;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+
+import java.util.List;
+
+/**
+ * Write path for purchase orders. Every write updates the rewards ledger in the same
+ * transaction.
+ */
+public interface OrderService {
+
+    /**
+     * Persists a new order, or corrects the existing order with the same id. A new
+     * order without id gets one from PURCHASE_ORDER_SEQ.
+     */
+    PurchaseOrder saveOrder(PurchaseOrder order);
+
+    /**
+     * Persists new orders, assigning their ids. Orders are written in chunks, each in
+     * its own transaction, so an invalid order or a failed chunk does not prevent the
+     * other orders from being saved.
+     */
+    OrderIngestionResult saveOrders(List<PurchaseOrder> orders);
+
+    void deleteOrder(Long orderId);
+}
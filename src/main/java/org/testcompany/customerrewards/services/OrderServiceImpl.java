@@ -0,0 +1,170 @@
+package org.testcompany.customerrewards.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.OrderIngestionResult;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.exceptions.CustomerRewardsValidationException;
+import org.testcompany.customerrewards.repository.CustomerRepository;
+import org.testcompany.customerrewards.repository.OrderStorage;
+import org.testcompany.customerrewards.util.OrderValidationUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+@Service
+public class OrderServiceImpl implements OrderService {
+    private static final Logger logger = LoggerFactory.getLogger(
+            OrderServiceImpl.class);
+    private final OrderStorage orderStorage;
+    private final CustomerRepository customerRepository;
+    private final RewardsLedgerService rewardsLedgerService;
+    private final OrderIdAllocator orderIdAllocator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public OrderServiceImpl(OrderStorage orderStorage,
+                            CustomerRepository customerRepository,
+                            RewardsLedgerService rewardsLedgerService,
+                            OrderIdAllocator orderIdAllocator,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${customer-rewards.orders.bulk.chunk-size:1000}") int chunkSize) {
+        this.orderStorage = orderStorage;
+        this.customerRepository = customerRepository;
+        this.rewardsLedgerService = rewardsLedgerService;
+        this.orderIdAllocator = orderIdAllocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    @Transactional
+    public PurchaseOrder saveOrder(PurchaseOrder order) {
+        findValidationError(order).ifPresent(errorMessage -> {
+            throw new CustomerRewardsValidationException(errorMessage);
+        });
+        var customerId = order.getCustomer().getId();
+        if (!customerRepository.existsById(customerId)) {
+            throw new CustomerRewardsValidationException(String.format("Customer with " +
+                    "id: %s not found", customerId));
+        }
+        PurchaseOrder savedOrder;
+        if (order.getId() == null) {
+            order.setId(orderIdAllocator.nextOrderId());
+            orderStorage.insertAll(List.of(order));
+            savedOrder = order;
+        } else {
+            orderStorage.findById(order.getId()).ifPresent(existingOrder -> {
+                logger.info("Correcting order with id: {}", existingOrder.getId());
+                rewardsLedgerService.removeOrder(existingOrder);
+            });
+            savedOrder = orderStorage.save(order);
+        }
+        rewardsLedgerService.addOrder(savedOrder);
+        return savedOrder;
+    }
+
+    @Override
+    public OrderIngestionResult saveOrders(List<PurchaseOrder> orders) {
+        var rejectedOrders = new ArrayList<OrderIngestionResult.RejectedOrder>();
+        var acceptedOrders = 0;
+        for (int fromIndex = 0; fromIndex < orders.size(); fromIndex += chunkSize) {
+            acceptedOrders += saveOrdersChunk(orders, fromIndex,
+                    Math.min(fromIndex + chunkSize, orders.size()), rejectedOrders);
+        }
+        rejectedOrders.sort(Comparator.comparingInt(OrderIngestionResult.RejectedOrder::index));
+        logger.info("Saved {} orders, rejected {} orders", acceptedOrders, rejectedOrders.size());
+        return new OrderIngestionResult(acceptedOrders, rejectedOrders);
+    }
+
+    @Override
+    @Transactional
+    public void deleteOrder(Long orderId) {
+        var order = orderStorage.findById(orderId)
+                .orElseThrow(() -> new CustomerRewardsValidationException(String.format("Order with " +
+                        "id: %s not found", orderId)));
+        rewardsLedgerService.removeOrder(order);
+        orderStorage.delete(order);
+    }
+
+    /**
+     * Saves the orders [fromIndex, toIndex) in one transaction: a single customer query,
+     * batched inserts and one ledger update per customer and month.
+     *
+     * @return number of saved orders
+     */
+    private int saveOrdersChunk(List<PurchaseOrder> orders, int fromIndex, int toIndex,
+                                List<OrderIngestionResult.RejectedOrder> rejectedOrders) {
+        var validOrderIndexes = new ArrayList<Integer>(toIndex - fromIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            var order = orders.get(i);
+            var errorMessage = order.getId() != null
+                    ? Optional.of("Order id must be null for new orders")
+                    : findValidationError(order);
+            if (errorMessage.isPresent()) {
+                rejectedOrders.add(new OrderIngestionResult.RejectedOrder(i, errorMessage.get()));
+            } else {
+                validOrderIndexes.add(i);
+            }
+        }
+        if (validOrderIndexes.isEmpty()) {
+            return 0;
+        }
+        var chunkRejectedOrders = new ArrayList<OrderIngestionResult.RejectedOrder>();
+        try {
+            var savedOrders = transactionTemplate.execute(status -> {
+                chunkRejectedOrders.clear();
+                var customerIds = validOrderIndexes.stream()
+                        .map(i -> orders.get(i).getCustomer().getId())
+                        .collect(Collectors.toSet());
+                var customersById = StreamSupport.stream(
+                                customerRepository.findAllById(customerIds).spliterator(), false)
+                        .collect(Collectors.toMap(Customer::getId, Function.identity()));
+                var newOrders = new ArrayList<PurchaseOrder>(validOrderIndexes.size());
+                for (var i : validOrderIndexes) {
+                    var order = orders.get(i);
+                    var customer = customersById.get(order.getCustomer().getId());
+                    if (customer == null) {
+                        chunkRejectedOrders.add(new OrderIngestionResult.RejectedOrder(i, String.format(
+                                "Customer with id: %s not found", order.getCustomer().getId())));
+                        continue;
+                    }
+                    order.setCustomer(customer);
+                    order.setId(orderIdAllocator.nextOrderId());
+                    newOrders.add(order);
+                }
+                orderStorage.insertAll(newOrders);
+                rewardsLedgerService.addOrders(newOrders);
+                return newOrders.size();
+            });
+            rejectedOrders.addAll(chunkRejectedOrders);
+            return savedOrders == null ? 0 : savedOrders;
+        } catch (DataAccessException | TransactionException ex) {
+            logger.error("Failed to save orders {} to {}", fromIndex, toIndex - 1, ex);
+            for (var i : validOrderIndexes) {
+                orders.get(i).setId(null);
+                rejectedOrders.add(new OrderIngestionResult.RejectedOrder(i, "Order could not be saved"));
+            }
+            return 0;
+        }
+    }
+
+    private Optional<String> findValidationError(PurchaseOrder order) {
+        return OrderValidationUtil.findValidationError(
+                order.getCustomer() == null ? null : order.getCustomer().getId(),
+                order.getTransactionAmount(), order.getTransactionDate());
+    }
+}
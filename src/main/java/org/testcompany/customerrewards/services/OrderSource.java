@@ -0,0 +1,32 @@
+package org.testcompany.customerrewards.services;
+
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.CustomerWeeklyOrderSummary;
+import org.testcompany.customerrewards.domain.MonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Source of the monthly and weekly order totals the rewards points are calculated from:
+ * the rewards ledger in the database, or the in-memory order store. Totals of the same month
+ * may be split over several summaries, which are added up by the calculation.
+ */
+public interface OrderSource {
+
+    /**
+     * Monthly totals of the customer's orders within the rewards period.
+     */
+    List<MonthlyOrderSummary> getMonthlyOrderSummaries(Long customerId, RewardsPeriod rewardsPeriod);
+
+    List<CustomerMonthlyOrderSummary> getMonthlyOrderSummaries(Collection<Long> customerIds,
+                                                               RewardsPeriod rewardsPeriod);
+
+    /**
+     * Weekly totals of the customers' orders within the rewards period, for the WEEK
+     * rewards period type which can not be added up from monthly totals.
+     */
+    List<CustomerWeeklyOrderSummary> getWeeklyOrderSummaries(Collection<Long> customerIds,
+                                                             RewardsPeriod rewardsPeriod);
+}
@@ -0,0 +1,49 @@
+package org.testcompany.customerrewards.services;
+
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.CustomerWeeklyOrderSummary;
+import org.testcompany.customerrewards.domain.MonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.repository.OrderStorage;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Order source summing the orders of an OrderStorage when read, for the order log whose
+ * orders are not in PURCHASE_ORDER, the rewards ledger is built from.
+ */
+public class OrderStorageSource implements OrderSource {
+    private final OrderStorage orderStorage;
+
+    public OrderStorageSource(OrderStorage orderStorage) {
+        this.orderStorage = orderStorage;
+    }
+
+    @Override
+    public List<MonthlyOrderSummary> getMonthlyOrderSummaries(Long customerId, RewardsPeriod rewardsPeriod) {
+        return orderStorage.getMonthlyOrderSummaries(customerId, rewardsPeriod.startInstant(),
+                rewardsPeriod.endInstant());
+    }
+
+    @Override
+    public List<CustomerMonthlyOrderSummary> getMonthlyOrderSummaries(Collection<Long> customerIds,
+                                                                      RewardsPeriod rewardsPeriod) {
+        if (customerIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return orderStorage.getMonthlyOrderSummariesByCustomerIds(customerIds, rewardsPeriod.startInstant(),
+                rewardsPeriod.endInstant());
+    }
+
+    @Override
+    public List<CustomerWeeklyOrderSummary> getWeeklyOrderSummaries(Collection<Long> customerIds,
+                                                                    RewardsPeriod rewardsPeriod) {
+        if (customerIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return orderStorage.getWeeklyOrderSummariesByCustomerIds(customerIds, rewardsPeriod.startInstant(),
+                rewardsPeriod.endInstant());
+    }
+}
@@ -0,0 +1,17 @@
+package org.testcompany.customerrewards.services;
+
+import org.testcompany.customerrewards.domain.RewardsLeaderboard;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+
+/**
+ * Ranks the whole customer base by rewards points.
+ */
+public interface RewardsLeaderboardService {
+
+    /**
+     * Returns the 'size' customers with the most rewards points over the last
+     * 'rewardsPeriod' periods, highest first, ties ranked by customer id. Customers
+     * without orders in the rewards period are not ranked.
+     */
+    RewardsLeaderboard getLeaderboard(RewardsPeriodType rewardsPeriodType, Integer rewardsPeriod, Integer size);
+}
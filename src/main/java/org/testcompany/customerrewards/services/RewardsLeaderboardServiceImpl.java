@@ -0,0 +1,239 @@
+package org.testcompany.customerrewards.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.testcompany.customerrewards.domain.RewardsLeaderboard;
+import org.testcompany.customerrewards.domain.RewardsLeaderboardEntry;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.exceptions.CustomerRewardsValidationException;
+import org.testcompany.customerrewards.repository.CustomerJdbcRepository;
+import org.testcompany.customerrewards.util.BoundedTopHeap;
+import org.testcompany.customerrewards.util.PeriodBuckets;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Ranks the customers from the rewards ledger: the customer id range is split into
+ * 'customer-rewards.leaderboard.partitions' ranges scanned in parallel, each a chunk of
+ * 'customer-rewards.leaderboard.chunk-size' customers per ledger query. Each partition
+ * keeps its 'size' best customers in a bounded heap, then the heaps are merged, so no
+ * list of all the customers is ever built or sorted.
+ * <p>
+ * Leaderboards are cached per period type, 'rewardsPeriod', size and current period,
+ * and are not invalidated by order writes: they are up to
+ * 'customer-rewards.leaderboard.expire-after-write' old. A leaderboard is calculated by
+ * the first request for its key, outside of the cache's locks, while the concurrent
+ * requests for the key wait for its future.
+ */
+@Service
+public class RewardsLeaderboardServiceImpl implements RewardsLeaderboardService {
+    private static final Logger logger = LoggerFactory.getLogger(
+            RewardsLeaderboardServiceImpl.class);
+    private static final Comparator<RewardsLeaderboardEntry> RANKING =
+            Comparator.comparingLong(RewardsLeaderboardEntry::totalPoints)
+                    .thenComparing(RewardsLeaderboardEntry::customerId, Comparator.reverseOrder());
+
+    private final CustomerJdbcRepository customerJdbcRepository;
+    private final RewardsLedgerService rewardsLedgerService;
+    private final CustomerCache customerCache;
+    private final Clock clock;
+    private final int partitions;
+    private final int threads;
+    private final int chunkSize;
+    private final AsyncCache<Key, RewardsLeaderboard> cache;
+
+    public RewardsLeaderboardServiceImpl(CustomerJdbcRepository customerJdbcRepository,
+                                         RewardsLedgerService rewardsLedgerService,
+                                         CustomerCache customerCache,
+                                         Clock clock,
+                                         @Value("${customer-rewards.leaderboard.partitions:16}") int partitions,
+                                         @Value("${customer-rewards.leaderboard.threads:0}") int threads,
+                                         @Value("${customer-rewards.leaderboard.chunk-size:1000}") int chunkSize,
+                                         @Value("${customer-rewards.leaderboard.maximum-size:100}")
+                                         long maximumSize,
+                                         @Value("${customer-rewards.leaderboard.expire-after-write:PT5M}")
+                                         Duration expireAfterWrite) {
+        this.customerJdbcRepository = customerJdbcRepository;
+        this.rewardsLedgerService = rewardsLedgerService;
+        this.customerCache = customerCache;
+        this.clock = clock;
+        this.partitions = partitions;
+        // 0 runs one worker per processor
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .buildAsync();
+    }
+
+    @Override
+    public RewardsLeaderboard getLeaderboard(RewardsPeriodType rewardsPeriodType, Integer rewardsPeriod,
+                                             Integer size) {
+        // the ledger is monthly, weeks are not supported
+        if (!PeriodBuckets.isMonthAligned(rewardsPeriodType)) {
+            throw new CustomerRewardsValidationException("Operation not supported");
+        }
+        var currentDate = LocalDate.now(clock);
+        var key = new Key(rewardsPeriodType, rewardsPeriod, size,
+                PeriodBuckets.toBucket(rewardsPeriodType, Math.toIntExact(currentDate.toEpochDay())));
+        // concurrent requests for the same key wait for a single calculation, which is not run
+        // by the cache's mapping function, as that would hold a lock of the cache's map for
+        // seconds to minutes
+        var calculation = new CompletableFuture<RewardsLeaderboard>();
+        var leaderboardFuture = cache.asMap().putIfAbsent(key, calculation);
+        if (leaderboardFuture == null) {
+            leaderboardFuture = calculation;
+            try {
+                calculation.complete(calculateLeaderboard(rewardsPeriodType, size,
+                        RewardsPeriod.of(rewardsPeriodType, currentDate, rewardsPeriod)));
+            } catch (Throwable e) {
+                // the cache drops a failed future, so the next request calculates again
+                calculation.completeExceptionally(e);
+            }
+        }
+        var leaderboard = join(leaderboardFuture);
+        var customers = customerCache.findAllById(leaderboard.entries().stream()
+                .map(RewardsLeaderboardEntry::customerId)
+                .toList());
+        var entries = new ArrayList<RewardsLeaderboardEntry>(leaderboard.entries().size());
+        var customerIterator = customers.iterator();
+        var customer = customerIterator.hasNext() ? customerIterator.next() : null;
+        for (var entry: leaderboard.entries()) {
+            // a customer deleted since the calculation keeps its rank, without personal info
+            if (customer != null && customer.getId().equals(entry.customerId())) {
+                entries.add(entry.withCustomer(customer));
+                customer = customerIterator.hasNext() ? customerIterator.next() : null;
+            } else {
+                entries.add(entry);
+            }
+        }
+        return new RewardsLeaderboard(leaderboard.rewardsPeriodType(), leaderboard.rewardsPeriod(), entries);
+    }
+
+    private static RewardsLeaderboard join(CompletableFuture<RewardsLeaderboard> leaderboardFuture) {
+        try {
+            return leaderboardFuture.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private RewardsLeaderboard calculateLeaderboard(RewardsPeriodType rewardsPeriodType, int size,
+                                                    RewardsPeriod rewardsPeriod) {
+        var startNanos = System.nanoTime();
+        var customerIdRange = customerJdbcRepository.findCustomerIdRange();
+        if (customerIdRange.isEmpty()) {
+            return new RewardsLeaderboard(rewardsPeriodType, rewardsPeriod, Collections.emptyList());
+        }
+        var firstCustomerId = customerIdRange.get().firstCustomerId();
+        var lastCustomerId = customerIdRange.get().lastCustomerId();
+        var partitionSize = Math.ceilDiv(lastCustomerId - firstCustomerId + 1, partitions);
+        var topCustomers = new BoundedTopHeap<>(size, RANKING);
+        var executor = Executors.newFixedThreadPool(Math.min(threads, partitions));
+        try {
+            var futures = new ArrayList<Future<BoundedTopHeap<RewardsLeaderboardEntry>>>();
+            for (var partitionFirstCustomerId = firstCustomerId; partitionFirstCustomerId <= lastCustomerId;
+                 partitionFirstCustomerId += partitionSize) {
+                var partitionLastCustomerId = Math.min(lastCustomerId, partitionFirstCustomerId + partitionSize - 1);
+                var fromCustomerId = partitionFirstCustomerId;
+                futures.add(executor.submit(() -> scanPartition(fromCustomerId, partitionLastCustomerId, size,
+                        rewardsPeriod)));
+            }
+            for (var future: futures) {
+                topCustomers.offerAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rewards leaderboard calculation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rewards leaderboard calculation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        var entries = new ArrayList<RewardsLeaderboardEntry>(topCustomers.size());
+        for (var entry: topCustomers.toSortedList()) {
+            entries.add(new RewardsLeaderboardEntry(entries.size() + 1, entry.customerId(), entry.orderCount(),
+                    entry.totalAmount(), entry.totalPoints(), null));
+        }
+        logger.info("Calculated rewards leaderboard of {} customers for {} - {} in {} ms", entries.size(),
+                rewardsPeriod.startDate(), rewardsPeriod.endDate(), (System.nanoTime() - startNanos) / 1_000_000);
+        return new RewardsLeaderboard(rewardsPeriodType, rewardsPeriod, List.copyOf(entries));
+    }
+
+    /**
+     * Adds up the ledger summaries of the customers of the partition 'chunkSize'
+     * customers at a time, keeping the 'size' best customers.
+     */
+    private BoundedTopHeap<RewardsLeaderboardEntry> scanPartition(long firstCustomerId, long lastCustomerId,
+                                                                  int size, RewardsPeriod rewardsPeriod) {
+        var topCustomers = new BoundedTopHeap<>(size, RANKING);
+        var totalsByCustomerId = new HashMap<Long, CustomerTotals>();
+        var nextCustomerId = firstCustomerId;
+        while (nextCustomerId <= lastCustomerId) {
+            var customerIds = customerJdbcRepository.findCustomerIds(nextCustomerId, lastCustomerId,
+                    chunkSize);
+            if (customerIds.isEmpty()) {
+                break;
+            }
+            // customer ids may be sparse: the chunk ends at its last customer
+            var chunkLastCustomerId = customerIds.get(customerIds.size() - 1);
+            totalsByCustomerId.clear();
+            // a month may have several summaries, e.g. a ledger row and a negative correction
+            for (var monthlyOrderSummary: rewardsLedgerService.getMonthlyOrderSummaries(nextCustomerId,
+                    chunkLastCustomerId, rewardsPeriod)) {
+                totalsByCustomerId.computeIfAbsent(monthlyOrderSummary.getCustomerId(),
+                                customerId -> new CustomerTotals())
+                        .add(monthlyOrderSummary.getOrderCount(), monthlyOrderSummary.getTotalAmount(),
+                                monthlyOrderSummary.getTotalPoints());
+            }
+            totalsByCustomerId.forEach((customerId, totals) -> {
+                if (totals.orderCount > 0) {
+                    topCustomers.offer(new RewardsLeaderboardEntry(0, customerId, totals.orderCount,
+                            totals.totalAmount, totals.totalPoints, null));
+                }
+            });
+            nextCustomerId = chunkLastCustomerId + 1;
+        }
+        return topCustomers;
+    }
+
+    private static final class CustomerTotals {
+        private long orderCount;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+        private long totalPoints;
+
+        void add(long orderCount, BigDecimal totalAmount, long totalPoints) {
+            this.orderCount += orderCount;
+            this.totalAmount = this.totalAmount.add(totalAmount);
+            this.totalPoints += totalPoints;
+        }
+    }
+
+    private record Key(RewardsPeriodType rewardsPeriodType, Integer rewardsPeriod, Integer size,
+                       int currentBucket) {}
+}
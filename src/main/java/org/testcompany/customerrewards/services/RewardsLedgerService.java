@@ -0,0 +1,42 @@
+package org.testcompany.customerrewards.services;
+
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Maintains the CUSTOMER_MONTHLY_POINTS ledger, the per customer and month totals of
+ * PURCHASE_ORDER, and reads rewards periods from it. Ledger updates join the caller's
+ * transaction so the ledger changes together with the orders. With the order log
+ * enabled, the orders are not in PURCHASE_ORDER: updates only invalidate the cached
+ * rewards of the customers.
+ */
+public interface RewardsLedgerService extends OrderSource {
+
+    void addOrder(PurchaseOrder order);
+
+    /**
+     * Adds new orders, already persisted in the current transaction, with a single
+     * ledger update.
+     */
+    void addOrders(Collection<PurchaseOrder> orders);
+
+    void removeOrder(PurchaseOrder order);
+
+    /**
+     * Monthly totals of the orders of the customers with ids in [firstCustomerId,
+     * lastCustomerId] within the rewards period.
+     */
+    List<CustomerMonthlyOrderSummary> getMonthlyOrderSummaries(long firstCustomerId, long lastCustomerId,
+                                                               RewardsPeriod rewardsPeriod);
+
+    /**
+     * Regenerates the whole ledger from PURCHASE_ORDER.
+     *
+     * @return number of ledger rows
+     */
+    int rebuild();
+}
@@ -0,0 +1,201 @@
+package org.testcompany.customerrewards.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.CustomerWeeklyOrderSummary;
+import org.testcompany.customerrewards.domain.MonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.importer.OrderRecord;
+import org.testcompany.customerrewards.repository.CustomerMonthlyPointsRepository;
+import org.testcompany.customerrewards.repository.OrderStorage;
+import org.testcompany.customerrewards.util.RewardsPointsEngine;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+@Service
+public class RewardsLedgerServiceImpl implements RewardsLedgerService {
+    private static final Logger logger = LoggerFactory.getLogger(
+            RewardsLedgerServiceImpl.class);
+    private final CustomerMonthlyPointsRepository customerMonthlyPointsRepository;
+    private final CustomerRewardsCache customerRewardsCache;
+    private final InMemoryOrderStore inMemoryOrderStore;
+    private final CompiledRewardsRules compiledRewardsRules;
+    private final OrderStorage orderStorage;
+    // orders of the order log are not in PURCHASE_ORDER, the ledger and the in-memory order store are built from
+    private final boolean orderLogEnabled;
+
+    public RewardsLedgerServiceImpl(CustomerMonthlyPointsRepository customerMonthlyPointsRepository,
+                                    CustomerRewardsCache customerRewardsCache,
+                                    InMemoryOrderStore inMemoryOrderStore,
+                                    CompiledRewardsRules compiledRewardsRules,
+                                    OrderStorage orderStorage,
+                                    @Value("${customer-rewards.order-log.enabled:false}") boolean orderLogEnabled) {
+        this.customerMonthlyPointsRepository = customerMonthlyPointsRepository;
+        this.customerRewardsCache = customerRewardsCache;
+        this.inMemoryOrderStore = inMemoryOrderStore;
+        this.compiledRewardsRules = compiledRewardsRules;
+        this.orderStorage = orderStorage;
+        this.orderLogEnabled = orderLogEnabled;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addOrder(PurchaseOrder order) {
+        if (!orderLogEnabled) {
+            updateMonthlyPoints(order, 1);
+            inMemoryOrderStore.addOrders(List.of(toOrderRecord(order)));
+        }
+        customerRewardsCache.invalidateCustomers(List.of(order.getCustomer().getId()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addOrders(Collection<PurchaseOrder> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        if (!orderLogEnabled) {
+            // flushes the orders, then aggregates them per customer and month in one statement
+            customerMonthlyPointsRepository.addMonthlyPointsFromOrders(orders.stream()
+                    .map(PurchaseOrder::getId)
+                    .toList());
+            inMemoryOrderStore.addOrders(orders.stream()
+                    .map(RewardsLedgerServiceImpl::toOrderRecord)
+                    .toList());
+        }
+        customerRewardsCache.invalidateCustomers(orders.stream()
+                .map(order -> order.getCustomer().getId())
+                .toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeOrder(PurchaseOrder order) {
+        if (!orderLogEnabled) {
+            var transactionDate = LocalDate.ofInstant(order.getTransactionDate(), ZoneOffset.UTC);
+            updateMonthlyPoints(order, -1);
+            customerMonthlyPointsRepository.deleteEmptyMonthlyPoints(order.getCustomer().getId(),
+                    transactionDate.getYear(), transactionDate.getMonthValue());
+            inMemoryOrderStore.removeOrder(order.getCustomer().getId(), order.getId());
+        }
+        customerRewardsCache.invalidateCustomers(List.of(order.getCustomer().getId()));
+    }
+
+    @Override
+    public List<MonthlyOrderSummary> getMonthlyOrderSummaries(Long customerId, RewardsPeriod rewardsPeriod) {
+        var ledgerRange = LedgerRange.of(rewardsPeriod);
+        if (ledgerRange == null) {
+            return Collections.emptyList();
+        }
+        return customerMonthlyPointsRepository.getMonthlyOrderSummaries(customerId,
+                ledgerRange.startYear(), ledgerRange.endYear(),
+                ledgerRange.startEpochMonth(), ledgerRange.endEpochMonth(),
+                ledgerRange.headStartDate(), ledgerRange.headEndDate(),
+                ledgerRange.tailStartDate(), ledgerRange.tailEndDate());
+    }
+
+    @Override
+    public List<CustomerMonthlyOrderSummary> getMonthlyOrderSummaries(Collection<Long> customerIds,
+                                                                      RewardsPeriod rewardsPeriod) {
+        var ledgerRange = LedgerRange.of(rewardsPeriod);
+        if (ledgerRange == null || customerIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return customerMonthlyPointsRepository.getMonthlyOrderSummariesByCustomerIds(customerIds,
+                ledgerRange.startYear(), ledgerRange.endYear(),
+                ledgerRange.startEpochMonth(), ledgerRange.endEpochMonth(),
+                ledgerRange.headStartDate(), ledgerRange.headEndDate(),
+                ledgerRange.tailStartDate(), ledgerRange.tailEndDate());
+    }
+
+    @Override
+    public List<CustomerMonthlyOrderSummary> getMonthlyOrderSummaries(long firstCustomerId, long lastCustomerId,
+                                                                      RewardsPeriod rewardsPeriod) {
+        var ledgerRange = LedgerRange.of(rewardsPeriod);
+        if (ledgerRange == null || firstCustomerId > lastCustomerId) {
+            return Collections.emptyList();
+        }
+        return customerMonthlyPointsRepository.getMonthlyOrderSummariesByCustomerIdRange(firstCustomerId,
+                lastCustomerId, ledgerRange.startYear(), ledgerRange.endYear(),
+                ledgerRange.startEpochMonth(), ledgerRange.endEpochMonth(),
+                ledgerRange.headStartDate(), ledgerRange.headEndDate(),
+                ledgerRange.tailStartDate(), ledgerRange.tailEndDate());
+    }
+
+    /**
+     * The ledger is monthly: weeks are aggregated from the order storage.
+     */
+    @Override
+    public List<CustomerWeeklyOrderSummary> getWeeklyOrderSummaries(Collection<Long> customerIds,
+                                                                    RewardsPeriod rewardsPeriod) {
+        if (!rewardsPeriod.startDate().isBefore(rewardsPeriod.endDate()) || customerIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return orderStorage.getWeeklyOrderSummariesByCustomerIds(customerIds, rewardsPeriod.startInstant(),
+                rewardsPeriod.endInstant());
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        var deletedRows = customerMonthlyPointsRepository.deleteAllMonthlyPoints();
+        var insertedRows = customerMonthlyPointsRepository.insertMonthlyPointsFromOrders();
+        customerRewardsCache.invalidateAll();
+        logger.info("Rebuilt rewards ledger: {} rows deleted, {} rows inserted", deletedRows, insertedRows);
+        return insertedRows;
+    }
+
+    private void updateMonthlyPoints(PurchaseOrder order, int sign) {
+        var transactionDate = LocalDate.ofInstant(order.getTransactionDate(), ZoneOffset.UTC);
+        var transactionAmount = order.getTransactionAmount();
+        var points = compiledRewardsRules.get().calculatePoints(Math.toIntExact(transactionDate.toEpochDay()),
+                RewardsPointsEngine.toCents(transactionAmount));
+        customerMonthlyPointsRepository.addMonthlyPoints(order.getCustomer().getId(),
+                transactionDate.getYear(), transactionDate.getMonthValue(), (long) sign,
+                sign > 0 ? transactionAmount : transactionAmount.negate(), (long) sign * points);
+    }
+
+    private static OrderRecord toOrderRecord(PurchaseOrder order) {
+        return new OrderRecord(order.getId(), order.getCustomer().getId(), order.getTransactionAmount(),
+                order.getTransactionDate());
+    }
+
+    /**
+     * Ledger months covering a rewards period, plus the parts of the first and last
+     * months that are outside the period and must be subtracted from the ledger rows.
+     */
+    private record LedgerRange(int startYear, int endYear, int startEpochMonth, int endEpochMonth,
+                               Instant headStartDate, Instant headEndDate,
+                               Instant tailStartDate, Instant tailEndDate) {
+
+        static LedgerRange of(RewardsPeriod rewardsPeriod) {
+            var startDate = rewardsPeriod.startDate();
+            var endDate = rewardsPeriod.endDate();
+            if (!startDate.isBefore(endDate)) {
+                return null;
+            }
+            var firstMonthDate = startDate.withDayOfMonth(1);
+            var lastMonthDate = endDate.minusDays(1).withDayOfMonth(1);
+            return new LedgerRange(firstMonthDate.getYear(), lastMonthDate.getYear(),
+                    RewardsPointsEngine.toEpochMonth(firstMonthDate.getYear(), firstMonthDate.getMonthValue()),
+                    RewardsPointsEngine.toEpochMonth(lastMonthDate.getYear(), lastMonthDate.getMonthValue()),
+                    toInstant(firstMonthDate), rewardsPeriod.startInstant(),
+                    rewardsPeriod.endInstant(), toInstant(lastMonthDate.plusMonths(1)));
+        }
+
+        private static Instant toInstant(LocalDate date) {
+            return date.atStartOfDay().toInstant(ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.testcompany.customerrewards.services;
+
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.domain.RewardsStatementResult;
+
+/**
+ * Writes the rewards points statements of the whole customer base to REWARDS_STATEMENT.
+ */
+public interface RewardsStatementService {
+
+    /**
+     * Writes the statement of every customer for the rewards period. The customers are
+     * split by id range into partitions processed in parallel, each committing its
+     * statements with a checkpoint of the partition in chunks. Running a statement
+     * again with the same id resumes its partitions after their last committed chunk,
+     * so it must be given the same rewards period. A completed statement is not run
+     * again. A statement must not be run concurrently with itself.
+     */
+    RewardsStatementResult generateStatements(String statementId, RewardsPeriod rewardsPeriod);
+}
@@ -0,0 +1,175 @@
+package org.testcompany.customerrewards.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.domain.RewardsStatementPartition;
+import org.testcompany.customerrewards.domain.RewardsStatementPartitionId;
+import org.testcompany.customerrewards.domain.RewardsStatementResult;
+import org.testcompany.customerrewards.repository.CustomerJdbcRepository;
+import org.testcompany.customerrewards.repository.RewardsStatementJdbcRepository;
+import org.testcompany.customerrewards.repository.RewardsStatementPartitionRepository;
+import org.testcompany.customerrewards.util.CustomerRewardsUtil;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+@Service
+public class RewardsStatementServiceImpl implements RewardsStatementService {
+    private static final Logger logger = LoggerFactory.getLogger(
+            RewardsStatementServiceImpl.class);
+    private final CustomerJdbcRepository customerJdbcRepository;
+    private final RewardsStatementJdbcRepository rewardsStatementJdbcRepository;
+    private final RewardsStatementPartitionRepository rewardsStatementPartitionRepository;
+    private final RewardsLedgerService rewardsLedgerService;
+    private final TransactionTemplate transactionTemplate;
+    private final int partitions;
+    private final int threads;
+    private final int chunkSize;
+
+    public RewardsStatementServiceImpl(CustomerJdbcRepository customerJdbcRepository,
+                                       RewardsStatementJdbcRepository rewardsStatementJdbcRepository,
+                                       RewardsStatementPartitionRepository rewardsStatementPartitionRepository,
+                                       RewardsLedgerService rewardsLedgerService,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${customer-rewards.statements.partitions:16}") int partitions,
+                                       @Value("${customer-rewards.statements.threads:0}") int threads,
+                                       @Value("${customer-rewards.statements.chunk-size:1000}") int chunkSize) {
+        this.customerJdbcRepository = customerJdbcRepository;
+        this.rewardsStatementJdbcRepository = rewardsStatementJdbcRepository;
+        this.rewardsStatementPartitionRepository = rewardsStatementPartitionRepository;
+        this.rewardsLedgerService = rewardsLedgerService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitions = partitions;
+        // 0 runs one worker per processor
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public RewardsStatementResult generateStatements(String statementId, RewardsPeriod rewardsPeriod) {
+        Objects.requireNonNull(statementId, "Statement id must not be null");
+        Objects.requireNonNull(rewardsPeriod, "Rewards period must not be null");
+        var statementPartitions = findOrCreatePartitions(statementId);
+        var pendingPartitions = statementPartitions.stream()
+                .filter(partition -> !partition.getCompleted())
+                .toList();
+        if (pendingPartitions.isEmpty()) {
+            logger.info("Rewards statement {} is already completed", statementId);
+            return toRewardsStatementResult(statementId, rewardsPeriod, statementPartitions);
+        }
+        logger.info("Generating rewards statement {} for {} - {}: {} of {} partitions on {} threads",
+                statementId, rewardsPeriod.startDate(), rewardsPeriod.endDate(), pendingPartitions.size(),
+                statementPartitions.size(), threads);
+        var executor = Executors.newFixedThreadPool(Math.min(threads, pendingPartitions.size()));
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (var partition: pendingPartitions) {
+                futures.add(executor.submit(() -> processPartition(partition, rewardsPeriod)));
+            }
+            for (var future: futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rewards statement " + statementId + " was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rewards statement " + statementId + " failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        var result = toRewardsStatementResult(statementId, rewardsPeriod, statementPartitions);
+        logger.info("Completed rewards statement {}: {} statements", statementId, result.statements());
+        return result;
+    }
+
+    /**
+     * Returns the partitions of the statement, splitting the current customer id range
+     * into equal ranges on the first run.
+     */
+    private List<RewardsStatementPartition> findOrCreatePartitions(String statementId) {
+        return transactionTemplate.execute(status -> {
+            var statementPartitions = rewardsStatementPartitionRepository
+                    .findByIdStatementIdOrderByIdPartitionNumber(statementId);
+            if (!statementPartitions.isEmpty()) {
+                return statementPartitions;
+            }
+            var customerIdRange = customerJdbcRepository.findCustomerIdRange();
+            if (customerIdRange.isEmpty()) {
+                return Collections.<RewardsStatementPartition>emptyList();
+            }
+            var firstCustomerId = customerIdRange.get().firstCustomerId();
+            var lastCustomerId = customerIdRange.get().lastCustomerId();
+            var partitionSize = Math.ceilDiv(lastCustomerId - firstCustomerId + 1, partitions);
+            var newPartitions = new ArrayList<RewardsStatementPartition>();
+            for (var partitionFirstCustomerId = firstCustomerId; partitionFirstCustomerId <= lastCustomerId;
+                 partitionFirstCustomerId += partitionSize) {
+                newPartitions.add(new RewardsStatementPartition(
+                        new RewardsStatementPartitionId(statementId, newPartitions.size()), partitionFirstCustomerId,
+                        Math.min(lastCustomerId, partitionFirstCustomerId + partitionSize - 1)));
+            }
+            rewardsStatementPartitionRepository.saveAll(newPartitions);
+            return newPartitions;
+        });
+    }
+
+    private void processPartition(RewardsStatementPartition partition, RewardsPeriod rewardsPeriod) {
+        while (!partition.getCompleted()) {
+            commitChunk(partition, rewardsPeriod);
+        }
+        logger.info("Completed partition {} of rewards statement {}: customer ids {} - {}, {} statements",
+                partition.getId().partitionNumber(), partition.getId().statementId(),
+                partition.getFirstCustomerId(), partition.getLastCustomerId(), partition.getStatements());
+    }
+
+    /**
+     * Writes the statements of the next 'chunkSize' customers of the partition and the
+     * partition checkpoint in one transaction.
+     */
+    private void commitChunk(RewardsStatementPartition partition, RewardsPeriod rewardsPeriod) {
+        transactionTemplate.executeWithoutResult(status -> {
+            var customerIds = customerJdbcRepository.findCustomerIds(partition.getNextCustomerId(),
+                    partition.getLastCustomerId(), chunkSize);
+            // the chunk ends at its last customer, or at the end of the partition when it is the last chunk
+            var lastCustomerId = customerIds.size() < chunkSize
+                    ? partition.getLastCustomerId() : customerIds.get(customerIds.size() - 1);
+            var monthlyOrderSummariesByCustomerId = rewardsLedgerService
+                    .getMonthlyOrderSummaries(partition.getNextCustomerId(), lastCustomerId, rewardsPeriod)
+                    .stream()
+                    .collect(Collectors.groupingBy(CustomerMonthlyOrderSummary::getCustomerId));
+            var statements = new ArrayList<CustomerRewardsDetails>(customerIds.size());
+            for (var customerId: customerIds) {
+                statements.add(CustomerRewardsUtil.calculateMonthlyCustomerRewardsPointsFromSummaries(customerId,
+                        monthlyOrderSummariesByCustomerId.getOrDefault(customerId, Collections.emptyList()),
+                        rewardsPeriod));
+            }
+            rewardsStatementJdbcRepository.insertStatements(partition.getId().statementId(), rewardsPeriod,
+                    statements);
+
+            partition.setNextCustomerId(lastCustomerId + 1);
+            partition.setStatements(partition.getStatements() + statements.size());
+            partition.setCompleted(lastCustomerId == partition.getLastCustomerId());
+            partition.setUpdatedAt(Instant.now());
+            rewardsStatementPartitionRepository.save(partition);
+        });
+    }
+
+    private RewardsStatementResult toRewardsStatementResult(String statementId, RewardsPeriod rewardsPeriod,
+                                                            List<RewardsStatementPartition> statementPartitions) {
+        return new RewardsStatementResult(statementId, rewardsPeriod, statementPartitions.size(),
+                statementPartitions.stream().mapToLong(RewardsStatementPartition::getStatements).sum());
+    }
+}
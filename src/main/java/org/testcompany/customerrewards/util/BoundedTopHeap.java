@@ -0,0 +1,59 @@
+package org.testcompany.customerrewards.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the 'capacity' greatest elements offered, according to the comparator, in a
+ * min-heap: offering an element is O(log capacity) and the elements that are not
+ * kept are never stored, whatever the number of elements offered. Not thread-safe.
+ */
+public class BoundedTopHeap<T> {
+
+    private final int capacity;
+    private final Comparator<? super T> comparator;
+    private final PriorityQueue<T> heap;
+
+    public BoundedTopHeap(int capacity, Comparator<? super T> comparator) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.comparator = comparator;
+        this.heap = new PriorityQueue<>(capacity, comparator);
+    }
+
+    /**
+     * Keeps the element if the heap is not full or it is greater than the least kept
+     * element, which is then dropped.
+     */
+    public void offer(T element) {
+        if (heap.size() < capacity) {
+            heap.add(element);
+        } else if (comparator.compare(element, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    public void offerAll(BoundedTopHeap<? extends T> other) {
+        for (var element: other.heap) {
+            offer(element);
+        }
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Kept elements, greatest first.
+     */
+    public List<T> toSortedList() {
+        var elements = new ArrayList<T>(heap);
+        elements.sort(comparator.reversed());
+        return elements;
+    }
+}
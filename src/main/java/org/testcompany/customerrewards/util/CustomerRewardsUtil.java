@@ -2,28 +2,28 @@ package org.testcompany.customerrewards.util;
 
 import jakarta.annotation.Nonnull;
 import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
-import org.testcompany.customerrewards.domain.MonthlyPoints;
+import org.testcompany.customerrewards.domain.CustomerWeeklyOrderSummary;
+import org.testcompany.customerrewards.domain.MonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.PeriodPoints;
 import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
 import org.testcompany.customerrewards.domain.RewardsPeriodType;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.Instant;
 import java.time.LocalDate;
-import java.time.Period;
-import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.Locale;
 import java.util.Objects;
-import java.util.LinkedHashMap;
-import java.util.Collections;
-import java.util.stream.Collectors;
 
+/**
+ * Customer rewards points calculation on domain objects. The points are calculated by
+ * {@link RewardsRules} on amounts in cents and epoch days, RewardsRules.DEFAULT unless
+ * given.
+ */
 public class CustomerRewardsUtil {
 
-    private static final BigDecimal REWARDS_POINTS_HIGHER_THRESHOLD_AMOUNT = BigDecimal.valueOf(100.0);
-    private static final BigDecimal REWARDS_POINTS_LOWER_THRESHOLD_AMOUNT = BigDecimal.valueOf(50);
+    private static final int CENTS_SCALE = 2;
 
     public static CustomerRewardsDetails calculateMonthlyCustomerRewardsPoints(@Nonnull Long customerId,
                                                                 @Nonnull List<PurchaseOrder> orders,
@@ -32,116 +32,196 @@ public class CustomerRewardsUtil {
         Objects.requireNonNull(orders, "Orders must not be null");
         Objects.requireNonNull(rewardsPeriodInMonths, "Rewards period must not be null");
 
-        var currentDate = LocalDate.now();
-        var rewardsPeriodMonth = currentDate.minus(Period.ofMonths(rewardsPeriodInMonths));
-        var rewardsPeriodStartDate =
-                rewardsPeriodMonth.minusDays(rewardsPeriodMonth.getDayOfMonth() -1);
-        var rewardsPeriodEndDate = currentDate.minusDays(currentDate.getDayOfMonth());
+        return calculateMonthlyCustomerRewardsPoints(customerId, orders,
+                RewardsPeriod.ofMonths(LocalDate.now(), rewardsPeriodInMonths));
+    }
 
-        var ordersByRewardsPeriod = filterOrdersByRewardsPeriod(orders, rewardsPeriodStartDate,
-                rewardsPeriodEndDate);
-        var monthlyPoints = calculateMonthlyPoints(ordersByRewardsPeriod,
-                rewardsPeriodStartDate, rewardsPeriodEndDate);
+    public static CustomerRewardsDetails calculateMonthlyCustomerRewardsPoints(@Nonnull Long customerId,
+                                                                @Nonnull List<PurchaseOrder> orders,
+                                                                @Nonnull RewardsPeriod rewardsPeriod) {
+        return calculateMonthlyCustomerRewardsPoints(customerId, orders, rewardsPeriod, RewardsRules.DEFAULT);
+    }
 
-        var customerRewardsDetails = new CustomerRewardsDetails();
-        customerRewardsDetails.setCustomerId(customerId);
-        customerRewardsDetails.setRewardsDesc("Customer Rewards Points per month");
-        customerRewardsDetails.setRewardsPeriodType(RewardsPeriodType.MONTH);
-        customerRewardsDetails.setMonthlyPointsList(monthlyPoints);
-        customerRewardsDetails.setTotalAmount(getTotalAmount(ordersByRewardsPeriod));
-        return customerRewardsDetails;
+    public static CustomerRewardsDetails calculateMonthlyCustomerRewardsPoints(@Nonnull Long customerId,
+                                                                @Nonnull List<PurchaseOrder> orders,
+                                                                @Nonnull RewardsPeriod rewardsPeriod,
+                                                                @Nonnull RewardsRules rules) {
+        return calculateCustomerRewardsPoints(customerId, orders, rewardsPeriod, RewardsPeriodType.MONTH, rules);
     }
 
-    private static List<MonthlyPoints> calculateMonthlyPoints(List<PurchaseOrder> orders,
-                                                                  LocalDate rewardsPeriodStartDate,
-                                                                  LocalDate rewardsPeriodEndDate) {
-        // calculate points earned for each month
+    /**
+     * Calculates the points per period of the given type with a single pass over the
+     * orders, adding them up in an array indexed by PeriodBuckets bucket.
+     */
+    public static CustomerRewardsDetails calculateCustomerRewardsPoints(@Nonnull Long customerId,
+                                                                @Nonnull List<PurchaseOrder> orders,
+                                                                @Nonnull RewardsPeriod rewardsPeriod,
+                                                                @Nonnull RewardsPeriodType rewardsPeriodType,
+                                                                @Nonnull RewardsRules rules) {
+        Objects.requireNonNull(customerId, "Customer Id must not be null");
         Objects.requireNonNull(orders, "Orders must not be null");
-        Objects.requireNonNull(rewardsPeriodStartDate, "Rewards period start date must not be null");
-        Objects.requireNonNull(rewardsPeriodEndDate, "Rewards period end date must not be null");
-
-        var monthlyPointsMap = buildInitialMonthlyPointsMap(
-                rewardsPeriodStartDate, rewardsPeriodEndDate);
-        if (orders.isEmpty()) {
-            return monthlyPointsMap.values().stream().toList();
-        }
-        var ordersPerMonthMap = buildOrdersPerMonthMap(orders);
-
-        var pointsMultiplier = BigDecimal.valueOf(2);
-        for (var orderEntry: ordersPerMonthMap.entrySet()) {
-            int pointsPerMonth = 0;
-            for (PurchaseOrder order: orderEntry.getValue()) {
-                var transAmount = order.getTransactionAmount();
-                if (transAmount.compareTo(REWARDS_POINTS_HIGHER_THRESHOLD_AMOUNT) >= 0) {
-                    pointsPerMonth += transAmount
-                            .subtract(REWARDS_POINTS_HIGHER_THRESHOLD_AMOUNT)
-                            .setScale(0, RoundingMode.DOWN)
-                            .multiply(pointsMultiplier)
-                            .add(REWARDS_POINTS_LOWER_THRESHOLD_AMOUNT).intValue();
-                } else if (transAmount.compareTo(REWARDS_POINTS_LOWER_THRESHOLD_AMOUNT) > 0) {
-                    pointsPerMonth += transAmount.subtract(REWARDS_POINTS_LOWER_THRESHOLD_AMOUNT).intValue();
-                }
+        Objects.requireNonNull(rewardsPeriod, "Rewards period must not be null");
+        Objects.requireNonNull(rewardsPeriodType, "Rewards period type must not be null");
+        Objects.requireNonNull(rules, "Rewards rules must not be null");
+
+        var startEpochDay = Math.toIntExact(rewardsPeriod.startDate().toEpochDay());
+        var endEpochDay = Math.toIntExact(rewardsPeriod.endDate().toEpochDay());
+        var startBucket = PeriodBuckets.toBucket(rewardsPeriodType, startEpochDay);
+        var periodPoints = new long[PeriodBuckets.getBucketCount(rewardsPeriodType, startEpochDay, endEpochDay)];
+
+        long totalAmountInCents = 0;
+        int totalAmountScale = 0;
+        int ordersCount = 0;
+        for (var order: orders) {
+            var epochDay = RewardsPointsEngine.toEpochDay(order.getTransactionDate());
+            if (epochDay < startEpochDay || epochDay >= endEpochDay) {
+                continue;
             }
-            monthlyPointsMap.get(orderEntry.getKey()).setPoints(pointsPerMonth);
+            var transAmount = order.getTransactionAmount();
+            var amountInCents = RewardsPointsEngine.toCents(transAmount);
+            periodPoints[PeriodBuckets.toBucket(rewardsPeriodType, epochDay) - startBucket] +=
+                    rules.calculatePoints(epochDay, amountInCents);
+            totalAmountInCents += amountInCents;
+            totalAmountScale = Math.max(totalAmountScale, transAmount.scale());
+            ordersCount++;
         }
-        return monthlyPointsMap.values().stream().toList();
-    }
 
-    private static BigDecimal getTotalAmount(List<PurchaseOrder> orders) {
-        if (orders == null || orders.isEmpty()) {
-            return BigDecimal.ZERO;
+        BigDecimal totalAmount;
+        if (ordersCount == 0) {
+            totalAmount = BigDecimal.ZERO;
+        } else if (totalAmountScale <= CENTS_SCALE) {
+            // same value and scale as adding up the order amounts
+            totalAmount = BigDecimal.valueOf(totalAmountInCents, CENTS_SCALE).setScale(totalAmountScale);
+        } else {
+            totalAmount = getTotalAmount(orders, startEpochDay, endEpochDay);
         }
-        return orders.stream()
-                .map(PurchaseOrder::getTransactionAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return buildCustomerRewardsDetails(customerId, rewardsPeriodType,
+                buildPeriodPointsList(rewardsPeriodType, periodPoints, startBucket), totalAmount);
     }
 
-    private static List<PurchaseOrder> filterOrdersByRewardsPeriod(List<PurchaseOrder> orders,
-                                                                   LocalDate rewardsPeriodStartDate,
-                                                                   LocalDate rewardsPeriodEndDate) {
-        Objects.requireNonNull(orders, "Orders must not be null");
-        Objects.requireNonNull(rewardsPeriodStartDate, "Rewards period start date must not be null");
-        Objects.requireNonNull(rewardsPeriodEndDate, "Rewards period end date must not be null");
-
-        return orders.stream()
-                .filter(order -> {
-                    var transactionDate =
-                            getTransactionLocalDate(order.getTransactionDate());
-                    return (transactionDate.isAfter(rewardsPeriodStartDate)
-                            || transactionDate.equals(rewardsPeriodStartDate)) &&
-                            transactionDate.isBefore(rewardsPeriodEndDate);
-                }).toList();
+    /**
+     * Builds the customer rewards details from orders already aggregated per month,
+     * e.g. by RewardsLedgerService.getMonthlyOrderSummaries. Gives the same result as
+     * calculating the points from the orders of the rewards period.
+     */
+    public static CustomerRewardsDetails calculateMonthlyCustomerRewardsPointsFromSummaries(
+            @Nonnull Long customerId,
+            @Nonnull List<? extends MonthlyOrderSummary> monthlyOrderSummaries,
+            @Nonnull RewardsPeriod rewardsPeriod) {
+        return calculateCustomerRewardsPointsFromSummaries(customerId, monthlyOrderSummaries, rewardsPeriod,
+                RewardsPeriodType.MONTH);
     }
 
-    private static Map<LocalDate, List<PurchaseOrder>> buildOrdersPerMonthMap(List<PurchaseOrder> orders) {
-        if (orders == null) {
-            return Collections.emptyMap();
+    /**
+     * Same as calculateMonthlyCustomerRewardsPointsFromSummaries for a month aligned
+     * rewards period type, adding up the months of each quarter or year.
+     */
+    public static CustomerRewardsDetails calculateCustomerRewardsPointsFromSummaries(
+            @Nonnull Long customerId,
+            @Nonnull List<? extends MonthlyOrderSummary> monthlyOrderSummaries,
+            @Nonnull RewardsPeriod rewardsPeriod,
+            @Nonnull RewardsPeriodType rewardsPeriodType) {
+        Objects.requireNonNull(customerId, "Customer Id must not be null");
+        Objects.requireNonNull(monthlyOrderSummaries, "Monthly order summaries must not be null");
+        Objects.requireNonNull(rewardsPeriod, "Rewards period must not be null");
+        Objects.requireNonNull(rewardsPeriodType, "Rewards period type must not be null");
+
+        var startEpochDay = Math.toIntExact(rewardsPeriod.startDate().toEpochDay());
+        var endEpochDay = Math.toIntExact(rewardsPeriod.endDate().toEpochDay());
+        var startBucket = PeriodBuckets.toBucket(rewardsPeriodType, startEpochDay);
+        var periodPoints = new long[PeriodBuckets.getBucketCount(rewardsPeriodType, startEpochDay, endEpochDay)];
+
+        // a month may have several summaries, e.g. a ledger row and a negative correction
+        var totalAmount = BigDecimal.ZERO;
+        long ordersCount = 0;
+        for (var monthlyOrderSummary: monthlyOrderSummaries) {
+            var bucketIndex = PeriodBuckets.toBucketOfEpochMonth(rewardsPeriodType, RewardsPointsEngine.toEpochMonth(
+                    monthlyOrderSummary.getOrderYear(), monthlyOrderSummary.getOrderMonth())) - startBucket;
+            if (bucketIndex < 0 || bucketIndex >= periodPoints.length) {
+                continue;
+            }
+            periodPoints[bucketIndex] += monthlyOrderSummary.getTotalPoints();
+            totalAmount = totalAmount.add(monthlyOrderSummary.getTotalAmount());
+            ordersCount += monthlyOrderSummary.getOrderCount();
+        }
+        return buildCustomerRewardsDetails(customerId, rewardsPeriodType,
+                buildPeriodPointsList(rewardsPeriodType, periodPoints, startBucket),
+                ordersCount == 0 ? BigDecimal.ZERO : totalAmount);
+    }
+
+    /**
+     * Builds the weekly customer rewards details from orders already aggregated per
+     * epoch week, e.g. by OrderSource.getWeeklyOrderSummaries.
+     */
+    public static CustomerRewardsDetails calculateWeeklyCustomerRewardsPointsFromSummaries(
+            @Nonnull Long customerId,
+            @Nonnull List<? extends CustomerWeeklyOrderSummary> weeklyOrderSummaries,
+            @Nonnull RewardsPeriod rewardsPeriod) {
+        Objects.requireNonNull(customerId, "Customer Id must not be null");
+        Objects.requireNonNull(weeklyOrderSummaries, "Weekly order summaries must not be null");
+        Objects.requireNonNull(rewardsPeriod, "Rewards period must not be null");
+
+        var startEpochDay = Math.toIntExact(rewardsPeriod.startDate().toEpochDay());
+        var endEpochDay = Math.toIntExact(rewardsPeriod.endDate().toEpochDay());
+        var startBucket = PeriodBuckets.toBucket(RewardsPeriodType.WEEK, startEpochDay);
+        var weeklyPoints = new long[PeriodBuckets.getBucketCount(RewardsPeriodType.WEEK, startEpochDay,
+                endEpochDay)];
+
+        var totalAmount = BigDecimal.ZERO;
+        long ordersCount = 0;
+        for (var weeklyOrderSummary: weeklyOrderSummaries) {
+            var bucketIndex = weeklyOrderSummary.getEpochWeek() - startBucket;
+            if (bucketIndex < 0 || bucketIndex >= weeklyPoints.length) {
+                continue;
+            }
+            weeklyPoints[bucketIndex] += weeklyOrderSummary.getTotalPoints();
+            totalAmount = totalAmount.add(weeklyOrderSummary.getTotalAmount());
+            ordersCount += weeklyOrderSummary.getOrderCount();
         }
-        return orders.stream()
-                .collect(Collectors.groupingBy(order -> {
-                    var transLocalDate = getTransactionLocalDate(order.getTransactionDate());
-                    return transLocalDate.minusDays(transLocalDate.getDayOfMonth()-1);
-                }));
+        return buildCustomerRewardsDetails(customerId, RewardsPeriodType.WEEK,
+                buildPeriodPointsList(RewardsPeriodType.WEEK, weeklyPoints, startBucket),
+                ordersCount == 0 ? BigDecimal.ZERO : totalAmount);
     }
 
-    private static LocalDate getTransactionLocalDate(Instant transactionDate) {
-        return Optional.ofNullable(transactionDate)
-                .map(transDate -> LocalDate.ofInstant(transDate, ZoneOffset.UTC))
-                .orElse(null);
+    private static List<PeriodPoints> buildPeriodPointsList(RewardsPeriodType rewardsPeriodType,
+                                                            long[] periodPoints, int startBucket) {
+        var periodPointsList = new ArrayList<PeriodPoints>(periodPoints.length);
+        for (int i = 0; i < periodPoints.length; i++) {
+            var bucket = startBucket + i;
+            periodPointsList.add(new PeriodPoints(periodPoints[i],
+                    PeriodBuckets.getPeriod(rewardsPeriodType, bucket),
+                    PeriodBuckets.getYear(rewardsPeriodType, bucket)));
+        }
+        return periodPointsList;
     }
 
-    private static Map<LocalDate, MonthlyPoints> buildInitialMonthlyPointsMap(LocalDate rewardsPeriodStartDate,
-                                                                 LocalDate rewardsPeriodEndDate) {
-        Objects.requireNonNull(rewardsPeriodStartDate, "Rewards period start date must not be null");
-        Objects.requireNonNull(rewardsPeriodEndDate, "Rewards period end date must not be null");
-
-        var monthlyPointsMap = new LinkedHashMap<LocalDate, MonthlyPoints>();
-        while (rewardsPeriodStartDate.isBefore(rewardsPeriodEndDate)) {
-            monthlyPointsMap.put(rewardsPeriodStartDate, new MonthlyPoints(0,
-                    rewardsPeriodStartDate.getMonthValue(),
-                    rewardsPeriodStartDate.getYear()));
-            rewardsPeriodStartDate = rewardsPeriodStartDate.plusMonths(1);
+    /**
+     * Adds up the amounts of the orders with epoch day in [startEpochDay, endEpochDay) as
+     * BigDecimal, used when an amount has more than 2 decimals. Package-private for the
+     * JMH benchmarks.
+     */
+    static BigDecimal getTotalAmount(List<PurchaseOrder> orders, int startEpochDay, int endEpochDay) {
+        var totalAmount = BigDecimal.ZERO;
+        for (var order: orders) {
+            var epochDay = RewardsPointsEngine.toEpochDay(order.getTransactionDate());
+            if (epochDay >= startEpochDay && epochDay < endEpochDay) {
+                totalAmount = totalAmount.add(order.getTransactionAmount());
+            }
         }
-        return monthlyPointsMap;
+        return totalAmount;
+    }
+
+    private static CustomerRewardsDetails buildCustomerRewardsDetails(Long customerId,
+                                                                      RewardsPeriodType rewardsPeriodType,
+                                                                      List<PeriodPoints> periodPoints,
+                                                                      BigDecimal totalAmount) {
+        var customerRewardsDetails = new CustomerRewardsDetails();
+        customerRewardsDetails.setCustomerId(customerId);
+        customerRewardsDetails.setRewardsDesc("Customer Rewards Points per " +
+                rewardsPeriodType.name().toLowerCase(Locale.ROOT));
+        customerRewardsDetails.setRewardsPeriodType(rewardsPeriodType);
+        customerRewardsDetails.setPeriodPointsList(periodPoints);
+        customerRewardsDetails.setTotalAmount(totalAmount);
+        return customerRewardsDetails;
     }
 }
@@ -0,0 +1,42 @@
+package org.testcompany.customerrewards.util;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Validation of new purchase orders against the PURCHASE_ORDER constraints, shared by
+ * every order write path.
+ */
+public class OrderValidationUtil {
+
+    private static final int TRANSACTION_AMOUNT_PRECISION = 15;
+    private static final int TRANSACTION_AMOUNT_SCALE = 2;
+
+    /**
+     * @return the error message of the first violated constraint, if any
+     */
+    public static Optional<String> findValidationError(Long customerId, BigDecimal transactionAmount,
+                                                       Instant transactionDate) {
+        if (customerId == null) {
+            return Optional.of("Order customer id must not be null");
+        }
+        if (transactionDate == null) {
+            return Optional.of("Order transaction date must not be null");
+        }
+        if (transactionAmount == null) {
+            return Optional.of("Order transaction amount must not be null");
+        }
+        // same constraint as PURCHASE_ORDER.TRANSACTION_AMOUNT so the stored amount, and the
+        // points derived from it, are exactly the ones recorded in the rewards ledger
+        var normalizedAmount = transactionAmount.stripTrailingZeros();
+        if (normalizedAmount.scale() > TRANSACTION_AMOUNT_SCALE
+                || normalizedAmount.precision() - normalizedAmount.scale()
+                > TRANSACTION_AMOUNT_PRECISION - TRANSACTION_AMOUNT_SCALE) {
+            return Optional.of(String.format("Order transaction amount " +
+                    "must have at most %s digits and %s decimals", TRANSACTION_AMOUNT_PRECISION,
+                    TRANSACTION_AMOUNT_SCALE));
+        }
+        return Optional.empty();
+    }
+}
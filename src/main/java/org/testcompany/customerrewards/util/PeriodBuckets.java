@@ -0,0 +1,98 @@
+package org.testcompany.customerrewards.util;
+
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+
+/**
+ * Maps transaction dates to the periods of a rewards period type as integer buckets:
+ * epoch weeks (ISO weeks, starting on Monday), epoch months, epoch quarters or epoch
+ * years, all counted from 1970 (UTC). Orders are added up in a dense array indexed by
+ * bucket - first bucket of the rewards period, without any date object per order.
+ */
+public class PeriodBuckets {
+
+    private static final int DAYS_PER_WEEK = 7;
+    // 1970-01-01 is a Thursday, the Monday of its week is 1969-12-29
+    private static final int EPOCH_WEEK_START_OFFSET = 3;
+    private static final int MONTHS_PER_QUARTER = 3;
+    private static final int MONTHS_PER_YEAR = 12;
+
+    public static boolean isSupported(RewardsPeriodType rewardsPeriodType) {
+        return rewardsPeriodType != null && rewardsPeriodType != RewardsPeriodType.UNKNOWN;
+    }
+
+    /**
+     * Whether the periods are made of whole months, i.e. can be added up from monthly
+     * totals.
+     */
+    public static boolean isMonthAligned(RewardsPeriodType rewardsPeriodType) {
+        return rewardsPeriodType == RewardsPeriodType.MONTH || rewardsPeriodType == RewardsPeriodType.QUARTER
+                || rewardsPeriodType == RewardsPeriodType.YEAR;
+    }
+
+    public static int toBucket(RewardsPeriodType rewardsPeriodType, int epochDay) {
+        if (rewardsPeriodType == RewardsPeriodType.WEEK) {
+            return Math.floorDiv(epochDay + EPOCH_WEEK_START_OFFSET, DAYS_PER_WEEK);
+        }
+        return toBucketOfEpochMonth(rewardsPeriodType, RewardsPointsEngine.toEpochMonth(epochDay));
+    }
+
+    /**
+     * Bucket of an epoch month for a month aligned rewards period type.
+     */
+    public static int toBucketOfEpochMonth(RewardsPeriodType rewardsPeriodType, int epochMonth) {
+        return switch (rewardsPeriodType) {
+            case MONTH -> epochMonth;
+            case QUARTER -> Math.floorDiv(epochMonth, MONTHS_PER_QUARTER);
+            case YEAR -> Math.floorDiv(epochMonth, MONTHS_PER_YEAR);
+            default -> throw new IllegalArgumentException("Rewards period type " + rewardsPeriodType +
+                    " is not month aligned");
+        };
+    }
+
+    public static LocalDate getStartDate(RewardsPeriodType rewardsPeriodType, int bucket) {
+        return switch (rewardsPeriodType) {
+            case WEEK -> LocalDate.ofEpochDay((long) bucket * DAYS_PER_WEEK - EPOCH_WEEK_START_OFFSET);
+            case MONTH -> LocalDate.EPOCH.plusMonths(bucket);
+            case QUARTER -> LocalDate.EPOCH.plusMonths((long) bucket * MONTHS_PER_QUARTER);
+            case YEAR -> LocalDate.EPOCH.plusYears(bucket);
+            default -> throw new IllegalArgumentException("Unsupported rewards period type " + rewardsPeriodType);
+        };
+    }
+
+    /**
+     * Year of a bucket: the week based year for weeks, the calendar year otherwise.
+     */
+    public static int getYear(RewardsPeriodType rewardsPeriodType, int bucket) {
+        if (rewardsPeriodType == RewardsPeriodType.WEEK) {
+            return getStartDate(rewardsPeriodType, bucket).get(IsoFields.WEEK_BASED_YEAR);
+        }
+        return getStartDate(rewardsPeriodType, bucket).getYear();
+    }
+
+    /**
+     * Number of a bucket within its year: ISO week (1-53), month (1-12), quarter (1-4),
+     * or 1 for years.
+     */
+    public static int getPeriod(RewardsPeriodType rewardsPeriodType, int bucket) {
+        return switch (rewardsPeriodType) {
+            case WEEK -> getStartDate(rewardsPeriodType, bucket).get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+            case MONTH -> RewardsPointsEngine.getMonth(bucket);
+            case QUARTER -> Math.floorMod(bucket, MONTHS_PER_YEAR / MONTHS_PER_QUARTER) + 1;
+            case YEAR -> 1;
+            default -> throw new IllegalArgumentException("Unsupported rewards period type " + rewardsPeriodType);
+        };
+    }
+
+    /**
+     * Number of buckets of a period starting on the first day of a bucket.
+     */
+    public static int getBucketCount(RewardsPeriodType rewardsPeriodType, int startEpochDay, int endEpochDay) {
+        if (endEpochDay <= startEpochDay) {
+            return 0;
+        }
+        return toBucket(rewardsPeriodType, endEpochDay - 1) - toBucket(rewardsPeriodType, startEpochDay) + 1;
+    }
+}
@@ -0,0 +1,37 @@
+package org.testcompany.customerrewards.util;
+
+import org.testcompany.customerrewards.domain.CustomerMonthlyPoints;
+import org.testcompany.customerrewards.domain.CustomerMonthlyPointsId;
+import org.testcompany.customerrewards.importer.OrderRecord;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Rewards ledger rows computed in memory for orders written with plain JDBC.
+ */
+public class RewardsLedgerUtil {
+
+    /**
+     * Aggregates orders, whose amounts have at most 2 decimals, per customer and month.
+     */
+    public static List<CustomerMonthlyPoints> toMonthlyPointsList(RewardsRules rules, List<OrderRecord> orders) {
+        var monthlyPointsById = new HashMap<CustomerMonthlyPointsId, CustomerMonthlyPoints>();
+        for (var order : orders) {
+            var transactionDate = LocalDate.ofInstant(order.transactionDate(), ZoneOffset.UTC);
+            var monthlyPoints = monthlyPointsById.computeIfAbsent(new CustomerMonthlyPointsId(
+                            order.customerId(), transactionDate.getYear(), transactionDate.getMonthValue()),
+                    id -> new CustomerMonthlyPoints(id, 0L, BigDecimal.ZERO, 0L));
+            monthlyPoints.setOrderCount(monthlyPoints.getOrderCount() + 1);
+            monthlyPoints.setTotalAmount(monthlyPoints.getTotalAmount().add(order.transactionAmount()));
+            monthlyPoints.setTotalPoints(monthlyPoints.getTotalPoints() + rules.calculatePoints(
+                    Math.toIntExact(transactionDate.toEpochDay()),
+                    RewardsPointsEngine.toCents(order.transactionAmount())));
+        }
+        return new ArrayList<>(monthlyPointsById.values());
+    }
+}
@@ -0,0 +1,100 @@
+package org.testcompany.customerrewards.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+
+/**
+ * Rewards points calculation on primitive values: amounts in cents and transaction
+ * dates in epoch days (UTC). Month buckets are epoch months, i.e. months since
+ * January 1970, so monthly points can be held in a plain int array. Nothing is
+ * allocated per order.
+ */
+public class RewardsPointsEngine {
+
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final int EPOCH_YEAR = 1970;
+    private static final int MONTHS_PER_YEAR = 12;
+
+    /**
+     * Points earned for a single order under RewardsRules.DEFAULT: 2 points per whole
+     * dollar spent over 100 plus 1 point per whole dollar spent between 50 and 100.
+     */
+    public static long calculatePoints(long amountInCents) {
+        return RewardsRules.DEFAULT.calculatePoints(0, amountInCents);
+    }
+
+    /**
+     * Adds the points of every order with epoch day in [startEpochDay, endEpochDay) to
+     * the bucket of its month, bucket 0 being 'startEpochMonth'.
+     *
+     * @return total amount in cents of the orders within the period
+     */
+    public static long calculateMonthlyPoints(RewardsRules rules, int[] epochDays, long[] amountsInCents, int fromIndex,
+                                              int toIndex, int startEpochDay, int endEpochDay,
+                                              int startEpochMonth, long[] monthlyPoints) {
+        long totalAmountInCents = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            var epochDay = epochDays[i];
+            if (epochDay < startEpochDay || epochDay >= endEpochDay) {
+                continue;
+            }
+            monthlyPoints[toEpochMonth(epochDay) - startEpochMonth] += rules.calculatePoints(epochDay, amountsInCents[i]);
+            totalAmountInCents += amountsInCents[i];
+        }
+        return totalAmountInCents;
+    }
+
+    /**
+     * Converts an amount to whole cents, dropping any fraction of a cent.
+     */
+    public static long toCents(BigDecimal amount) {
+        var amountInCents = amount.movePointRight(2);
+        if (amountInCents.scale() > 0) {
+            amountInCents = amountInCents.setScale(0, RoundingMode.FLOOR);
+        }
+        return amountInCents.longValueExact();
+    }
+
+    public static int toEpochDay(Instant instant) {
+        return Math.toIntExact(Math.floorDiv(instant.getEpochSecond(), SECONDS_PER_DAY));
+    }
+
+    /**
+     * Epoch month (UTC) of an epoch day, using the days-to-civil algorithm of the
+     * proleptic Gregorian calendar instead of LocalDate.
+     */
+    public static int toEpochMonth(int epochDay) {
+        var shiftedDay = epochDay + 719_468;
+        var era = Math.floorDiv(shiftedDay, 146_097);
+        var dayOfEra = shiftedDay - era * 146_097;
+        var yearOfEra = (dayOfEra - dayOfEra / 1_460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        var dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        var shiftedMonth = (5 * dayOfYear + 2) / 153;
+        var month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        var year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return toEpochMonth(year, month);
+    }
+
+    public static int toEpochMonth(int year, int month) {
+        return (year - EPOCH_YEAR) * MONTHS_PER_YEAR + month - 1;
+    }
+
+    public static int getYear(int epochMonth) {
+        return Math.floorDiv(epochMonth, MONTHS_PER_YEAR) + EPOCH_YEAR;
+    }
+
+    public static int getMonth(int epochMonth) {
+        return Math.floorMod(epochMonth, MONTHS_PER_YEAR) + 1;
+    }
+
+    /**
+     * Number of month buckets of a period starting on the first day of a month.
+     */
+    public static int getMonthCount(int startEpochDay, int endEpochDay) {
+        if (endEpochDay <= startEpochDay) {
+            return 0;
+        }
+        return toEpochMonth(endEpochDay - 1) - toEpochMonth(startEpochDay) + 1;
+    }
+}
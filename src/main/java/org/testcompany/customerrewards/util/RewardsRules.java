@@ -0,0 +1,191 @@
+package org.testcompany.customerrewards.util;
+
+import org.testcompany.customerrewards.domain.RewardsTier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Rewards tiers compiled for evaluation. Each version becomes a piecewise-linear table
+ * of the points per whole dollar of the amount: a flat array of precomputed points for
+ * the amounts below the highest threshold, then a linear tail. The points of an order
+ * are one array lookup or one multiplication, whatever the number of tiers.
+ * <p>
+ * A version applies to the orders from its effective date (UTC) until the next one;
+ * orders before the first version earn no points. The same segments are stored in
+ * REWARDS_POINTS_SEGMENT for the SQL of the rewards ledger, see getSegments.
+ */
+public final class RewardsRules {
+
+    /**
+     * Highest threshold in dollars, bounding the size of the precomputed tables.
+     */
+    public static final long MAX_THRESHOLD_DOLLARS = 1_000_000L;
+    /**
+     * Highest whole dollar amount of an order, as PURCHASE_ORDER.TRANSACTION_AMOUNT is a
+     * NUMERIC(15, 2).
+     */
+    public static final long MAX_ORDER_DOLLARS = 9_999_999_999_999L;
+    public static final LocalDate END_OF_TIME = LocalDate.of(9999, 12, 31);
+
+    /**
+     * Historical rules: 2 points per whole dollar spent over 100 plus 1 point per whole
+     * dollar spent between 50 and 100.
+     */
+    public static final RewardsRules DEFAULT = compile(List.of(
+            new RewardsTier(LocalDate.EPOCH, new BigDecimal("50.00"), 1),
+            new RewardsTier(LocalDate.EPOCH, new BigDecimal("100.00"), 2)));
+
+    private static final long CENTS_PER_DOLLAR = 100L;
+
+    private final int[] effectiveEpochDays;
+    private final PointsTable[] pointsTables;
+    private final List<Segment> segments;
+
+    private RewardsRules(int[] effectiveEpochDays, PointsTable[] pointsTables, List<Segment> segments) {
+        this.effectiveEpochDays = effectiveEpochDays;
+        this.pointsTables = pointsTables;
+        this.segments = segments;
+    }
+
+    /**
+     * Compiles tiers of one or more versions, i.e. effective dates.
+     *
+     * @throws IllegalArgumentException if there is no tier, or a tier has a threshold
+     *                                  which is negative, not in whole dollars, above
+     *                                  MAX_THRESHOLD_DOLLARS or duplicated in its version,
+     *                                  or negative points per dollar, or if the points of
+     *                                  an amount below the highest threshold do not fit
+     *                                  in an int, or those of MAX_ORDER_DOLLARS in a long
+     */
+    public static RewardsRules compile(List<RewardsTier> rewardsTiers) {
+        if (rewardsTiers.isEmpty()) {
+            throw new IllegalArgumentException("Rewards rules must have at least one tier");
+        }
+        var versions = new TreeMap<LocalDate, List<RewardsTier>>();
+        for (var rewardsTier: rewardsTiers) {
+            validate(rewardsTier);
+            versions.computeIfAbsent(rewardsTier.effectiveFrom(), effectiveFrom -> new ArrayList<>())
+                    .add(rewardsTier);
+        }
+        var effectiveEpochDays = new int[versions.size()];
+        var pointsTables = new PointsTable[versions.size()];
+        var segments = new ArrayList<Segment>();
+        var v = 0;
+        for (var version: versions.entrySet()) {
+            var effectiveTo = Objects.requireNonNullElse(versions.higherKey(version.getKey()), END_OF_TIME);
+            effectiveEpochDays[v] = Math.toIntExact(version.getKey().toEpochDay());
+            pointsTables[v++] = compileVersion(version.getKey(), effectiveTo, version.getValue(), segments);
+        }
+        return new RewardsRules(effectiveEpochDays, pointsTables, List.copyOf(segments));
+    }
+
+    /**
+     * Points earned for an order of the given epoch day (UTC) and amount, computed in
+     * long like the BIGINT of the rewards ledger SQL.
+     */
+    public long calculatePoints(int epochDay, long amountInCents) {
+        var v = Arrays.binarySearch(effectiveEpochDays, epochDay);
+        if (v < 0) {
+            v = -v - 2;
+        }
+        return v < 0 ? 0 : pointsTables[v].calculatePoints(Math.floorDiv(amountInCents, CENTS_PER_DOLLAR));
+    }
+
+    public int getVersions() {
+        return effectiveEpochDays.length;
+    }
+
+    /**
+     * Linear segments of all the versions, sorted by effective date and amount.
+     */
+    public List<Segment> getSegments() {
+        return segments;
+    }
+
+    private static void validate(RewardsTier rewardsTier) {
+        var thresholdAmount = rewardsTier.thresholdAmount();
+        if (thresholdAmount.signum() < 0 || thresholdAmount.stripTrailingZeros().scale() > 0
+                || thresholdAmount.compareTo(BigDecimal.valueOf(MAX_THRESHOLD_DOLLARS)) > 0) {
+            throw new IllegalArgumentException("Threshold of rewards tier " + rewardsTier +
+                    " must be a whole dollar amount between 0 and " + MAX_THRESHOLD_DOLLARS);
+        }
+        if (rewardsTier.pointsPerDollar() < 0) {
+            throw new IllegalArgumentException("Points per dollar of rewards tier " + rewardsTier +
+                    " must not be negative");
+        }
+    }
+
+    private static PointsTable compileVersion(LocalDate effectiveFrom, LocalDate effectiveTo,
+                                              List<RewardsTier> rewardsTiers, List<Segment> segments) {
+        var tiers = rewardsTiers.stream()
+                .sorted(Comparator.comparing(RewardsTier::thresholdAmount))
+                .toList();
+        var thresholds = tiers.stream()
+                .mapToLong(rewardsTier -> rewardsTier.thresholdAmount().longValueExact())
+                .toArray();
+        var pointsByDollar = new int[Math.toIntExact(thresholds[thresholds.length - 1])];
+        var tablePoints = 0L;
+        for (int i = 0; i + 1 < tiers.size(); i++) {
+            tablePoints += tiers.get(i).pointsPerDollar() * (thresholds[i + 1] - thresholds[i]);
+        }
+        if (tablePoints > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Points of rewards tiers " + tiers + " below their highest " +
+                    "threshold must not exceed " + Integer.MAX_VALUE);
+        }
+        long basePoints = 0;
+        for (int i = 0; i < tiers.size(); i++) {
+            if (i > 0 && thresholds[i] == thresholds[i - 1]) {
+                throw new IllegalArgumentException("Rewards tier " + tiers.get(i) + " is duplicated");
+            }
+            var pointsPerDollar = tiers.get(i).pointsPerDollar();
+            var toDollars = i + 1 < tiers.size() ? thresholds[i + 1] : Long.MAX_VALUE;
+            segments.add(new Segment(effectiveFrom, effectiveTo, thresholds[i], toDollars, basePoints,
+                    pointsPerDollar));
+            if (i + 1 < tiers.size()) {
+                for (var dollars = thresholds[i]; dollars < toDollars; dollars++) {
+                    pointsByDollar[(int) dollars] = Math.toIntExact(basePoints
+                            + pointsPerDollar * (dollars - thresholds[i]));
+                }
+                basePoints += pointsPerDollar * (toDollars - thresholds[i]);
+            }
+        }
+        try {
+            Math.addExact(basePoints, Math.multiplyExact(tiers.getLast().pointsPerDollar(),
+                    MAX_ORDER_DOLLARS - thresholds[thresholds.length - 1]));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Points of rewards tiers " + tiers + " for an order of " +
+                    MAX_ORDER_DOLLARS + " dollars must not exceed " + Long.MAX_VALUE, e);
+        }
+        return new PointsTable(pointsByDollar, basePoints, tiers.getLast().pointsPerDollar());
+    }
+
+    /**
+     * Points of the amounts in [fromDollars, toDollars) whole dollars:
+     * basePoints + pointsPerDollar * (dollars - fromDollars).
+     */
+    public record Segment(LocalDate effectiveFrom, LocalDate effectiveTo, long fromDollars, long toDollars,
+                          long basePoints, int pointsPerDollar) {
+    }
+
+    /**
+     * Points of the whole dollar amounts below the highest threshold, which is
+     * pointsByDollar.length, then 'tailPointsPerDollar' points per dollar over it.
+     */
+    private record PointsTable(int[] pointsByDollar, long tailBasePoints, int tailPointsPerDollar) {
+
+        long calculatePoints(long dollars) {
+            if (dollars < pointsByDollar.length) {
+                return dollars < 0 ? 0 : pointsByDollar[(int) dollars];
+            }
+            return Math.addExact(tailBasePoints,
+                    Math.multiplyExact(tailPointsPerDollar, dollars - pointsByDollar.length));
+        }
+    }
+}
@@ -10,3 +10,16 @@ INSERT INTO PURCHASE_ORDER VALUES (5, 1, 150.0, CURRENT_TIMESTAMP-2);
 INSERT INTO PURCHASE_ORDER VALUES (6, 1, 350.0, CURRENT_TIMESTAMP-300);
 INSERT INTO PURCHASE_ORDER VALUES (7, 2, 75.6, CURRENT_TIMESTAMP-56);
 INSERT INTO PURCHASE_ORDER VALUES (8, 3, 120.0, CURRENT_TIMESTAMP-56);
+INSERT INTO REWARDS_TIER VALUES ('1970-01-01', 50.00, 1);
+INSERT INTO REWARDS_TIER VALUES ('1970-01-01', 100.00, 2);
+-- REWARDS_TIER compiled by CompiledRewardsRules at startup, seeded for the ledger rows below
+INSERT INTO REWARDS_POINTS_SEGMENT VALUES ('1970-01-01 00:00:00', '9999-12-31 00:00:00', 50, 100, 0, 1);
+INSERT INTO REWARDS_POINTS_SEGMENT VALUES ('1970-01-01 00:00:00', '9999-12-31 00:00:00', 100,
+    9223372036854775807, 50, 2);
+INSERT INTO CUSTOMER_MONTHLY_POINTS SELECT CUSTOMER_ID, YEAR(TRANSACTION_DATE), MONTH(TRANSACTION_DATE),
+    COUNT(*), SUM(TRANSACTION_AMOUNT), CAST(SUM(COALESCE((SELECT RPS.BASE_POINTS
+    + RPS.POINTS_PER_DOLLAR * (FLOOR(TRANSACTION_AMOUNT) - RPS.FROM_DOLLARS) FROM REWARDS_POINTS_SEGMENT RPS
+    WHERE RPS.EFFECTIVE_FROM <= TRANSACTION_DATE AND TRANSACTION_DATE < RPS.EFFECTIVE_TO
+    AND RPS.FROM_DOLLARS <= FLOOR(TRANSACTION_AMOUNT) AND FLOOR(TRANSACTION_AMOUNT) < RPS.TO_DOLLARS), 0))
+    AS BIGINT)
+    FROM PURCHASE_ORDER GROUP BY CUSTOMER_ID, YEAR(TRANSACTION_DATE), MONTH(TRANSACTION_DATE);
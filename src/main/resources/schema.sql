@@ -5,3 +5,47 @@ CREATE TABLE PURCHASE_ORDER(ID BIGINT PRIMARY KEY,
                    CUSTOMER_ID BIGINT REFERENCES CUSTOMER(ID) NOT NULL,
                    TRANSACTION_AMOUNT NUMERIC(15, 2) NOT NULL,
                    TRANSACTION_DATE TIMESTAMP NOT NULL);
+CREATE INDEX IDX_PURCHASE_ORDER_CUSTOMER_DATE ON PURCHASE_ORDER(CUSTOMER_ID,
+                   TRANSACTION_DATE, TRANSACTION_AMOUNT);
+CREATE TABLE CUSTOMER_MONTHLY_POINTS(CUSTOMER_ID BIGINT REFERENCES CUSTOMER(ID) NOT NULL,
+                   POINTS_YEAR INT NOT NULL,
+                   POINTS_MONTH INT NOT NULL,
+                   ORDER_COUNT BIGINT NOT NULL,
+                   TOTAL_AMOUNT NUMERIC(19, 2) NOT NULL,
+                   TOTAL_POINTS BIGINT NOT NULL,
+                   PRIMARY KEY (CUSTOMER_ID, POINTS_YEAR, POINTS_MONTH));
+CREATE SEQUENCE PURCHASE_ORDER_SEQ START WITH 1000 INCREMENT BY 1000;
+CREATE TABLE ORDER_IMPORT_CHECKPOINT(IMPORT_ID VARCHAR(255) PRIMARY KEY,
+                   BYTE_OFFSET BIGINT NOT NULL,
+                   LINE_NUMBER BIGINT NOT NULL,
+                   IMPORTED_ORDERS BIGINT NOT NULL,
+                   REJECTED_ORDERS BIGINT NOT NULL,
+                   COMPLETED BOOLEAN NOT NULL,
+                   UPDATED_AT TIMESTAMP NOT NULL);
+CREATE TABLE REWARDS_STATEMENT(STATEMENT_ID VARCHAR(255) NOT NULL,
+                   CUSTOMER_ID BIGINT NOT NULL,
+                   PERIOD_START_DATE DATE NOT NULL,
+                   PERIOD_END_DATE DATE NOT NULL,
+                   TOTAL_AMOUNT NUMERIC(19, 2) NOT NULL,
+                   TOTAL_POINTS BIGINT NOT NULL,
+                   PRIMARY KEY (STATEMENT_ID, CUSTOMER_ID));
+CREATE TABLE REWARDS_STATEMENT_PARTITION(STATEMENT_ID VARCHAR(255) NOT NULL,
+                   PARTITION_NUMBER INT NOT NULL,
+                   FIRST_CUSTOMER_ID BIGINT NOT NULL,
+                   LAST_CUSTOMER_ID BIGINT NOT NULL,
+                   NEXT_CUSTOMER_ID BIGINT NOT NULL,
+                   STATEMENTS BIGINT NOT NULL,
+                   COMPLETED BOOLEAN NOT NULL,
+                   UPDATED_AT TIMESTAMP NOT NULL,
+                   PRIMARY KEY (STATEMENT_ID, PARTITION_NUMBER));
+CREATE TABLE REWARDS_TIER(EFFECTIVE_FROM DATE NOT NULL,
+                   THRESHOLD_AMOUNT NUMERIC(15, 2) NOT NULL,
+                   POINTS_PER_DOLLAR INT NOT NULL,
+                   PRIMARY KEY (EFFECTIVE_FROM, THRESHOLD_AMOUNT));
+CREATE TABLE REWARDS_POINTS_SEGMENT(EFFECTIVE_FROM TIMESTAMP NOT NULL,
+                   EFFECTIVE_TO TIMESTAMP NOT NULL,
+                   FROM_DOLLARS BIGINT NOT NULL,
+                   TO_DOLLARS BIGINT NOT NULL,
+                   BASE_POINTS BIGINT NOT NULL,
+                   POINTS_PER_DOLLAR INT NOT NULL,
+                   PRIMARY KEY (EFFECTIVE_FROM, FROM_DOLLARS));
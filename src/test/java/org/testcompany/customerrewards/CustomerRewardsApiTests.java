@@ -3,14 +3,28 @@ package org.testcompany.customerrewards;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.client.RestTestClient;
 import org.springframework.web.util.UriComponentsBuilder;
+import org.testcompany.customerrewards.converter.CustomerRewardsBinaryCodec;
+import org.testcompany.customerrewards.converter.CustomerRewardsBinaryMessageConverter;
 import org.testcompany.customerrewards.domain.RewardsPeriodType;
 import org.testcompany.customerrewards.dto.Error;
+import org.testcompany.customerrewards.dto.GetCustomerRewardsPointsBatchRequest;
+import org.testcompany.customerrewards.dto.GetCustomerRewardsPointsBatchResponse;
 import org.testcompany.customerrewards.dto.GetCustomerRewardsPointsResponse;
+import org.testcompany.customerrewards.dto.GetRewardsLeaderboardResponse;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
 
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -18,9 +32,19 @@ class CustomerRewardsApiTests {
 	@LocalServerPort
 	private int port;
 	private RestTestClient restTestClient;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private ObjectMapper objectMapper;
 
 	private static final String CALCULATE_CUSTOMER_REWARDS_POINTS_URI_PATH =
 			"/customer-rewards/points/";
+	private static final String CALCULATE_CUSTOMER_REWARDS_POINTS_BATCH_URI_PATH =
+			"/customer-rewards/points/batch";
+	private static final String EXPORT_CUSTOMER_REWARDS_POINTS_URI_PATH =
+			"/customer-rewards/points/export";
+	private static final String REWARDS_LEADERBOARD_URI_PATH =
+			"/customer-rewards/points/leaderboard";
 
 	@BeforeEach
 	public void init() {
@@ -89,6 +113,39 @@ class CustomerRewardsApiTests {
 				"Customer rewards monthly points list size is incorrect");
 	}
 
+	@Test
+	public void getPointsForLast2Years() {
+		var responseSpec = getCustomerRewardsPoints(1L,
+				RewardsPeriodType.YEAR.name(), 2);
+		var response = responseSpec
+				.expectStatus().is2xxSuccessful()
+				.expectBody(GetCustomerRewardsPointsResponse.class)
+				.returnResult().getResponseBody();
+		assertCustomerRewardsInfo(1L, response);
+		var currentYear = LocalDate.now(ZoneOffset.UTC).getYear();
+		Assertions.assertEquals(List.of(currentYear - 2, currentYear - 1),
+				response.rewards().periodPointsList().stream()
+						.map(GetCustomerRewardsPointsResponse.CustomerRewards.PeriodPoints::year)
+						.toList(),
+				"Customer rewards yearly points list is incorrect");
+		Assertions.assertEquals(response.rewards().periodPointsList().stream()
+						.mapToLong(GetCustomerRewardsPointsResponse.CustomerRewards.PeriodPoints::points).sum(),
+				response.rewards().totalPoints(), "Total rewards points is incorrect");
+	}
+
+	@Test
+	public void getPointsForLast4QuartersAndWeeks() {
+		for (var rewardsPeriodType: List.of(RewardsPeriodType.QUARTER, RewardsPeriodType.WEEK)) {
+			var response = getCustomerRewardsPoints(1L, rewardsPeriodType.name(), 4)
+					.expectStatus().is2xxSuccessful()
+					.expectBody(GetCustomerRewardsPointsResponse.class)
+					.returnResult().getResponseBody();
+			assertCustomerRewardsInfo(1L, response);
+			Assertions.assertEquals(4, response.rewards().periodPointsList().size(),
+					"Customer rewards period points list size is incorrect");
+		}
+	}
+
 	@Test
 	public void getPointsForCustomerWithoutTransactions() {
 		var responseSpec = getCustomerRewardsPoints(4L,
@@ -136,6 +193,201 @@ class CustomerRewardsApiTests {
 				"Error http status is incorrect");
 	}
 
+	@Test
+	public void getPointsNotModified() {
+		var eTag = getCustomerRewardsPoints(1L, RewardsPeriodType.MONTH.name(), 3)
+				.expectStatus().isOk()
+				.returnResult(GetCustomerRewardsPointsResponse.class)
+				.getResponseHeaders().getETag();
+		Assertions.assertNotNull(eTag, "ETag should not be null");
+		restTestClient.get()
+				.uri(UriComponentsBuilder.fromPath(CALCULATE_CUSTOMER_REWARDS_POINTS_URI_PATH.concat("1"))
+						.queryParam("rewardsPeriodType", RewardsPeriodType.MONTH.name())
+						.queryParam("rewardsPeriod", 3)
+						.build().toUri())
+				.header("If-None-Match", eTag)
+				.exchange()
+				.expectStatus().isNotModified()
+				.expectHeader().valueEquals("ETag", eTag)
+				.expectHeader().valueEquals("Vary", "Accept")
+				.expectBody().isEmpty();
+		var otherPeriodETag = getCustomerRewardsPoints(1L, RewardsPeriodType.MONTH.name(), 6)
+				.expectStatus().isOk()
+				.returnResult(GetCustomerRewardsPointsResponse.class)
+				.getResponseHeaders().getETag();
+		Assertions.assertNotEquals(eTag, otherPeriodETag, "ETag of another rewards period is incorrect");
+	}
+
+	@Test
+	public void getPointsAsBinary() {
+		var jsonResponse = getCustomerRewardsPoints(1L, RewardsPeriodType.MONTH.name(), 24)
+				.expectStatus().isOk()
+				.expectBody(GetCustomerRewardsPointsResponse.class)
+				.returnResult().getResponseBody();
+		var binaryResponse = restTestClient.get()
+				.uri(UriComponentsBuilder.fromPath(CALCULATE_CUSTOMER_REWARDS_POINTS_URI_PATH.concat("1"))
+						.queryParam("rewardsPeriodType", RewardsPeriodType.MONTH.name())
+						.queryParam("rewardsPeriod", 24)
+						.build().toUri())
+				.accept(CustomerRewardsBinaryMessageConverter.CUSTOMER_REWARDS_BINARY, MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentType(CustomerRewardsBinaryMessageConverter.CUSTOMER_REWARDS_BINARY)
+				.expectBody(byte[].class)
+				.returnResult().getResponseBody();
+		Assertions.assertEquals(jsonResponse, CustomerRewardsBinaryCodec.decode(binaryResponse),
+				"Binary response is incorrect");
+		restTestClient.get()
+				.uri(CALCULATE_CUSTOMER_REWARDS_POINTS_URI_PATH.concat("5"))
+				.accept(CustomerRewardsBinaryMessageConverter.CUSTOMER_REWARDS_BINARY, MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON);
+	}
+
+	@Test
+	public void getPointsForMultipleCustomers() {
+		var response = restTestClient.post()
+				.uri(CALCULATE_CUSTOMER_REWARDS_POINTS_BATCH_URI_PATH)
+				.contentType(MediaType.APPLICATION_JSON)
+				.body(new GetCustomerRewardsPointsBatchRequest(List.of(1L, 5L, 4L, 1L),
+						RewardsPeriodType.MONTH, 3))
+				.exchange()
+				.expectStatus().is2xxSuccessful()
+				.expectBody(GetCustomerRewardsPointsBatchResponse.class)
+				.returnResult().getResponseBody();
+		Assertions.assertNotNull(response, "response should not be null");
+		Assertions.assertEquals(3, response.results().size(),
+				"Batch results size is incorrect");
+
+		var customer1Result = response.results().get(0);
+		Assertions.assertEquals(1L, customer1Result.customerId(), "Customer Id does not match");
+		Assertions.assertNull(customer1Result.error(), "Error should be null");
+		assertCustomerRewardsInfo(1L, customer1Result.rewardsPoints());
+		Assertions.assertEquals(520, customer1Result.rewardsPoints().rewards().totalPoints(),
+				"Total rewards points is incorrect");
+
+		var invalidCustomerResult = response.results().get(1);
+		Assertions.assertEquals(5L, invalidCustomerResult.customerId(), "Customer Id does not match");
+		Assertions.assertNull(invalidCustomerResult.rewardsPoints(),
+				"Rewards points should be null for invalid customer");
+		Assertions.assertNotNull(invalidCustomerResult.error(), "Error should not be null");
+		Assertions.assertEquals(HttpStatus.BAD_REQUEST.value(), invalidCustomerResult.error().status(),
+				"Error http status is incorrect");
+
+		var customer4Result = response.results().get(2);
+		assertCustomerRewardsInfo(4L, customer4Result.rewardsPoints());
+		Assertions.assertEquals(0, customer4Result.rewardsPoints().rewards().totalPoints(),
+				"Total rewards points is incorrect");
+	}
+
+	@Test
+	public void getPointsPublishesStageMetrics() {
+		getCustomerRewardsPoints(1L, RewardsPeriodType.MONTH.name(), 2)
+				.expectStatus().is2xxSuccessful();
+		var metrics = restTestClient.get()
+				.uri("/actuator/prometheus")
+				.exchange()
+				.expectStatus().is2xxSuccessful()
+				.expectBody(String.class)
+				.returnResult().getResponseBody();
+		Assertions.assertNotNull(metrics, "metrics should not be null");
+		for (var stage: List.of("customer-lookup", "order-query", "calculation", "conversion", "serialization")) {
+			Assertions.assertTrue(metrics.contains("customer_rewards_stage_seconds_count{period_length=\"2-3\"," +
+					"period_type=\"MONTH\",stage=\"" + stage + "\"}"), "Stage metric is missing for " + stage);
+		}
+		Assertions.assertTrue(metrics.contains("customer_rewards_orders_scanned_orders_count{period_length=\"2-3\"," +
+				"period_type=\"MONTH\"}"), "Orders scanned metric is missing");
+	}
+
+	@Test
+	public void exportPointsOfAllCustomers() {
+		var response = restTestClient.get()
+				.uri(UriComponentsBuilder.fromPath(EXPORT_CUSTOMER_REWARDS_POINTS_URI_PATH)
+						.queryParam("rewardsPeriod", 3)
+						.build().toUri())
+				.exchange()
+				.expectStatus().is2xxSuccessful()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.expectBody(String.class)
+				.returnResult().getResponseBody();
+		Assertions.assertNotNull(response, "response should not be null");
+		var customerRewardsPoints = response.lines()
+				.map(line -> objectMapper.readValue(line, GetCustomerRewardsPointsResponse.class))
+				.toList();
+		Assertions.assertEquals(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM CUSTOMER", Long.class),
+				customerRewardsPoints.size(), "Exported customers count is incorrect");
+
+		var customer1RewardsPoints = customerRewardsPoints.get(0);
+		assertCustomerRewardsInfo(1L, customer1RewardsPoints);
+		Assertions.assertEquals(520, customer1RewardsPoints.rewards().totalPoints(),
+				"Total rewards points is incorrect");
+		Assertions.assertEquals(3, customer1RewardsPoints.rewards().monthlyPointsList().size(),
+				"Customer rewards monthly points list size is incorrect");
+	}
+
+	@Test
+	public void exportPointsWithRewardsTypeNotSupported() {
+		restTestClient.get()
+				.uri(UriComponentsBuilder.fromPath(EXPORT_CUSTOMER_REWARDS_POINTS_URI_PATH)
+						.queryParam("rewardsPeriodType", "DAYS")
+						.build().toUri())
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	@Test
+	public void getLeaderboardMatchesExport() {
+		var export = restTestClient.get()
+				.uri(UriComponentsBuilder.fromPath(EXPORT_CUSTOMER_REWARDS_POINTS_URI_PATH)
+						.queryParam("rewardsPeriod", 6)
+						.build().toUri())
+				.exchange()
+				.expectStatus().is2xxSuccessful()
+				.expectBody(String.class)
+				.returnResult().getResponseBody();
+		Assertions.assertNotNull(export, "export should not be null");
+		var expected = export.lines()
+				.map(line -> objectMapper.readValue(line, GetCustomerRewardsPointsResponse.class))
+				.filter(customerRewardsPoints -> customerRewardsPoints.rewards().totalPoints() > 0)
+				.sorted(Comparator.comparing((GetCustomerRewardsPointsResponse customerRewardsPoints) ->
+								customerRewardsPoints.rewards().totalPoints()).reversed()
+						.thenComparing(GetCustomerRewardsPointsResponse::customerId))
+				.limit(5)
+				.map(customerRewardsPoints -> customerRewardsPoints.customerId() + ":" +
+						customerRewardsPoints.rewards().totalPoints())
+				.toList();
+
+		var response = restTestClient.get()
+				.uri(UriComponentsBuilder.fromPath(REWARDS_LEADERBOARD_URI_PATH)
+						.queryParam("rewardsPeriod", 6)
+						.queryParam("size", 5)
+						.build().toUri())
+				.exchange()
+				.expectStatus().is2xxSuccessful()
+				.expectBody(GetRewardsLeaderboardResponse.class)
+				.returnResult().getResponseBody();
+		Assertions.assertNotNull(response, "response should not be null");
+		Assertions.assertEquals(expected, response.entries().stream()
+						.filter(entry -> entry.totalPoints() > 0)
+						.map(entry -> entry.customerId() + ":" + entry.totalPoints())
+						.toList(),
+				"Leaderboard is incorrect");
+		Assertions.assertEquals(List.of(1, 2, 3, 4, 5).subList(0, response.entries().size()),
+				response.entries().stream().map(GetRewardsLeaderboardResponse.LeaderboardEntry::rank).toList(),
+				"Leaderboard ranks are incorrect");
+	}
+
+	@Test
+	public void getLeaderboardWithRewardsTypeNotSupported() {
+		restTestClient.get()
+				.uri(UriComponentsBuilder.fromPath(REWARDS_LEADERBOARD_URI_PATH)
+						.queryParam("rewardsPeriodType", RewardsPeriodType.WEEK.name())
+						.build().toUri())
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
 	private RestTestClient.ResponseSpec getCustomerRewardsPoints(Long customerId,
 			String rewardsPeriodType,
 			Integer rewardsPeriod) {
@@ -167,7 +419,16 @@ class CustomerRewardsApiTests {
 				"Customer rewards period type should not be null");
 		Assertions.assertNotNull(response.rewards().totalPoints(),
 				"Customer rewards total points should not be null");
-		Assertions.assertNotNull(response.rewards().monthlyPointsList(),
-				"Customer rewards monthly points list should not be null");
+		if (response.rewards().rewardsPeriodType() == RewardsPeriodType.MONTH) {
+			Assertions.assertNotNull(response.rewards().monthlyPointsList(),
+					"Customer rewards monthly points list should not be null");
+			Assertions.assertNull(response.rewards().periodPointsList(),
+					"Customer rewards period points list should be null");
+		} else {
+			Assertions.assertNotNull(response.rewards().periodPointsList(),
+					"Customer rewards period points list should not be null");
+			Assertions.assertNull(response.rewards().monthlyPointsList(),
+					"Customer rewards monthly points list should be null");
+		}
 	}
 }
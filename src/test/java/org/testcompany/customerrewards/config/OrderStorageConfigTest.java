@@ -0,0 +1,80 @@
+package org.testcompany.customerrewards.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcompany.customerrewards.CustomerRewardsProgramApplication;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.repository.OrderLogRepository;
+import org.testcompany.customerrewards.repository.OrderRepository;
+import org.testcompany.customerrewards.repository.OrderStorage;
+import org.testcompany.customerrewards.services.CustomerRewardsService;
+import org.testcompany.customerrewards.services.OrderService;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Each context gets a new H2 in-memory database with the orders of data.sql, so orders
+ * read after a restart can only come from the order log.
+ */
+public class OrderStorageConfigTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void ordersSavedToOrderLogSurviveRestart() {
+        var transactionDate = YearMonth.now(ZoneOffset.UTC).minusMonths(1).atDay(15).atTime(10, 30, 15, 123_456_789)
+                .toInstant(ZoneOffset.UTC);
+        PurchaseOrder savedOrder;
+        try (var context = startContext()) {
+            Assertions.assertInstanceOf(OrderLogRepository.class, context.getBean(OrderStorage.class),
+                    "Order storage is incorrect");
+            savedOrder = context.getBean(OrderService.class).saveOrder(new PurchaseOrder(null,
+                    new Customer(4L, null, null), new BigDecimal("120.00"), transactionDate));
+
+            Assertions.assertEquals(90, calculateTotalPoints(context), "Points of the saved order are incorrect");
+            Assertions.assertEquals(8, context.getBean(OrderRepository.class).count(),
+                    "Orders should not be saved to PURCHASE_ORDER");
+        }
+
+        try (var context = startContext()) {
+            var order = context.getBean(OrderStorage.class).findById(savedOrder.getId()).orElseThrow();
+            Assertions.assertEquals(4L, order.getCustomer().getId(), "Customer id is incorrect");
+            Assertions.assertEquals(new BigDecimal("120.00"), order.getTransactionAmount(),
+                    "Transaction amount is incorrect");
+            Assertions.assertEquals(transactionDate.truncatedTo(ChronoUnit.MICROS), order.getTransactionDate(),
+                    "Transaction date is incorrect");
+            Assertions.assertEquals(90, calculateTotalPoints(context), "Points after the restart are incorrect");
+
+            var nextOrder = context.getBean(OrderService.class).saveOrder(new PurchaseOrder(null,
+                    new Customer(4L, null, null), new BigDecimal("80.00"), transactionDate));
+            Assertions.assertTrue(nextOrder.getId() > savedOrder.getId(),
+                    "Order ids should not be reused after a restart");
+            Assertions.assertEquals(120, calculateTotalPoints(context), "Points of both orders are incorrect");
+        }
+    }
+
+    private ConfigurableApplicationContext startContext() {
+        return new SpringApplicationBuilder(CustomerRewardsProgramApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--customer-rewards.order-log.enabled=true",
+                        "--customer-rewards.order-log.directory=" + directory,
+                        "--customer-rewards.order-log.segment-capacity=1000");
+    }
+
+    private static long calculateTotalPoints(ConfigurableApplicationContext context) {
+        return context.getBean(CustomerRewardsService.class)
+                .calculateCustomerRewardsPoints(4L, RewardsPeriodType.MONTH, 3)
+                .getTotalPoints();
+    }
+}
@@ -0,0 +1,119 @@
+package org.testcompany.customerrewards.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.services.CustomerRewardsService;
+import org.testcompany.customerrewards.services.OrderService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Two H2 in-memory databases stand in for the primary and the replica: the replica only
+ * gets the schema and the rows written to it here, so reads show which one served them.
+ * It lags behind the primary, which holds the orders of data.sql.
+ */
+@SpringBootTest(properties = "customer-rewards.datasource.replica.url=" +
+        "jdbc:h2:mem:customer-rewards-replica-${random.uuid};TIME ZONE=UTC")
+public class ReadReplicaDataSourceConfigTest {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+    @Autowired
+    private CustomerRewardsService customerRewardsService;
+    @Autowired
+    private OrderService orderService;
+
+    private JdbcTemplate primaryJdbcTemplate;
+    private JdbcTemplate replicaJdbcTemplate;
+
+    @BeforeEach
+    public void initReplica() {
+        primaryJdbcTemplate = new JdbcTemplate(primaryDataSource);
+        replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        var tables = replicaJdbcTemplate.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                "WHERE TABLE_NAME = 'CUSTOMER'", Integer.class);
+        if (tables == 0) {
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(replicaDataSource);
+            replicaJdbcTemplate.update("INSERT INTO CUSTOMER VALUES(3, 'Test Name 3', 1000000003)");
+            replicaJdbcTemplate.update("INSERT INTO CUSTOMER VALUES(4, 'Test Name 4', 1000000004)");
+            var lastMonth = YearMonth.now(ZoneOffset.UTC).minusMonths(1);
+            replicaJdbcTemplate.update("INSERT INTO CUSTOMER_MONTHLY_POINTS VALUES(4, ?, ?, 1, 200.00, 250)",
+                    lastMonth.getYear(), lastMonth.getMonthValue());
+        }
+    }
+
+    @Test
+    public void readOnlyCalculationsUseReplica() {
+        var customerRewardsDetails = customerRewardsService.calculateCustomerRewardsPoints(4L,
+                RewardsPeriodType.MONTH, 3);
+        Assertions.assertEquals(250, customerRewardsDetails.getTotalPoints(),
+                "Points only on the replica are incorrect");
+        Assertions.assertEquals("Test Name 4", customerRewardsDetails.getCustomer().getName(),
+                "Customer name is incorrect");
+    }
+
+    @Test
+    public void calculationAfterWriteUsesPrimary() {
+        // the replica has not applied the order of customer 3 in data.sql yet
+        Assertions.assertEquals(0, calculateTotalPoints(3L), "Replica points are incorrect");
+
+        orderService.saveOrder(new PurchaseOrder(null, new Customer(3L, null, null), new BigDecimal("120.00"),
+                LocalDate.now(ZoneOffset.UTC).minusMonths(1).withDayOfMonth(1).atStartOfDay()
+                        .toInstant(ZoneOffset.UTC)));
+
+        // recalculated on the primary, with the order of data.sql and the new order, rather
+        // than cached from the lagging replica without either
+        Assertions.assertEquals(180, calculateTotalPoints(3L), "Points after the write are incorrect");
+        Assertions.assertEquals(180, customerRewardsService.calculateCustomerRewardsPoints(List.of(3L),
+                RewardsPeriodType.MONTH, 3).get(0).getTotalPoints(), "Batch points after the write are incorrect");
+    }
+
+    @Test
+    public void writesUsePrimary() {
+        var order = orderService.saveOrder(new PurchaseOrder(null, new Customer(2L, null, null),
+                new BigDecimal("120.00"), Instant.now()));
+
+        Assertions.assertEquals(1, primaryJdbcTemplate.queryForObject("SELECT COUNT(*) FROM PURCHASE_ORDER " +
+                "WHERE ID = ?", Integer.class, order.getId()), "Primary orders are incorrect");
+        Assertions.assertEquals(0, replicaJdbcTemplate.queryForObject("SELECT COUNT(*) FROM PURCHASE_ORDER",
+                Integer.class), "Replica orders are incorrect");
+    }
+
+    @Test
+    public void poolsAreTunedSeparately() {
+        Assertions.assertEquals(10, primaryDataSource.getMaximumPoolSize(), "Primary pool size is incorrect");
+        Assertions.assertEquals(20, replicaDataSource.getMaximumPoolSize(), "Replica pool size is incorrect");
+        Assertions.assertTrue(replicaDataSource.isReadOnly(), "Replica pool should be read-only");
+        var querySize = "SELECT SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS WHERE SETTING_NAME = " +
+                "'QUERY_CACHE_SIZE'";
+        Assertions.assertEquals("8", primaryJdbcTemplate.queryForObject(querySize, String.class),
+                "Primary statement cache size is incorrect");
+        Assertions.assertEquals("64", replicaJdbcTemplate.queryForObject(querySize, String.class),
+                "Replica statement cache size is incorrect");
+    }
+
+    private long calculateTotalPoints(Long customerId) {
+        return customerRewardsService.calculateCustomerRewardsPoints(customerId, RewardsPeriodType.MONTH, 3)
+                .getTotalPoints();
+    }
+}
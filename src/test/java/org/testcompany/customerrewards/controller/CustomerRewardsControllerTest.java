@@ -1,25 +1,47 @@
 package org.testcompany.customerrewards.controller;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.testcompany.customerrewards.converter.CustomerRewardsBinaryCodec;
+import org.testcompany.customerrewards.converter.CustomerRewardsBinaryMessageConverter;
 import org.testcompany.customerrewards.converter.CustomerRewardsConverter;
 import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.RewardsLeaderboard;
 import org.testcompany.customerrewards.domain.RewardsPeriodType;
 import org.testcompany.customerrewards.dto.GetCustomerRewardsPointsResponse;
+import org.testcompany.customerrewards.dto.GetRewardsLeaderboardResponse;
+import org.testcompany.customerrewards.metrics.RewardsPipelineMetrics;
 import org.testcompany.customerrewards.repository.CustomerRepository;
+import org.testcompany.customerrewards.services.CustomerRewardsExportService;
 import org.testcompany.customerrewards.services.CustomerRewardsService;
+import org.testcompany.customerrewards.services.CustomerRewardsVersionService;
+import org.testcompany.customerrewards.services.RewardsLeaderboardService;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Calendar;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CustomerRewardsController.class)
@@ -30,9 +52,17 @@ public class CustomerRewardsControllerTest {
     @MockitoBean
     private CustomerRewardsService customerRewardsService;
     @MockitoBean
+    private CustomerRewardsVersionService customerRewardsVersionService;
+    @MockitoBean
     private CustomerRewardsConverter customerRewardsConverter;
     @MockitoBean
     private CustomerRepository customerRepository;
+    @MockitoBean
+    private CustomerRewardsExportService customerRewardsExportService;
+    @MockitoBean
+    private RewardsLeaderboardService rewardsLeaderboardService;
+    @MockitoBean
+    private RewardsPipelineMetrics rewardsPipelineMetrics;
 
     @Test
     public void getCustomerRewardsPoints() throws Exception {
@@ -64,6 +94,67 @@ public class CustomerRewardsControllerTest {
                         mockResponse.rewards().totalAmount()));
     }
 
+    @Test
+    public void getCustomerRewardsPointsNotModified() throws Exception {
+        var customerRewardsDetails = Mockito.mock(CustomerRewardsDetails.class);
+        Mockito.when(customerRewardsService.calculateCustomerRewardsPoints(
+                        1L, RewardsPeriodType.MONTH, 1))
+                .thenReturn(customerRewardsDetails);
+        Mockito.when(customerRewardsVersionService.getCustomerRewardsETag(customerRewardsDetails))
+                .thenReturn("0123456789abcdef");
+        Mockito.when(customerRewardsService.getCustomerRewardsETag(1L, RewardsPeriodType.MONTH, 1))
+                .thenReturn("0123456789abcdef");
+        var mockResponse = buildMockResponse();
+        Mockito.when(customerRewardsConverter.convert(any(CustomerRewardsDetails.class)))
+                .thenReturn(mockResponse);
+
+        mockMvc.perform(get("/customer-rewards/points/1")
+                        .queryParam("rewardsPeriod", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"0123456789abcdef\""))
+                .andExpect(header().stringValues("Vary", "Accept"))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+        mockMvc.perform(get("/customer-rewards/points/1")
+                        .queryParam("rewardsPeriod", "1")
+                        .header("If-None-Match", "W/\"0123456789abcdef\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"0123456789abcdef\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(content().string(""));
+        Mockito.verify(customerRewardsService, Mockito.times(1)).calculateCustomerRewardsPoints(
+                1L, RewardsPeriodType.MONTH, 1);
+        Mockito.verify(customerRewardsConverter, Mockito.times(1)).convert(customerRewardsDetails);
+    }
+
+    @Test
+    public void getCustomerRewardsPointsAsBinary() throws Exception {
+        Mockito.when(customerRewardsService.calculateCustomerRewardsPoints(
+                        1L, RewardsPeriodType.MONTH, 1))
+                .thenReturn(Mockito.mock(CustomerRewardsDetails.class));
+        var mockResponse = buildMockResponse();
+        Mockito.when(customerRewardsConverter.convert(any(CustomerRewardsDetails.class)))
+                .thenReturn(mockResponse);
+
+        var body = mockMvc.perform(get("/customer-rewards/points/1")
+                        .queryParam("rewardsPeriod", "1")
+                        .accept(CustomerRewardsBinaryMessageConverter.CUSTOMER_REWARDS_BINARY))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CustomerRewardsBinaryMessageConverter.CUSTOMER_REWARDS_BINARY))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        var response = CustomerRewardsBinaryCodec.decode(body);
+        Assertions.assertEquals(mockResponse.customerId(), response.customerId(), "Customer id is incorrect");
+        Assertions.assertEquals(mockResponse.personalInfo().customerName(), response.personalInfo().customerName(),
+                "Customer name is incorrect");
+        Assertions.assertEquals(mockResponse.rewards().monthlyPointsList().get(0).points(),
+                response.rewards().monthlyPointsList().get(0).points(),
+                "Customer rewards monthly points is incorrect");
+        Assertions.assertEquals(mockResponse.rewards().totalPoints(), response.rewards().totalPoints(),
+                "Total rewards points is incorrect");
+    }
+
     @Test
     public void getCustomerRewardsPointsWithInvalidCustomerId() throws Exception {
         mockMvc.perform(get("/customer-rewards/points/null")
@@ -100,6 +191,109 @@ public class CustomerRewardsControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void getCustomerRewardsPointsBatch() throws Exception {
+        var customerRewardsDetails = new CustomerRewardsDetails();
+        customerRewardsDetails.setCustomerId(1L);
+        Mockito.when(customerRewardsService.calculateCustomerRewardsPoints(
+                        anyCollection(), eq(RewardsPeriodType.MONTH), eq(3)))
+                .thenReturn(List.of(customerRewardsDetails));
+        var mockResponse = buildMockResponse();
+        Mockito.when(customerRewardsConverter.convert(any(CustomerRewardsDetails.class)))
+                .thenReturn(mockResponse);
+
+        mockMvc.perform(post("/customer-rewards/points/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerIds\": [1, 2]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].customerId").value(1))
+                .andExpect(jsonPath("$.results[0].rewardsPoints.rewards.totalPoints").value(
+                        mockResponse.rewards().totalPoints()))
+                .andExpect(jsonPath("$.results[1].customerId").value(2))
+                .andExpect(jsonPath("$.results[1].error.status").value(400));
+    }
+
+    @Test
+    public void getCustomerRewardsPointsBatchWithoutCustomerIds() throws Exception {
+        mockMvc.perform(post("/customer-rewards/points/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerIds\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getCustomerRewardsPointsBatchExceedingMaxCustomers() throws Exception {
+        var customerIds = LongStream.rangeClosed(1, 501)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(","));
+        mockMvc.perform(post("/customer-rewards/points/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerIds\": [" + customerIds + "]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void exportCustomerRewardsPoints() throws Exception {
+        var streamClosed = new AtomicBoolean();
+        Mockito.when(customerRewardsExportService.streamCustomerRewardsPoints(RewardsPeriodType.MONTH, 3))
+                .thenReturn(Stream.of(new CustomerRewardsDetails(), new CustomerRewardsDetails())
+                        .onClose(() -> streamClosed.set(true)));
+        var mockResponse = buildMockResponse();
+        Mockito.when(customerRewardsConverter.convert(any(CustomerRewardsDetails.class)))
+                .thenReturn(mockResponse);
+
+        var mvcResult = mockMvc.perform(get("/customer-rewards/points/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        var response = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        var lines = response.lines().toList();
+        Assertions.assertEquals(2, lines.size(), "Exported lines count is incorrect");
+        Assertions.assertTrue(lines.get(0).startsWith("{\"customerId\":1,"), "Exported line is incorrect");
+        Assertions.assertTrue(streamClosed.get(), "Customer rewards stream should be closed");
+    }
+
+    @Test
+    public void exportCustomerRewardsPointsWithInvalidRewardsPeriod() throws Exception {
+        mockMvc.perform(get("/customer-rewards/points/export")
+                        .queryParam("rewardsPeriod", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getRewardsLeaderboard() throws Exception {
+        var leaderboard = Mockito.mock(RewardsLeaderboard.class);
+        Mockito.when(rewardsLeaderboardService.getLeaderboard(RewardsPeriodType.MONTH, 12, 2))
+                .thenReturn(leaderboard);
+        Mockito.when(customerRewardsConverter.convert(leaderboard))
+                .thenReturn(new GetRewardsLeaderboardResponse(RewardsPeriodType.MONTH, LocalDate.of(2025, 1, 1),
+                        LocalDate.of(2025, 12, 31), List.of(
+                        new GetRewardsLeaderboardResponse.LeaderboardEntry(1, 7L, "test", 900L,
+                                new BigDecimal("520.00")),
+                        new GetRewardsLeaderboardResponse.LeaderboardEntry(2, 3L, "test", 450L,
+                                new BigDecimal("300.00")))));
+
+        mockMvc.perform(get("/customer-rewards/points/leaderboard")
+                        .queryParam("rewardsPeriod", "12")
+                        .queryParam("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries.length()").value(2))
+                .andExpect(jsonPath("$.entries[0].rank").value(1))
+                .andExpect(jsonPath("$.entries[0].customerId").value(7))
+                .andExpect(jsonPath("$.entries[1].totalPoints").value(450));
+    }
+
+    @Test
+    public void getRewardsLeaderboardWithInvalidSize() throws Exception {
+        mockMvc.perform(get("/customer-rewards/points/leaderboard")
+                        .queryParam("size", "1001"))
+                .andExpect(status().isBadRequest());
+    }
+
     private GetCustomerRewardsPointsResponse buildMockResponse() {
         var customerRewardsPointsResponse = Mockito.mock(
                 GetCustomerRewardsPointsResponse.class);
@@ -117,13 +311,13 @@ public class CustomerRewardsControllerTest {
         Mockito.when(customerRewards.description()).thenReturn("test");
         Mockito.when(customerRewards.rewardsPeriodType())
                 .thenReturn(RewardsPeriodType.MONTH);
-        Mockito.when(customerRewards.totalPoints()).thenReturn(50);
+        Mockito.when(customerRewards.totalPoints()).thenReturn(50L);
         Mockito.when(customerRewards.totalAmount()).thenReturn(
                 BigDecimal.valueOf(100));
         var currentDate = Calendar.getInstance();
         var monthlyPoints = Mockito.mock(
                 GetCustomerRewardsPointsResponse.CustomerRewards.MonthlyPoints.class);
-        Mockito.when(monthlyPoints.points()).thenReturn(50);
+        Mockito.when(monthlyPoints.points()).thenReturn(50L);
         Mockito.when(monthlyPoints.month()).thenReturn(currentDate.get(Calendar.MONTH) - 1);
         Mockito.when(monthlyPoints.year()).thenReturn(currentDate.get(Calendar.YEAR));
         Mockito.when(customerRewards.monthlyPointsList()).thenReturn(
@@ -0,0 +1,108 @@
+package org.testcompany.customerrewards.controller;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcompany.customerrewards.converter.OrderConverter;
+import org.testcompany.customerrewards.domain.OrderImportFormat;
+import org.testcompany.customerrewards.domain.OrderImportResult;
+import org.testcompany.customerrewards.domain.OrderIngestionResult;
+import org.testcompany.customerrewards.metrics.RewardsPipelineMetrics;
+import org.testcompany.customerrewards.services.OrderImportService;
+import org.testcompany.customerrewards.services.OrderService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(OrderController.class)
+@Import(OrderConverter.class)
+public class OrderControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockitoBean
+    private OrderService orderService;
+    @MockitoBean
+    private OrderImportService orderImportService;
+    @MockitoBean
+    private RewardsPipelineMetrics rewardsPipelineMetrics;
+
+    @Test
+    public void saveOrders() throws Exception {
+        var orderIngestionResult = new OrderIngestionResult(1, List.of(
+                new OrderIngestionResult.RejectedOrder(1, "Order transaction date must not be null")));
+        Mockito.when(orderService.saveOrders(anyList())).thenReturn(orderIngestionResult);
+
+        mockMvc.perform(post("/customer-rewards/orders/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orders\": [" +
+                                "{\"customerId\": 1, \"transactionAmount\": 120.00, " +
+                                "\"transactionDate\": \"2026-01-15T10:00:00Z\"}," +
+                                "{\"customerId\": 1, \"transactionAmount\": 75.60}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.acceptedOrders").value(1))
+                .andExpect(jsonPath("$.rejectedOrders.length()").value(1))
+                .andExpect(jsonPath("$.rejectedOrders[0].index").value(1))
+                .andExpect(jsonPath("$.rejectedOrders[0].error.status").value(400));
+    }
+
+    @Test
+    public void importOrders() throws Exception {
+        Mockito.when(orderImportService.importOrders(eq("orders-2026-01"), eq(OrderImportFormat.CSV), any()))
+                .thenReturn(new OrderImportResult("orders-2026-01", 2, 1, List.of(
+                        new OrderImportResult.RejectedRow(3, "Customer with id: 5 not found"))));
+
+        mockMvc.perform(post("/customer-rewards/orders/import")
+                        .queryParam("importId", "orders-2026-01")
+                        .queryParam("format", "CSV")
+                        .contentType("text/csv")
+                        .content("customerId,transactionAmount,transactionDate\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedOrders").value(2))
+                .andExpect(jsonPath("$.rejectedOrders").value(1))
+                .andExpect(jsonPath("$.rejectedRows[0].lineNumber").value(3))
+                .andExpect(jsonPath("$.rejectedRows[0].error.status").value(400));
+    }
+
+    @Test
+    public void importOrdersWithInvalidFormat() throws Exception {
+        mockMvc.perform(post("/customer-rewards/orders/import")
+                        .queryParam("importId", "orders-2026-01")
+                        .queryParam("format", "XML")
+                        .contentType("text/csv")
+                        .content("customerId,transactionAmount,transactionDate\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void saveOrdersWithoutOrders() throws Exception {
+        mockMvc.perform(post("/customer-rewards/orders/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orders\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void saveOrdersExceedingMaxOrders() throws Exception {
+        var orders = IntStream.rangeClosed(1, 10_001)
+                .mapToObj(i -> "{\"customerId\": 1}")
+                .collect(Collectors.joining(","));
+        mockMvc.perform(post("/customer-rewards/orders/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"orders\": [" + orders + "]}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,86 @@
+package org.testcompany.customerrewards.converter;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.dto.GetCustomerRewardsPointsResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class CustomerRewardsBinaryCodecTest {
+
+    @Test
+    public void roundTripsMonthlyPoints() {
+        var response = buildMonthlyResponse(240);
+
+        var bytes = CustomerRewardsBinaryCodec.encode(response);
+
+        Assertions.assertEquals(response, CustomerRewardsBinaryCodec.decode(bytes), "Decoded response is incorrect");
+        var jsonBytes = JsonMapper.builder().build().writeValueAsBytes(response);
+        Assertions.assertTrue(bytes.length * 5 < jsonBytes.length,
+                "Binary size " + bytes.length + " should be less than a fifth of the JSON size " + jsonBytes.length);
+    }
+
+    @Test
+    public void roundTripsPeriodPointsAndNulls() {
+        var weeklyResponse = new GetCustomerRewardsPointsResponse(-7L,
+                new GetCustomerRewardsPointsResponse.CustomerPersonalInfo("Zoë Ünïcode", null),
+                new GetCustomerRewardsPointsResponse.CustomerRewards("Customer Rewards Points per week",
+                        RewardsPeriodType.WEEK, null, List.of(
+                        new GetCustomerRewardsPointsResponse.CustomerRewards.PeriodPoints(25, 52, 2025),
+                        new GetCustomerRewardsPointsResponse.CustomerRewards.PeriodPoints(0, 1, 2026),
+                        new GetCustomerRewardsPointsResponse.CustomerRewards.PeriodPoints(-40, 2, 2026)),
+                        -15L, new BigDecimal("-12345678901234567890.125")));
+        var emptyResponse = new GetCustomerRewardsPointsResponse(null, null, null);
+        var emptyRewardsResponse = new GetCustomerRewardsPointsResponse(1L,
+                new GetCustomerRewardsPointsResponse.CustomerPersonalInfo("", ""),
+                new GetCustomerRewardsPointsResponse.CustomerRewards(null, null, List.of(), null, null, null));
+
+        for (var response: List.of(weeklyResponse, emptyResponse, emptyRewardsResponse)) {
+            Assertions.assertEquals(response, CustomerRewardsBinaryCodec.decode(
+                    CustomerRewardsBinaryCodec.encode(response)), "Decoded response is incorrect");
+        }
+    }
+
+    @Test
+    public void rejectsInvalidEncodings() {
+        var bytes = CustomerRewardsBinaryCodec.encode(buildMonthlyResponse(12));
+
+        for (var length: List.of(0, 1, bytes.length / 2, bytes.length - 1)) {
+            var truncatedBytes = Arrays.copyOf(bytes, length);
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> CustomerRewardsBinaryCodec.decode(truncatedBytes),
+                    "Truncated encoding of " + length + " bytes should be rejected");
+        }
+        var trailingBytes = Arrays.copyOf(bytes, bytes.length + 1);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CustomerRewardsBinaryCodec.decode(trailingBytes), "Trailing bytes should be rejected");
+        var otherVersionBytes = bytes.clone();
+        otherVersionBytes[0] = CustomerRewardsBinaryCodec.VERSION + 1;
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> CustomerRewardsBinaryCodec.decode(otherVersionBytes), "Other version should be rejected");
+    }
+
+    static GetCustomerRewardsPointsResponse buildMonthlyResponse(int months) {
+        var random = new SplittableRandom(42);
+        var monthlyPointsList = new ArrayList<GetCustomerRewardsPointsResponse.CustomerRewards.MonthlyPoints>();
+        var totalPoints = 0L;
+        for (int i = 0; i < months; i++) {
+            var epochMonth = 2026 * 12 - months + i;
+            var points = random.nextInt(10) == 0 ? 0 : random.nextInt(1, 2_000);
+            monthlyPointsList.add(new GetCustomerRewardsPointsResponse.CustomerRewards.MonthlyPoints(points,
+                    epochMonth % 12 + 1, epochMonth / 12));
+            totalPoints += points;
+        }
+        return new GetCustomerRewardsPointsResponse(10_000_042L,
+                new GetCustomerRewardsPointsResponse.CustomerPersonalInfo("Test Name 10000042", "100-004-2000"),
+                new GetCustomerRewardsPointsResponse.CustomerRewards("Customer Rewards Points per month",
+                        RewardsPeriodType.MONTH, List.copyOf(monthlyPointsList), null, totalPoints,
+                        new BigDecimal("123456.78")));
+    }
+}
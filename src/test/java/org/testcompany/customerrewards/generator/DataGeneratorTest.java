@@ -0,0 +1,90 @@
+package org.testcompany.customerrewards.generator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+
+@SpringBootTest
+public class DataGeneratorTest {
+
+    private static final YearMonth END_MONTH = YearMonth.of(2026, 1);
+
+    @Autowired
+    private DataGenerator dataGenerator;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void sameSeedGeneratesSameData() {
+        var first = dataGenerator.generate(settings(500_000L, 7L));
+        var second = dataGenerator.generate(settings(600_000L, 7L));
+        var other = dataGenerator.generate(settings(700_000L, 8L));
+
+        Assertions.assertEquals(first.orders(), second.orders(), "Orders count is incorrect");
+        Assertions.assertEquals(findOrders(first), findOrders(second), "Orders are incorrect");
+        Assertions.assertNotEquals(findOrders(first), findOrders(other), "Orders should differ");
+    }
+
+    @Test
+    public void generatedDataMatchesSettings() {
+        var generatedData = dataGenerator.generate(settings(800_000L, 42L));
+        var orders = findOrders(generatedData);
+
+        Assertions.assertEquals(generatedData.orders(), orders.size(), "Orders count is incorrect");
+        Assertions.assertEquals(300, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM CUSTOMER WHERE ID BETWEEN ? AND ?", Integer.class,
+                generatedData.firstCustomerId(), generatedData.firstCustomerId() + 299), "Customers count is incorrect");
+        var maxCustomerOrders = jdbcTemplate.queryForObject("SELECT MAX(C) FROM (SELECT COUNT(*) C " +
+                "FROM PURCHASE_ORDER WHERE CUSTOMER_ID BETWEEN ? AND ? GROUP BY CUSTOMER_ID)", Integer.class,
+                generatedData.firstCustomerId(), generatedData.firstCustomerId() + 299);
+        Assertions.assertTrue(maxCustomerOrders >= 200, "Whale customer orders count is incorrect");
+
+        var thresholdOrders = orders.stream()
+                .filter(order -> isNearThreshold(order.amount(), 50) || isNearThreshold(order.amount(), 100))
+                .count();
+        Assertions.assertTrue(thresholdOrders >= orders.size() * 0.4, "Threshold amounts count is incorrect");
+        Assertions.assertTrue(orders.stream().allMatch(order ->
+                        !order.date().before(Timestamp.valueOf("2006-01-01 00:00:00"))
+                                && order.date().before(Timestamp.valueOf("2026-01-01 00:00:00"))),
+                "Transaction dates are incorrect");
+        Assertions.assertTrue(orders.stream().anyMatch(order ->
+                        order.date().before(Timestamp.valueOf("2007-01-01 00:00:00"))),
+                "Transaction dates should span all months");
+
+        var ledgerTotals = jdbcTemplate.queryForList("SELECT SUM(ORDER_COUNT), SUM(TOTAL_AMOUNT) " +
+                "FROM CUSTOMER_MONTHLY_POINTS WHERE CUSTOMER_ID BETWEEN ? AND ?",
+                generatedData.firstCustomerId(), generatedData.firstCustomerId() + 299).get(0).values();
+        var orderTotals = jdbcTemplate.queryForList("SELECT COUNT(*), SUM(TRANSACTION_AMOUNT) " +
+                "FROM PURCHASE_ORDER WHERE CUSTOMER_ID BETWEEN ? AND ?",
+                generatedData.firstCustomerId(), generatedData.firstCustomerId() + 299).get(0).values();
+        Assertions.assertEquals(List.copyOf(orderTotals).toString(), List.copyOf(ledgerTotals).toString(),
+                "Ledger totals are incorrect");
+    }
+
+    private DataGeneratorSettings settings(long firstCustomerId, long seed) {
+        return new DataGeneratorSettings(seed, 300, firstCustomerId, 5, 0.02, 200, 1.5,
+                2_000, 0.5, 240, END_MONTH, 500);
+    }
+
+    private boolean isNearThreshold(BigDecimal amount, int threshold) {
+        return amount.subtract(BigDecimal.valueOf(threshold)).abs().compareTo(BigDecimal.TEN) <= 0;
+    }
+
+    private List<GeneratedOrder> findOrders(DataGenerator.GeneratedData generatedData) {
+        return jdbcTemplate.query("SELECT CUSTOMER_ID, TRANSACTION_AMOUNT, TRANSACTION_DATE " +
+                        "FROM PURCHASE_ORDER WHERE CUSTOMER_ID BETWEEN ? AND ? ORDER BY ID",
+                (resultSet, rowNumber) -> new GeneratedOrder(
+                        resultSet.getLong(1) - generatedData.firstCustomerId(),
+                        resultSet.getBigDecimal(2), resultSet.getTimestamp(3)),
+                generatedData.firstCustomerId(), generatedData.firstCustomerId() + generatedData.customers() - 1);
+    }
+
+    private record GeneratedOrder(long customerIndex, BigDecimal amount, Timestamp date) {}
+}
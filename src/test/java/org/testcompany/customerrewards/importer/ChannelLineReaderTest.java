@@ -0,0 +1,67 @@
+package org.testcompany.customerrewards.importer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChannelLineReaderTest {
+
+    private static final String INPUT = "id,customerId\r\n1,é\n\n2,3";
+
+    @Test
+    public void readLinesAndPositions() throws IOException {
+        var lineReader = new ChannelLineReader(toChannel(INPUT));
+        var lines = new ArrayList<String>();
+        var positions = new ArrayList<Long>();
+        String line;
+        while ((line = lineReader.readLine()) != null) {
+            lines.add(line);
+            positions.add(lineReader.position());
+        }
+
+        Assertions.assertEquals(List.of("id,customerId", "1,é", "", "2,3"), lines, "Lines are incorrect");
+        Assertions.assertEquals(List.of(15L, 20L, 21L, 24L), positions, "Positions are incorrect");
+    }
+
+    @Test
+    public void skipToOffsetOfStream() throws IOException {
+        var lineReader = new ChannelLineReader(toChannel("header\n" + "x".repeat(200_000) + "\nlast"));
+        lineReader.readLine();
+        lineReader.skipTo(7 + 200_001);
+
+        Assertions.assertEquals("last", lineReader.readLine(), "Line after offset is incorrect");
+        Assertions.assertNull(lineReader.readLine(), "Input should be fully read");
+    }
+
+    @Test
+    public void skipToOffsetOfFile() throws IOException {
+        var file = Files.createTempFile("orders", ".csv");
+        try {
+            Files.writeString(file, "header\n" + "x".repeat(200_000) + "\nlast");
+            try (SeekableByteChannel channel = Files.newByteChannel(file, StandardOpenOption.READ)) {
+                var lineReader = new ChannelLineReader(channel);
+                lineReader.readLine();
+                lineReader.skipTo(7 + 200_001);
+
+                Assertions.assertEquals("last", lineReader.readLine(), "Line after offset is incorrect");
+                Assertions.assertEquals(200_012L, lineReader.position(), "Position is incorrect");
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private ReadableByteChannel toChannel(String input) {
+        return Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,217 @@
+package org.testcompany.customerrewards.orderlog;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+public class OrderLogTest {
+
+    private static final Instant START_DATE = Instant.parse("2025-01-01T00:00:00Z");
+    private static final int CUSTOMERS = 7;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void appendCorrectAndDeleteAcrossSegments() throws IOException {
+        var expected = new TreeMap<Long, String>();
+        try (var orderLog = OrderLog.open(directory, 8, 3)) {
+            writeOrders(orderLog, expected, 600);
+            assertOrders(orderLog, expected);
+            Assertions.assertTrue(orderLog.getSegments() <= 5, "Segments count is incorrect");
+        }
+        try (var orderLog = OrderLog.open(directory, 8, 3)) {
+            assertOrders(orderLog, expected);
+            orderLog.compact();
+            Assertions.assertEquals(2, orderLog.getSegments(), "Segments count is incorrect");
+            assertOrders(orderLog, expected);
+            writeOrders(orderLog, expected, 50);
+            assertOrders(orderLog, expected);
+        }
+        try (var orderLog = OrderLog.open(directory, 8, 3)) {
+            assertOrders(orderLog, expected);
+        }
+    }
+
+    @Test
+    public void scanCustomerWindow() throws IOException {
+        try (var orderLog = OrderLog.open(directory, 4, 10)) {
+            for (int i = 0; i < 10; i++) {
+                orderLog.append(i, 1L, START_DATE.plus(i, ChronoUnit.DAYS), 100L * i);
+                orderLog.append(100 + i, 2L, START_DATE.plus(i, ChronoUnit.DAYS), 100L * i);
+            }
+            var orderIds = new ArrayList<Long>();
+            orderLog.scan(1L, START_DATE.plus(3, ChronoUnit.DAYS), START_DATE.plus(7, ChronoUnit.DAYS),
+                    (orderId, customerId, transactionMicros, amountInCents) -> orderIds.add(orderId));
+
+            Assertions.assertEquals(List.of(3L, 4L, 5L, 6L), orderIds.stream().sorted().toList(),
+                    "Orders of the window are incorrect");
+        }
+    }
+
+    @Test
+    public void recoverTornWrite() throws IOException {
+        var expected = new TreeMap<Long, String>();
+        try (var orderLog = OrderLog.open(directory, 100, 3)) {
+            for (long orderId = 1; orderId <= 10; orderId++) {
+                append(orderLog, expected, orderId, orderId % CUSTOMERS, START_DATE.plus(orderId, ChronoUnit.HOURS),
+                        orderId * 1_000);
+            }
+        }
+        // the last record is torn, the one after it reached the disk before the crash
+        try (var channel = FileChannel.open(directory.resolve("segment-0000000000000000.log"),
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            var record = ByteBuffer.allocate(OrderLogSegment.RECORD_SIZE);
+            channel.read(record, 2L * OrderLogSegment.RECORD_SIZE);
+            channel.write(record.flip(), 10L * OrderLogSegment.RECORD_SIZE);
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), 9L * OrderLogSegment.RECORD_SIZE + 20);
+        }
+        expected.remove(10L);
+
+        try (var orderLog = OrderLog.open(directory, 100, 3)) {
+            assertOrders(orderLog, expected);
+            Assertions.assertEquals(9L, orderLog.getMaxOrderId(), "Max order id is incorrect");
+            append(orderLog, expected, 11L, 1L, START_DATE, 5_000);
+            append(orderLog, expected, 3L, 2L, START_DATE, 6_000);
+        }
+        try (var orderLog = OrderLog.open(directory, 100, 3)) {
+            assertOrders(orderLog, expected);
+            Assertions.assertEquals(11L, orderLog.getMaxOrderId(), "Max order id is incorrect");
+        }
+    }
+
+    @Test
+    public void keepMaxOrderIdOfDroppedOrders() throws IOException {
+        var expected = new TreeMap<Long, String>();
+        try (var orderLog = OrderLog.open(directory, 4, 1)) {
+            for (long orderId = 1; orderId <= 6; orderId++) {
+                append(orderLog, expected, orderId, orderId % CUSTOMERS, START_DATE, orderId * 1_000);
+            }
+            orderLog.delete(6L);
+            expected.remove(6L);
+            // corrections roll the deleted order and its tombstone into compacted segments
+            for (long orderId = 1; orderId <= 5; orderId++) {
+                append(orderLog, expected, orderId, orderId % CUSTOMERS, START_DATE, orderId * 2_000);
+            }
+            orderLog.compact();
+            assertOrders(orderLog, expected);
+            Assertions.assertEquals(6L, orderLog.getMaxOrderId(), "Max order id is incorrect");
+        }
+        try (var orderLog = OrderLog.open(directory, 4, 1)) {
+            assertOrders(orderLog, expected);
+            Assertions.assertEquals(6L, orderLog.getMaxOrderId(), "Max order id after a restart is incorrect");
+        }
+    }
+
+    @Test
+    public void completeInterruptedCompaction() throws IOException {
+        var expected = new TreeMap<Long, String>();
+        try (var orderLog = OrderLog.open(directory, 8, 100)) {
+            writeOrders(orderLog, expected, 200);
+        }
+        var crashedDirectory = Files.createDirectory(directory.resolve("crashed"));
+        copySegments(directory, crashedDirectory);
+        try (var orderLog = OrderLog.open(directory, 8, 100)) {
+            orderLog.compact();
+        }
+        // crash after writing the compacted segment, before deleting its inputs
+        var segmentIds = new ArrayList<Long>();
+        try (var files = Files.list(directory)) {
+            files.map(path -> OrderLogSegment.parseLogFileId(path.getFileName().toString()))
+                    .filter(id -> id >= 0)
+                    .sorted()
+                    .forEach(segmentIds::add);
+        }
+        var compactedId = segmentIds.getFirst();
+        Files.copy(OrderLogSegment.logPath(directory, compactedId),
+                OrderLogSegment.compactLogPath(crashedDirectory, compactedId));
+        Files.copy(OrderLogSegment.indexPath(directory, compactedId),
+                OrderLogSegment.compactIndexPath(crashedDirectory, compactedId));
+        // and an incomplete compaction, left without a valid index
+        Files.write(OrderLogSegment.compactLogPath(crashedDirectory, compactedId + 100), new byte[80]);
+        Files.write(OrderLogSegment.compactIndexPath(crashedDirectory, compactedId + 100), new byte[20]);
+
+        try (var orderLog = OrderLog.open(crashedDirectory, 8, 100)) {
+            Assertions.assertEquals(2, orderLog.getSegments(), "Segments count is incorrect");
+            assertOrders(orderLog, expected);
+        }
+        try (var files = Files.list(crashedDirectory)) {
+            Assertions.assertEquals(4, files.count(), "Files count is incorrect");
+        }
+    }
+
+    private static void writeOrders(OrderLog orderLog, TreeMap<Long, String> expected, int writes)
+            throws IOException {
+        var random = new SplittableRandom(expected.size() + writes);
+        var nextOrderId = expected.isEmpty() ? 1L : expected.lastKey() + 1;
+        for (int i = 0; i < writes; i++) {
+            var operation = random.nextInt(100);
+            if (operation < 15 && !expected.isEmpty()) {
+                var orderId = randomOrderId(expected, random);
+                Assertions.assertTrue(orderLog.delete(orderId), "Order should be deleted");
+                expected.remove(orderId);
+            } else {
+                var orderId = operation < 40 && !expected.isEmpty() ? randomOrderId(expected, random) : nextOrderId++;
+                append(orderLog, expected, orderId, random.nextInt(CUSTOMERS),
+                        START_DATE.plus(random.nextInt(400 * 24), ChronoUnit.HOURS), random.nextLong(100_000));
+            }
+        }
+        Assertions.assertFalse(orderLog.delete(nextOrderId), "Missing order should not be deleted");
+    }
+
+    private static long randomOrderId(TreeMap<Long, String> expected, SplittableRandom random) {
+        var orderIds = new ArrayList<>(expected.keySet());
+        return orderIds.get(random.nextInt(orderIds.size()));
+    }
+
+    private static void append(OrderLog orderLog, TreeMap<Long, String> expected, long orderId, long customerId,
+                               Instant transactionDate, long amountInCents) throws IOException {
+        orderLog.append(orderId, customerId, transactionDate, amountInCents);
+        orderLog.force();
+        expected.put(orderId, toString(orderId, customerId, OrderLog.toMicros(transactionDate), amountInCents));
+    }
+
+    private static void assertOrders(OrderLog orderLog, TreeMap<Long, String> expected) {
+        Assertions.assertEquals(expected.size(), orderLog.getOrders(), "Orders count is incorrect");
+        var actual = new TreeMap<Long, String>();
+        for (long customerId = 0; customerId < CUSTOMERS; customerId++) {
+            orderLog.scan(customerId, (orderId, orderCustomerId, transactionMicros, amountInCents) ->
+                    Assertions.assertNull(actual.put(orderId,
+                            toString(orderId, orderCustomerId, transactionMicros, amountInCents)),
+                            "Order " + orderId + " is duplicated"));
+        }
+        Assertions.assertEquals(expected, actual, "Orders are incorrect");
+        for (var order: expected.entrySet()) {
+            var found = new ArrayList<String>();
+            Assertions.assertTrue(orderLog.find(order.getKey(), (orderId, customerId, transactionMicros,
+                    amountInCents) -> found.add(toString(orderId, customerId, transactionMicros, amountInCents))),
+                    "Order " + order.getKey() + " should be found");
+            Assertions.assertEquals(List.of(order.getValue()), found, "Found order is incorrect");
+        }
+    }
+
+    private static void copySegments(Path source, Path target) throws IOException {
+        try (var files = Files.list(source)) {
+            for (var path: files.filter(Files::isRegularFile).toList()) {
+                Files.copy(path, target.resolve(path.getFileName()));
+            }
+        }
+    }
+
+    private static String toString(long orderId, long customerId, long transactionMicros, long amountInCents) {
+        return orderId + "," + customerId + "," + transactionMicros + "," + amountInCents;
+    }
+}
@@ -0,0 +1,40 @@
+package org.testcompany.customerrewards.perf;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.testcompany.customerrewards.generator.DataGenerator;
+import org.testcompany.customerrewards.generator.DataGeneratorSettings;
+
+import java.time.YearMonth;
+
+/**
+ * Measures synthetic data generation throughput against the embedded H2 database.
+ * Run with: mvn test -Pperf -Dtest=DataGeneratorBenchmark
+ */
+@SpringBootTest
+public class DataGeneratorBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(DataGeneratorBenchmark.class);
+
+    @Autowired
+    private DataGenerator dataGenerator;
+
+    @Test
+    public void generateData() {
+        // warm up
+        generate(1_000_000L, 1_000);
+        var startNanos = System.nanoTime();
+        var generatedData = generate(2_000_000L, 50_000);
+        var elapsedNanos = System.nanoTime() - startNanos;
+        logger.info("Generated {} customers and {} orders in {} ms: {} orders/s", generatedData.customers(),
+                generatedData.orders(), elapsedNanos / 1_000_000,
+                Math.round(generatedData.orders() * 1e9 / elapsedNanos));
+    }
+
+    private DataGenerator.GeneratedData generate(long firstCustomerId, int customers) {
+        return dataGenerator.generate(new DataGeneratorSettings(42L, customers, firstCustomerId, 20, 0.001,
+                1_000, 1.5, 1_000_000, 0.3, 240, YearMonth.of(2026, 1), 10_000));
+    }
+}
@@ -0,0 +1,106 @@
+package org.testcompany.customerrewards.perf;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.OrderImportFormat;
+import org.testcompany.customerrewards.repository.CustomerRepository;
+import org.testcompany.customerrewards.services.OrderImportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+/**
+ * Measures CSV order import throughput against the embedded H2 database. The CSV input
+ * is generated while it is read, so the heap holds no more than one import batch.
+ * Run with: mvn test -Pperf -Dtest=OrderImportBenchmark
+ */
+@SpringBootTest
+public class OrderImportBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(OrderImportBenchmark.class);
+    private static final long FIRST_CUSTOMER_ID = 1_000L;
+    private static final int CUSTOMERS = 1_000;
+
+    @Autowired
+    private OrderImportService orderImportService;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    public void importOrders() throws IOException {
+        customerRepository.saveAll(LongStream.range(FIRST_CUSTOMER_ID, FIRST_CUSTOMER_ID + CUSTOMERS)
+                .mapToObj(id -> new Customer(id, "Test Name " + id, "100-000-" + id))
+                .toList());
+        // warm up
+        importOrders("warm-up", 20_000);
+        for (var orders : List.of(1_000, 100_000, 1_000_000)) {
+            var startNanos = System.nanoTime();
+            var orderImportResult = importOrders("import-" + orders, orders);
+            var elapsedNanos = System.nanoTime() - startNanos;
+            Assertions.assertEquals((long) orders, orderImportResult, "Imported orders count is incorrect");
+            logger.info("Imported {} orders in {} ms: {} orders/s", orders, elapsedNanos / 1_000_000,
+                    Math.round(orders * 1e9 / elapsedNanos));
+        }
+    }
+
+    private long importOrders(String importId, int orders) throws IOException {
+        return orderImportService.importOrders(importId, OrderImportFormat.CSV,
+                Channels.newChannel(new GeneratedCsvInputStream(orders))).importedOrders();
+    }
+
+    /**
+     * CSV orders generated line by line.
+     */
+    private static class GeneratedCsvInputStream extends InputStream {
+        private final Random random = new Random(42L);
+        private final Instant now = Instant.now();
+        private final int orders;
+        private int generatedOrders;
+        private byte[] line = "customerId,transactionAmount,transactionDate\n".getBytes(StandardCharsets.UTF_8);
+        private int linePosition;
+
+        private GeneratedCsvInputStream(int orders) {
+            this.orders = orders;
+        }
+
+        @Override
+        public int read() {
+            if (linePosition == line.length) {
+                if (generatedOrders == orders) {
+                    return -1;
+                }
+                generatedOrders++;
+                line = ((FIRST_CUSTOMER_ID + random.nextInt(CUSTOMERS)) + "," + random.nextInt(500) + "."
+                        + random.nextInt(10) + random.nextInt(10) + ","
+                        + now.minus(random.nextInt(365 * 24), ChronoUnit.HOURS) + "\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                linePosition = 0;
+            }
+            return line[linePosition++] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            var read = 0;
+            while (read < length) {
+                var b = read();
+                if (b < 0) {
+                    return read == 0 ? -1 : read;
+                }
+                buffer[offset + read++] = (byte) b;
+            }
+            return read;
+        }
+    }
+}
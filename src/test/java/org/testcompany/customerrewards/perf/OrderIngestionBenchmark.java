@@ -0,0 +1,81 @@
+package org.testcompany.customerrewards.perf;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.repository.CustomerRepository;
+import org.testcompany.customerrewards.services.OrderService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+/**
+ * Measures bulk order ingestion throughput against the embedded H2 database. Orders
+ * are submitted to OrderService in requests of 'customer-rewards.orders.bulk.max-orders'
+ * orders, as the bulk endpoint would; JSON parsing is not measured.
+ * Run with: mvn test -Pperf -Dtest=OrderIngestionBenchmark
+ */
+@SpringBootTest
+public class OrderIngestionBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(OrderIngestionBenchmark.class);
+    private static final long FIRST_CUSTOMER_ID = 1_000L;
+    private static final int CUSTOMERS = 1_000;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Value("${customer-rewards.orders.bulk.max-orders}")
+    private int ordersPerRequest;
+
+    @Test
+    public void saveOrders() {
+        customerRepository.saveAll(LongStream.range(FIRST_CUSTOMER_ID, FIRST_CUSTOMER_ID + CUSTOMERS)
+                .mapToObj(id -> new Customer(id, "Test Name " + id, "100-000-" + id))
+                .toList());
+        var random = new Random(42L);
+        // warm up
+        ingest(random, 20_000);
+        for (var orders : List.of(1_000, 100_000, 1_000_000)) {
+            var elapsedNanos = ingest(random, orders);
+            logger.info("Ingested {} orders in {} ms: {} orders/s", orders, elapsedNanos / 1_000_000,
+                    Math.round(orders * 1e9 / elapsedNanos));
+        }
+    }
+
+    private long ingest(Random random, int orders) {
+        var elapsedNanos = 0L;
+        for (int saved = 0; saved < orders; saved += ordersPerRequest) {
+            var request = buildOrders(random, Math.min(ordersPerRequest, orders - saved));
+            var startNanos = System.nanoTime();
+            var orderIngestionResult = orderService.saveOrders(request);
+            elapsedNanos += System.nanoTime() - startNanos;
+            Assertions.assertEquals(request.size(), orderIngestionResult.acceptedOrders(),
+                    "Accepted orders count is incorrect");
+        }
+        return elapsedNanos;
+    }
+
+    private List<PurchaseOrder> buildOrders(Random random, int count) {
+        var now = Instant.now();
+        var orders = new ArrayList<PurchaseOrder>(count);
+        for (int i = 0; i < count; i++) {
+            orders.add(new PurchaseOrder(null,
+                    new Customer(FIRST_CUSTOMER_ID + random.nextInt(CUSTOMERS), null, null),
+                    BigDecimal.valueOf(random.nextInt(50_000), 2),
+                    now.minus(random.nextInt(365 * 24), ChronoUnit.HOURS)));
+        }
+        return orders;
+    }
+}
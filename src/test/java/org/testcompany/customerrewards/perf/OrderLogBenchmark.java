@@ -0,0 +1,106 @@
+package org.testcompany.customerrewards.perf;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.repository.OrderLogRepository;
+import org.testcompany.customerrewards.util.RewardsRules;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * Writes 'log.customers' customers (default 100000) with 20 orders each to the order log
+ * in batches of 10000 orders, each forced to storage, then logs the time to reopen
+ * (recover) the log, the single-threaded rate of 12 month order summaries of random
+ * customers, then corrects 10% of the orders one save at a time and logs the time to
+ * compact the log.
+ * Run with: mvn test -Pperf -Dtest=OrderLogBenchmark
+ */
+public class OrderLogBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(OrderLogBenchmark.class);
+    private static final int ORDERS_PER_CUSTOMER = 20;
+    private static final int BATCH_SIZE = 10_000;
+    private static final RewardsPeriod REWARDS_PERIOD = RewardsPeriod.ofMonths(LocalDate.of(2026, 1, 15), 12);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void writeAndReadOrders() throws IOException {
+        var customers = Integer.getInteger("log.customers", 100_000);
+        var orders = customers * ORDERS_PER_CUSTOMER;
+        var random = new SplittableRandom(42);
+        var firstDate = REWARDS_PERIOD.startInstant().minus(180, ChronoUnit.DAYS);
+
+        try (var orderLogRepository = openRepository()) {
+            var startNanos = System.nanoTime();
+            var batch = new ArrayList<PurchaseOrder>(BATCH_SIZE);
+            for (long orderId = 0; orderId < orders; orderId++) {
+                batch.add(new PurchaseOrder(orderId, new Customer(orderId % customers, null, null),
+                        BigDecimal.valueOf(random.nextLong(100, 30_000), 2),
+                        firstDate.plus(random.nextLong(540 * 24 * 60), ChronoUnit.MINUTES)));
+                if (batch.size() == BATCH_SIZE) {
+                    orderLogRepository.insertAll(batch);
+                    batch.clear();
+                }
+            }
+            orderLogRepository.insertAll(batch);
+            var elapsedNanos = System.nanoTime() - startNanos;
+            logger.info("Wrote {} orders in {} ms: {} orders/s", orders, elapsedNanos / 1_000_000,
+                    Math.round(orders * 1e9 / elapsedNanos));
+        }
+
+        var startNanos = System.nanoTime();
+        try (var orderLogRepository = openRepository()) {
+            logger.info("Reopened the log with {} orders in {} ms", orderLogRepository.getOrders(),
+                    (System.nanoTime() - startNanos) / 1_000_000);
+            for (var round = 0; round < 2; round++) {
+                readSummaries(orderLogRepository, customers);
+            }
+
+            startNanos = System.nanoTime();
+            for (long orderId = 0; orderId < orders; orderId += 10) {
+                orderLogRepository.save(new PurchaseOrder(orderId, new Customer(orderId % customers, null, null),
+                        new BigDecimal("99.99"), firstDate));
+            }
+            var elapsedNanos = System.nanoTime() - startNanos;
+            logger.info("Corrected {} orders one by one in {} ms: {} orders/s", orders / 10,
+                    elapsedNanos / 1_000_000, Math.round(orders / 10 * 1e9 / elapsedNanos));
+        }
+        try (var orderLogRepository = openRepository()) {
+            startNanos = System.nanoTime();
+            orderLogRepository.compact();
+            logger.info("Compacted the log with {} orders in {} ms", orderLogRepository.getOrders(),
+                    (System.nanoTime() - startNanos) / 1_000_000);
+            readSummaries(orderLogRepository, customers);
+        }
+    }
+
+    private OrderLogRepository openRepository() {
+        return new OrderLogRepository(directory.toString(), 1_000_000, 8, () -> RewardsRules.DEFAULT);
+    }
+
+    private void readSummaries(OrderLogRepository orderLogRepository, int customers) {
+        var random = new SplittableRandom(1);
+        var reads = 200_000;
+        var summaries = 0L;
+        var startNanos = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            summaries += orderLogRepository.getMonthlyOrderSummaries((long) random.nextInt(customers),
+                    REWARDS_PERIOD.startInstant(), REWARDS_PERIOD.endInstant()).size();
+        }
+        var elapsedNanos = System.nanoTime() - startNanos;
+        logger.info("{} reads ({} summaries) in {} ms: {} reads/s", reads, summaries, elapsedNanos / 1_000_000,
+                Math.round(reads * 1e9 / elapsedNanos));
+    }
+}
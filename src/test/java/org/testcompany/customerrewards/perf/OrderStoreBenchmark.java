@@ -0,0 +1,84 @@
+package org.testcompany.customerrewards.perf;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.generator.DataGenerator;
+import org.testcompany.customerrewards.generator.DataGeneratorSettings;
+import org.testcompany.customerrewards.repository.OrderJdbcRepository;
+import org.testcompany.customerrewards.services.CompiledRewardsRules;
+import org.testcompany.customerrewards.services.InMemoryOrderStore;
+import org.testcompany.customerrewards.services.OrderSource;
+import org.testcompany.customerrewards.services.RewardsLedgerService;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.SplittableRandom;
+
+/**
+ * Loads the in-memory order store for 'store.customers' generated customers (default
+ * 100000, about 20 orders each) and logs its load time and memory footprint, then the
+ * single-threaded rate of 12 month order summaries of random customers read from the
+ * rewards ledger and from the store.
+ * Run with: mvn test -Pperf -Dtest=OrderStoreBenchmark
+ */
+@SpringBootTest
+public class OrderStoreBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(OrderStoreBenchmark.class);
+    private static final long FIRST_CUSTOMER_ID = 10_000L;
+    private static final RewardsPeriod REWARDS_PERIOD = RewardsPeriod.ofMonths(LocalDate.of(2026, 1, 15), 12);
+
+    @Autowired
+    private DataGenerator dataGenerator;
+    @Autowired
+    private OrderJdbcRepository orderJdbcRepository;
+    @Autowired
+    private RewardsLedgerService rewardsLedgerService;
+    @Autowired
+    private CompiledRewardsRules compiledRewardsRules;
+
+    @Test
+    public void readOrderSummaries() {
+        var customers = Integer.getInteger("store.customers", 100_000);
+        dataGenerator.generate(new DataGeneratorSettings(42L, customers, FIRST_CUSTOMER_ID, 20, 0.001,
+                1_000, 1.5, 1_000_000, 0.3, 240, YearMonth.of(2026, 1), 10_000));
+
+        var memoryBean = ManagementFactory.getMemoryMXBean();
+        memoryBean.gc();
+        var heapBefore = memoryBean.getHeapMemoryUsage().getUsed();
+        var inMemoryOrderStore = new InMemoryOrderStore(orderJdbcRepository, compiledRewardsRules, true, 100_000);
+        var startNanos = System.nanoTime();
+        inMemoryOrderStore.load();
+        var loadMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        memoryBean.gc();
+        var heapAfter = memoryBean.getHeapMemoryUsage().getUsed();
+        var orders = inMemoryOrderStore.getOrders();
+        logger.info("Loaded {} orders in {} ms: {} bytes off-heap ({} bytes per order), heap used after GC " +
+                        "{} MB before the load and {} MB after it", orders, loadMillis,
+                inMemoryOrderStore.getOffHeapBytes(), inMemoryOrderStore.getOffHeapBytes() / orders,
+                heapBefore >> 20, heapAfter >> 20);
+
+        for (var round = 0; round < 2; round++) {
+            run("ledger", rewardsLedgerService, customers);
+            run("store", inMemoryOrderStore, customers);
+        }
+    }
+
+    private void run(String name, OrderSource orderSource, int customers) {
+        var random = new SplittableRandom(1);
+        var reads = 50_000;
+        var summaries = 0L;
+        var startNanos = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            summaries += orderSource.getMonthlyOrderSummaries(FIRST_CUSTOMER_ID + random.nextInt(customers),
+                    REWARDS_PERIOD).size();
+        }
+        var elapsedNanos = System.nanoTime() - startNanos;
+        logger.info("{}: {} reads ({} summaries) in {} ms: {} reads/s", name, reads, summaries,
+                elapsedNanos / 1_000_000, Math.round(reads * 1e9 / elapsedNanos));
+    }
+}
@@ -0,0 +1,78 @@
+package org.testcompany.customerrewards.perf;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.testcompany.customerrewards.generator.DataGenerator;
+import org.testcompany.customerrewards.generator.DataGeneratorSettings;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.YearMonth;
+
+/**
+ * Streams GET /customer-rewards/points/export for 'export.customers' seeded customers
+ * (default 100000) and logs the records/s and the heap used after a full GC, sampled
+ * every 'export.sample-interval' records (default 10000). The sampled heap should not
+ * grow with the number of exported customers.
+ * Run with: mvn test -Pperf -Dtest=RewardsExportBenchmark -Dexport.customers=200000
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class RewardsExportBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(RewardsExportBenchmark.class);
+    private static final long FIRST_CUSTOMER_ID = 10_000L;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private DataGenerator dataGenerator;
+
+    @Test
+    public void exportRewardsPoints() throws Exception {
+        var customers = Integer.getInteger("export.customers", 100_000);
+        var sampleInterval = Integer.getInteger("export.sample-interval", 10_000);
+        dataGenerator.generate(new DataGeneratorSettings(42L, customers, FIRST_CUSTOMER_ID, 10, 0.001,
+                1_000, 1.5, 100_000, 0.3, 240, YearMonth.now(), 10_000));
+        var httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port +
+                        "/customer-rewards/points/export?rewardsPeriod=12"))
+                .GET()
+                .build();
+
+        var memoryBean = ManagementFactory.getMemoryMXBean();
+        memoryBean.gc();
+        var baselineHeap = memoryBean.getHeapMemoryUsage().getUsed();
+        var maxSampledHeap = baselineHeap;
+        var records = 0L;
+        var startNanos = System.nanoTime();
+        var response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (var reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            while (reader.readLine() != null) {
+                if (++records % sampleInterval == 0) {
+                    memoryBean.gc();
+                    var usedHeap = memoryBean.getHeapMemoryUsage().getUsed();
+                    maxSampledHeap = Math.max(maxSampledHeap, usedHeap);
+                    logger.info("{} records exported, heap used after GC {} MB", records, usedHeap >> 20);
+                }
+            }
+        }
+        var elapsedNanos = System.nanoTime() - startNanos;
+        logger.info("{} records in {} ms: {} records/s, heap used after GC {} MB before the export, " +
+                        "at most {} MB during it", records, elapsedNanos / 1_000_000,
+                Math.round(records * 1e9 / elapsedNanos), baselineHeap >> 20, maxSampledHeap >> 20);
+        Assertions.assertEquals(200, response.statusCode(), "Export http status is incorrect");
+        Assertions.assertTrue(records >= customers, "Exported records count is incorrect");
+    }
+}
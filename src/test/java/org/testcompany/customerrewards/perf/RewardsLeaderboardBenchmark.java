@@ -0,0 +1,86 @@
+package org.testcompany.customerrewards.perf;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.testcompany.customerrewards.domain.RewardsLeaderboard;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.generator.DataGenerator;
+import org.testcompany.customerrewards.generator.DataGeneratorSettings;
+import org.testcompany.customerrewards.repository.CustomerJdbcRepository;
+import org.testcompany.customerrewards.services.CustomerCache;
+import org.testcompany.customerrewards.services.RewardsLeaderboardServiceImpl;
+import org.testcompany.customerrewards.services.RewardsLedgerService;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Generates 'leaderboard.customers' customers (default 1000000) with 3 orders each on
+ * average over 24 months, then logs the time to calculate the top 100 customers of the
+ * last 12 months for 'leaderboard.threads' workers (comma separated, default 1 and the
+ * processor count), and the time of a cached leaderboard.
+ * Run with: mvn test -Pperf -Dtest=RewardsLeaderboardBenchmark -Dperf.jvm-args=-Xmx3g
+ */
+@SpringBootTest
+public class RewardsLeaderboardBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(RewardsLeaderboardBenchmark.class);
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-01-15T00:00:00Z"), ZoneOffset.UTC);
+
+    @Autowired
+    private DataGenerator dataGenerator;
+    @Autowired
+    private CustomerJdbcRepository customerJdbcRepository;
+    @Autowired
+    private RewardsLedgerService rewardsLedgerService;
+    @Autowired
+    private CustomerCache customerCache;
+
+    @Test
+    public void calculateLeaderboard() {
+        var customers = Integer.getInteger("leaderboard.customers", 1_000_000);
+        var startNanos = System.nanoTime();
+        dataGenerator.generate(new DataGeneratorSettings(42L, customers, 10_000_000L, 3, 0.001,
+                100, 1.5, 10_000, 0.3, 24, YearMonth.of(2026, 1), 10_000));
+        logger.info("Generated {} customers in {} ms", customers, (System.nanoTime() - startNanos) / 1_000_000);
+        var threadCounts = Arrays.stream(System.getProperty("leaderboard.threads",
+                        "1," + Runtime.getRuntime().availableProcessors()).split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        // warm up
+        newService(threadCounts[threadCounts.length - 1]).getLeaderboard(RewardsPeriodType.MONTH, 12, 100);
+        for (var threads: threadCounts) {
+            var service = newService(threads);
+            startNanos = System.nanoTime();
+            var leaderboard = service.getLeaderboard(RewardsPeriodType.MONTH, 12, 100);
+            var elapsedNanos = System.nanoTime() - startNanos;
+            logger.info("{} threads: top {} of {} customers in {} ms, first {}", threads,
+                    leaderboard.entries().size(), customers, elapsedNanos / 1_000_000, first(leaderboard));
+
+            startNanos = System.nanoTime();
+            var reads = 1_000;
+            for (int i = 0; i < reads; i++) {
+                service.getLeaderboard(RewardsPeriodType.MONTH, 12, 100);
+            }
+            elapsedNanos = System.nanoTime() - startNanos;
+            logger.info("{} cached leaderboards in {} ms: {} leaderboards/s", reads, elapsedNanos / 1_000_000,
+                    Math.round(reads * 1e9 / elapsedNanos));
+        }
+    }
+
+    private RewardsLeaderboardServiceImpl newService(int threads) {
+        return new RewardsLeaderboardServiceImpl(customerJdbcRepository, rewardsLedgerService,
+                customerCache, CLOCK, 16, threads, 1_000, 100, Duration.ofMinutes(5));
+    }
+
+    private static String first(RewardsLeaderboard leaderboard) {
+        return leaderboard.entries().isEmpty() ? "none" : leaderboard.entries().get(0).customerId() + ":" +
+                leaderboard.entries().get(0).totalPoints();
+    }
+}
@@ -0,0 +1,248 @@
+package org.testcompany.customerrewards.perf;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.testcompany.customerrewards.generator.DataGenerator;
+import org.testcompany.customerrewards.generator.DataGeneratorSettings;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+/**
+ * End-to-end load test of GET /customer-rewards/points/{customerId}. Boots the
+ * application on a random localhost port against the embedded H2 database, seeds
+ * customers and orders with DataGenerator, then drives the endpoint from 'concurrency' closed-loop clients
+ * for 'duration' after a warm up. Throughput and latency percentiles are written as JSON
+ * to 'loadtest.output'.
+ * <p>
+ * Settings are system properties, e.g.:
+ * mvn test -Pperf -Dtest=RewardsPointsLoadBenchmark -Dloadtest.concurrency=32
+ * -Dloadtest.distribution=ZIPFIAN -Dloadtest.duration=PT60S
+ * <ul>
+ *     <li>loadtest.concurrency: number of clients (16)</li>
+ *     <li>loadtest.duration / loadtest.warmup: ISO-8601 durations (PT30S / PT20S)</li>
+ *     <li>loadtest.distribution: UNIFORM or ZIPFIAN customer ids (UNIFORM)</li>
+ *     <li>loadtest.zipf-exponent: exponent of the Zipfian distribution (1.0)</li>
+ *     <li>loadtest.customers / loadtest.orders-per-customer: seeded customers and their mean
+ *     orders, with a few whale customers (10000 / 10)</li>
+ *     <li>loadtest.rewards-period: 'rewardsPeriod' request parameter (3)</li>
+ *     <li>loadtest.output: report file (target/loadtest/rewards-points.json)</li>
+ * </ul>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class RewardsPointsLoadBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(RewardsPointsLoadBenchmark.class);
+    private static final long FIRST_CUSTOMER_ID = 10_000L;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private DataGenerator dataGenerator;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void getRewardsPoints() throws Exception {
+        var settings = LoadTestSettings.fromSystemProperties();
+        seed(settings);
+        var httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+        logger.info("Warming up for {}", settings.warmup());
+        runLoad(httpClient, settings, settings.warmup());
+        logger.info("Running {} clients for {}", settings.concurrency(), settings.duration());
+        var loadResult = runLoad(httpClient, settings, settings.duration());
+
+        var report = LoadTestReport.of(settings, loadResult);
+        Files.createDirectories(settings.output().toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(settings.output().toFile(), report);
+        logger.info("{} requests, {} errors, {} requests/s, latency p50 {} ms, p99 {} ms, p999 {} ms. " +
+                        "Report written to {}", report.requests(), report.errors(), report.throughputPerSecond(),
+                report.latencyMillis().p50(), report.latencyMillis().p99(), report.latencyMillis().p999(),
+                settings.output());
+        Assertions.assertEquals(0, report.errors(), "Errors count is incorrect");
+    }
+
+    private void seed(LoadTestSettings settings) {
+        dataGenerator.generate(new DataGeneratorSettings(42L, settings.customers(), FIRST_CUSTOMER_ID,
+                settings.ordersPerCustomer(), 0.001, 1_000, 1.5, 100_000, 0.3, 240, YearMonth.now(), 10_000));
+    }
+
+    private LoadResult runLoad(HttpClient httpClient, LoadTestSettings settings, Duration duration)
+            throws InterruptedException, ExecutionException {
+        var customerIdSampler = settings.distribution() == Distribution.ZIPFIAN
+                ? CustomerIdSampler.zipfian(settings.customers(), settings.zipfExponent())
+                : CustomerIdSampler.uniform(settings.customers());
+        var executor = Executors.newFixedThreadPool(settings.concurrency());
+        try {
+            var startNanos = System.nanoTime();
+            var endNanos = startNanos + duration.toNanos();
+            var clients = new ArrayList<Callable<ClientResult>>();
+            for (int i = 0; i < settings.concurrency(); i++) {
+                var random = new SplittableRandom(i);
+                clients.add(() -> runClient(httpClient, settings, customerIdSampler, random, endNanos));
+            }
+            var clientResults = new ArrayList<ClientResult>();
+            for (var future: executor.invokeAll(clients)) {
+                clientResults.add(future.get());
+            }
+            return LoadResult.of(clientResults, System.nanoTime() - startNanos);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ClientResult runClient(HttpClient httpClient, LoadTestSettings settings,
+                                   CustomerIdSampler customerIdSampler, SplittableRandom random, long endNanos) {
+        var latencies = new long[1024];
+        var requests = 0;
+        var errors = 0;
+        while (System.nanoTime() < endNanos) {
+            var customerId = FIRST_CUSTOMER_ID + customerIdSampler.next(random);
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port +
+                            "/customer-rewards/points/" + customerId + "?rewardsPeriod=" + settings.rewardsPeriod()))
+                    .GET()
+                    .build();
+            var startNanos = System.nanoTime();
+            try {
+                var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors++;
+                }
+            } catch (IOException e) {
+                errors++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (requests == latencies.length) {
+                latencies = Arrays.copyOf(latencies, requests * 2);
+            }
+            latencies[requests++] = System.nanoTime() - startNanos;
+        }
+        return new ClientResult(Arrays.copyOf(latencies, requests), errors);
+    }
+
+    private enum Distribution {
+        UNIFORM, ZIPFIAN
+    }
+
+    private record LoadTestSettings(int concurrency, Duration duration, Duration warmup,
+                                    Distribution distribution, double zipfExponent, int customers,
+                                    int ordersPerCustomer, int rewardsPeriod, Path output) {
+
+        static LoadTestSettings fromSystemProperties() {
+            return new LoadTestSettings(
+                    Integer.getInteger("loadtest.concurrency", 16),
+                    Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+                    Duration.parse(System.getProperty("loadtest.warmup", "PT20S")),
+                    Distribution.valueOf(System.getProperty("loadtest.distribution", "UNIFORM")),
+                    Double.parseDouble(System.getProperty("loadtest.zipf-exponent", "1.0")),
+                    Integer.getInteger("loadtest.customers", 10_000),
+                    Integer.getInteger("loadtest.orders-per-customer", 10),
+                    Integer.getInteger("loadtest.rewards-period", 3),
+                    Path.of(System.getProperty("loadtest.output", "target/loadtest/rewards-points.json")));
+        }
+    }
+
+    /**
+     * Samples customer indexes in [0, customers): uniformly, or with the probability of
+     * index k proportional to 1 / (k + 1)^exponent.
+     */
+    private record CustomerIdSampler(double[] cumulativeProbabilities, int customers) {
+
+        static CustomerIdSampler uniform(int customers) {
+            return new CustomerIdSampler(null, customers);
+        }
+
+        static CustomerIdSampler zipfian(int customers, double exponent) {
+            var cumulativeProbabilities = new double[customers];
+            var sum = 0.0;
+            for (int k = 0; k < customers; k++) {
+                sum += 1.0 / Math.pow(k + 1, exponent);
+                cumulativeProbabilities[k] = sum;
+            }
+            for (int k = 0; k < customers; k++) {
+                cumulativeProbabilities[k] /= sum;
+            }
+            return new CustomerIdSampler(cumulativeProbabilities, customers);
+        }
+
+        int next(SplittableRandom random) {
+            if (cumulativeProbabilities == null) {
+                return random.nextInt(customers);
+            }
+            var index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+            return Math.min(index >= 0 ? index : -index - 1, customers - 1);
+        }
+    }
+
+    private record ClientResult(long[] latencies, int errors) {}
+
+    private record LoadResult(long[] sortedLatencies, long errors, long elapsedNanos) {
+
+        static LoadResult of(List<ClientResult> clientResults, long elapsedNanos) {
+            var sortedLatencies = clientResults.stream()
+                    .flatMapToLong(clientResult -> Arrays.stream(clientResult.latencies()))
+                    .sorted()
+                    .toArray();
+            var errors = clientResults.stream().mapToLong(ClientResult::errors).sum();
+            return new LoadResult(sortedLatencies, errors, elapsedNanos);
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            var index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return toMillis(sortedLatencies[Math.max(index, 0)]);
+        }
+
+        static double toMillis(long nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+
+    private record LoadTestReport(Instant timestamp, String javaVersion, int availableProcessors,
+                                  LoadTestSettings settings, long requests, long errors,
+                                  double elapsedSeconds, double throughputPerSecond, Latency latencyMillis) {
+
+        static LoadTestReport of(LoadTestSettings settings, LoadResult loadResult) {
+            var requests = loadResult.sortedLatencies().length;
+            var elapsedSeconds = loadResult.elapsedNanos() / 1e9;
+            var latency = new Latency(loadResult.percentileMillis(50), loadResult.percentileMillis(99),
+                    loadResult.percentileMillis(99.9),
+                    requests == 0 ? 0 : LoadResult.toMillis(loadResult.sortedLatencies()[requests - 1]),
+                    requests == 0 ? 0 : LoadResult.toMillis(
+                            (long) Arrays.stream(loadResult.sortedLatencies()).average().orElse(0)));
+            return new LoadTestReport(Instant.now(), Runtime.version().toString(),
+                    Runtime.getRuntime().availableProcessors(), settings, requests, loadResult.errors(),
+                    Math.round(elapsedSeconds * 1_000) / 1_000.0, Math.round(requests / elapsedSeconds * 10) / 10.0,
+                    latency);
+        }
+    }
+
+    private record Latency(double p50, double p99, double p999, double max, double mean) {}
+}
@@ -0,0 +1,70 @@
+package org.testcompany.customerrewards.perf;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.domain.RewardsStatementResult;
+import org.testcompany.customerrewards.generator.DataGenerator;
+import org.testcompany.customerrewards.generator.DataGeneratorSettings;
+import org.testcompany.customerrewards.repository.CustomerJdbcRepository;
+import org.testcompany.customerrewards.repository.RewardsStatementJdbcRepository;
+import org.testcompany.customerrewards.repository.RewardsStatementPartitionRepository;
+import org.testcompany.customerrewards.services.RewardsLedgerService;
+import org.testcompany.customerrewards.services.RewardsStatementServiceImpl;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * Measures the rewards statement throughput against the embedded H2 database for
+ * 'statements.threads' workers (comma separated, default 1 and the processor count).
+ * Run with: mvn test -Pperf -Dtest=RewardsStatementBenchmark -Dstatements.threads=1,2,4
+ */
+@SpringBootTest
+public class RewardsStatementBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(RewardsStatementBenchmark.class);
+    private static final RewardsPeriod REWARDS_PERIOD = RewardsPeriod.ofMonths(LocalDate.of(2026, 1, 15), 12);
+
+    @Autowired
+    private DataGenerator dataGenerator;
+    @Autowired
+    private CustomerJdbcRepository customerJdbcRepository;
+    @Autowired
+    private RewardsStatementJdbcRepository rewardsStatementJdbcRepository;
+    @Autowired
+    private RewardsStatementPartitionRepository rewardsStatementPartitionRepository;
+    @Autowired
+    private RewardsLedgerService rewardsLedgerService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void generateStatements() {
+        dataGenerator.generate(new DataGeneratorSettings(42L, 100_000, 3_000_000L, 20, 0.001,
+                1_000, 1.5, 1_000_000, 0.3, 240, YearMonth.of(2026, 1), 10_000));
+        var threadCounts = Arrays.stream(System.getProperty("statements.threads",
+                        "1," + Runtime.getRuntime().availableProcessors()).split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        // warm up
+        run("warmup", 1);
+        for (var threads: threadCounts) {
+            var startNanos = System.nanoTime();
+            var result = run("threads-" + threads, threads);
+            var elapsedNanos = System.nanoTime() - startNanos;
+            logger.info("{} threads: {} statements in {} ms: {} statements/s", threads, result.statements(),
+                    elapsedNanos / 1_000_000, Math.round(result.statements() * 1e9 / elapsedNanos));
+        }
+    }
+
+    private RewardsStatementResult run(String statementId, int threads) {
+        return new RewardsStatementServiceImpl(customerJdbcRepository, rewardsStatementJdbcRepository,
+                rewardsStatementPartitionRepository, rewardsLedgerService, transactionManager, 16, threads, 1_000)
+                .generateStatements(statementId, REWARDS_PERIOD);
+    }
+}
@@ -0,0 +1,117 @@
+package org.testcompany.customerrewards.repository;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.util.CustomerRewardsUtil;
+import org.testcompany.customerrewards.util.RewardsRules;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+public class OrderLogRepositoryTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void getOrdersByCustomerIdAndTransactionDateRange() throws IOException {
+        var customer = new Customer(100L, null, null);
+        var rewardsPeriod = RewardsPeriod.ofMonths(LocalDate.now(), 3);
+        var startDate = rewardsPeriod.startInstant();
+        var endDate = rewardsPeriod.endInstant();
+        try (var orderLogRepository = openRepository()) {
+            orderLogRepository.save(new PurchaseOrder(101L, customer,
+                    BigDecimal.valueOf(120.0), startDate.minus(1, ChronoUnit.SECONDS)));
+            orderLogRepository.save(new PurchaseOrder(102L, customer,
+                    BigDecimal.valueOf(120.0), startDate));
+            orderLogRepository.save(new PurchaseOrder(103L, customer,
+                    BigDecimal.valueOf(120.0), endDate.minus(2, ChronoUnit.DAYS)));
+            orderLogRepository.insertAll(List.of(
+                    new PurchaseOrder(104L, customer, BigDecimal.valueOf(120.0), endDate),
+                    new PurchaseOrder(105L, customer, BigDecimal.valueOf(120.0), endDate.plus(1, ChronoUnit.DAYS))));
+        }
+
+        try (var orderLogRepository = openRepository()) {
+            var orders = orderLogRepository.getOrdersByCustomerIdAndTransactionDateRange(100L, startDate, endDate);
+
+            Assertions.assertEquals(List.of(102L, 103L), orders.stream().map(PurchaseOrder::getId).sorted().toList(),
+                    "Only orders within the rewards period should be fetched");
+            Assertions.assertEquals(5, orderLogRepository.getOrdersByCustomerId(100L).size(),
+                    "Customer order history size is incorrect");
+
+            var order = orderLogRepository.findById(103L).orElseThrow();
+            Assertions.assertEquals(100L, order.getCustomer().getId(), "Customer id is incorrect");
+            Assertions.assertEquals(new BigDecimal("120.00"), order.getTransactionAmount(),
+                    "Transaction amount is incorrect");
+            Assertions.assertEquals(endDate.minus(2, ChronoUnit.DAYS), order.getTransactionDate(),
+                    "Transaction date is incorrect");
+
+            orderLogRepository.save(new PurchaseOrder(103L, customer, new BigDecimal("75.25"), startDate));
+            orderLogRepository.delete(orderLogRepository.findById(102L).orElseThrow());
+
+            Assertions.assertTrue(orderLogRepository.findById(102L).isEmpty(), "Order should be deleted");
+            Assertions.assertEquals(new BigDecimal("75.25"),
+                    orderLogRepository.findById(103L).orElseThrow().getTransactionAmount(),
+                    "Transaction amount is incorrect");
+            Assertions.assertEquals(1, orderLogRepository.getOrdersByCustomerIdAndTransactionDateRange(100L,
+                    startDate, endDate).size(), "Orders count is incorrect");
+            Assertions.assertEquals(4, orderLogRepository.getOrders(), "Orders count is incorrect");
+        }
+    }
+
+    @Test
+    public void getMonthlyOrderSummariesMatchesOrderCalculation() throws IOException {
+        try (var orderLogRepository = openRepository()) {
+            var customer = new Customer(100L, null, null);
+            var startDate = RewardsPeriod.ofMonths(LocalDate.now(), 12).startInstant();
+            var amounts = List.of("0.01", "49.99", "50.00", "50.01", "75.60", "99.99", "100.00",
+                    "100.01", "110.20", "120.00", "300.50", "1234.56");
+            var orderId = 101L;
+            for (int day = 0; day < 400; day += 7) {
+                for (int i = day % amounts.size(); i < amounts.size(); i += 5) {
+                    orderLogRepository.save(new PurchaseOrder(orderId++, customer,
+                            new BigDecimal(amounts.get(i)), startDate.plus(day, ChronoUnit.DAYS)
+                            .minus(20, ChronoUnit.DAYS).plus(i, ChronoUnit.HOURS)));
+                    orderLogRepository.save(new PurchaseOrder(orderId++, new Customer(200L, null, null),
+                            new BigDecimal(amounts.get(i)), startDate.plus(day, ChronoUnit.DAYS)));
+                }
+            }
+
+            for (var rewardsPeriodInMonths: List.of(1, 3, 6, 12, 240)) {
+                var period = RewardsPeriod.ofMonths(LocalDate.now(), rewardsPeriodInMonths);
+                var expected = CustomerRewardsUtil.calculateMonthlyCustomerRewardsPoints(100L,
+                        orderLogRepository.getOrdersByCustomerId(100L), period);
+                var actual = CustomerRewardsUtil.calculateMonthlyCustomerRewardsPointsFromSummaries(100L,
+                        orderLogRepository.getMonthlyOrderSummaries(100L, period.startInstant(),
+                                period.endInstant()), period);
+
+                Assertions.assertEquals(expected.getTotalAmount(), actual.getTotalAmount(),
+                        "Total amount is incorrect");
+                Assertions.assertEquals(expected.getTotalPoints(), actual.getTotalPoints(),
+                        "Total rewards points is incorrect");
+                Assertions.assertEquals(toPointsList(expected), toPointsList(actual),
+                        "Customer rewards monthly points list is incorrect");
+            }
+        }
+    }
+
+    private OrderLogRepository openRepository() {
+        return new OrderLogRepository(directory.toString(), 16, 2, () -> RewardsRules.DEFAULT);
+    }
+
+    private List<List<Long>> toPointsList(CustomerRewardsDetails customerRewardsDetails) {
+        return customerRewardsDetails.getPeriodPointsList().stream()
+                .map(monthlyPoints -> List.of(monthlyPoints.getPoints(),
+                        (long) monthlyPoints.getPeriod(), (long) monthlyPoints.getYear()))
+                .toList();
+    }
+}
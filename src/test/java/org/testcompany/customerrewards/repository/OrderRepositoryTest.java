@@ -0,0 +1,141 @@
+package org.testcompany.customerrewards.repository;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.util.CustomerRewardsUtil;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+public class OrderRepositoryTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void getOrdersByCustomerIdAndTransactionDateRange() {
+        var customer = customerRepository.save(new Customer(100L, "Test Name 100", "100-000-0100"));
+        var rewardsPeriod = RewardsPeriod.ofMonths(LocalDate.now(), 3);
+        var startDate = rewardsPeriod.startInstant();
+        var endDate = rewardsPeriod.endInstant();
+        orderRepository.save(new PurchaseOrder(101L, customer,
+                BigDecimal.valueOf(120.0), startDate.minus(1, ChronoUnit.SECONDS)));
+        orderRepository.save(new PurchaseOrder(102L, customer,
+                BigDecimal.valueOf(120.0), startDate));
+        orderRepository.save(new PurchaseOrder(103L, customer,
+                BigDecimal.valueOf(120.0), endDate.minus(2, ChronoUnit.DAYS)));
+        orderRepository.save(new PurchaseOrder(104L, customer,
+                BigDecimal.valueOf(120.0), endDate));
+        orderRepository.save(new PurchaseOrder(105L, customer,
+                BigDecimal.valueOf(120.0), endDate.plus(1, ChronoUnit.DAYS)));
+
+        var orders = orderRepository.getOrdersByCustomerIdAndTransactionDateRange(
+                100L, startDate, endDate);
+
+        Assertions.assertEquals(2, orders.size(),
+                "Only orders within the rewards period should be fetched");
+        Assertions.assertTrue(orders.stream().allMatch(order ->
+                        !order.getTransactionDate().isBefore(startDate)
+                                && order.getTransactionDate().isBefore(endDate)),
+                "Orders outside the rewards period should not be fetched");
+        Assertions.assertEquals(5, orderRepository.getOrdersByCustomerId(100L).size(),
+                "Customer order history size is incorrect");
+    }
+
+    @Test
+    public void getMonthlyOrderSummariesMatchesOrderCalculation() {
+        var customer = customerRepository.save(new Customer(100L, "Test Name 100", "100-000-0100"));
+        var rewardsPeriod = RewardsPeriod.ofMonths(LocalDate.now(), 12);
+        var startDate = rewardsPeriod.startInstant();
+        var amounts = List.of("0.01", "49.99", "50.00", "50.01", "75.60", "99.99", "100.00",
+                "100.01", "110.20", "120.00", "300.50", "1234.56");
+        var orderId = 101L;
+        for (int day = 0; day < 400; day += 7) {
+            for (int i = day % amounts.size(); i < amounts.size(); i += 5) {
+                orderRepository.save(new PurchaseOrder(orderId++, customer,
+                        new BigDecimal(amounts.get(i)), startDate.plus(day, ChronoUnit.DAYS)
+                        .minus(20, ChronoUnit.DAYS).plus(i, ChronoUnit.HOURS)));
+            }
+        }
+
+        for (var rewardsPeriodInMonths: List.of(1, 3, 6, 12, 240)) {
+            var period = RewardsPeriod.ofMonths(LocalDate.now(), rewardsPeriodInMonths);
+            var expected = CustomerRewardsUtil.calculateMonthlyCustomerRewardsPoints(100L,
+                    orderRepository.getOrdersByCustomerId(100L), period);
+            var actual = CustomerRewardsUtil.calculateMonthlyCustomerRewardsPointsFromSummaries(100L,
+                    orderRepository.getMonthlyOrderSummaries(100L, period.startInstant(),
+                            period.endInstant()), period);
+
+            Assertions.assertEquals(expected.getTotalAmount(), actual.getTotalAmount(),
+                    "Total amount is incorrect");
+            Assertions.assertEquals(expected.getTotalPoints(), actual.getTotalPoints(),
+                    "Total rewards points is incorrect");
+            Assertions.assertEquals(toPointsList(expected), toPointsList(actual),
+                    "Customer rewards monthly points list is incorrect");
+        }
+    }
+
+    private List<List<Long>> toPointsList(CustomerRewardsDetails customerRewardsDetails) {
+        return customerRewardsDetails.getPeriodPointsList().stream()
+                .map(monthlyPoints -> List.of(monthlyPoints.getPoints(),
+                        (long) monthlyPoints.getPeriod(), (long) monthlyPoints.getYear()))
+                .toList();
+    }
+
+    @Test
+    public void getOrderWatermark() {
+        var customer = customerRepository.save(new Customer(100L, "Test Name 100", "100-000-0100"));
+        var rewardsPeriod = RewardsPeriod.ofMonths(LocalDate.now(), 3);
+        var startDate = rewardsPeriod.startInstant();
+        var endDate = rewardsPeriod.endInstant();
+        orderRepository.save(new PurchaseOrder(101L, customer,
+                new BigDecimal("120.00"), startDate.minus(1, ChronoUnit.SECONDS)));
+        orderRepository.save(new PurchaseOrder(102L, customer,
+                new BigDecimal("120.00"), startDate));
+        orderRepository.save(new PurchaseOrder(103L, customer,
+                new BigDecimal("75.50"), startDate.plus(1, ChronoUnit.DAYS)));
+        orderRepository.save(new PurchaseOrder(104L, customer,
+                new BigDecimal("120.00"), endDate));
+
+        var orderWatermark = orderRepository.getOrderWatermark(100L, startDate, endDate);
+
+        Assertions.assertEquals(2, orderWatermark.getOrderCount(), "Order count is incorrect");
+        Assertions.assertEquals(103L, orderWatermark.getLastOrderId(), "Last order id is incorrect");
+        Assertions.assertEquals(0, new BigDecimal("195.50").compareTo(orderWatermark.getTotalAmount()),
+                "Total amount is incorrect");
+        Assertions.assertEquals(2 * startDate.getEpochSecond() + 86_400,
+                orderWatermark.getTransactionDateSeconds(), "Transaction date seconds are incorrect");
+        var emptyWatermark = orderRepository.getOrderWatermark(100L, endDate.plus(1, ChronoUnit.DAYS),
+                endDate.plus(2, ChronoUnit.DAYS));
+        Assertions.assertEquals(0, emptyWatermark.getOrderCount(), "Order count without orders is incorrect");
+        Assertions.assertNull(emptyWatermark.getLastOrderId(), "Last order id without orders is incorrect");
+        var orderWatermarks = orderRepository.getOrderWatermarksByCustomerIds(List.of(100L, 101L),
+                startDate, endDate);
+        Assertions.assertEquals(1, orderWatermarks.size(), "Order watermarks size is incorrect");
+        Assertions.assertEquals(100L, orderWatermarks.get(0).getCustomerId(), "Customer id is incorrect");
+        Assertions.assertEquals(orderWatermark.getTransactionDateSeconds(),
+                orderWatermarks.get(0).getTransactionDateSeconds(), "Batch watermark is incorrect");
+        var plan = jdbcTemplate.queryForObject("EXPLAIN SELECT COUNT(*), MAX(ID), SUM(TRANSACTION_AMOUNT), " +
+                        "SUM(DATEDIFF('SECOND', TIMESTAMP '1970-01-01 00:00:00', TRANSACTION_DATE)) " +
+                        "FROM PURCHASE_ORDER WHERE CUSTOMER_ID = 100 " +
+                        "AND TRANSACTION_DATE >= TIMESTAMP '2026-01-01 00:00:00'", String.class);
+        Assertions.assertTrue(plan.contains("IDX_PURCHASE_ORDER_CUSTOMER_DATE"),
+                "Watermark query should be served by the customer date index");
+    }
+}
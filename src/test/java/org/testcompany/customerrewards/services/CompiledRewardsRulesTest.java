@@ -0,0 +1,95 @@
+package org.testcompany.customerrewards.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.AfterTransaction;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.repository.CustomerRepository;
+import org.testcompany.customerrewards.repository.OrderRepository;
+import org.testcompany.customerrewards.util.CustomerRewardsUtil;
+import org.testcompany.customerrewards.util.RewardsRules;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+public class CompiledRewardsRulesTest {
+
+    @Autowired
+    private CompiledRewardsRules compiledRewardsRules;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterTransaction
+    public void restoreRules() {
+        compiledRewardsRules.reload();
+    }
+
+    @Test
+    public void loadsDefaultRules() {
+        Assertions.assertFalse(compiledRewardsRules.reload(), "Rewards rules should not change");
+        Assertions.assertEquals(RewardsRules.DEFAULT.getSegments(), compiledRewardsRules.get().getSegments(),
+                "Rewards rules segments are incorrect");
+    }
+
+    @Test
+    public void sqlPointsMatchNewVersion() {
+        var customer = customerRepository.save(new Customer(100L, "Test Name 100", "100-000-0100"));
+        var rewardsPeriod = RewardsPeriod.ofMonths(LocalDate.now(), 12);
+        var startDate = rewardsPeriod.startInstant();
+        var amounts = List.of("0.01", "19.99", "20.00", "49.99", "50.01", "99.99", "100.00",
+                "120.00", "499.99", "500.00", "1234.56");
+        var orderId = 101L;
+        for (int day = 0; day < 400; day += 7) {
+            for (int i = day % amounts.size(); i < amounts.size(); i += 4) {
+                orderRepository.save(new PurchaseOrder(orderId++, customer,
+                        new BigDecimal(amounts.get(i)), startDate.plus(day, ChronoUnit.DAYS)
+                        .minus(20, ChronoUnit.DAYS).plus(i, ChronoUnit.HOURS)));
+            }
+        }
+        var effectiveFrom = LocalDate.now().withDayOfMonth(1).minusMonths(6);
+        jdbcTemplate.update("INSERT INTO REWARDS_TIER VALUES (?, 0, 1), (?, 20, 3), (?, 500, 0)",
+                effectiveFrom, effectiveFrom, effectiveFrom);
+
+        Assertions.assertTrue(compiledRewardsRules.reload(), "Rewards rules should change");
+        Assertions.assertEquals(2, compiledRewardsRules.get().getVersions(),
+                "Rewards rules versions count is incorrect");
+        Assertions.assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM REWARDS_POINTS_SEGMENT",
+                Integer.class), "Rewards rules segments count is incorrect");
+
+        for (var rewardsPeriodInMonths: List.of(1, 6, 12, 240)) {
+            var period = RewardsPeriod.ofMonths(LocalDate.now(), rewardsPeriodInMonths);
+            var expected = CustomerRewardsUtil.calculateMonthlyCustomerRewardsPoints(100L,
+                    orderRepository.getOrdersByCustomerId(100L), period, compiledRewardsRules.get());
+            var actual = CustomerRewardsUtil.calculateMonthlyCustomerRewardsPointsFromSummaries(100L,
+                    orderRepository.getMonthlyOrderSummaries(100L, period.startInstant(),
+                            period.endInstant()), period);
+
+            Assertions.assertEquals(expected.getTotalPoints(), actual.getTotalPoints(),
+                    "Total rewards points is incorrect");
+            Assertions.assertEquals(toPointsList(expected), toPointsList(actual),
+                    "Customer rewards monthly points list is incorrect");
+        }
+    }
+
+    private List<List<Long>> toPointsList(CustomerRewardsDetails customerRewardsDetails) {
+        return customerRewardsDetails.getPeriodPointsList().stream()
+                .map(monthlyPoints -> List.of(monthlyPoints.getPoints(),
+                        (long) monthlyPoints.getPeriod(), (long) monthlyPoints.getYear()))
+                .toList();
+    }
+}
@@ -0,0 +1,54 @@
+package org.testcompany.customerrewards.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.repository.CustomerRepository;
+
+import java.util.List;
+
+@SpringBootTest
+public class CustomerCacheTest {
+
+    private static final Long CUSTOMER_ID = 301L;
+
+    @Autowired
+    private CustomerCache customerCache;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @BeforeEach
+    public void setup() {
+        customerRepository.save(new Customer(CUSTOMER_ID, "Test Name 301", "100-000-0301"));
+        customerCache.invalidateAll();
+    }
+
+    @Test
+    public void customerWriteInvalidatesCachedCustomer() {
+        var missCountBefore = customerCache.stats().missCount();
+        Assertions.assertEquals("Test Name 301", getCustomerName(), "Customer name is incorrect");
+        Assertions.assertEquals("Test Name 301", getCustomerName(), "Customer name is incorrect");
+        Assertions.assertEquals(missCountBefore + 1, customerCache.stats().missCount(),
+                "Cache miss count is incorrect");
+
+        customerRepository.save(new Customer(CUSTOMER_ID, "Renamed 301", "100-000-0301"));
+
+        Assertions.assertEquals("Renamed 301", getCustomerName(), "Customer name is incorrect");
+        Assertions.assertEquals(List.of("Renamed 301"), customerCache.findAllById(List.of(CUSTOMER_ID, 999L))
+                .stream()
+                .map(Customer::getName)
+                .toList(), "Customer names are incorrect");
+
+        customerRepository.deleteById(CUSTOMER_ID);
+
+        Assertions.assertTrue(customerCache.getCustomerById(CUSTOMER_ID).isEmpty(),
+                "Deleted customer should not be found");
+    }
+
+    private String getCustomerName() {
+        return customerCache.getCustomerById(CUSTOMER_ID).orElseThrow().getName();
+    }
+}
@@ -0,0 +1,92 @@
+package org.testcompany.customerrewards.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.repository.CustomerRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+public class CustomerRewardsCacheTest {
+
+    private static final Long CUSTOMER_ID = 300L;
+
+    @Autowired
+    private CustomerRewardsService customerRewardsService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CustomerRewardsCache customerRewardsCache;
+    @Autowired
+    private CustomerRepository customerRepository;
+    private Customer customer;
+
+    @BeforeEach
+    public void setup() {
+        customerRewardsCache.invalidateAll();
+        customer = customerRepository.save(new Customer(CUSTOMER_ID, "Test Name 300", "100-000-0300"));
+    }
+
+    @Test
+    public void savedOrderInvalidatesCachedRewardsPoints() {
+        var lastMonthDate = LocalDate.now().minusMonths(1).withDayOfMonth(1)
+                .atStartOfDay().toInstant(ZoneOffset.UTC);
+        var hitCountBefore = customerRewardsCache.stats().hitCount();
+        Assertions.assertEquals(0, calculateTotalPoints(), "Total rewards points is incorrect");
+        Assertions.assertEquals(0, calculateTotalPoints(), "Total rewards points is incorrect");
+        Assertions.assertEquals(hitCountBefore + 1, customerRewardsCache.stats().hitCount(),
+                "Cache hit count is incorrect");
+
+        orderService.saveOrder(new PurchaseOrder(null, customer, new BigDecimal("120.00"), lastMonthDate));
+
+        Assertions.assertEquals(90, calculateTotalPoints(), "Total rewards points is incorrect");
+        Assertions.assertEquals(90, calculateTotalPoints(), "Total rewards points is incorrect");
+    }
+
+    @Test
+    public void calculationOverlappingAnInvalidationIsCachedForOtherCustomersOnly() {
+        var cache = new CustomerRewardsCache(100, Duration.ofMinutes(10), Duration.ofSeconds(10));
+        var key1 = new CustomerRewardsCache.Key(1L, RewardsPeriodType.MONTH, 3, 0);
+        var key2 = new CustomerRewardsCache.Key(2L, RewardsPeriodType.MONTH, 3, 0);
+        var otherPeriodKey1 = new CustomerRewardsCache.Key(1L, RewardsPeriodType.MONTH, 6, 0);
+        cache.get(otherPeriodKey1, CustomerRewardsDetails::new);
+
+        cache.get(key1, () -> {
+            cache.invalidateCustomers(List.of(1L));
+            return new CustomerRewardsDetails();
+        });
+        cache.get(key2, () -> {
+            cache.invalidateCustomers(List.of(1L));
+            return new CustomerRewardsDetails();
+        });
+
+        Assertions.assertNull(cache.getIfPresent(key1), "Calculation overlapping its invalidation is cached");
+        Assertions.assertNull(cache.getIfPresent(otherPeriodKey1), "Invalidated entry is cached");
+        Assertions.assertNotNull(cache.getIfPresent(key2),
+                "Calculation overlapping another customer's invalidation is not cached");
+        var keys = List.of(key1, key2);
+        Assertions.assertEquals(2, cache.getAll(keys, missingKeys -> {
+            cache.invalidateCustomers(List.of(2L));
+            return Map.of(key1, new CustomerRewardsDetails());
+        }).size(), "Rewards points size is incorrect");
+        Assertions.assertNotNull(cache.getIfPresent(key1), "Calculation of the batch is not cached");
+        Assertions.assertNull(cache.getIfPresent(key2), "Invalidated entry of the batch is cached");
+    }
+
+    private long calculateTotalPoints() {
+        return customerRewardsService.calculateCustomerRewardsPoints(CUSTOMER_ID, RewardsPeriodType.MONTH, 3)
+                .getTotalPoints();
+    }
+}
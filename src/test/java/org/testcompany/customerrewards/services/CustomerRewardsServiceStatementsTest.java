@@ -0,0 +1,95 @@
+package org.testcompany.customerrewards.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.testcompany.customerrewards.converter.CustomerRewardsConverter;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.repository.OrderRepository;
+
+import java.time.LocalDate;
+
+@SpringBootTest
+public class CustomerRewardsServiceStatementsTest {
+
+    @Autowired
+    private CustomerRewardsService customerRewardsService;
+    @Autowired
+    private CustomerRewardsConverter customerRewardsConverter;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private CustomerCache customerCache;
+    @Autowired
+    private CustomerRewardsCache customerRewardsCache;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        customerCache.invalidateAll();
+        customerRewardsCache.invalidateAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void calculateCustomerRewardsPointsIssuesOneCustomerAndOneOrderQuery() {
+        var customerRewardsDetails = customerRewardsService.calculateCustomerRewardsPoints(1L,
+                RewardsPeriodType.MONTH, 240);
+        var response = customerRewardsConverter.convert(customerRewardsDetails);
+
+        Assertions.assertEquals(1L, response.customerId(), "Customer Id does not match");
+        // the order watermark of the version is read from the customer date index alone
+        Assertions.assertEquals(3, statistics.getPrepareStatementCount(),
+                "Only one customer query, one order watermark query and one order query should be issued");
+        Assertions.assertEquals(1, statistics.getEntityStatistics(Customer.class.getName())
+                .getLoadCount(), "Customer should be loaded once");
+    }
+
+    @Test
+    public void calculateCustomerRewardsPointsWithWarmCustomerCacheIssuesNoCustomerQuery() {
+        customerRewardsService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 240);
+        customerRewardsCache.invalidateAll();
+        statistics.clear();
+
+        var customerRewardsDetails = customerRewardsService.calculateCustomerRewardsPoints(1L,
+                RewardsPeriodType.MONTH, 240);
+        var response = customerRewardsConverter.convert(customerRewardsDetails);
+
+        Assertions.assertEquals("Test Name 1", response.personalInfo().customerName(),
+                "Customer name does not match");
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount(),
+                "Only the order watermark query and the order query should be issued");
+        Assertions.assertEquals(0, statistics.getEntityStatistics(Customer.class.getName())
+                .getLoadCount(), "Customer should not be loaded");
+    }
+
+    @Test
+    public void getOrdersByCustomerIdAndTransactionDateRangeDoesNotLoadCustomer() {
+        var rewardsPeriod = RewardsPeriod.ofMonths(LocalDate.now(), 240);
+        var orders = orderRepository.getOrdersByCustomerIdAndTransactionDateRange(1L,
+                rewardsPeriod.startInstant(), rewardsPeriod.endInstant());
+
+        Assertions.assertFalse(orders.isEmpty(), "Orders should not be empty");
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount(),
+                "Only one order query should be issued");
+        Assertions.assertEquals(0, statistics.getEntityStatistics(Customer.class.getName())
+                .getLoadCount(), "Customer should not be loaded with the orders");
+    }
+}
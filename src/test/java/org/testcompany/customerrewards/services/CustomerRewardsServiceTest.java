@@ -1,53 +1,92 @@
 package org.testcompany.customerrewards.services;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.testcompany.customerrewards.domain.Customer;
-import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.CustomerMonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.CustomerOrderWatermarkTotals;
+import org.testcompany.customerrewards.domain.CustomerWeeklyOrderTotals;
+import org.testcompany.customerrewards.domain.MonthlyOrderSummary;
+import org.testcompany.customerrewards.domain.PeriodPoints;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
 import org.testcompany.customerrewards.domain.RewardsPeriodType;
 import org.testcompany.customerrewards.exceptions.CustomerRewardsValidationException;
+import org.testcompany.customerrewards.metrics.RewardsPipelineMetrics;
 import org.testcompany.customerrewards.repository.CustomerRepository;
-import org.testcompany.customerrewards.repository.OrderRepository;
+import org.testcompany.customerrewards.repository.OrderStorage;
+import org.testcompany.customerrewards.util.RewardsRules;
 
 import java.math.BigDecimal;
-import java.time.InstantSource;
-import java.time.temporal.ChronoUnit;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 
 @SpringJUnitConfig
 public class CustomerRewardsServiceTest {
 
     @MockitoBean
-    private OrderRepository orderRepository;
+    private RewardsLedgerService rewardsLedgerService;
     @MockitoBean
     private CustomerRepository customerRepository;
+    @MockitoBean
+    private PlatformTransactionManager transactionManager;
+    private CustomerCache customerCache;
+    private CustomerRewardsCache customerRewardsCache;
+    @MockitoBean
+    private OrderStorage orderStorage;
+    @MockitoBean
+    private CompiledRewardsRules compiledRewardsRules;
+    private CustomerRewardsVersionService customerRewardsVersionService;
+    private SimpleMeterRegistry meterRegistry;
+    private RewardsPipelineMetrics rewardsPipelineMetrics;
     private CustomerRewardsService customerRewardsService;
 
     @BeforeEach
     public void setup() {
-        customerRewardsService = new CustomerRewardsServiceImpl(orderRepository, customerRepository);
+        Mockito.when(compiledRewardsRules.get()).thenReturn(RewardsRules.DEFAULT);
+        customerRewardsVersionService = new CustomerRewardsVersionServiceImpl(orderStorage, compiledRewardsRules);
+        customerRewardsCache = new CustomerRewardsCache(100, Duration.ofMinutes(10), Duration.ofSeconds(10));
+        customerCache = new CustomerCache(customerRepository, 100, Duration.ofHours(1));
+        meterRegistry = new SimpleMeterRegistry();
+        rewardsPipelineMetrics = new RewardsPipelineMetrics(meterRegistry, true);
+        customerRewardsService = new CustomerRewardsServiceImpl(rewardsLedgerService, customerCache,
+                customerRewardsCache, customerRewardsVersionService, rewardsPipelineMetrics, transactionManager,
+                Clock.systemDefaultZone());
     }
 
     @Test
     public void calculateMonthlyPoints() {
         var customer = new Customer(1L, "test", "1000000001");
-        var orders = List.of(new PurchaseOrder(1L, customer,
-                BigDecimal.valueOf(100.0), InstantSource.system().instant().minus(32, ChronoUnit.DAYS)));
-        Mockito.when(orderRepository.getOrdersByCustomerId(1L)).thenReturn(orders);
+        var lastMonthDate = LocalDate.now().minusMonths(1);
+        var monthlyOrderSummaries = List.<MonthlyOrderSummary>of(new TestMonthlyOrderSummary(
+                lastMonthDate.getYear(), lastMonthDate.getMonthValue(), 1L, BigDecimal.valueOf(100.0), 50L));
+        var rewardsPeriod = RewardsPeriod.ofMonths(LocalDate.now(), 3);
+        Mockito.when(rewardsLedgerService.getMonthlyOrderSummaries(1L, rewardsPeriod))
+                .thenReturn(monthlyOrderSummaries);
         Mockito.when(customerRepository.getCustomerById(1L)).thenReturn(Optional.of(customer));
 
         var customerRewardsDetails = customerRewardsService.calculateCustomerRewardsPoints(1L,
                 RewardsPeriodType.MONTH, 3);
 
         Mockito.verify(customerRepository, Mockito.times(1)).getCustomerById(anyLong());
-        Mockito.verify(orderRepository, Mockito.times(1)).getOrdersByCustomerId(anyLong());
+        Mockito.verify(rewardsLedgerService, Mockito.times(1))
+                .getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class));
 
         Assertions.assertNotNull(customerRewardsDetails);
         Assertions.assertEquals(1L, customerRewardsDetails.getCustomerId(),
@@ -56,10 +95,10 @@ public class CustomerRewardsServiceTest {
                 "Customer rewards description should not be null");
         Assertions.assertNotNull(customerRewardsDetails.getRewardsPeriodType(),
                 "Customer rewards period type should not be null");
-        Assertions.assertNotNull(customerRewardsDetails.getMonthlyPointsList(),
+        Assertions.assertNotNull(customerRewardsDetails.getPeriodPointsList(),
                 "Customer rewards monthly points list should not be null");
         Assertions.assertEquals(3, customerRewardsDetails
-                        .getMonthlyPointsList().size(),
+                        .getPeriodPointsList().size(),
                 "Customer rewards monthly points list size is incorrect");
         Assertions.assertEquals(50, customerRewardsDetails.getTotalPoints(),
                 "Total rewards points is incorrect");
@@ -67,6 +106,277 @@ public class CustomerRewardsServiceTest {
                 "Total amount is incorrect");
     }
 
+    @Test
+    public void calculateMonthlyPointsForMultipleCustomers() {
+        var customer1 = new Customer(1L, "test", "1000000001");
+        var customer2 = new Customer(2L, "test", "1000000002");
+        var lastMonthDate = LocalDate.now().minusMonths(1);
+        var customerIds = List.of(1L, 2L, 3L);
+        var rewardsPeriod = RewardsPeriod.ofMonths(LocalDate.now(), 3);
+        Mockito.when(customerRepository.findAllById(customerIds))
+                .thenReturn(List.of(customer1, customer2));
+        Mockito.when(rewardsLedgerService.getMonthlyOrderSummaries(List.of(1L, 2L), rewardsPeriod))
+                .thenReturn(List.of(new TestCustomerMonthlyOrderSummary(2L, lastMonthDate.getYear(),
+                        lastMonthDate.getMonthValue(), 1L, BigDecimal.valueOf(120.0), 90L)));
+
+        var customerRewardsDetailsList = customerRewardsService.calculateCustomerRewardsPoints(
+                customerIds, RewardsPeriodType.MONTH, 3);
+
+        Mockito.verify(customerRepository, Mockito.never()).getCustomerById(anyLong());
+        Mockito.verify(rewardsLedgerService, Mockito.never())
+                .getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class));
+        Assertions.assertEquals(2, customerRewardsDetailsList.size(),
+                "Customer rewards details list size is incorrect");
+        Assertions.assertEquals(customer1, customerRewardsDetailsList.get(0).getCustomer(),
+                "Customer is incorrect");
+        Assertions.assertEquals(0, customerRewardsDetailsList.get(0).getTotalPoints(),
+                "Total rewards points is incorrect");
+        Assertions.assertEquals(BigDecimal.ZERO, customerRewardsDetailsList.get(0).getTotalAmount(),
+                "Total amount is incorrect");
+        Assertions.assertEquals(customer2, customerRewardsDetailsList.get(1).getCustomer(),
+                "Customer is incorrect");
+        Assertions.assertEquals(90, customerRewardsDetailsList.get(1).getTotalPoints(),
+                "Total rewards points is incorrect");
+        Assertions.assertEquals(3, customerRewardsDetailsList.get(1)
+                        .getPeriodPointsList().size(),
+                "Customer rewards monthly points list size is incorrect");
+    }
+
+    @Test
+    public void calculateMonthlyPointsIsCachedUntilInvalidated() {
+        var customer = new Customer(1L, "test", "1000000001");
+        Mockito.when(customerRepository.getCustomerById(1L)).thenReturn(Optional.of(customer));
+        Mockito.when(rewardsLedgerService.getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class)))
+                .thenReturn(List.of());
+
+        customerRewardsService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 3);
+        var customerRewardsDetails = customerRewardsService.calculateCustomerRewardsPoints(1L,
+                RewardsPeriodType.MONTH, 3);
+
+        Mockito.verify(customerRepository, Mockito.times(1)).getCustomerById(anyLong());
+        Mockito.verify(rewardsLedgerService, Mockito.times(1))
+                .getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class));
+        Assertions.assertEquals(customer.getName(), customerRewardsDetails.getCustomer().getName(),
+                "Customer is incorrect");
+        Assertions.assertEquals(1, customerRewardsCache.stats().hitCount(), "Cache hit count is incorrect");
+        Assertions.assertEquals(1, customerRewardsCache.stats().missCount(), "Cache miss count is incorrect");
+
+        customerRewardsService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 6);
+        customerRewardsCache.invalidateCustomers(List.of(1L));
+        customerRewardsService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 3);
+
+        Mockito.verify(rewardsLedgerService, Mockito.times(3))
+                .getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class));
+    }
+
+    @Test
+    public void calculateMonthlyPointsCachesTheVersion() {
+        var customer = new Customer(1L, "test", "1000000001");
+        var lastMonthDate = LocalDate.now().minusMonths(1);
+        Mockito.when(customerRepository.getCustomerById(1L)).thenReturn(Optional.of(customer));
+        Mockito.when(customerRepository.findAllById(List.of(1L))).thenReturn(List.of(customer));
+        Mockito.when(rewardsLedgerService.getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class)))
+                .thenReturn(List.of());
+
+        var version = customerRewardsService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 3)
+                .getVersion();
+        Assertions.assertNotNull(version, "Version is incorrect");
+        Assertions.assertEquals(version, customerRewardsService.calculateCustomerRewardsPoints(1L,
+                RewardsPeriodType.MONTH, 3).getVersion(), "Cached version is incorrect");
+        Assertions.assertEquals(version, customerRewardsService.calculateCustomerRewardsPoints(List.of(1L),
+                RewardsPeriodType.MONTH, 3).get(0).getVersion(), "Batch version is incorrect");
+        Mockito.verify(rewardsLedgerService, Mockito.times(1))
+                .getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class));
+
+        Mockito.when(rewardsLedgerService.getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class)))
+                .thenReturn(List.of(new TestMonthlyOrderSummary(lastMonthDate.getYear(),
+                        lastMonthDate.getMonthValue(), 1L, BigDecimal.valueOf(100.0), 50L)));
+        Mockito.when(orderStorage.getOrderWatermark(anyLong(), any(), any()))
+                .thenReturn(new CustomerOrderWatermarkTotals(1L, 1L, 1000L, BigDecimal.valueOf(100.0),
+                        1_767_225_600L));
+        customerRewardsCache.invalidateCustomers(List.of(1L));
+        Assertions.assertNotEquals(version, customerRewardsService.calculateCustomerRewardsPoints(1L,
+                RewardsPeriodType.MONTH, 3).getVersion(), "Version of a new order is incorrect");
+    }
+
+    @Test
+    public void eTagOfUncachedPointsIsNotCalculated() {
+        var customer = new Customer(1L, "test", "1000000001");
+        Mockito.when(customerRepository.getCustomerById(1L)).thenReturn(Optional.of(customer));
+        Mockito.when(rewardsLedgerService.getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class)))
+                .thenReturn(List.of());
+
+        var eTag = customerRewardsService.getCustomerRewardsETag(1L, RewardsPeriodType.MONTH, 3);
+        Mockito.verify(rewardsLedgerService, Mockito.never())
+                .getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class));
+        Mockito.verify(orderStorage, Mockito.times(1)).getOrderWatermark(anyLong(), any(), any());
+
+        var customerRewardsDetails = customerRewardsService.calculateCustomerRewardsPoints(1L,
+                RewardsPeriodType.MONTH, 3);
+        Assertions.assertEquals(customerRewardsVersionService.getCustomerRewardsETag(
+                customerRewardsDetails.getVersion(), customer), eTag, "ETag is incorrect");
+        Assertions.assertEquals(eTag, customerRewardsService.getCustomerRewardsETag(1L, RewardsPeriodType.MONTH, 3),
+                "ETag of cached points is incorrect");
+        Mockito.verify(orderStorage, Mockito.times(2)).getOrderWatermark(anyLong(), any(), any());
+    }
+
+    @Test
+    public void calculateMonthlyPointsAfterInvalidationOnThePrimary() {
+        var customer = new Customer(1L, "test", "1000000001");
+        Mockito.when(customerRepository.getCustomerById(1L)).thenReturn(Optional.of(customer));
+        Mockito.when(rewardsLedgerService.getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class)))
+                .thenReturn(List.of());
+
+        customerRewardsService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 3);
+        customerRewardsCache.invalidateCustomers(List.of(1L));
+        customerRewardsService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 3);
+        customerRewardsService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 6);
+
+        var transactionDefinitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        Mockito.verify(transactionManager, Mockito.times(3)).getTransaction(transactionDefinitions.capture());
+        Assertions.assertTrue(transactionDefinitions.getAllValues().get(0).isReadOnly(),
+                "Calculation should be read-only");
+        Assertions.assertFalse(transactionDefinitions.getAllValues().get(1).isReadOnly(),
+                "Calculation after an invalidation should be read-write");
+        Assertions.assertFalse(transactionDefinitions.getAllValues().get(2).isReadOnly(),
+                "Calculation within the replica max lag should be read-write");
+    }
+
+    @Test
+    public void calculateMonthlyPointsRecordsStageMetrics() {
+        var customer = new Customer(1L, "test", "1000000001");
+        var lastMonthDate = LocalDate.now().minusMonths(1);
+        Mockito.when(customerRepository.getCustomerById(1L)).thenReturn(Optional.of(customer));
+        Mockito.when(rewardsLedgerService.getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class)))
+                .thenReturn(List.of(new TestMonthlyOrderSummary(lastMonthDate.getYear(),
+                        lastMonthDate.getMonthValue(), 4L, BigDecimal.valueOf(400.0), 200L)));
+
+        customerRewardsService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 3);
+        customerRewardsService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 3);
+
+        Assertions.assertEquals(2, getStageTimerCount("customer-lookup"),
+                "Customer lookup count is incorrect");
+        Assertions.assertEquals(1, getStageTimerCount("order-query"), "Order query count is incorrect");
+        Assertions.assertEquals(1, getStageTimerCount("calculation"), "Calculation count is incorrect");
+        var ordersScanned = meterRegistry.get("customer.rewards.orders.scanned")
+                .tag("period.type", "MONTH").tag("period.length", "2-3").summary();
+        Assertions.assertEquals(1, ordersScanned.count(), "Orders scanned count is incorrect");
+        Assertions.assertEquals(4.0, ordersScanned.totalAmount(), "Orders scanned total is incorrect");
+    }
+
+    @Test
+    public void calculateMonthlyPointsTagsBucketedPeriodLengths() {
+        Mockito.when(customerRepository.getCustomerById(1L))
+                .thenReturn(Optional.of(new Customer(1L, "test", "1000000001")));
+        Mockito.when(rewardsLedgerService.getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class)))
+                .thenReturn(List.of());
+
+        for (var rewardsPeriod: List.of(6, 12, 240)) {
+            customerRewardsService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, rewardsPeriod);
+        }
+
+        var customerLookupTimers = meterRegistry.get("customer.rewards.stage").tag("stage", "customer-lookup")
+                .timers();
+        Assertions.assertEquals(2, customerLookupTimers.size(), "Customer lookup timers are incorrect");
+        Assertions.assertEquals(2, meterRegistry.get("customer.rewards.stage").tag("stage", "customer-lookup")
+                .tag("period.length", "4-12").timer().count(), "Customer lookup count is incorrect");
+        Assertions.assertEquals(1, meterRegistry.get("customer.rewards.stage").tag("stage", "customer-lookup")
+                .tag("period.length", "25+").timer().count(), "Customer lookup count is incorrect");
+    }
+
+    @Test
+    public void calculateMonthlyPointsWithStageMetricsDisabledRegistersNoMeters() {
+        var disabledMeterRegistry = new SimpleMeterRegistry();
+        var service = new CustomerRewardsServiceImpl(rewardsLedgerService, customerCache, customerRewardsCache,
+                customerRewardsVersionService, new RewardsPipelineMetrics(disabledMeterRegistry, false),
+                transactionManager, Clock.systemDefaultZone());
+        Mockito.when(customerRepository.getCustomerById(1L))
+                .thenReturn(Optional.of(new Customer(1L, "test", "1000000001")));
+        Mockito.when(rewardsLedgerService.getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class)))
+                .thenReturn(List.of());
+
+        service.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 3);
+
+        Assertions.assertTrue(disabledMeterRegistry.getMeters().isEmpty(), "Meters should not be registered");
+    }
+
+    @Test
+    public void calculateMonthlyPointsAfterMonthRollover() {
+        var customer = new Customer(1L, "test", "1000000001");
+        Mockito.when(customerRepository.getCustomerById(1L)).thenReturn(Optional.of(customer));
+        Mockito.when(rewardsLedgerService.getMonthlyOrderSummaries(anyLong(), any(RewardsPeriod.class)))
+                .thenReturn(List.of());
+        var lastDayOfJanuary = Instant.parse("2026-01-31T23:59:59Z");
+        var januaryService = new CustomerRewardsServiceImpl(rewardsLedgerService, customerCache,
+                customerRewardsCache, customerRewardsVersionService, rewardsPipelineMetrics,
+                transactionManager, Clock.fixed(lastDayOfJanuary, ZoneOffset.UTC));
+        var februaryService = new CustomerRewardsServiceImpl(rewardsLedgerService, customerCache,
+                customerRewardsCache, customerRewardsVersionService, rewardsPipelineMetrics,
+                transactionManager, Clock.fixed(lastDayOfJanuary.plusSeconds(1), ZoneOffset.UTC));
+
+        var januaryDetails = januaryService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 1);
+        var februaryDetails = februaryService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 1);
+
+        Mockito.verify(rewardsLedgerService).getMonthlyOrderSummaries(1L,
+                new RewardsPeriod(LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 31)));
+        Mockito.verify(rewardsLedgerService).getMonthlyOrderSummaries(1L,
+                new RewardsPeriod(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31)));
+        Assertions.assertEquals(12, januaryDetails.getPeriodPointsList().get(0).getPeriod(),
+                "Month is incorrect");
+        Assertions.assertEquals(1, februaryDetails.getPeriodPointsList().get(0).getPeriod(),
+                "Month is incorrect");
+    }
+
+    @Test
+    public void calculateWeeklyPointsAfterWeekRollover() {
+        var customer = new Customer(1L, "test", "1000000001");
+        Mockito.when(customerRepository.getCustomerById(1L)).thenReturn(Optional.of(customer));
+        Mockito.when(rewardsLedgerService.getWeeklyOrderSummaries(anyList(), any(RewardsPeriod.class)))
+                .thenReturn(List.of(new CustomerWeeklyOrderTotals(1L, 2924, 2L, new BigDecimal("240.00"), 220L)));
+        // Sunday 2026-01-25, the last day of ISO week 4
+        var lastSecondOfWeek = Instant.parse("2026-01-25T23:59:59Z");
+        var sundayService = new CustomerRewardsServiceImpl(rewardsLedgerService, customerCache,
+                customerRewardsCache, customerRewardsVersionService, rewardsPipelineMetrics,
+                transactionManager, Clock.fixed(lastSecondOfWeek, ZoneOffset.UTC));
+        var mondayService = new CustomerRewardsServiceImpl(rewardsLedgerService, customerCache,
+                customerRewardsCache, customerRewardsVersionService, rewardsPipelineMetrics,
+                transactionManager, Clock.fixed(lastSecondOfWeek.plusSeconds(1), ZoneOffset.UTC));
+
+        var sundayDetails = sundayService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.WEEK, 2);
+        var mondayDetails = mondayService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.WEEK, 2);
+
+        Mockito.verify(rewardsLedgerService).getWeeklyOrderSummaries(List.of(1L),
+                new RewardsPeriod(LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 19)));
+        Mockito.verify(rewardsLedgerService).getWeeklyOrderSummaries(List.of(1L),
+                new RewardsPeriod(LocalDate.of(2026, 1, 12), LocalDate.of(2026, 1, 26)));
+        Assertions.assertEquals(List.of(2, 3), sundayDetails.getPeriodPointsList().stream()
+                .map(PeriodPoints::getPeriod).toList(), "Weeks are incorrect");
+        Assertions.assertEquals(List.of(0L, 220L), sundayDetails.getPeriodPointsList().stream()
+                .map(PeriodPoints::getPoints).toList(), "Weekly points are incorrect");
+        Assertions.assertEquals(List.of(3, 4), mondayDetails.getPeriodPointsList().stream()
+                .map(PeriodPoints::getPeriod).toList(), "Weeks are incorrect");
+        Assertions.assertEquals(220, mondayDetails.getTotalPoints(), "Total rewards points is incorrect");
+    }
+
+    @Test
+    public void calculateMonthlyPointsForMultipleCustomersOnlyCalculatesMisses() {
+        var customer1 = new Customer(1L, "test", "1000000001");
+        var customer2 = new Customer(2L, "test", "1000000002");
+        Mockito.when(customerRepository.getCustomerById(1L)).thenReturn(Optional.of(customer1));
+        Mockito.when(customerRepository.findAllById(List.of(2L))).thenReturn(List.of(customer2));
+        customerRewardsService.calculateCustomerRewardsPoints(1L, RewardsPeriodType.MONTH, 3);
+
+        var customerRewardsDetailsList = customerRewardsService.calculateCustomerRewardsPoints(
+                List.of(1L, 2L), RewardsPeriodType.MONTH, 3);
+
+        Mockito.verify(customerRepository, Mockito.times(1)).findAllById(List.of(2L));
+        Mockito.verify(rewardsLedgerService, Mockito.times(1))
+                .getMonthlyOrderSummaries(List.of(2L), RewardsPeriod.ofMonths(LocalDate.now(), 3));
+        Assertions.assertEquals(List.of(1L, 2L), customerRewardsDetailsList.stream()
+                .map(customerRewardsDetails -> customerRewardsDetails.getCustomer().getId())
+                .toList(), "Customers are incorrect");
+    }
+
     @Test
     public void calculateMonthPointsWithInvalidRewardsPeriodType() {
         Assertions.assertThrows(CustomerRewardsValidationException.class, () -> {
@@ -82,4 +392,19 @@ public class CustomerRewardsServiceTest {
                     RewardsPeriodType.MONTH, 3);
         });
     }
+
+    private long getStageTimerCount(String stage) {
+        return meterRegistry.get("customer.rewards.stage").tag("stage", stage)
+                .tag("period.type", "MONTH").tag("period.length", "2-3").timer().count();
+    }
+
+    private record TestMonthlyOrderSummary(Integer getOrderYear, Integer getOrderMonth,
+                                           Long getOrderCount, BigDecimal getTotalAmount,
+                                           Long getTotalPoints)
+            implements MonthlyOrderSummary {}
+
+    private record TestCustomerMonthlyOrderSummary(Long getCustomerId, Integer getOrderYear,
+                                                   Integer getOrderMonth, Long getOrderCount,
+                                                   BigDecimal getTotalAmount, Long getTotalPoints)
+            implements CustomerMonthlyOrderSummary {}
 }
@@ -0,0 +1,106 @@
+package org.testcompany.customerrewards.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerOrderWatermarkTotals;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.repository.OrderStorage;
+import org.testcompany.customerrewards.util.RewardsRules;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+public class CustomerRewardsVersionServiceTest {
+
+    private static final LocalDate CURRENT_DATE = LocalDate.of(2026, 2, 10);
+
+    private final OrderStorage orderStorage = Mockito.mock(OrderStorage.class);
+    private final CompiledRewardsRules compiledRewardsRules = Mockito.mock(CompiledRewardsRules.class);
+    private final CustomerRewardsVersionService service =
+            new CustomerRewardsVersionServiceImpl(orderStorage, compiledRewardsRules);
+
+    @BeforeEach
+    public void setup() {
+        Mockito.when(compiledRewardsRules.get()).thenReturn(RewardsRules.DEFAULT);
+    }
+
+    @Test
+    public void versionChangesWithTheWatermark() {
+        var version = getVersion(newWatermark(2L, 1500L, "120.00", 1_767_225_600L), CURRENT_DATE);
+
+        Assertions.assertEquals(version, getVersion(newWatermark(2L, 1500L, "120.0", 1_767_225_600L),
+                CURRENT_DATE), "Version without changes is incorrect");
+        Assertions.assertNotEquals(version, getVersion(newWatermark(3L, 2500L, "150.00", 1_767_312_000L),
+                CURRENT_DATE), "Version of a new order is incorrect");
+        Assertions.assertNotEquals(version, getVersion(newWatermark(2L, 1500L, "120.50", 1_767_225_600L),
+                CURRENT_DATE), "Version of a corrected amount is incorrect");
+        Assertions.assertNotEquals(version, getVersion(newWatermark(2L, 1500L, "120.00", 1_767_312_000L),
+                CURRENT_DATE), "Version of a moved order is incorrect");
+        Assertions.assertEquals(version, getVersion(newWatermark(2L, 1500L, "120.00", 1_767_225_600L),
+                CURRENT_DATE.plusDays(5)), "Version within the month is incorrect");
+        Assertions.assertNotEquals(version, getVersion(newWatermark(2L, 1500L, "120.00", 1_767_225_600L),
+                CURRENT_DATE.plusMonths(1)), "Version of the next month is incorrect");
+    }
+
+    @Test
+    public void versionsOfCustomersWithoutOrders() {
+        Mockito.when(orderStorage.getOrderWatermarksByCustomerIds(anyCollection(), any(), any()))
+                .thenReturn(List.of(new CustomerOrderWatermarkTotals(1L, 2L, 1500L, new BigDecimal("120.00"),
+                        1_767_225_600L)));
+        var versionsByCustomerId = service.getVersions(List.of(1L, 2L), RewardsPeriodType.MONTH, 3,
+                CURRENT_DATE);
+
+        Assertions.assertEquals(getVersion(newWatermark(2L, 1500L, "120.00", 1_767_225_600L), CURRENT_DATE),
+                versionsByCustomerId.get(1L), "Version of the batch is incorrect");
+        Mockito.when(orderStorage.getOrderWatermark(anyLong(), any(), any()))
+                .thenReturn(new CustomerOrderWatermarkTotals(2L, 0L, null, null, null));
+        Assertions.assertEquals(service.getVersion(2L, RewardsPeriodType.MONTH, 3, CURRENT_DATE),
+                versionsByCustomerId.get(2L), "Version without orders is incorrect");
+    }
+
+    @Test
+    public void eTagChangesWithTheVersionAndCustomer() {
+        var version = getVersion(newWatermark(2L, 1500L, "120.00", 1_767_225_600L), CURRENT_DATE);
+        var eTag = service.getCustomerRewardsETag(version, new Customer(1L, "Test Name 1", "100-000-0001"));
+
+        Assertions.assertEquals(eTag, service.getCustomerRewardsETag(version,
+                new Customer(1L, "Test Name 1", "100-000-0001")), "ETag without changes is incorrect");
+        Assertions.assertNotEquals(eTag, service.getCustomerRewardsETag(version,
+                new Customer(1L, "Test Name 1", "100-000-0101")), "ETag of a new phone number is incorrect");
+        Assertions.assertNotEquals(eTag, service.getCustomerRewardsETag(
+                getVersion(newWatermark(3L, 2500L, "150.00", 1_767_312_000L), CURRENT_DATE),
+                new Customer(1L, "Test Name 1", "100-000-0001")), "ETag of new points is incorrect");
+    }
+
+    @Test
+    public void eTagChangesWithCustomerFieldsOfEqualHashCodes() {
+        var version = getVersion(newWatermark(2L, 1500L, "120.00", 1_767_225_600L), CURRENT_DATE);
+        // "Aa" and "BB" have the same String.hashCode
+        var eTag = service.getCustomerRewardsETag(version, new Customer(1L, "Test Aa", "100-000-0001"));
+
+        Assertions.assertNotEquals(eTag, service.getCustomerRewardsETag(version,
+                new Customer(1L, "Test BB", "100-000-0001")), "ETag of a new name is incorrect");
+        Assertions.assertNotEquals(eTag, service.getCustomerRewardsETag(version,
+                        new Customer(1L, "Test Aa1", "00-000-0001")),
+                "ETag of characters moved between the name and phone number is incorrect");
+    }
+
+    private String getVersion(CustomerOrderWatermarkTotals orderWatermark, LocalDate currentDate) {
+        Mockito.when(orderStorage.getOrderWatermark(anyLong(), any(), any())).thenReturn(orderWatermark);
+        return service.getVersion(1L, RewardsPeriodType.MONTH, 3, currentDate);
+    }
+
+    private static CustomerOrderWatermarkTotals newWatermark(Long orderCount, Long lastOrderId,
+                                                              String totalAmount, Long transactionDateSeconds) {
+        return new CustomerOrderWatermarkTotals(1L, orderCount, lastOrderId, new BigDecimal(totalAmount),
+                transactionDateSeconds);
+    }
+}
@@ -0,0 +1,173 @@
+package org.testcompany.customerrewards.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.PeriodPoints;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.generator.DataGenerator;
+import org.testcompany.customerrewards.generator.DataGeneratorSettings;
+import org.testcompany.customerrewards.repository.OrderRepository;
+import org.testcompany.customerrewards.util.CustomerRewardsUtil;
+import org.testcompany.customerrewards.util.RewardsRules;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = {"customer-rewards.order-store.enabled=true",
+        "customer-rewards.order-store.compaction-threshold=50"})
+public class InMemoryOrderStoreTest {
+
+    private static final long FIRST_CUSTOMER_ID = 700_000L;
+    private static final int CUSTOMERS = 150;
+    private static final LocalDate CURRENT_DATE = LocalDate.of(2026, 1, 15);
+
+    @Autowired
+    private InMemoryOrderStore inMemoryOrderStore;
+    @Autowired
+    private OrderSource orderSource;
+    @Autowired
+    private RewardsLedgerService rewardsLedgerService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private DataGenerator dataGenerator;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void storeMatchesRewardsLedger() {
+        generateCustomers();
+
+        Assertions.assertSame(inMemoryOrderStore, orderSource, "Order source is incorrect");
+        Assertions.assertEquals(countOrders(), inMemoryOrderStore.getOrders(), "Orders count is incorrect");
+        for (var rewardsPeriod: List.of(1, 3, 12, 24)) {
+            for (long customerId = FIRST_CUSTOMER_ID; customerId < FIRST_CUSTOMER_ID + CUSTOMERS; customerId++) {
+                assertSameRewards(customerId, RewardsPeriod.ofMonths(CURRENT_DATE, rewardsPeriod));
+            }
+        }
+        for (long customerId = 1; customerId <= 4; customerId++) {
+            assertSameRewards(customerId, RewardsPeriod.ofMonths(LocalDate.now(), 12));
+        }
+    }
+
+    @Test
+    public void weeklyQuarterlyAndYearlyRewardsMatchOrders() {
+        generateCustomers();
+
+        for (long customerId = FIRST_CUSTOMER_ID; customerId < FIRST_CUSTOMER_ID + CUSTOMERS; customerId += 7) {
+            for (var rewardsPeriodType: List.of(RewardsPeriodType.WEEK, RewardsPeriodType.QUARTER,
+                    RewardsPeriodType.YEAR)) {
+                var rewardsPeriod = RewardsPeriod.of(rewardsPeriodType, CURRENT_DATE, 12);
+                var expected = CustomerRewardsUtil.calculateCustomerRewardsPoints(customerId,
+                        orderRepository.getOrdersByCustomerIdAndTransactionDateRange(customerId,
+                                rewardsPeriod.startInstant(), rewardsPeriod.endInstant()),
+                        rewardsPeriod, rewardsPeriodType, RewardsRules.DEFAULT);
+                if (rewardsPeriodType == RewardsPeriodType.WEEK) {
+                    assertSameRewards(customerId, expected,
+                            CustomerRewardsUtil.calculateWeeklyCustomerRewardsPointsFromSummaries(customerId,
+                                    rewardsLedgerService.getWeeklyOrderSummaries(List.of(customerId),
+                                            rewardsPeriod), rewardsPeriod));
+                    assertSameRewards(customerId, expected,
+                            CustomerRewardsUtil.calculateWeeklyCustomerRewardsPointsFromSummaries(customerId,
+                                    inMemoryOrderStore.getWeeklyOrderSummaries(List.of(customerId),
+                                            rewardsPeriod), rewardsPeriod));
+                } else {
+                    assertSameRewards(customerId, expected,
+                            CustomerRewardsUtil.calculateCustomerRewardsPointsFromSummaries(customerId,
+                                    inMemoryOrderStore.getMonthlyOrderSummaries(customerId, rewardsPeriod),
+                                    rewardsPeriod, rewardsPeriodType));
+                }
+                Assertions.assertEquals(12, expected.getPeriodPointsList().size(),
+                        "Period points list size is incorrect");
+            }
+        }
+    }
+
+    @Test
+    public void storeFollowsOrderWrites() {
+        generateCustomers();
+        var customer = new Customer(FIRST_CUSTOMER_ID, null, null);
+        var rewardsPeriod = RewardsPeriod.ofMonths(CURRENT_DATE, 12);
+        var orderDate = LocalDate.of(2025, 6, 10).atStartOfDay().toInstant(ZoneOffset.UTC);
+
+        var savedOrder = orderService.saveOrder(new PurchaseOrder(null, customer, new BigDecimal("120.50"),
+                orderDate));
+        assertSameRewards(FIRST_CUSTOMER_ID, rewardsPeriod);
+
+        orderService.saveOrder(new PurchaseOrder(savedOrder.getId(), customer, new BigDecimal("75.10"),
+                orderDate.plus(40, ChronoUnit.DAYS)));
+        assertSameRewards(FIRST_CUSTOMER_ID, rewardsPeriod);
+
+        orderService.deleteOrder(savedOrder.getId());
+        assertSameRewards(FIRST_CUSTOMER_ID, rewardsPeriod);
+
+        // more orders than the compaction threshold, for existing and new customers of the store
+        var orders = new ArrayList<PurchaseOrder>();
+        for (int i = 0; i < 120; i++) {
+            orders.add(new PurchaseOrder(null, new Customer(FIRST_CUSTOMER_ID + i % 3, null, null),
+                    BigDecimal.valueOf(4_000 + i * 137L, 2), orderDate.plus(i, ChronoUnit.DAYS)));
+        }
+        orders.add(new PurchaseOrder(null, new Customer(1L, null, null), new BigDecimal("300.00"), orderDate));
+        orderService.saveOrders(orders);
+        var existingOrderId = jdbcTemplate.queryForObject("SELECT MIN(ID) FROM PURCHASE_ORDER WHERE CUSTOMER_ID = ?",
+                Long.class, FIRST_CUSTOMER_ID + 1);
+        orderService.deleteOrder(existingOrderId);
+
+        Assertions.assertEquals(countOrders(), inMemoryOrderStore.getOrders(), "Orders count is incorrect");
+        for (long customerId = FIRST_CUSTOMER_ID; customerId < FIRST_CUSTOMER_ID + 3; customerId++) {
+            assertSameRewards(customerId, rewardsPeriod);
+        }
+        assertSameRewards(1L, rewardsPeriod);
+    }
+
+    private void assertSameRewards(long customerId, RewardsPeriod rewardsPeriod) {
+        assertSameRewards(customerId,
+                CustomerRewardsUtil.calculateMonthlyCustomerRewardsPointsFromSummaries(customerId,
+                        rewardsLedgerService.getMonthlyOrderSummaries(customerId, rewardsPeriod), rewardsPeriod),
+                CustomerRewardsUtil.calculateMonthlyCustomerRewardsPointsFromSummaries(customerId,
+                        inMemoryOrderStore.getMonthlyOrderSummaries(customerId, rewardsPeriod), rewardsPeriod));
+    }
+
+    private static void assertSameRewards(long customerId, CustomerRewardsDetails expected,
+                                          CustomerRewardsDetails actual) {
+        Assertions.assertEquals(expected.getTotalAmount(), actual.getTotalAmount(),
+                "Total amount is incorrect for customer " + customerId);
+        Assertions.assertEquals(expected.getTotalPoints(), actual.getTotalPoints(),
+                "Total rewards points is incorrect for customer " + customerId);
+        Assertions.assertEquals(toPoints(expected.getPeriodPointsList()), toPoints(actual.getPeriodPointsList()),
+                "Period points are incorrect for customer " + customerId);
+    }
+
+    private void generateCustomers() {
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM CUSTOMER WHERE ID = ?", Long.class,
+                FIRST_CUSTOMER_ID) == 0) {
+            dataGenerator.generate(new DataGeneratorSettings(7L, CUSTOMERS, FIRST_CUSTOMER_ID, 10, 0.02, 100, 1.5,
+                    1_000, 0.3, 30, YearMonth.from(CURRENT_DATE), 40));
+        }
+    }
+
+    private long countOrders() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PURCHASE_ORDER", Long.class);
+    }
+
+    private static List<String> toPoints(List<PeriodPoints> monthlyPointsList) {
+        return monthlyPointsList.stream()
+                .map(monthlyPoints -> monthlyPoints.getYear() + "-" + monthlyPoints.getPeriod() + ":" +
+                        monthlyPoints.getPoints())
+                .toList();
+    }
+}
@@ -0,0 +1,201 @@
+package org.testcompany.customerrewards.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.OrderImportFormat;
+import org.testcompany.customerrewards.domain.OrderImportResult;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.repository.CustomerRepository;
+import org.testcompany.customerrewards.repository.OrderRepository;
+import org.testcompany.customerrewards.util.CustomerRewardsUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@SpringBootTest(properties = "customer-rewards.import.batch-size=10")
+@Transactional
+public class OrderImportServiceTest {
+
+    private static final Long CUSTOMER_ID = 100L;
+
+    @Autowired
+    private OrderImportService orderImportService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private RewardsLedgerService rewardsLedgerService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    public void setup() {
+        customerRepository.save(new Customer(CUSTOMER_ID, "Test Name 100", "100-000-0100"));
+        // the importer reads customers with JDBC
+        entityManager.flush();
+    }
+
+    @Test
+    public void importCsvOrders() throws IOException {
+        var transactionDate = LocalDate.now().minusMonths(1).withDayOfMonth(1).atStartOfDay()
+                .toInstant(ZoneOffset.UTC);
+        var csv = new StringBuilder("ID,CUSTOMER_ID,TRANSACTION_AMOUNT,TRANSACTION_DATE\r\n");
+        for (int i = 0; i < 25; i++) {
+            csv.append(i == 3 ? "" : 100_000 + i).append(",100,").append(45 + i * 7).append(".50,")
+                    .append(transactionDate.plusSeconds(i * 3_600L)).append("\r\n");
+        }
+        csv.append("100100,999,10.00,").append(transactionDate).append('\n')
+                .append("100101,100,10.001,").append(transactionDate).append('\n')
+                .append("100102,100,abc,").append(transactionDate).append('\n')
+                .append('\n')
+                .append("100000,100,10.00,").append(transactionDate).append('\n')
+                .append("100103,100,10.00");
+
+        var orderImportResult = orderImportService.importOrders("orders.csv", OrderImportFormat.CSV,
+                toChannel(csv.toString()));
+
+        Assertions.assertEquals(25, orderImportResult.importedOrders(), "Imported orders count is incorrect");
+        Assertions.assertEquals(5, orderImportResult.rejectedOrders(), "Rejected orders count is incorrect");
+        Assertions.assertEquals(List.of(27L, 28L, 29L, 31L, 32L), orderImportResult.rejectedRows().stream()
+                .map(OrderImportResult.RejectedRow::lineNumber).toList(), "Rejected rows are incorrect");
+        Assertions.assertEquals("Order with id: 100000 already exists",
+                orderImportResult.rejectedRows().get(3).errorMessage(), "Rejected row error message is incorrect");
+        assertLedgerMatchesOrders(25);
+    }
+
+    @Test
+    public void importNdjsonOrders() throws IOException {
+        var ndjson = """
+                {"customerId": 100, "transactionAmount": 120.00, "transactionDate": "%s"}
+                {"customerId": 100, "transactionAmount": 75.60, "transactionDate": "%s"}
+                {"customerId": 100, "transactionAmount": "x"}
+                """.formatted(LocalDate.now().minusMonths(1).atStartOfDay().toInstant(ZoneOffset.UTC),
+                LocalDate.now().minusMonths(2).atStartOfDay().toInstant(ZoneOffset.UTC));
+
+        var orderImportResult = orderImportService.importOrders("orders.ndjson", OrderImportFormat.NDJSON,
+                toChannel(ndjson));
+
+        Assertions.assertEquals(2, orderImportResult.importedOrders(), "Imported orders count is incorrect");
+        Assertions.assertEquals(List.of(3L), orderImportResult.rejectedRows().stream()
+                .map(OrderImportResult.RejectedRow::lineNumber).toList(), "Rejected rows are incorrect");
+        assertLedgerMatchesOrders(2);
+    }
+
+    @Test
+    public void resumeFailedImport() throws IOException {
+        var transactionDate = LocalDate.now().minusMonths(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        var csv = new StringBuilder("id,customerId,transactionAmount,transactionDate\n");
+        for (int i = 0; i < 95; i++) {
+            csv.append(200_000 + i).append(",100,").append(60 + i).append(",")
+                    .append(transactionDate.plusSeconds(i)).append('\n');
+        }
+        var input = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertThrows(IOException.class, () -> orderImportService.importOrders("resumed.csv",
+                OrderImportFormat.CSV, Channels.newChannel(new FailingInputStream(input, input.length / 2))));
+        Assertions.assertEquals(40, orderRepository.getOrdersByCustomerId(CUSTOMER_ID).size(),
+                "Committed orders count is incorrect");
+
+        var orderImportResult = orderImportService.importOrders("resumed.csv", OrderImportFormat.CSV,
+                Channels.newChannel(new ByteArrayInputStream(input)));
+
+        Assertions.assertEquals(95, orderImportResult.importedOrders(), "Imported orders count is incorrect");
+        Assertions.assertEquals(0, orderImportResult.rejectedOrders(), "Rejected orders count is incorrect");
+        assertLedgerMatchesOrders(95);
+
+        var completedImportResult = orderImportService.importOrders("resumed.csv", OrderImportFormat.CSV,
+                Channels.newChannel(new ByteArrayInputStream(input)));
+        Assertions.assertEquals(95, completedImportResult.importedOrders(),
+                "Completed import should not be run again");
+        assertLedgerMatchesOrders(95);
+    }
+
+    @Test
+    public void importedOrderIdsAreNotAllocated() throws IOException {
+        var transactionDate = LocalDate.now().minusMonths(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        var allocatedOrderId = orderService.saveOrder(new PurchaseOrder(null, new Customer(CUSTOMER_ID, null, null),
+                new BigDecimal("10.00"), transactionDate)).getId();
+        var importedOrderIds = List.of(allocatedOrderId + 1, allocatedOrderId + 2_500);
+        var csv = "id,customerId,transactionAmount,transactionDate\n" +
+                importedOrderIds.get(0) + ",100,20.00," + transactionDate + "\n" +
+                ",100,30.00," + transactionDate + "\n" +
+                importedOrderIds.get(1) + ",100,40.00," + transactionDate + "\n";
+
+        var orderImportResult = orderImportService.importOrders("explicit-ids.csv", OrderImportFormat.CSV,
+                toChannel(csv));
+        var savedOrder = orderService.saveOrder(new PurchaseOrder(null, new Customer(CUSTOMER_ID, null, null),
+                new BigDecimal("50.00"), transactionDate));
+        var ingestionResult = orderService.saveOrders(List.of(
+                new PurchaseOrder(null, new Customer(CUSTOMER_ID, null, null), new BigDecimal("60.00"),
+                        transactionDate),
+                new PurchaseOrder(null, new Customer(CUSTOMER_ID, null, null), new BigDecimal("70.00"),
+                        transactionDate)));
+
+        Assertions.assertEquals(3, orderImportResult.importedOrders(), "Imported orders count is incorrect");
+        Assertions.assertEquals(2, ingestionResult.acceptedOrders(), "Saved orders count is incorrect");
+        Assertions.assertTrue(savedOrder.getId() > importedOrderIds.get(1),
+                "Allocated order id should follow the imported order ids");
+        assertLedgerMatchesOrders(7);
+    }
+
+    private void assertLedgerMatchesOrders(int expectedOrders) {
+        var orders = orderRepository.getOrdersByCustomerId(CUSTOMER_ID);
+        Assertions.assertEquals(expectedOrders, orders.size(), "Orders count is incorrect");
+        for (var rewardsPeriodInMonths: List.of(1, 2, 3)) {
+            var rewardsPeriod = RewardsPeriod.ofMonths(LocalDate.now(), rewardsPeriodInMonths);
+            var expected = CustomerRewardsUtil.calculateMonthlyCustomerRewardsPoints(CUSTOMER_ID,
+                    orders, rewardsPeriod);
+            var actual = CustomerRewardsUtil.calculateMonthlyCustomerRewardsPointsFromSummaries(CUSTOMER_ID,
+                    rewardsLedgerService.getMonthlyOrderSummaries(CUSTOMER_ID, rewardsPeriod), rewardsPeriod);
+            Assertions.assertEquals(expected.getTotalAmount(), actual.getTotalAmount(),
+                    "Total amount is incorrect");
+            Assertions.assertEquals(expected.getTotalPoints(), actual.getTotalPoints(),
+                    "Total rewards points is incorrect");
+        }
+    }
+
+    private ReadableByteChannel toChannel(String input) {
+        return Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Input stream failing after the given number of bytes, like a dropped upload.
+     */
+    private static class FailingInputStream extends InputStream {
+        private final byte[] input;
+        private final int failureOffset;
+        private int position;
+
+        private FailingInputStream(byte[] input, int failureOffset) {
+            this.input = input;
+            this.failureOffset = failureOffset;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == failureOffset) {
+                throw new IOException("Connection reset");
+            }
+            return input[position++] & 0xff;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.testcompany.customerrewards.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.OrderIngestionResult;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.repository.CustomerRepository;
+import org.testcompany.customerrewards.repository.OrderRepository;
+import org.testcompany.customerrewards.util.CustomerRewardsUtil;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+public class OrderServiceTest {
+
+    private static final Long CUSTOMER_ID = 100L;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private RewardsLedgerService rewardsLedgerService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        customerRepository.save(new Customer(CUSTOMER_ID, "Test Name 100", "100-000-0100"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    public void saveOrdersReportsAcceptedAndRejectedOrders() {
+        var startDate = LocalDate.now().minusMonths(3).withDayOfMonth(1)
+                .atStartOfDay().toInstant(ZoneOffset.UTC);
+        var orders = new ArrayList<PurchaseOrder>();
+        for (int i = 0; i < 2_500; i++) {
+            orders.add(buildOrder(CUSTOMER_ID, BigDecimal.valueOf(4_000 + i * 7L, 2),
+                    startDate.plus(i, ChronoUnit.HOURS)));
+        }
+        orders.set(10, buildOrder(null, BigDecimal.TEN, startDate));
+        orders.set(1_200, buildOrder(CUSTOMER_ID, new BigDecimal("10.001"), startDate));
+        orders.set(1_500, buildOrder(999L, BigDecimal.TEN, startDate));
+        orders.set(2_499, buildOrder(CUSTOMER_ID, BigDecimal.TEN, null));
+
+        var orderIngestionResult = orderService.saveOrders(orders);
+
+        Assertions.assertEquals(2_496, orderIngestionResult.acceptedOrders(),
+                "Accepted orders count is incorrect");
+        Assertions.assertEquals(List.of(10, 1_200, 1_500, 2_499), orderIngestionResult.rejectedOrders()
+                        .stream().map(OrderIngestionResult.RejectedOrder::index).toList(),
+                "Rejected orders are incorrect");
+        Assertions.assertEquals("Customer with id: 999 not found",
+                orderIngestionResult.rejectedOrders().get(2).errorMessage(),
+                "Rejected order error message is incorrect");
+        var savedOrders = orderRepository.getOrdersByCustomerId(CUSTOMER_ID);
+        Assertions.assertEquals(2_496, new HashSet<>(savedOrders.stream()
+                .map(PurchaseOrder::getId).toList()).size(), "Saved orders ids are incorrect");
+        for (var rewardsPeriodInMonths: List.of(1, 2, 3)) {
+            var rewardsPeriod = RewardsPeriod.ofMonths(LocalDate.now(), rewardsPeriodInMonths);
+            var expected = CustomerRewardsUtil.calculateMonthlyCustomerRewardsPoints(CUSTOMER_ID,
+                    savedOrders, rewardsPeriod);
+            var actual = CustomerRewardsUtil.calculateMonthlyCustomerRewardsPointsFromSummaries(CUSTOMER_ID,
+                    rewardsLedgerService.getMonthlyOrderSummaries(CUSTOMER_ID, rewardsPeriod), rewardsPeriod);
+            Assertions.assertEquals(expected.getTotalAmount(), actual.getTotalAmount(),
+                    "Total amount is incorrect");
+            Assertions.assertEquals(expected.getTotalPoints(), actual.getTotalPoints(),
+                    "Total rewards points is incorrect");
+        }
+    }
+
+    @Test
+    public void saveOrdersBatchesInserts() {
+        var transactionDate = LocalDate.now().withDayOfMonth(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+        var orders = new ArrayList<PurchaseOrder>();
+        for (int i = 0; i < 1_000; i++) {
+            orders.add(buildOrder(CUSTOMER_ID, BigDecimal.valueOf(120), transactionDate));
+        }
+        statistics.clear();
+
+        orderService.saveOrders(orders);
+        orderRepository.count();
+
+        Assertions.assertEquals(1_000, statistics.getEntityStatistics(PurchaseOrder.class.getName())
+                .getInsertCount(), "Inserted orders count is incorrect");
+        // customer insert of the setup, one sequence call, one customer query, 10 insert
+        // batches, one ledger update and the count
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 15,
+                "Orders should be inserted in batches: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void saveOrderWithoutIdAssignsId() {
+        var savedOrder = orderService.saveOrder(buildOrder(CUSTOMER_ID, BigDecimal.valueOf(120),
+                Instant.now()));
+
+        Assertions.assertNotNull(savedOrder.getId(), "Order id should be assigned");
+        Assertions.assertTrue(orderRepository.findById(savedOrder.getId()).isPresent(),
+                "Order should be saved");
+    }
+
+    private PurchaseOrder buildOrder(Long customerId, BigDecimal transactionAmount, Instant transactionDate) {
+        return new PurchaseOrder(null, customerId == null ? null : new Customer(customerId, null, null),
+                transactionAmount, transactionDate);
+    }
+}
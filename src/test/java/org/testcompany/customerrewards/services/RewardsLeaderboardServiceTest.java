@@ -0,0 +1,67 @@
+package org.testcompany.customerrewards.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+import org.testcompany.customerrewards.repository.CustomerJdbcRepository;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class RewardsLeaderboardServiceTest {
+
+    private final CustomerJdbcRepository customerJdbcRepository = Mockito.mock(CustomerJdbcRepository.class);
+    private final RewardsLeaderboardService service = new RewardsLeaderboardServiceImpl(customerJdbcRepository,
+            Mockito.mock(RewardsLedgerService.class), Mockito.mock(CustomerCache.class),
+            Clock.fixed(Instant.parse("2026-02-10T12:00:00Z"), ZoneOffset.UTC), 4, 2, 1000, 100,
+            Duration.ofMinutes(5));
+
+    @Test
+    public void calculationDoesNotBlockOtherLeaderboards() throws Exception {
+        var calculationStarted = new CountDownLatch(1);
+        var calculationReleased = new CountDownLatch(1);
+        Mockito.when(customerJdbcRepository.findCustomerIdRange()).thenAnswer(invocation -> {
+            calculationStarted.countDown();
+            Assertions.assertTrue(calculationReleased.await(10, TimeUnit.SECONDS),
+                    "Calculation was not released");
+            return Optional.empty();
+        }).thenReturn(Optional.empty());
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var leaderboard = executor.submit(() -> service.getLeaderboard(RewardsPeriodType.MONTH, 3, 10));
+            Assertions.assertTrue(calculationStarted.await(10, TimeUnit.SECONDS), "Calculation was not started");
+            var sameLeaderboard = executor.submit(() -> service.getLeaderboard(RewardsPeriodType.MONTH, 3, 10));
+
+            Assertions.assertTrue(service.getLeaderboard(RewardsPeriodType.MONTH, 3, 5).entries().isEmpty(),
+                    "Other leaderboard is incorrect");
+            Assertions.assertFalse(leaderboard.isDone(), "Leaderboard was calculated before its release");
+
+            calculationReleased.countDown();
+            Assertions.assertEquals(leaderboard.get(10, TimeUnit.SECONDS),
+                    sameLeaderboard.get(10, TimeUnit.SECONDS), "Leaderboard of concurrent requests is incorrect");
+        } finally {
+            executor.shutdownNow();
+        }
+        Mockito.verify(customerJdbcRepository, Mockito.times(2)).findCustomerIdRange();
+    }
+
+    @Test
+    public void failedCalculationIsNotCached() {
+        Mockito.when(customerJdbcRepository.findCustomerIdRange())
+                .thenThrow(new IllegalStateException("Test failure"))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> service.getLeaderboard(RewardsPeriodType.MONTH, 3, 10), "Calculation should fail");
+        Assertions.assertTrue(service.getLeaderboard(RewardsPeriodType.MONTH, 3, 10).entries().isEmpty(),
+                "Leaderboard after a failed calculation is incorrect");
+        Mockito.verify(customerJdbcRepository, Mockito.times(2)).findCustomerIdRange();
+    }
+}
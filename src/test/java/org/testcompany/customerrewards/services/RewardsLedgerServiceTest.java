@@ -0,0 +1,122 @@
+package org.testcompany.customerrewards.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.exceptions.CustomerRewardsValidationException;
+import org.testcompany.customerrewards.repository.CustomerRepository;
+import org.testcompany.customerrewards.repository.OrderRepository;
+import org.testcompany.customerrewards.util.CustomerRewardsUtil;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@SpringBootTest
+@Transactional
+public class RewardsLedgerServiceTest {
+
+    private static final Long CUSTOMER_ID = 100L;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private RewardsLedgerService rewardsLedgerService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    private Customer customer;
+
+    @BeforeEach
+    public void setup() {
+        customer = customerRepository.save(new Customer(CUSTOMER_ID, "Test Name 100", "100-000-0100"));
+    }
+
+    @Test
+    public void ledgerMatchesOrdersAfterWrites() {
+        var today = LocalDate.now();
+        var firstDayOfMonth = today.withDayOfMonth(1);
+        // orders on both sides of the month boundaries and of the last day of last month
+        saveOrder(101L, "120.00", firstDayOfMonth.minusDays(1), 23);
+        saveOrder(102L, "75.60", firstDayOfMonth.minusDays(2), 0);
+        saveOrder(103L, "50.01", firstDayOfMonth, 0);
+        saveOrder(104L, "100.00", firstDayOfMonth.minusMonths(1), 0);
+        saveOrder(105L, "99.99", firstDayOfMonth.minusMonths(1).minusDays(1), 12);
+        saveOrder(106L, "300.50", firstDayOfMonth.minusMonths(3).plusDays(10), 6);
+        saveOrder(107L, "110.20", firstDayOfMonth.minusMonths(13), 6);
+        assertLedgerMatchesOrders();
+
+        // correction moving an order to another month with another amount
+        saveOrder(106L, "49.99", firstDayOfMonth.minusMonths(2).plusDays(3), 6);
+        assertLedgerMatchesOrders();
+
+        orderService.deleteOrder(105L);
+        orderService.deleteOrder(102L);
+        assertLedgerMatchesOrders();
+    }
+
+    @Test
+    public void rebuildRegeneratesLedger() {
+        var firstDayOfMonth = LocalDate.now().withDayOfMonth(1);
+        saveOrder(101L, "120.00", firstDayOfMonth.minusDays(5), 1);
+        saveOrder(102L, "150.00", firstDayOfMonth.minusMonths(2), 1);
+        var rewardsPeriod = RewardsPeriod.ofMonths(LocalDate.now(), 240);
+        var expected = toCustomerRewardsDetails(rewardsPeriod);
+
+        rewardsLedgerService.rebuild();
+
+        assertSameRewards(expected, toCustomerRewardsDetails(rewardsPeriod));
+        assertLedgerMatchesOrders();
+    }
+
+    @Test
+    public void saveOrderWithTooManyDecimals() {
+        Assertions.assertThrows(CustomerRewardsValidationException.class, () ->
+                saveOrder(101L, "99.999", LocalDate.now(), 0));
+    }
+
+    private void saveOrder(Long orderId, String amount, LocalDate transactionDate, int hour) {
+        orderService.saveOrder(new PurchaseOrder(orderId, customer, new BigDecimal(amount),
+                transactionDate.atStartOfDay().toInstant(ZoneOffset.UTC).plus(hour, ChronoUnit.HOURS)));
+    }
+
+    private void assertLedgerMatchesOrders() {
+        var orders = orderRepository.getOrdersByCustomerId(CUSTOMER_ID);
+        for (var rewardsPeriodInMonths: List.of(1, 2, 3, 12, 240)) {
+            var rewardsPeriod = RewardsPeriod.ofMonths(LocalDate.now(), rewardsPeriodInMonths);
+            assertSameRewards(CustomerRewardsUtil.calculateMonthlyCustomerRewardsPoints(
+                    CUSTOMER_ID, orders, rewardsPeriod), toCustomerRewardsDetails(rewardsPeriod));
+        }
+    }
+
+    private CustomerRewardsDetails toCustomerRewardsDetails(RewardsPeriod rewardsPeriod) {
+        return CustomerRewardsUtil.calculateMonthlyCustomerRewardsPointsFromSummaries(CUSTOMER_ID,
+                rewardsLedgerService.getMonthlyOrderSummaries(CUSTOMER_ID, rewardsPeriod), rewardsPeriod);
+    }
+
+    private void assertSameRewards(CustomerRewardsDetails expected, CustomerRewardsDetails actual) {
+        Assertions.assertEquals(expected.getTotalAmount(), actual.getTotalAmount(),
+                "Total amount is incorrect");
+        Assertions.assertEquals(expected.getTotalPoints(), actual.getTotalPoints(),
+                "Total rewards points is incorrect");
+        Assertions.assertEquals(toPointsList(expected), toPointsList(actual),
+                "Customer rewards monthly points list is incorrect");
+    }
+
+    private List<List<Long>> toPointsList(CustomerRewardsDetails customerRewardsDetails) {
+        return customerRewardsDetails.getPeriodPointsList().stream()
+                .map(monthlyPoints -> List.of(monthlyPoints.getPoints(),
+                        (long) monthlyPoints.getPeriod(), (long) monthlyPoints.getYear()))
+                .toList();
+    }
+}
@@ -0,0 +1,134 @@
+package org.testcompany.customerrewards.services;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.domain.RewardsStatementPartition;
+import org.testcompany.customerrewards.domain.RewardsStatementPartitionId;
+import org.testcompany.customerrewards.generator.DataGenerator;
+import org.testcompany.customerrewards.generator.DataGeneratorSettings;
+import org.testcompany.customerrewards.repository.CustomerJdbcRepository;
+import org.testcompany.customerrewards.repository.RewardsStatementJdbcRepository;
+import org.testcompany.customerrewards.repository.RewardsStatementPartitionRepository;
+import org.testcompany.customerrewards.util.CustomerRewardsUtil;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+@SpringBootTest
+public class RewardsStatementServiceTest {
+
+    private static final long FIRST_CUSTOMER_ID = 900_000L;
+    private static final int CUSTOMERS = 200;
+    private static final RewardsPeriod REWARDS_PERIOD = RewardsPeriod.ofMonths(LocalDate.of(2026, 1, 15), 12);
+
+    @Autowired
+    private DataGenerator dataGenerator;
+    @Autowired
+    private RewardsLedgerService rewardsLedgerService;
+    @Autowired
+    private CustomerJdbcRepository customerJdbcRepository;
+    @Autowired
+    private RewardsStatementJdbcRepository rewardsStatementJdbcRepository;
+    @Autowired
+    private RewardsStatementPartitionRepository rewardsStatementPartitionRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void generateStatementsMatchesRewardsCalculation() {
+        generateCustomers();
+        var rewardsStatementService = newRewardsStatementService(3, 2, 7);
+
+        var result = rewardsStatementService.generateStatements("statement-1", REWARDS_PERIOD);
+
+        Assertions.assertEquals(3, result.partitions(), "Partitions count is incorrect");
+        Assertions.assertEquals(countCustomers(), result.statements(), "Statements count is incorrect");
+        Assertions.assertEquals(result.statements(), countStatements("statement-1"),
+                "Statement rows count is incorrect");
+        for (long customerId = FIRST_CUSTOMER_ID; customerId < FIRST_CUSTOMER_ID + CUSTOMERS; customerId++) {
+            var expected = CustomerRewardsUtil.calculateMonthlyCustomerRewardsPointsFromSummaries(customerId,
+                    rewardsLedgerService.getMonthlyOrderSummaries(customerId, REWARDS_PERIOD), REWARDS_PERIOD);
+            var statement = findStatement("statement-1", customerId);
+            Assertions.assertEquals(0, expected.getTotalAmount().compareTo(statement.totalAmount()),
+                    "Total amount is incorrect for customer " + customerId);
+            Assertions.assertEquals(expected.getTotalPoints().longValue(), statement.totalPoints(),
+                    "Total rewards points is incorrect for customer " + customerId);
+        }
+
+        var rerun = rewardsStatementService.generateStatements("statement-1", REWARDS_PERIOD);
+        Assertions.assertEquals(result.statements(), rerun.statements(), "Statements count is incorrect");
+        Assertions.assertEquals(result.statements(), countStatements("statement-1"),
+                "Completed statement should not be run again");
+    }
+
+    @Test
+    public void generateStatementsResumesPartitionsAfterCheckpoint() {
+        generateCustomers();
+        var resumeCustomerId = FIRST_CUSTOMER_ID + CUSTOMERS / 2;
+        var completedPartition = new RewardsStatementPartition(
+                new RewardsStatementPartitionId("statement-2", 0), 0L, FIRST_CUSTOMER_ID - 1);
+        completedPartition.setCompleted(true);
+        var resumedPartition = new RewardsStatementPartition(
+                new RewardsStatementPartitionId("statement-2", 1), FIRST_CUSTOMER_ID,
+                FIRST_CUSTOMER_ID + CUSTOMERS - 1);
+        resumedPartition.setNextCustomerId(resumeCustomerId);
+        rewardsStatementPartitionRepository.saveAll(List.of(completedPartition, resumedPartition));
+
+        var result = newRewardsStatementService(4, 2, 50)
+                .generateStatements("statement-2", REWARDS_PERIOD);
+
+        var expectedStatements = CUSTOMERS - CUSTOMERS / 2L;
+        Assertions.assertEquals(2, result.partitions(), "Partitions count is incorrect");
+        Assertions.assertEquals(expectedStatements, result.statements(), "Statements count is incorrect");
+        Assertions.assertEquals(expectedStatements, countStatements("statement-2"),
+                "Statement rows count is incorrect");
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM REWARDS_STATEMENT " +
+                        "WHERE STATEMENT_ID = ? AND CUSTOMER_ID < ?", Long.class, "statement-2", resumeCustomerId),
+                "Statements before the checkpoint should not be written again");
+    }
+
+    private void generateCustomers() {
+        if (countCustomersInRange() == 0) {
+            dataGenerator.generate(new DataGeneratorSettings(11L, CUSTOMERS, FIRST_CUSTOMER_ID, 8, 0.01, 100, 1.5,
+                    1_000, 0.3, 24, YearMonth.of(2026, 1), 500));
+        }
+    }
+
+    private RewardsStatementServiceImpl newRewardsStatementService(int partitions, int threads, int chunkSize) {
+        return new RewardsStatementServiceImpl(customerJdbcRepository, rewardsStatementJdbcRepository,
+                rewardsStatementPartitionRepository, rewardsLedgerService, transactionManager, partitions, threads,
+                chunkSize);
+    }
+
+    private long countCustomers() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM CUSTOMER", Long.class);
+    }
+
+    private long countCustomersInRange() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM CUSTOMER WHERE ID BETWEEN ? AND ?", Long.class,
+                FIRST_CUSTOMER_ID, FIRST_CUSTOMER_ID + CUSTOMERS - 1);
+    }
+
+    private long countStatements(String statementId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM REWARDS_STATEMENT WHERE STATEMENT_ID = ?",
+                Long.class, statementId);
+    }
+
+    private Statement findStatement(String statementId, long customerId) {
+        return jdbcTemplate.queryForObject("SELECT TOTAL_AMOUNT, TOTAL_POINTS FROM REWARDS_STATEMENT " +
+                        "WHERE STATEMENT_ID = ? AND CUSTOMER_ID = ?",
+                (resultSet, rowNum) -> new Statement(resultSet.getBigDecimal(1), resultSet.getLong(2)),
+                statementId, customerId);
+    }
+
+    private record Statement(BigDecimal totalAmount, long totalPoints) {}
+}
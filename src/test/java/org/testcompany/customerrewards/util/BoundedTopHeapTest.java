@@ -0,0 +1,42 @@
+package org.testcompany.customerrewards.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class BoundedTopHeapTest {
+
+    @Test
+    public void keepsGreatestElements() {
+        var random = new SplittableRandom(42);
+        var elements = new ArrayList<Integer>();
+        var topHeap = new BoundedTopHeap<Integer>(10, Comparator.naturalOrder());
+        for (int i = 0; i < 10_000; i++) {
+            var element = random.nextInt(1_000);
+            elements.add(element);
+            topHeap.offer(element);
+        }
+        elements.sort(Comparator.reverseOrder());
+
+        Assertions.assertEquals(elements.subList(0, 10), topHeap.toSortedList(), "Top elements are incorrect");
+    }
+
+    @Test
+    public void mergesHeaps() {
+        var topHeap = new BoundedTopHeap<Integer>(3, Comparator.naturalOrder());
+        var otherTopHeap = new BoundedTopHeap<Integer>(3, Comparator.naturalOrder());
+        topHeap.offer(5);
+        topHeap.offer(1);
+        otherTopHeap.offer(7);
+        otherTopHeap.offer(2);
+        otherTopHeap.offer(4);
+
+        topHeap.offerAll(otherTopHeap);
+
+        Assertions.assertEquals(List.of(7, 5, 4), topHeap.toSortedList(), "Top elements are incorrect");
+    }
+}
@@ -104,10 +104,10 @@ public class CustomerRewardsUtilTest {
                 "Customer rewards description should not be null");
         Assertions.assertNotNull(customerRewardsDetails.getRewardsPeriodType(),
                 "Customer rewards period type should not be null");
-        Assertions.assertNotNull(customerRewardsDetails.getMonthlyPointsList(),
+        Assertions.assertNotNull(customerRewardsDetails.getPeriodPointsList(),
                 "Customer rewards monthly points list should not be null");
         Assertions.assertEquals(monthlyPointsListSize, customerRewardsDetails
-                        .getMonthlyPointsList().size(),
+                        .getPeriodPointsList().size(),
                 "Customer rewards monthly points list size is incorrect");
         Assertions.assertEquals(totalPoints, customerRewardsDetails.getTotalPoints(),
                 "Total rewards points is incorrect");
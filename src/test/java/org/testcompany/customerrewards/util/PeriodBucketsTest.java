@@ -0,0 +1,62 @@
+package org.testcompany.customerrewards.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.testcompany.customerrewards.domain.RewardsPeriod;
+import org.testcompany.customerrewards.domain.RewardsPeriodType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+
+public class PeriodBucketsTest {
+
+    @Test
+    public void weekBucketsAreIsoWeeks() {
+        for (var date = LocalDate.of(1969, 12, 1); date.isBefore(LocalDate.of(2031, 1, 1)); date = date.plusDays(1)) {
+            var bucket = PeriodBuckets.toBucket(RewardsPeriodType.WEEK, Math.toIntExact(date.toEpochDay()));
+            var startDate = PeriodBuckets.getStartDate(RewardsPeriodType.WEEK, bucket);
+            Assertions.assertEquals(DayOfWeek.MONDAY, startDate.getDayOfWeek(), "Week start day is incorrect");
+            Assertions.assertTrue(!date.isBefore(startDate) && date.isBefore(startDate.plusWeeks(1)),
+                    "Week of " + date + " is incorrect");
+            Assertions.assertEquals(date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR),
+                    PeriodBuckets.getPeriod(RewardsPeriodType.WEEK, bucket), "Week of " + date + " is incorrect");
+            Assertions.assertEquals(date.get(IsoFields.WEEK_BASED_YEAR),
+                    PeriodBuckets.getYear(RewardsPeriodType.WEEK, bucket), "Year of " + date + " is incorrect");
+        }
+    }
+
+    @Test
+    public void quarterAndYearBuckets() {
+        for (var date = LocalDate.of(1968, 1, 1); date.isBefore(LocalDate.of(2031, 1, 1)); date = date.plusDays(1)) {
+            var epochDay = Math.toIntExact(date.toEpochDay());
+            var quarter = PeriodBuckets.toBucket(RewardsPeriodType.QUARTER, epochDay);
+            Assertions.assertEquals(date.get(IsoFields.QUARTER_OF_YEAR),
+                    PeriodBuckets.getPeriod(RewardsPeriodType.QUARTER, quarter), "Quarter of " + date + " is incorrect");
+            Assertions.assertEquals(date.getYear(), PeriodBuckets.getYear(RewardsPeriodType.QUARTER, quarter),
+                    "Year of " + date + " is incorrect");
+            var year = PeriodBuckets.toBucket(RewardsPeriodType.YEAR, epochDay);
+            Assertions.assertEquals(date.getYear(), PeriodBuckets.getYear(RewardsPeriodType.YEAR, year),
+                    "Year of " + date + " is incorrect");
+        }
+    }
+
+    @Test
+    public void rewardsPeriodsCoverWholeBuckets() {
+        var currentDate = LocalDate.of(2026, 1, 15);
+
+        Assertions.assertEquals(new RewardsPeriod(LocalDate.of(2025, 12, 15), LocalDate.of(2026, 1, 12)),
+                RewardsPeriod.of(RewardsPeriodType.WEEK, currentDate, 4), "Weekly rewards period is incorrect");
+        Assertions.assertEquals(new RewardsPeriod(LocalDate.of(2025, 4, 1), LocalDate.of(2026, 1, 1)),
+                RewardsPeriod.of(RewardsPeriodType.QUARTER, currentDate, 3), "Quarterly rewards period is incorrect");
+        Assertions.assertEquals(new RewardsPeriod(LocalDate.of(2024, 1, 1), LocalDate.of(2026, 1, 1)),
+                RewardsPeriod.of(RewardsPeriodType.YEAR, currentDate, 2), "Yearly rewards period is incorrect");
+        for (var rewardsPeriodType: new RewardsPeriodType[] {RewardsPeriodType.WEEK, RewardsPeriodType.QUARTER,
+                RewardsPeriodType.YEAR}) {
+            var rewardsPeriod = RewardsPeriod.of(rewardsPeriodType, currentDate, 7);
+            Assertions.assertEquals(7, PeriodBuckets.getBucketCount(rewardsPeriodType,
+                    Math.toIntExact(rewardsPeriod.startDate().toEpochDay()),
+                    Math.toIntExact(rewardsPeriod.endDate().toEpochDay())), "Bucket count is incorrect");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.testcompany.customerrewards.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.testcompany.customerrewards.domain.Customer;
+import org.testcompany.customerrewards.domain.CustomerRewardsDetails;
+import org.testcompany.customerrewards.domain.PurchaseOrder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class RewardsPointsEngineTest {
+
+    private static final List<String> BOUNDARY_AMOUNTS = List.of("0", "0.01", "49.99", "50",
+            "50.00", "50.01", "50.99", "51.00", "75.6", "99.99", "99.999", "100", "100.0", "100.00",
+            "100.001", "100.01", "100.99", "101.00", "110.20", "120", "300.50", "9999999999999.99");
+
+    @Test
+    public void calculatePointsForBoundaryAmounts() {
+        Assertions.assertEquals(0, RewardsPointsEngine.calculatePoints(50_00));
+        Assertions.assertEquals(0, RewardsPointsEngine.calculatePoints(50_01));
+        Assertions.assertEquals(49, RewardsPointsEngine.calculatePoints(99_99));
+        Assertions.assertEquals(50, RewardsPointsEngine.calculatePoints(100_00));
+        Assertions.assertEquals(50, RewardsPointsEngine.calculatePoints(100_01));
+        Assertions.assertEquals(90, RewardsPointsEngine.calculatePoints(120_00));
+        for (var amount: BOUNDARY_AMOUNTS) {
+            assertSamePoints(new BigDecimal(amount));
+        }
+    }
+
+    @Test
+    public void calculatePointsForAllCentAmountsUpTo500() {
+        for (long amountInCents = 0; amountInCents <= 500_00; amountInCents++) {
+            assertSamePoints(BigDecimal.valueOf(amountInCents, 2));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 7L, 42L, 20260101L, 987654321L})
+    public void calculatePointsForRandomAmounts(long seed) {
+        var random = new Random(seed);
+        for (int i = 0; i < 10_000; i++) {
+            assertSamePoints(randomAmount(random));
+        }
+    }
+
+    @Test
+    public void toEpochMonthMatchesLocalDate() {
+        var startDate = LocalDate.of(1900, 1, 1);
+        var endDate = LocalDate.of(2200, 1, 1);
+        for (var date = startDate; date.isBefore(endDate); date = date.plusDays(1)) {
+            var epochMonth = RewardsPointsEngine.toEpochMonth(Math.toIntExact(date.toEpochDay()));
+            Assertions.assertEquals(date.getYear(), RewardsPointsEngine.getYear(epochMonth),
+                    "Year is incorrect for " + date);
+            Assertions.assertEquals(date.getMonthValue(), RewardsPointsEngine.getMonth(epochMonth),
+                    "Month is incorrect for " + date);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L, 7L, 42L, 20260101L, 987654321L})
+    public void calculateMonthlyCustomerRewardsPointsMatchesBigDecimalImplementation(long seed) {
+        var random = new Random(seed);
+        var customer = new Customer(1L, "Test Name 1", "100-000-0001");
+        var today = LocalDate.now();
+        for (int run = 0; run < 200; run++) {
+            var rewardsPeriodInMonths = 1 + random.nextInt(240);
+            var orders = new ArrayList<PurchaseOrder>();
+            var ordersCount = random.nextInt(50);
+            for (int i = 0; i < ordersCount; i++) {
+                orders.add(new PurchaseOrder((long) i, customer, randomAmount(random),
+                        randomTransactionDate(random, today, rewardsPeriodInMonths)));
+            }
+
+            var expected = LegacyCustomerRewardsUtil.calculateMonthlyCustomerRewardsPoints(
+                    1L, orders, rewardsPeriodInMonths);
+            var actual = CustomerRewardsUtil.calculateMonthlyCustomerRewardsPoints(
+                    1L, orders, rewardsPeriodInMonths);
+
+            Assertions.assertEquals(expected.getTotalAmount(), actual.getTotalAmount(),
+                    "Total amount is incorrect");
+            Assertions.assertEquals(expected.getTotalPoints(), actual.getTotalPoints(),
+                    "Total rewards points is incorrect");
+            Assertions.assertEquals(toPointsList(expected), toPointsList(actual),
+                    "Customer rewards monthly points list is incorrect");
+        }
+    }
+
+    private void assertSamePoints(BigDecimal amount) {
+        var expected = LegacyCustomerRewardsUtil.calculateMonthlyCustomerRewardsPoints(1L,
+                List.of(buildOrderInLastMonth(amount)), 1);
+        Assertions.assertEquals(expected.getTotalPoints(),
+                RewardsPointsEngine.calculatePoints(RewardsPointsEngine.toCents(amount)),
+                "Rewards points are incorrect for amount " + amount);
+    }
+
+    private PurchaseOrder buildOrderInLastMonth(BigDecimal amount) {
+        var lastMonthDate = LocalDate.now().minusMonths(1).withDayOfMonth(1)
+                .atStartOfDay().toInstant(ZoneOffset.UTC);
+        return new PurchaseOrder(1L, new Customer(1L, "Test Name 1", "100-000-0001"),
+                amount, lastMonthDate);
+    }
+
+    private BigDecimal randomAmount(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> new BigDecimal(BOUNDARY_AMOUNTS.get(random.nextInt(BOUNDARY_AMOUNTS.size())));
+            case 1 -> BigDecimal.valueOf(4_900 + random.nextInt(5_200), 2);
+            case 2 -> BigDecimal.valueOf(random.nextInt(10_000_000), random.nextInt(4));
+            default -> BigDecimal.valueOf(random.nextLong(1_000_000_000_000L), 2);
+        };
+    }
+
+    private Instant randomTransactionDate(Random random, LocalDate today, int rewardsPeriodInMonths) {
+        var earliestDate = today.minusMonths(rewardsPeriodInMonths + 1L);
+        var days = today.toEpochDay() - earliestDate.toEpochDay() + 1;
+        return earliestDate.atStartOfDay().toInstant(ZoneOffset.UTC)
+                .plusSeconds(random.nextLong(days * 86_400L));
+    }
+
+    private List<List<Long>> toPointsList(CustomerRewardsDetails customerRewardsDetails) {
+        return customerRewardsDetails.getPeriodPointsList().stream()
+                .map(monthlyPoints -> List.of(monthlyPoints.getPoints(),
+                        (long) monthlyPoints.getPeriod(), (long) monthlyPoints.getYear()))
+                .toList();
+    }
+}
@@ -0,0 +1,104 @@
+package org.testcompany.customerrewards.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.testcompany.customerrewards.domain.RewardsTier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RewardsRulesTest {
+
+    private static final LocalDate SECOND_VERSION = LocalDate.of(2026, 3, 1);
+
+    @Test
+    public void defaultRulesMatchHistoricalRules() {
+        for (long amountInCents = -1_00; amountInCents <= 2_000_00; amountInCents++) {
+            var historicalPoints = amountInCents >= 100_00 ? (amountInCents - 100_00) / 100 * 2 + 50
+                    : amountInCents > 50_00 ? (amountInCents - 50_00) / 100 : 0;
+            Assertions.assertEquals(historicalPoints, RewardsRules.DEFAULT.calculatePoints(0, amountInCents),
+                    "Rewards points of " + amountInCents + " cents is incorrect");
+        }
+        Assertions.assertEquals(List.of(
+                new RewardsRules.Segment(LocalDate.EPOCH, RewardsRules.END_OF_TIME, 50, 100, 0, 1),
+                new RewardsRules.Segment(LocalDate.EPOCH, RewardsRules.END_OF_TIME, 100, Long.MAX_VALUE, 50, 2)),
+                RewardsRules.DEFAULT.getSegments(), "Rewards rules segments are incorrect");
+    }
+
+    @Test
+    public void calculatePointsWithManyTiers() {
+        var tiers = new ArrayList<RewardsTier>();
+        for (int i = 0; i < 1_000; i++) {
+            tiers.add(new RewardsTier(LocalDate.EPOCH, BigDecimal.valueOf(i * 10L), i % 3));
+        }
+        var rules = RewardsRules.compile(tiers);
+
+        long expected = 0;
+        for (long dollars = 0; dollars <= 12_000; dollars++) {
+            var amountInCents = dollars * 100 + dollars % 100;
+            Assertions.assertEquals(expected, rules.calculatePoints(0, amountInCents),
+                    "Rewards points of " + amountInCents + " cents is incorrect");
+            expected += Math.min(dollars / 10, 999) % 3;
+        }
+        Assertions.assertEquals(1_000, rules.getSegments().size(), "Rewards rules segments count is incorrect");
+    }
+
+    @Test
+    public void calculatePointsByEffectiveDate() {
+        var rules = RewardsRules.compile(List.of(
+                new RewardsTier(SECOND_VERSION, new BigDecimal("25"), 3),
+                new RewardsTier(LocalDate.of(2020, 1, 1), new BigDecimal("50.00"), 1),
+                new RewardsTier(LocalDate.of(2020, 1, 1), new BigDecimal("100.00"), 2)));
+        var secondVersionDay = Math.toIntExact(SECOND_VERSION.toEpochDay());
+
+        Assertions.assertEquals(2, rules.getVersions(), "Rewards rules versions count is incorrect");
+        Assertions.assertEquals(0, rules.calculatePoints(Math.toIntExact(LocalDate.of(2019, 12, 31).toEpochDay()),
+                120_00), "Rewards points before the first version is incorrect");
+        Assertions.assertEquals(90, rules.calculatePoints(secondVersionDay - 1, 120_00),
+                "Rewards points of the first version is incorrect");
+        Assertions.assertEquals(285, rules.calculatePoints(secondVersionDay, 120_99),
+                "Rewards points of the second version is incorrect");
+        Assertions.assertEquals(0, rules.calculatePoints(secondVersionDay, 25_99),
+                "Rewards points of the second version is incorrect");
+        Assertions.assertEquals(SECOND_VERSION, rules.getSegments().getFirst().effectiveTo(),
+                "Rewards rules segment end is incorrect");
+    }
+
+    @Test
+    public void compileRejectsInvalidTiers() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RewardsRules.compile(List.of()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RewardsRules.compile(List.of(
+                new RewardsTier(LocalDate.EPOCH, new BigDecimal("50.50"), 1))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RewardsRules.compile(List.of(
+                new RewardsTier(LocalDate.EPOCH, new BigDecimal("-1"), 1))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RewardsRules.compile(List.of(
+                new RewardsTier(LocalDate.EPOCH, new BigDecimal("1000001"), 1))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RewardsRules.compile(List.of(
+                new RewardsTier(LocalDate.EPOCH, new BigDecimal("50"), -1))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RewardsRules.compile(List.of(
+                new RewardsTier(LocalDate.EPOCH, new BigDecimal("50"), 1),
+                new RewardsTier(LocalDate.EPOCH, new BigDecimal("50.00"), 2))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RewardsRules.compile(List.of(
+                new RewardsTier(LocalDate.EPOCH, new BigDecimal("0"), 5_000),
+                new RewardsTier(LocalDate.EPOCH, new BigDecimal("1000000"), 0))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> RewardsRules.compile(List.of(
+                new RewardsTier(LocalDate.EPOCH, new BigDecimal("0"), 1_000_000))));
+    }
+
+    @Test
+    public void calculatePointsAboveTheIntRange() {
+        var rules = RewardsRules.compile(List.of(
+                new RewardsTier(LocalDate.EPOCH, new BigDecimal("0"), 2_000),
+                new RewardsTier(LocalDate.EPOCH, new BigDecimal("1000000"), 1_000)));
+
+        Assertions.assertEquals(2_000_000_000L, rules.calculatePoints(0, 1_000_000_00L),
+                "Rewards points at the highest threshold is incorrect");
+        Assertions.assertEquals(2_000_000_000L + 1_000L * (RewardsRules.MAX_ORDER_DOLLARS - 1_000_000),
+                rules.calculatePoints(0, RewardsRules.MAX_ORDER_DOLLARS * 100 + 99),
+                "Rewards points of the highest order amount is incorrect");
+        Assertions.assertEquals(2L * (1_500_000_000 - 100) + 50, RewardsRules.DEFAULT.calculatePoints(0,
+                1_500_000_000_00L), "Rewards points above the int range is incorrect");
+    }
+}